@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -59,6 +64,8 @@ import org.eclipse.debug.core.model.RuntimeProcess;
 import org.eclipse.debug.internal.core.BreakpointManager;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.DebugOptions;
+import org.eclipse.debug.internal.core.EventListenerMonitor;
+import org.eclipse.debug.internal.core.EventListenerMonitor.Dispatch;
 import org.eclipse.debug.internal.core.ExpressionManager;
 import org.eclipse.debug.internal.core.IConfigurationElementConstants;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
@@ -66,6 +73,7 @@ import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.internal.core.LogicalStructureManager;
 import org.eclipse.debug.internal.core.MemoryBlockManager;
 import org.eclipse.debug.internal.core.Preferences;
+import org.eclipse.debug.internal.core.ProcessIOExecutor;
 import org.eclipse.debug.internal.core.StepFilterManager;
 import org.eclipse.debug.internal.core.commands.CommandAdapterFactory;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
@@ -360,6 +368,14 @@ public class DebugPlugin extends Plugin {
 	 */
 	private ListenerList fEventListeners = new ListenerList();
 
+	/**
+	 * Delivery lanes of registered listeners implementing
+	 * {@link IAsynchronousDebugEventSetListener}, keyed by listener.
+	 *
+	 * @since 3.10
+	 */
+	private ConcurrentMap<IDebugEventSetListener, EventLaneJob> fEventLanes = new ConcurrentHashMap<IDebugEventSetListener, EventLaneJob>();
+
 	/**
 	 * Event filters, or <code>null</code> if none.
 	 */
@@ -392,11 +408,35 @@ public class DebugPlugin extends Plugin {
 
 	/**
 	 * Queue of debug events to fire to listeners and asynchronous runnables to execute
-	 * in the order received.
+	 * in the order received. The queue is lock free, events are added by any thread
+	 * and removed by the event dispatch job only.
 	 *
 	 * @since 3.1
 	 */
-	private List<Object> fEventQueue = new ArrayList<Object>();
+	private Queue<Object> fEventQueue = new ConcurrentLinkedQueue<Object>();
+
+	/**
+	 * Number of elements in the event queue, maintained separately as the
+	 * size of the queue is not a constant time operation.
+	 *
+	 * @since 3.10
+	 */
+	private AtomicInteger fEventQueueSize = new AtomicInteger();
+
+	/**
+	 * Element of the event queue recording when it was queued, only used when
+	 * event queue tracing is enabled.
+	 *
+	 * @since 3.10
+	 */
+	static class TimedQueueElement {
+		final Object fElement;
+		final long fQueued = System.currentTimeMillis();
+
+		TimedQueueElement(Object element) {
+			fElement = element;
+		}
+	}
 
 	/**
 	 * Job to fire events to listeners.
@@ -427,23 +467,68 @@ public class DebugPlugin extends Plugin {
          */
         @Override
 		protected IStatus run(IProgressMonitor monitor) {
-
-            while (!fEventQueue.isEmpty()) {
-                Object next = null;
-	            synchronized (fEventQueue) {
-	                if (!fEventQueue.isEmpty()) {
-	                	next = fEventQueue.remove(0);
-	                }
-	            }
+        	int dispatched = 0;
+        	int coalesced = 0;
+        	int maxDepth = 0;
+        	long maxLatency = 0;
+        	Object next = fEventQueue.poll();
+            while (next != null) {
+            	maxDepth = Math.max(maxDepth, fEventQueueSize.getAndDecrement());
+            	if (next instanceof TimedQueueElement) {
+            		TimedQueueElement element = (TimedQueueElement) next;
+            		maxLatency = Math.max(maxLatency, System.currentTimeMillis() - element.fQueued);
+            		next = element.fElement;
+            	}
 	            if (next instanceof Runnable) {
 	            	fRunner.async((Runnable) next);
-	            } else if (next != null) {
-	                fNotifier.dispatch((DebugEvent[]) next);
+	            } else {
+	            	DebugEvent[] events = (DebugEvent[]) next;
+	            	// drop identical change notifications queued right after this one
+	            	while (isDuplicateChange(events, fEventQueue.peek())) {
+	            		fEventQueue.poll();
+	            		fEventQueueSize.decrementAndGet();
+	            		coalesced++;
+	            	}
+	                fNotifier.dispatch(events);
+	                dispatched++;
 	            }
+	            next = fEventQueue.poll();
+            }
+            if (DebugOptions.DEBUG_EVENT_QUEUE && (dispatched > 0 || coalesced > 0)) {
+            	DebugOptions.trace(DebugOptions.DEBUG_FLAG_EVENT_QUEUE, "Dispatched " + dispatched + " event sets, coalesced " + coalesced + ", max queue depth " + maxDepth + ", max latency " + maxLatency + "ms", null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
             }
             return Status.OK_STATUS;
         }
 
+        /**
+         * Returns whether the given queue element is an event set equivalent to
+         * the given event set that only reports a change in an element. Such
+         * sets can be dropped when they immediately follow each other, as
+         * listeners would refresh the same element twice.
+         *
+         * @param events event set being dispatched
+         * @param element next element of the event queue or <code>null</code>
+         * @return whether <code>element</code> duplicates the given change
+         */
+        private boolean isDuplicateChange(DebugEvent[] events, Object element) {
+        	if (element instanceof TimedQueueElement) {
+        		element = ((TimedQueueElement) element).fElement;
+        	}
+        	if (events.length != 1 || !(element instanceof DebugEvent[])) {
+        		return false;
+        	}
+        	DebugEvent[] next = (DebugEvent[]) element;
+        	if (next.length != 1) {
+        		return false;
+        	}
+        	DebugEvent event = events[0];
+        	DebugEvent nextEvent = next[0];
+        	return event.getKind() == DebugEvent.CHANGE && nextEvent.getKind() == DebugEvent.CHANGE
+        			&& event.getDetail() == nextEvent.getDetail()
+        			&& event.getSource() == nextEvent.getSource()
+        			&& event.getData() == null && nextEvent.getData() == null;
+        }
+
         /* (non-Javadoc)
          * @see org.eclipse.core.runtime.jobs.Job#shouldRun()
          */
@@ -461,6 +546,101 @@ public class DebugPlugin extends Plugin {
 
 	}
 
+	/**
+	 * Delivers event sets to a single asynchronous listener, in the order
+	 * they were fired.
+	 *
+	 * @since 3.10
+	 */
+	class EventLaneJob extends Job implements ISafeRunnable {
+
+		private final IDebugEventSetListener fLaneListener;
+		private final Queue<DebugEvent[]> fLaneQueue = new ConcurrentLinkedQueue<DebugEvent[]>();
+		private volatile boolean fStopped = false;
+		private DebugEvent[] fLaneEvents;
+
+		/**
+		 * Creates a new delivery lane for the given listener.
+		 *
+		 * @param listener asynchronous debug event listener
+		 */
+		EventLaneJob(IDebugEventSetListener listener) {
+			super(MessageFormat.format(DebugCoreMessages.DebugPlugin_9, new Object[] { listener.getClass().getName() }));
+			fLaneListener = listener;
+			setPriority(Job.INTERACTIVE);
+			setSystem(true);
+		}
+
+		/**
+		 * Queues the given event set for delivery.
+		 *
+		 * @param events debug events
+		 */
+		void post(DebugEvent[] events) {
+			fLaneQueue.offer(events);
+			schedule();
+		}
+
+		/**
+		 * Discards queued event sets and stops delivery.
+		 */
+		void stop() {
+			fStopped = true;
+			fLaneQueue.clear();
+			cancel();
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			EventListenerMonitor listenerMonitor = EventListenerMonitor.getDefault();
+			DebugEvent[] events = fLaneQueue.poll();
+			while (events != null && !fStopped) {
+				fLaneEvents = events;
+				Dispatch dispatch = listenerMonitor.begin(fLaneListener);
+				SafeRunner.run(this);
+				listenerMonitor.end(dispatch);
+				events = fLaneQueue.poll();
+			}
+			fLaneEvents = null;
+			return Status.OK_STATUS;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.ISafeRunnable#run()
+		 */
+		@Override
+		public void run() throws Exception {
+			fLaneListener.handleDebugEvents(fLaneEvents);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.ISafeRunnable#handleException(java.lang.Throwable)
+		 */
+		@Override
+		public void handleException(Throwable exception) {
+			log(new Status(IStatus.ERROR, getUniqueIdentifier(), ERROR, DebugCoreMessages.DebugPlugin_8, exception));
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#shouldRun()
+		 */
+		@Override
+		public boolean shouldRun() {
+			return shouldSchedule();
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.internal.jobs.InternalJob#shouldSchedule()
+		 */
+		@Override
+		public boolean shouldSchedule() {
+			return !(isShuttingDown() || fStopped);
+		}
+	}
+
 	/**
 	 * Returns the singleton instance of the debug plug-in.
 	 *
@@ -506,11 +686,22 @@ public class DebugPlugin extends Plugin {
 	 * Adds the given listener to the collection of registered debug
 	 * event listeners. Has no effect if an identical listener is already
 	 * registered.
+	 * <p>
+	 * Since 3.10, listeners implementing {@link IAsynchronousDebugEventSetListener}
+	 * are notified on their own delivery lane.
+	 * </p>
 	 *
 	 * @param listener the listener to add
 	 * @since 2.0
 	 */
 	public void addDebugEventListener(IDebugEventSetListener listener) {
+		if (listener instanceof IAsynchronousDebugEventSetListener && !fEventLanes.containsKey(listener)) {
+			EventLaneJob lane = new EventLaneJob(listener);
+			if (fEventLanes.putIfAbsent(listener, lane) != null) {
+				// added concurrently
+				lane.stop();
+			}
+		}
 		fEventListeners.add(listener);
 	}
 
@@ -528,10 +719,7 @@ public class DebugPlugin extends Plugin {
 		if (isShuttingDown() || events == null || fEventListeners.isEmpty()) {
 			return;
 		}
-		synchronized (fEventQueue) {
-			fEventQueue.add(events);
-		}
-		fEventDispatchJob.schedule();
+		queue(events);
 	}
 
 	/**
@@ -544,9 +732,18 @@ public class DebugPlugin extends Plugin {
 	 * @since 2.1
 	 */
 	public void asyncExec(Runnable r) {
-		synchronized (fEventQueue) {
-			fEventQueue.add(r);
-		}
+		queue(r);
+	}
+
+	/**
+	 * Adds the given event set or runnable to the event queue and schedules
+	 * the event dispatch job.
+	 *
+	 * @param element debug event set or runnable
+	 */
+	private void queue(Object element) {
+		fEventQueue.offer(DebugOptions.DEBUG_EVENT_QUEUE ? new TimedQueueElement(element) : element);
+		fEventQueueSize.incrementAndGet();
 		fEventDispatchJob.schedule();
 	}
 
@@ -646,6 +843,11 @@ public class DebugPlugin extends Plugin {
 	 */
 	public void removeDebugEventListener(IDebugEventSetListener listener) {
 		fEventListeners.remove(listener);
+		EventLaneJob lane = fEventLanes.remove(listener);
+		if (lane != null) {
+			lane.stop();
+		}
+		EventListenerMonitor.getDefault().remove(listener);
 	}
 
 	/* (non-Javadoc)
@@ -668,8 +870,14 @@ public class DebugPlugin extends Plugin {
 
 			fEventListeners.clear();
             fEventFilters.clear();
+			for (EventLaneJob lane : fEventLanes.values()) {
+				lane.stop();
+			}
+			fEventLanes.clear();
+			EventListenerMonitor.shutdown();
 
 			SourceLookupUtils.shutdown();
+			ProcessIOExecutor.shutdown();
 			Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 			ResourcesPlugin.getWorkspace().removeSaveParticipant(getUniqueIdentifier());
 		} finally {
@@ -713,6 +921,8 @@ public class DebugPlugin extends Plugin {
 		manager.registerAdapters(actionFactory, ILaunch.class);
 		manager.registerAdapters(actionFactory, IProcess.class);
 		manager.registerAdapters(actionFactory, IDebugElement.class);
+		// index launch configurations before they are first accessed
+		LaunchManager.scheduleIndexing();
 	}
 
 	/**
@@ -1192,9 +1402,17 @@ public class DebugPlugin extends Plugin {
 					DebugOptions.trace(fEvents[i].toString());
 				}
 			}
+			EventListenerMonitor listenerMonitor = EventListenerMonitor.getDefault();
 			for (int i= 0; i < listeners.length; i++) {
 				fListener = (IDebugEventSetListener)listeners[i];
-                SafeRunner.run(this);
+				EventLaneJob lane = fEventLanes.get(fListener);
+				if (lane != null) {
+					lane.post(fEvents);
+				} else {
+					Dispatch dispatch = listenerMonitor.begin(fListener);
+					SafeRunner.run(this);
+					listenerMonitor.end(dispatch);
+				}
 			}
 			fEvents = null;
 			fFilter = null;
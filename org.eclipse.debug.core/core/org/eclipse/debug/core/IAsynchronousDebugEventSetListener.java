@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core;
+
+/**
+ * A debug event set listener that receives event sets on its own delivery
+ * lane rather than on the job dispatching events to all other listeners.
+ * <p>
+ * Listeners that may take a long time to handle events (for example listeners
+ * querying a debug model) should implement this interface so they do not
+ * delay event notification of other listeners. Event sets are delivered to
+ * an asynchronous listener in the order they were fired, one at a time, but
+ * in no particular order relative to other listeners or to runnables
+ * executed with {@link DebugPlugin#asyncExec(Runnable)}. Event sets already
+ * queued for a listener are discarded when it is removed.
+ * </p>
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ * @see DebugPlugin#addDebugEventListener(IDebugEventSetListener)
+ * @since 3.10
+ */
+public interface IAsynchronousDebugEventSetListener extends IDebugEventSetListener {
+
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core;
+
+import org.eclipse.debug.core.model.IBinaryStreamMonitor;
+
+/**
+ * A binary stream listener is notified of the raw bytes appended
+ * to a stream monitor, before any character decoding has been performed.
+ * <p>
+ * Listeners that forward output to a byte oriented sink (for example a
+ * console output stream or a file) should prefer this interface over
+ * {@link IStreamListener} to avoid decoding and re-encoding the stream
+ * contents.
+ * </p>
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ * @see IBinaryStreamMonitor
+ * @since 3.10
+ */
+public interface IBinaryStreamListener {
+
+	/**
+	 * Notifies this listener that bytes have been appended to the given
+	 * stream monitor.
+	 * <p>
+	 * The given array is owned by the stream monitor and is reused for
+	 * subsequent reads. It is only valid for the duration of this call and
+	 * must neither be modified nor retained by the listener.
+	 * </p>
+	 * <p>
+	 * Listeners are notified on the thread reading the stream. A listener that
+	 * cannot keep up with the output may block to apply backpressure: no more
+	 * output is read from the stream until the listener returns.
+	 * </p>
+	 *
+	 * @param data buffer containing the appended bytes
+	 * @param offset offset of the first appended byte in <code>data</code>
+	 * @param length number of appended bytes
+	 * @param monitor the stream monitor to which bytes were appended
+	 */
+	public void streamAppended(byte[] data, int offset, int length, IBinaryStreamMonitor monitor);
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IPersistableSourceLocator;
 import org.eclipse.debug.core.model.IProcess;
@@ -527,6 +528,29 @@ public interface ILaunchManager {
 	 */
 	public void removeLaunchListener(ILaunchListener listener);
 
+	/**
+	 * Saves the given launch configuration working copies together, as if
+	 * {@link ILaunchConfigurationWorkingCopy#doSave()} was called on each of
+	 * them, and returns the saved launch configurations.
+	 * <p>
+	 * Changes to workspace files are made in a single workspace operation and
+	 * working copies of local configurations may be written in parallel.
+	 * Launch configuration listeners are notified once all working copies have
+	 * been saved, of at most one addition, change or removal per
+	 * configuration. When a working copy cannot be saved, the other working
+	 * copies are still saved and an exception describing all failures is
+	 * thrown after listeners have been notified.
+	 * </p>
+	 *
+	 * @param workingCopies the working copies to save
+	 * @param monitor progress monitor or <code>null</code>
+	 * @return the saved launch configurations, in the order of the given
+	 *         working copies
+	 * @throws CoreException if one or more working copies could not be saved
+	 * @since 3.10
+	 */
+	public ILaunchConfiguration[] saveLaunchConfigurations(ILaunchConfigurationWorkingCopy[] workingCopies, IProgressMonitor monitor) throws CoreException;
+
 }
 
 
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import org.eclipse.debug.core.IBinaryStreamListener;
+
+/**
+ * Extension to a stream monitor that notifies listeners of the raw bytes
+ * read from the underlying stream.
+ * <p>
+ * A stream monitor only decodes its contents into characters when text
+ * is requested, i.e. when {@link org.eclipse.debug.core.IStreamListener}s
+ * are registered or the contents are buffered. Clients that only register
+ * binary listeners therefore avoid the cost of an intermediate
+ * <code>String</code> per chunk of output.
+ * </p>
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ * @see IBinaryStreamListener
+ * @since 3.10
+ */
+public interface IBinaryStreamMonitor extends IStreamMonitor {
+
+	/**
+	 * Adds the given binary listener to this stream monitor's registered
+	 * listeners. Has no effect if an identical listener is already registered.
+	 *
+	 * @param listener the listener to add
+	 */
+	public void addBinaryListener(IBinaryStreamListener listener);
+
+	/**
+	 * Removes the given binary listener from this stream monitor's registered
+	 * listeners. Has no effect if the listener is not already registered.
+	 *
+	 * @param listener the listener to remove
+	 */
+	public void removeBinaryListener(IBinaryStreamListener listener);
+}
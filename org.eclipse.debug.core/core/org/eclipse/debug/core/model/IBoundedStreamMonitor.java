@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+/**
+ * A flushable stream monitor that limits the amount of contents it buffers.
+ * When the buffered contents exceed the capacity, the oldest characters are
+ * discarded. Portions of the buffered contents can be retrieved without
+ * copying the entire contents.
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ * @since 3.10
+ */
+public interface IBoundedStreamMonitor extends IFlushableStreamMonitor {
+
+	/**
+	 * Sets the maximum number of characters buffered by this monitor. When
+	 * the buffered contents exceed the capacity, the oldest characters are
+	 * discarded.
+	 *
+	 * @param capacity the maximum number of characters to buffer, or
+	 *            <code>0</code> for no limit
+	 */
+	public void setBufferCapacity(int capacity);
+
+	/**
+	 * Returns the maximum number of characters buffered by this monitor, or
+	 * <code>0</code> if there is no limit.
+	 *
+	 * @return the maximum number of characters buffered by this monitor
+	 */
+	public int getBufferCapacity();
+
+	/**
+	 * Returns the number of characters currently buffered by this monitor.
+	 *
+	 * @return the number of buffered characters
+	 */
+	public int getContentsLength();
+
+	/**
+	 * Returns a range of the buffered contents. The offset is relative to the
+	 * oldest buffered character, the last <code>n</code> characters can be
+	 * retrieved with <code>getContents(getContentsLength() - n, n)</code>.
+	 *
+	 * @param offset offset of the first character to return
+	 * @param length number of characters to return
+	 * @return the buffered contents in the given range
+	 * @exception IndexOutOfBoundsException if the range is not within the
+	 *                buffered contents
+	 */
+	public String getContents(int offset, int length);
+
+	/**
+	 * Returns the number of characters that have been discarded by this
+	 * monitor because the buffer capacity was exceeded.
+	 *
+	 * @return the number of discarded characters
+	 */
+	public long getDroppedLength();
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.DebugException;
+
+/**
+ * Optional enhancements to {@link IMemoryBlockExtension}. Allows bytes to be
+ * retrieved into packed arrays of values and flags instead of one
+ * {@link MemoryByte} per byte, which avoids creating an object per byte when
+ * large regions of memory are displayed.
+ * <p>
+ * Clients may optionally implement this interface when providing implementations of
+ * {@link IMemoryBlockExtension}. Clients retrieving memory should use this
+ * interface when it is available and fall back to
+ * {@link IMemoryBlockExtension#getBytesFromAddress(BigInteger, long)} otherwise.
+ * </p>
+ * @since 3.10
+ * @see org.eclipse.debug.core.model.MemoryByte
+ */
+public interface IMemoryBlockExtension2 extends IMemoryBlockExtension {
+
+	/**
+	 * Retrieves bytes from this memory block based on the given address and
+	 * the addressable size of this memory block, as
+	 * {@link IMemoryBlockExtension#getBytesFromAddress(BigInteger, long)} does.
+	 * <p>
+	 * The value of each byte is stored in <code>values</code>, and its state
+	 * in <code>flags</code> at the same index, as a combination of the
+	 * {@link MemoryByte} flags such as {@link MemoryByte#READABLE}. Bytes are
+	 * stored from index <code>offset</code>, and the number of bytes stored
+	 * must be equal to <code>units</code> * <code>getAddressableSize()</code>.
+	 * Bytes outside the accessible range of this memory block should have
+	 * the <code>READABLE</code> flag turned off. An exception should not be
+	 * thrown in this case.
+	 * </p>
+	 * @param address address at which to begin retrieving bytes in terms
+	 *  of addressable units
+	 * @param units is the number of addressable units of memory to retrieve
+	 * @param values array receiving the values of the bytes
+	 * @param flags array receiving the flags of the bytes
+	 * @param offset index in <code>values</code> and <code>flags</code> of the
+	 *  first byte to store
+	 * @throws DebugException if unable to retrieve the specified bytes due to
+	 *  a failure communicating with the target
+	 * @see MemoryByte
+	 */
+	public void getBytesFromAddress(BigInteger address, long units, byte[] values, byte[] flags, int offset) throws DebugException;
+}
@@ -26,6 +26,7 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.NullStreamsProxy;
+import org.eclipse.debug.internal.core.ProcessIOExecutor;
 import org.eclipse.debug.internal.core.StreamsProxy;
 
 
@@ -67,7 +68,7 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 	 * The monitor which listens for this runtime process' system process
 	 * to terminate.
 	 */
-	private ProcessMonitorThread fMonitor;
+	private ProcessMonitor fMonitor;
 
 	/**
 	 * The streams proxy for this process
@@ -121,7 +122,7 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 		fCaptureOutput = !("false".equals(captureOutput)); //$NON-NLS-1$
 
 		fStreamsProxy= createStreamsProxy();
-		fMonitor = new ProcessMonitorThread(this);
+		fMonitor = new ProcessMonitor(this);
 		fMonitor.start();
 		launch.addProcess(this);
 		fireCreationEvent();
@@ -383,10 +384,10 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 	}
 
 	/**
-	 * Monitors a system process, waiting for it to terminate, and
-	 * then notifies the associated runtime process.
+	 * Monitors a system process, waiting for it to terminate on a
+	 * process I/O thread, and then notifies the associated runtime process.
 	 */
-	class ProcessMonitorThread extends Thread {
+	class ProcessMonitor implements Runnable {
 
 		/**
 		 * Whether the thread has been told to exit.
@@ -413,7 +414,7 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 		private final Object fThreadLock = new Object();
 
 		/**
-		 * @see Thread#run()
+		 * @see Runnable#run()
 		 */
 		@Override
 		public void run() {
@@ -434,22 +435,31 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 					fRuntimeProcess.terminated();
 				}
 			}
-			fThread = null;
+			synchronized (fThreadLock) {
+				// the thread is reused once this task completes
+				fThread = null;
+				fExit = true;
+			}
 		}
 
 		/**
-		 * Creates a new process monitor and starts monitoring the process for
-		 * termination.
+		 * Creates a new process monitor. Monitoring the process for
+		 * termination starts with {@link #start()}.
 		 *
 		 * @param process process to monitor for termination
 		 */
-		public ProcessMonitorThread(RuntimeProcess process) {
-			super(DebugCoreMessages.ProcessMonitorJob_0);
-			setDaemon(true);
+		public ProcessMonitor(RuntimeProcess process) {
 			fRuntimeProcess= process;
 			fOSProcess= process.getSystemProcess();
 		}
 
+		/**
+		 * Starts waiting for the process to terminate.
+		 */
+		public void start() {
+			ProcessIOExecutor.getDefault().execute(this, DebugCoreMessages.ProcessMonitorJob_0, Thread.NORM_PRIORITY);
+		}
+
 		/**
 		 * Kills the monitoring thread.
 		 *
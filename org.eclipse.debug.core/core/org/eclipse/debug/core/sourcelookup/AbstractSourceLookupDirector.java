@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2013 IBM Corporation and others.
+ *  Copyright (c) 2004, 2015 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -32,6 +32,8 @@ import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.IStatusHandler;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.sourcelookup.containers.DefaultSourceContainer;
+import org.eclipse.debug.internal.core.DebugOptions;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -50,6 +52,12 @@ import com.ibm.icu.text.MessageFormat;
  * of changes in the source containers (i.e. when the set of source
  * containers changes).
  * <p>
+ * The source elements found by participants that extend
+ * {@link AbstractSourceLookupParticipant} are cached by source name. The cache
+ * is cleared when the source containers or participants of this director
+ * change, and when resources are added to or removed from the workspace.
+ * </p>
+ * <p>
  * When a source director is initialized, it adds it self as a launch listener,
  * and automatically disposes itself when its associated launch is removed
  * from the launch manager. If a source director is instantiated by a client
@@ -78,6 +86,8 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 	protected ILaunchConfiguration fConfig;
 	//whether duplicates should be searched for or not
 	protected boolean fDuplicates = false;
+	// whether participants search source containers in parallel
+	private volatile boolean fParallelSearch = false;
 	// source path computer, or null if default
 	protected ISourcePathComputer fComputer = null;
 	/**
@@ -87,6 +97,8 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 	protected Map<Object, Object> fResolvedElements = null;
 	// current participant performing lookup or <code>null</code>
 	private ISourceLookupParticipant fCurrentParticipant;
+	// source elements found by participants, created on first lookup
+	private SourceLookupCache fSourceLookupCache;
 
 	protected static final IStatus fPromptStatus = new Status(IStatus.INFO, "org.eclipse.debug.ui", 200, "", null);  //$NON-NLS-1$//$NON-NLS-2$
 	protected static final IStatus fResolveDuplicatesStatus = new Status(IStatus.INFO, "org.eclipse.debug.ui", 205, "", null);  //$NON-NLS-1$//$NON-NLS-2$
@@ -226,6 +238,12 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		}
 		fSourceContainers = null;
 		fResolvedElements = null;
+		if (fSourceLookupCache != null) {
+			if (DebugOptions.DEBUG_SOURCE_LOOKUP) {
+				DebugOptions.trace(DebugOptions.DEBUG_FLAG_SOURCE_LOOKUP, fSourceLookupCache.toString(), null);
+			}
+			fSourceLookupCache.clear();
+		}
 	}
 
 	/**
@@ -285,6 +303,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		if (!fParticipants.contains(participant)) {
 			fParticipants.add(participant);
 			participant.init(this);
+			clearSourceLookupCache();
 		}
 	}
 
@@ -317,6 +336,38 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		fDuplicates = duplicates;
 	}
 
+	/**
+	 * Returns whether participants that extend
+	 * {@link AbstractSourceLookupParticipant} search the source containers of
+	 * this director in parallel.
+	 *
+	 * @return whether source containers are searched in parallel
+	 * @since 3.10
+	 */
+	public boolean isParallelSearch() {
+		return fParallelSearch;
+	}
+
+	/**
+	 * Sets whether participants that extend
+	 * {@link AbstractSourceLookupParticipant} search the source containers of
+	 * this director in parallel. Searches run on a shared pool with a bounded
+	 * number of threads. Source elements are still returned in the order of
+	 * the source containers. When duplicates are not searched for, a match
+	 * cancels the searches of the following source containers that have not
+	 * started yet.
+	 * <p>
+	 * Parallel search is off by default. It must only be enabled when all
+	 * source containers of this director support concurrent searches.
+	 * </p>
+	 *
+	 * @param parallel whether to search source containers in parallel
+	 * @since 3.10
+	 */
+	public void setParallelSearch(boolean parallel) {
+		fParallelSearch = parallel;
+	}
+
 	/**
 	 * Removes the given participant from the list of registered participants.
 	 * Has no effect if an identical participant is not already registered.
@@ -326,6 +377,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 	private synchronized void removeSourceLookupParticipant(ISourceLookupParticipant participant) {
 		if (fParticipants.remove(participant)) {
 			participant.dispose();
+			clearSourceLookupCache();
 		}
 	}
 
@@ -473,6 +525,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 				ISourceContainer container = containers[i];
 				container.init(this);
 			}
+			clearSourceLookupCache();
 		}
 		// clear resolved duplicates
 		fResolvedElements = null;
@@ -792,6 +845,29 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		}
 	}
 
+	/**
+	 * Returns the cache of the source elements found by the participants of
+	 * this director.
+	 *
+	 * @return source lookup cache
+	 */
+	synchronized SourceLookupCache getSourceLookupCache() {
+		if (fSourceLookupCache == null) {
+			fSourceLookupCache = new SourceLookupCache();
+		}
+		return fSourceLookupCache;
+	}
+
+	/**
+	 * Clears the source elements cached for the participants of this
+	 * director.
+	 */
+	private synchronized void clearSourceLookupCache() {
+		if (fSourceLookupCache != null) {
+			fSourceLookupCache.clear();
+		}
+	}
+
 	/**
 	 * Sets the current participant or <code>null</code> if none.
 	 *
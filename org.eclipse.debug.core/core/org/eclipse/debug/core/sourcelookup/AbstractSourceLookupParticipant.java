@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2013 IBM Corporation and others.
+ *  Copyright (c) 2000, 2015 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -17,6 +17,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.sourcelookup.SourceContainerSearch;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 
 
@@ -62,13 +64,38 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 		}
 		String name = getSourceName(object);
 		if (name != null) {
+			SourceLookupCache cache = getSourceLookupCache();
+			long stamp = 0;
+			if (cache != null) {
+				Object[] cached = cache.get(this, name, results != null);
+				if (cached != null) {
+					return cached;
+				}
+				stamp = cache.getStamp();
+			}
 			ISourceContainer[] containers = getSourceContainers();
-			for (int i = 0; i < containers.length; i++) {
-				try {
-					ISourceContainer container = getDelegateContainer(containers[i]);
-					if (container != null) {
-						Object[] objects = container.findSourceElements(name);
-						if (objects.length > 0) {
+			SourceContainerSearch search = null;
+			if (containers.length > 1 && isParallelSearch()) {
+				ISourceContainer[] delegates = new ISourceContainer[containers.length];
+				for (int i = 0; i < containers.length; i++) {
+					delegates[i] = getDelegateContainer(containers[i]);
+				}
+				search = new SourceContainerSearch(name, delegates, results != null);
+			}
+			try {
+				for (int i = 0; i < containers.length; i++) {
+					try {
+						Object[] objects = null;
+						if (search != null) {
+							// results are collected in container order
+							objects = search.getResult(i);
+						} else {
+							ISourceContainer container = getDelegateContainer(containers[i]);
+							if (container != null) {
+								objects = container.findSourceElements(name);
+							}
+						}
+						if (objects != null && objects.length > 0) {
 							//it will only not be null when we care about duplicates
 							//saves the computation in isFindDuplicates()
 							if (results != null) {
@@ -76,23 +103,36 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 									results.add(objects[j]);
 								}
 							} else {
-								if (objects.length == 1) {
-									return objects;
+								if (objects.length > 1) {
+									objects = new Object[]{objects[0]};
+								}
+								if (cache != null) {
+									cache.put(this, name, false, objects, stamp);
 								}
-								return new Object[]{objects[0]};
+								return objects;
 							}
 						}
-					}
-				} catch (CoreException e) {
-					if (single == null) {
-						single = e;
-					} else if (multiStatus == null) {
-						multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
-						multiStatus.add(e.getStatus());
-					} else {
-						multiStatus.add(e.getStatus());
+					} catch (CoreException e) {
+						if (single == null) {
+							single = e;
+						} else if (multiStatus == null) {
+							multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
+							multiStatus.add(e.getStatus());
+						} else {
+							multiStatus.add(e.getStatus());
+						}
 					}
 				}
+			} finally {
+				if (search != null) {
+					// lower priority searches are not needed once a match is returned
+					search.cancel(0);
+				}
+			}
+			// errors and missing source are not cached so that the search is
+			// retried, as source may be added outside the workspace
+			if (cache != null && single == null && results != null && !results.isEmpty()) {
+				cache.put(this, name, true, results.toArray(), stamp);
 			}
 		}
 		if (results == null) {
@@ -106,6 +146,35 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 		return results.toArray();
 	}
 
+	/**
+	 * Returns whether this participant's source lookup director is configured
+	 * to search source containers in parallel.
+	 *
+	 * @return whether to search source containers in parallel
+	 */
+	private boolean isParallelSearch() {
+		ISourceLookupDirector director = getDirector();
+		if (director instanceof AbstractSourceLookupDirector) {
+			return ((AbstractSourceLookupDirector) director).isParallelSearch();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the cache of source elements of this participant's source
+	 * lookup director, or <code>null</code> if the director does not cache
+	 * source elements.
+	 *
+	 * @return source lookup cache or <code>null</code>
+	 */
+	private SourceLookupCache getSourceLookupCache() {
+		ISourceLookupDirector director = getDirector();
+		if (director instanceof AbstractSourceLookupDirector) {
+			return ((AbstractSourceLookupDirector) director).getSourceLookupCache();
+		}
+		return null;
+	}
+
 	/**
 	 * Returns the source container to search in place of the given source
 	 * container, or <code>null</code> if the given source container is not
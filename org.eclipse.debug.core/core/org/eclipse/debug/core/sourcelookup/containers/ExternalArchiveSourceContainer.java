@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,6 @@ package org.eclipse.debug.core.sourcelookup.containers;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -26,6 +24,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveIndex;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 
@@ -46,6 +45,10 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	private Set<String> fPotentialRoots = null;
 	private List<String> fRoots = new ArrayList<String>();
 	private String fArchivePath = null;
+	/**
+	 * Whether this container references its shared archive
+	 */
+	private volatile boolean fAcquired = false;
 	/**
 	 * Unique identifier for the external archive source container type
 	 * (value <code>org.eclipse.debug.core.containerType.externalArchive</code>).
@@ -81,8 +84,8 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	public Object[] findSourceElements(String name) throws CoreException {
 		String newname = name.replace('\\', '/');
 		ZipFile file = getArchive();
-		// NOTE: archive can be closed between get (above) and synchronized block (below)
-		synchronized (file) {
+		// the archive is read without locking, and can be closed while it is read
+		try {
 			boolean isQualfied = newname.indexOf('/') > 0;
 			if (fDetectRoots && isQualfied) {
 				ZipEntry entry = searchRoots(file, newname);
@@ -91,26 +94,21 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 				}
 			} else {
 				// try exact match
-				ZipEntry entry = null;
-				try {
-					entry = file.getEntry(newname);
-				} catch (IllegalStateException e) {
-					// archive was closed between retrieving and locking
-					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-							e.getMessage(), e));
-				}
+				ZipEntry entry = file.getEntry(newname);
 				if (entry != null) {
 					// can't be any duplicates if there is an exact match
 					return new Object[]{new ZipEntryStorage(file, entry)};
 				}
-				// search
-				Enumeration<? extends ZipEntry> entries = file.entries();
+				// search the entries with the same simple name
 				List<ZipEntryStorage> matches = null;
-				while (entries.hasMoreElements()) {
-					entry = entries.nextElement();
-					String entryName = entry.getName();
+				for (String entryName : SourceLookupUtils.getArchiveIndex(fArchivePath, file).getEntries(ArchiveIndex.getSimpleName(newname))) {
 					if (entryName.endsWith(newname)) {
 						if (isQualfied || entryName.length() == newname.length() || entryName.charAt(entryName.length() - newname.length() - 1) == '/') {
+							entry = file.getEntry(entryName);
+							if (entry == null) {
+								// the index is newer than the open archive
+								continue;
+							}
 							if (isFindDuplicates()) {
 								if (matches == null) {
 									matches = new ArrayList<ZipEntryStorage>();
@@ -126,6 +124,10 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 					return matches.toArray();
 				}
 			}
+		} catch (IllegalStateException e) {
+			// archive was closed while it was read
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+					e.getMessage(), e));
 		}
 		return EMPTY;
 	}
@@ -138,37 +140,11 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	 * @param file zip file to search in
 	 * @param name file name
 	 * @return the {@link ZipEntry} with the given name or <code>null</code>
-	 * @exception CoreException if an exception occurs while detecting the root
 	 */
-	private ZipEntry searchRoots(ZipFile file, String name) throws CoreException {
+	private synchronized ZipEntry searchRoots(ZipFile file, String name) {
 		if (fPotentialRoots == null) {
-			fPotentialRoots = new HashSet<String>();
-			fPotentialRoots.add(""); //$NON-NLS-1$
 			// all potential roots are the directories
-			try {
-				Enumeration<? extends ZipEntry> entries = file.entries();
-				while (entries.hasMoreElements()) {
-					ZipEntry entry = entries.nextElement();
-					if (entry.isDirectory()) {
-						fPotentialRoots.add(entry.getName());
-					} else {
-						String entryName = entry.getName();
-						int index = entryName.lastIndexOf("/"); //$NON-NLS-1$
-						while (index > 0) {
-							if (fPotentialRoots.add(entryName.substring(0, index + 1))) {
-								entryName = entryName.substring(0, index);
-								index = entryName.lastIndexOf("/"); //$NON-NLS-1$
-							} else {
-								break;
-							}
-						}
-					}
-				}
-			} catch (IllegalStateException e) {
-				// archive was closed between retrieving and locking
-				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-					e.getMessage(), e));
-			}
+			fPotentialRoots = SourceLookupUtils.getArchiveIndex(fArchivePath, file).getDirectories();
 		}
 		int i = 0;
 		while (i < fRoots.size()) {
@@ -205,13 +181,23 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	}
 
 	/**
-	 * Returns the archive to search in.
+	 * Returns the archive to search in. The shared archive is referenced by
+	 * this container until it is disposed.
 	 * @return the {@link ZipFile} to search in
 	 *
 	 * @throws CoreException if unable to access the archive
 	 */
 	private ZipFile getArchive() throws CoreException {
 		try {
+			if (!fAcquired) {
+				synchronized (this) {
+					if (!fAcquired) {
+						ZipFile file = SourceLookupUtils.acquireZipFile(fArchivePath);
+						fAcquired = true;
+						return file;
+					}
+				}
+			}
 			return SourceLookupUtils.getZipFile(fArchivePath);
 		} catch (IOException e) {
 			File file = new File(fArchivePath);
@@ -270,11 +256,15 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	 * @see org.eclipse.debug.core.sourcelookup.ISourceContainer#dispose()
 	 */
 	@Override
-	public void dispose() {
+	public synchronized void dispose() {
 		super.dispose();
 		if (fPotentialRoots != null) {
 			fPotentialRoots.clear();
 		}
 		fRoots.clear();
+		if (fAcquired) {
+			SourceLookupUtils.releaseZipFile(fArchivePath);
+			fAcquired = false;
+		}
 	}
 }
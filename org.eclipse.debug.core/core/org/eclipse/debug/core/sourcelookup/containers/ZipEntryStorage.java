@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 
 /**
  * Storage implementation for zip entries.
@@ -40,7 +41,7 @@ public class ZipEntryStorage extends PlatformObject implements IStorage {
 	/**
 	 * Zip file associated with zip entry
 	 */
-	private ZipFile fArchive;
+	private volatile ZipFile fArchive;
 
 	/**
 	 * Zip entry
@@ -65,7 +66,20 @@ public class ZipEntryStorage extends PlatformObject implements IStorage {
 	@Override
 	public InputStream getContents() throws CoreException {
 		try {
-			return getArchive().getInputStream(getZipEntry());
+			// a shared archive is kept open until the stream is closed
+			ZipFile archive = getArchive();
+			try {
+				return SourceLookupUtils.getInputStream(archive, getZipEntry());
+			} catch (IllegalStateException e) {
+				// the shared archive has been closed, open it again
+				archive = SourceLookupUtils.acquireZipFile(archive.getName());
+				try {
+					setArchive(archive);
+					return SourceLookupUtils.getInputStream(archive, getZipEntry());
+				} finally {
+					SourceLookupUtils.releaseZipFile(archive.getName());
+				}
+			}
 		} catch (IOException e) {
 			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, SourceLookupMessages.ZipEntryStorage_0, e));
 		}
@@ -143,8 +157,9 @@ public class ZipEntryStorage extends PlatformObject implements IStorage {
 	 */
 	@Override
 	public boolean equals(Object object) {
+		// shared archives may be closed and opened again
 		return object instanceof ZipEntryStorage &&
-			 getArchive().equals(((ZipEntryStorage)object).getArchive()) &&
+			 getArchive().getName().equals(((ZipEntryStorage)object).getArchive().getName()) &&
 			 getZipEntry().getName().equals(((ZipEntryStorage)object).getZipEntry().getName());
 	}
 
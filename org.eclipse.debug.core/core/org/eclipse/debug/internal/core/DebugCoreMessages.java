@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,8 +30,12 @@ public class DebugCoreMessages extends NLS {
 	public static String DebugPlugin_6;
 	public static String DebugPlugin_7;
 	public static String DebugPlugin_8;
+	public static String DebugPlugin_9;
 	public static String DebugPlugin_Eclipse_runtime_does_not_support_working_directory_2;
 	public static String EnvironmentVariableResolver_0;
+	public static String EventListenerMonitor_0;
+	public static String EventListenerMonitor_1;
+	public static String EventListenerMonitor_2;
 	public static String LaunchConfiguration_0;
 	public static String LaunchConfiguration_11;
 	public static String LaunchConfiguration_13;
@@ -64,6 +68,10 @@ public class DebugCoreMessages extends NLS {
 	public static String LaunchManager_28;
 	public static String LaunchManager_29;
 	public static String LaunchManager_31;
+	public static String LaunchManager_32;
+	public static String LaunchManager_33;
+	public static String LaunchManager_34;
+	public static String LaunchManager_35;
 	public static String LaunchMode_1;
 	public static String LogicalStructureProvider_0;
 	public static String LogicalStructureProvider_1;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,10 +28,16 @@ public class DebugOptions implements DebugOptionsListener {
 	public static boolean DEBUG = false;
 	public static boolean DEBUG_COMMANDS = false;
 	public static boolean DEBUG_EVENTS = false;
+	public static boolean DEBUG_EVENT_QUEUE = false;
+	public static boolean DEBUG_LAUNCH_CONFIGURATIONS = false;
+	public static boolean DEBUG_SOURCE_LOOKUP = false;
 
 	static final String DEBUG_FLAG = "org.eclipse.debug.core/debug"; //$NON-NLS-1$
 	static final String DEBUG_FLAG_COMMANDS = "org.eclipse.debug.core/debug/commands"; //$NON-NLS-1$
 	static final String DEBUG_FLAG_EVENTS = "org.eclipse.debug.core/debug/events"; //$NON-NLS-1$
+	public static final String DEBUG_FLAG_EVENT_QUEUE = "org.eclipse.debug.core/debug/events/queue"; //$NON-NLS-1$
+	public static final String DEBUG_FLAG_LAUNCH_CONFIGURATIONS = "org.eclipse.debug.core/debug/launchconfigurations"; //$NON-NLS-1$
+	public static final String DEBUG_FLAG_SOURCE_LOOKUP = "org.eclipse.debug.core/debug/sourcelookup"; //$NON-NLS-1$
 
 	/**
 	 * The {@link DebugTrace} object to print to OSGi tracing
@@ -58,6 +64,9 @@ public class DebugOptions implements DebugOptionsListener {
 		DEBUG = options.getBooleanOption(DEBUG_FLAG, false);
 		DEBUG_COMMANDS = DEBUG & options.getBooleanOption(DEBUG_FLAG_COMMANDS, false);
 		DEBUG_EVENTS = DEBUG & options.getBooleanOption(DEBUG_FLAG_EVENTS, false);
+		DEBUG_EVENT_QUEUE = DEBUG & options.getBooleanOption(DEBUG_FLAG_EVENT_QUEUE, false);
+		DEBUG_LAUNCH_CONFIGURATIONS = DEBUG & options.getBooleanOption(DEBUG_FLAG_LAUNCH_CONFIGURATIONS, false);
+		DEBUG_SOURCE_LOOKUP = DEBUG & options.getBooleanOption(DEBUG_FLAG_SOURCE_LOOKUP, false);
 	}
 
 	/**
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugPlugin;
+
+import com.ibm.icu.text.MessageFormat;
+
+/**
+ * Measures the time debug event set listeners take to handle event sets.
+ * <p>
+ * A histogram of dispatch times is kept for each listener. When a latency
+ * budget is set, a watchdog checks the listeners currently handling events
+ * and logs a warning the first time a listener exceeds the budget, whether
+ * or not it has returned yet.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class EventListenerMonitor {
+
+	/**
+	 * Number of histogram buckets. The first bucket counts dispatches taking
+	 * less than a millisecond, bucket <code>i</code> those taking less than
+	 * <code>2<sup>i</sup></code> milliseconds and the last bucket all others.
+	 */
+	public static final int BUCKETS = 12;
+
+	/**
+	 * Dispatch times of a single listener.
+	 */
+	public static class DispatchHistogram {
+
+		private final long[] fBuckets = new long[BUCKETS];
+		private long fCount = 0;
+		private long fTotalNanos = 0;
+		private long fMaxNanos = 0;
+		private boolean fReported = false;
+
+		synchronized void record(long nanos) {
+			long millis = nanos / 1000000L;
+			int bucket = 0;
+			while (millis > 0 && bucket < BUCKETS - 1) {
+				millis >>= 1;
+				bucket++;
+			}
+			fBuckets[bucket]++;
+			fCount++;
+			fTotalNanos += nanos;
+			fMaxNanos = Math.max(fMaxNanos, nanos);
+		}
+
+		/**
+		 * Marks the listener as reported, returning whether it was reported
+		 * before.
+		 */
+		synchronized boolean setReported() {
+			boolean reported = fReported;
+			fReported = true;
+			return reported;
+		}
+
+		/**
+		 * Returns the number of dispatches in each bucket.
+		 *
+		 * @return dispatch counts, of length {@link EventListenerMonitor#BUCKETS}
+		 */
+		public synchronized long[] getBuckets() {
+			return fBuckets.clone();
+		}
+
+		/**
+		 * Returns the number of event sets dispatched to the listener.
+		 *
+		 * @return dispatch count
+		 */
+		public synchronized long getCount() {
+			return fCount;
+		}
+
+		/**
+		 * Returns the total time spent in the listener, in milliseconds.
+		 *
+		 * @return total dispatch time
+		 */
+		public synchronized long getTotalTime() {
+			return fTotalNanos / 1000000L;
+		}
+
+		/**
+		 * Returns the longest time spent handling a single event set, in
+		 * milliseconds.
+		 *
+		 * @return maximum dispatch time
+		 */
+		public synchronized long getMaxTime() {
+			return fMaxNanos / 1000000L;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public synchronized String toString() {
+			StringBuffer buffer = new StringBuffer();
+			buffer.append(fCount).append(" dispatches, total ").append(getTotalTime()).append("ms, max ").append(getMaxTime()).append("ms ["); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			for (int i = 0; i < BUCKETS; i++) {
+				if (i > 0) {
+					buffer.append(", "); //$NON-NLS-1$
+				}
+				buffer.append(i == BUCKETS - 1 ? ">=" : "<").append(1L << (i == BUCKETS - 1 ? i - 1 : i)).append("ms: ").append(fBuckets[i]); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			buffer.append(']');
+			return buffer.toString();
+		}
+	}
+
+	/**
+	 * A listener handling an event set.
+	 */
+	public static final class Dispatch {
+
+		final Object fListener;
+		final long fStart;
+		volatile boolean fOverdue = false;
+
+		Dispatch(Object listener) {
+			fListener = listener;
+			fStart = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Logs listeners exceeding the latency budget while they are still
+	 * handling events. Runs periodically while dispatches are in progress.
+	 */
+	class WatchdogJob extends Job {
+
+		WatchdogJob() {
+			super(DebugCoreMessages.EventListenerMonitor_0);
+			setSystem(true);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			long budget = fBudget;
+			if (budget <= 0) {
+				return Status.OK_STATUS;
+			}
+			long now = System.nanoTime();
+			for (Dispatch dispatch : fInProgress.values()) {
+				long elapsed = (now - dispatch.fStart) / 1000000L;
+				if (elapsed > budget && !dispatch.fOverdue) {
+					dispatch.fOverdue = true;
+					report(dispatch.fListener, DebugCoreMessages.EventListenerMonitor_1, elapsed);
+				}
+			}
+			if (!fInProgress.isEmpty() && !monitor.isCanceled()) {
+				schedule(budget);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private static EventListenerMonitor fgDefault;
+
+	private final ConcurrentHashMap<Object, DispatchHistogram> fHistograms = new ConcurrentHashMap<Object, DispatchHistogram>();
+
+	private final Map<Object, Dispatch> fInProgress = new ConcurrentHashMap<Object, Dispatch>();
+
+	private final WatchdogJob fWatchdog = new WatchdogJob();
+
+	/**
+	 * Latency budget in milliseconds, <code>0</code> to disable the watchdog
+	 */
+	private volatile long fBudget;
+
+	/**
+	 * Returns the monitor of debug event listeners notified by the debug
+	 * plug-in. Its latency budget is initialized from the
+	 * {@link IInternalDebugCoreConstants#PREF_EVENT_LISTENER_LATENCY_BUDGET}
+	 * preference.
+	 *
+	 * @return the shared listener monitor
+	 */
+	public static synchronized EventListenerMonitor getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new EventListenerMonitor(Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_EVENT_LISTENER_LATENCY_BUDGET, 1000, null));
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Shuts down the shared monitor, if created, tracing the histograms of
+	 * all listeners when event tracing is enabled.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			fgDefault.fWatchdog.cancel();
+			if (DebugOptions.DEBUG_EVENT_QUEUE) {
+				for (Map.Entry<Object, DispatchHistogram> entry : fgDefault.fHistograms.entrySet()) {
+					DebugOptions.trace(DebugOptions.DEBUG_FLAG_EVENT_QUEUE, entry.getKey().getClass().getName() + ": " + entry.getValue(), null); //$NON-NLS-1$
+				}
+			}
+			fgDefault = null;
+		}
+	}
+
+	/**
+	 * Constructs a monitor with the given latency budget.
+	 *
+	 * @param budget latency budget in milliseconds, <code>0</code> to disable
+	 *            the watchdog
+	 */
+	public EventListenerMonitor(long budget) {
+		fBudget = budget;
+	}
+
+	/**
+	 * Sets the time a listener may take to handle an event set before a
+	 * warning is logged.
+	 *
+	 * @param budget latency budget in milliseconds, <code>0</code> to disable
+	 *            the watchdog
+	 */
+	public void setLatencyBudget(long budget) {
+		fBudget = budget;
+	}
+
+	/**
+	 * Returns the time a listener may take to handle an event set before a
+	 * warning is logged.
+	 *
+	 * @return latency budget in milliseconds, <code>0</code> when disabled
+	 */
+	public long getLatencyBudget() {
+		return fBudget;
+	}
+
+	/**
+	 * Notes that the given listener starts handling an event set. Must be
+	 * followed by a call to {@link #end(Dispatch)} once it returns.
+	 *
+	 * @param listener the notified listener
+	 * @return the dispatch in progress
+	 */
+	public Dispatch begin(Object listener) {
+		Dispatch dispatch = new Dispatch(listener);
+		long budget = fBudget;
+		if (budget > 0) {
+			fInProgress.put(listener, dispatch);
+			if (fWatchdog.getState() == Job.NONE) {
+				fWatchdog.schedule(budget);
+			}
+		}
+		return dispatch;
+	}
+
+	/**
+	 * Notes that a listener returned from handling an event set, recording
+	 * the time it took.
+	 *
+	 * @param dispatch the dispatch returned by {@link #begin(Object)}
+	 */
+	public void end(Dispatch dispatch) {
+		long nanos = System.nanoTime() - dispatch.fStart;
+		fInProgress.remove(dispatch.fListener);
+		getHistogram0(dispatch.fListener).record(nanos);
+		long budget = fBudget;
+		if (budget > 0 && !dispatch.fOverdue && nanos / 1000000L > budget) {
+			report(dispatch.fListener, DebugCoreMessages.EventListenerMonitor_2, nanos / 1000000L);
+		}
+	}
+
+	/**
+	 * Returns the dispatch times recorded for the given listener, or
+	 * <code>null</code> if it has not been notified.
+	 *
+	 * @param listener a debug event listener
+	 * @return dispatch histogram or <code>null</code>
+	 */
+	public DispatchHistogram getHistogram(Object listener) {
+		return fHistograms.get(listener);
+	}
+
+	/**
+	 * Discards the dispatch times recorded for the given listener, called
+	 * when it is removed.
+	 *
+	 * @param listener a debug event listener
+	 */
+	public void remove(Object listener) {
+		fHistograms.remove(listener);
+	}
+
+	private DispatchHistogram getHistogram0(Object listener) {
+		DispatchHistogram histogram = fHistograms.get(listener);
+		if (histogram == null) {
+			histogram = new DispatchHistogram();
+			DispatchHistogram existing = fHistograms.putIfAbsent(listener, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Logs a warning for a listener over budget. Each listener is logged
+	 * once, later occurrences are traced when event tracing is enabled.
+	 */
+	private void report(Object listener, String message, long elapsed) {
+		String text = MessageFormat.format(message, new Object[] {
+				listener.getClass().getName(), Long.toString(elapsed) });
+		if (!getHistogram0(listener).setReported()) {
+			DebugPlugin.log(new Status(IStatus.WARNING, DebugPlugin.getUniqueIdentifier(), DebugPlugin.INTERNAL_ERROR, text, null));
+		} else if (DebugOptions.DEBUG_EVENT_QUEUE) {
+			DebugOptions.trace(DebugOptions.DEBUG_FLAG_EVENT_QUEUE, text, null);
+		}
+	}
+}
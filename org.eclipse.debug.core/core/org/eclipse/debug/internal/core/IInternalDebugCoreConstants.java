@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -41,4 +41,43 @@ public interface IInternalDebugCoreConstants {
 	 */
 	public static final String PREF_BREAKPOINT_MANAGER_ENABLED_STATE =  DebugPlugin.getUniqueIdentifier() + ".PREF_BREAKPOINT_MANAGER_ENABLED_STATE"; //$NON-NLS-1$
 
+	/**
+	 * Integer preference controlling the maximum number of characters buffered
+	 * by a process stream monitor until its contents are flushed. Default value
+	 * is <code>0</code>, meaning the contents are not limited.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_STREAM_BUFFER_CAPACITY = DebugPlugin.getUniqueIdentifier() + ".PREF_STREAM_BUFFER_CAPACITY"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the threads reading and writing
+	 * the streams of system processes and waiting for their termination are
+	 * taken from a shared pool. When <code>false</code>, dedicated threads are
+	 * created for each process. Default value is <code>true</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_SHARE_PROCESS_IO_THREADS = DebugPlugin.getUniqueIdentifier() + ".PREF_SHARE_PROCESS_IO_THREADS"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference controlling the time in milliseconds a debug event
+	 * set listener may take to handle an event set before a warning is
+	 * logged. Default value is <code>1000</code>, <code>0</code> disables the
+	 * warning.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_EVENT_LISTENER_LATENCY_BUDGET = DebugPlugin.getUniqueIdentifier() + ".PREF_EVENT_LISTENER_LATENCY_BUDGET"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference controlling the maximum number of launch configuration
+	 * info objects strongly referenced by the launch manager. Less recently
+	 * used info objects are only softly referenced. Default value is
+	 * <code>200</code>, <code>0</code> means no limit.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_LAUNCH_CONFIGURATION_CACHE_SIZE = DebugPlugin.getUniqueIdentifier() + ".PREF_LAUNCH_CONFIGURATION_CACHE_SIZE"; //$NON-NLS-1$
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,7 +22,9 @@ import org.eclipse.debug.core.DebugPlugin;
  * queueing output if the stream is blocked.
  *
  * The input stream monitor writes to system in via
- * an output stream.
+ * an output stream. Queued text is written by a task on
+ * a process I/O thread, which only runs while there is
+ * text to write.
  */
 public class InputStreamMonitor {
 
@@ -35,9 +37,17 @@ public class InputStreamMonitor {
 	 */
 	private Vector<String> fQueue;
 	/**
-	 * The thread which writes to the stream.
+	 * Whether monitoring has been started
 	 */
-	private Thread fThread;
+	private boolean fStarted = false;
+	/**
+	 * Whether a task is writing the queued text to the stream
+	 */
+	private boolean fWriting = false;
+	/**
+	 * Whether the monitor has been closed
+	 */
+	private boolean fStopped = false;
 	/**
 	 * A lock for ensuring that writes to the queue are contiguous
 	 */
@@ -85,61 +95,82 @@ public class InputStreamMonitor {
 	public void write(String text) {
 		synchronized(fLock) {
 			fQueue.add(text);
-			fLock.notifyAll();
+			scheduleWriter();
 		}
 	}
 
 	/**
-	 * Starts a thread which writes the stream.
+	 * Starts writing queued text to the stream.
 	 */
 	public void startMonitoring() {
-		if (fThread == null) {
-			fThread= new Thread(new Runnable() {
-				@Override
-				public void run() {
-					write();
-				}
-			}, DebugCoreMessages.InputStreamMonitor_label);
-			fThread.setDaemon(true);
-			fThread.start();
+		synchronized(fLock) {
+			if (!fStarted) {
+				fStarted = true;
+				scheduleWriter();
+			}
 		}
 	}
 
 	/**
 	 * Close all communications between this
-	 * monitor and the underlying stream.
+	 * monitor and the underlying stream, once
+	 * the queued text has been written.
 	 */
 	public void close() {
-		if (fThread != null) {
-			Thread thread= fThread;
-			fThread= null;
-			thread.interrupt();
+		boolean closeNow;
+		synchronized(fLock) {
+			if (!fStarted || fStopped) {
+				return;
+			}
+			fStopped = true;
+			// otherwise the writing task closes the stream when done
+			closeNow = !fWriting;
+		}
+		if (closeNow) {
+			closeStream();
 		}
 	}
 
 	/**
-	 * Continuously writes to the stream.
+	 * Schedules a task writing the queued text, unless there is nothing
+	 * to write or such a task is already scheduled. Must be called while
+	 * holding <code>fLock</code>.
 	 */
-	protected void write() {
-		while (fThread != null) {
-			writeNext();
-		}
-		if (!fClosed) {
-			try {
-			    fStream.close();
-			} catch (IOException e) {
-				DebugPlugin.log(e);
-			}
+	private void scheduleWriter() {
+		if (fStarted && !fWriting && !fStopped && !fQueue.isEmpty()) {
+			fWriting = true;
+			ProcessIOExecutor.getDefault().execute(new Runnable() {
+				@Override
+				public void run() {
+					write();
+				}
+			}, DebugCoreMessages.InputStreamMonitor_label, Thread.NORM_PRIORITY);
 		}
 	}
 
 	/**
-	 * Write the text in the queue to the stream.
+	 * Writes the queued text to the stream until the queue is empty.
 	 */
-	protected void writeNext() {
-		while (!fQueue.isEmpty() && !fClosed) {
-			String text = fQueue.firstElement();
-			fQueue.removeElementAt(0);
+	private void write() {
+		while (true) {
+			String text;
+			boolean closeStream;
+			synchronized(fLock) {
+				if (fQueue.isEmpty() || fClosed) {
+					fWriting = false;
+					closeStream = fStopped;
+					text = null;
+				} else {
+					closeStream = false;
+					text = fQueue.remove(0);
+				}
+			}
+			if (text == null) {
+				if (closeStream) {
+					closeStream();
+				}
+				return;
+			}
 			try {
 				if (fEncoding != null) {
 					fStream.write(text.getBytes(fEncoding));
@@ -151,11 +182,18 @@ public class InputStreamMonitor {
 				DebugPlugin.log(e);
 			}
 		}
-		try {
-			synchronized(fLock) {
-				fLock.wait();
+	}
+
+	/**
+	 * Closes the underlying stream unless it has already been closed.
+	 */
+	private void closeStream() {
+		if (!fClosed) {
+			try {
+			    fStream.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
 			}
-		} catch (InterruptedException e) {
 		}
 	}
 
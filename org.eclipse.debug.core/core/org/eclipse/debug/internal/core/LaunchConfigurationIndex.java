@@ -0,0 +1,497 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+
+/**
+ * The launch configurations known to the launch manager, indexed by name,
+ * type, project and mapped resource.
+ * <p>
+ * The type and mapped resources of a configuration are read when it is added
+ * or updated, so that queries do not need to access the attributes of every
+ * configuration. Configurations are iterated in the order they were added.
+ * </p>
+ * <p>
+ * The index can be saved to a file and loaded in a later session. Loaded
+ * entries are restored for configurations whose file has not changed since,
+ * so they do not need to be read again.
+ * </p>
+ * <p>
+ * This class is not thread safe, the launch manager guards all access with
+ * its own lock.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationIndex implements Iterable<ILaunchConfiguration> {
+
+	/**
+	 * Keys a configuration is indexed under.
+	 */
+	static class Entry {
+		String fName;
+		String fTypeId;
+		IProject fProject;
+		IResource[] fResources;
+		long fTimeStamp;
+		long fModificationStamp;
+	}
+
+	/**
+	 * Version of the saved index format
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Entries loaded from a saved index that have not been restored yet, keyed
+	 * by {@link #getKey(ILaunchConfiguration)}.
+	 */
+	private Map<String, Entry> fSaved = new HashMap<String, Entry>();
+
+	private final Map<ILaunchConfiguration, Entry> fEntries = new LinkedHashMap<ILaunchConfiguration, Entry>();
+
+	private final Map<String, Set<ILaunchConfiguration>> fByName = new HashMap<String, Set<ILaunchConfiguration>>();
+
+	private final Map<String, Set<ILaunchConfiguration>> fByType = new HashMap<String, Set<ILaunchConfiguration>>();
+
+	private final Map<IProject, Set<ILaunchConfiguration>> fByProject = new HashMap<IProject, Set<ILaunchConfiguration>>();
+
+	private final Map<IResource, Set<ILaunchConfiguration>> fByResource = new HashMap<IResource, Set<ILaunchConfiguration>>();
+
+	/**
+	 * Adds the given configuration to the index.
+	 *
+	 * @param config a launch configuration
+	 * @return whether the configuration was added, <code>false</code> if it
+	 *         was already indexed
+	 */
+	public boolean add(ILaunchConfiguration config) {
+		if (fEntries.containsKey(config)) {
+			return false;
+		}
+		Entry entry = createEntry(config);
+		fEntries.put(config, entry);
+		index(config, entry);
+		return true;
+	}
+
+	/**
+	 * Re-reads the type and mapped resources of the given configuration after
+	 * its attributes changed. Has no effect if the configuration is not
+	 * indexed.
+	 *
+	 * @param config a launch configuration
+	 */
+	public void update(ILaunchConfiguration config) {
+		Entry entry = fEntries.get(config);
+		if (entry != null) {
+			unindex(config, entry);
+			entry = createEntry(config);
+			fEntries.put(config, entry);
+			index(config, entry);
+		}
+	}
+
+	/**
+	 * Removes the given configuration from the index.
+	 *
+	 * @param config a launch configuration
+	 * @return whether the configuration was indexed
+	 */
+	public boolean remove(ILaunchConfiguration config) {
+		Entry entry = fEntries.remove(config);
+		if (entry == null) {
+			return false;
+		}
+		unindex(config, entry);
+		return true;
+	}
+
+	/**
+	 * Removes all configurations from the index.
+	 */
+	public void clear() {
+		fSaved.clear();
+		fEntries.clear();
+		fByName.clear();
+		fByType.clear();
+		fByProject.clear();
+		fByResource.clear();
+	}
+
+	/**
+	 * Returns whether the given configuration is indexed.
+	 *
+	 * @param config a launch configuration
+	 * @return whether the configuration is indexed
+	 */
+	public boolean contains(ILaunchConfiguration config) {
+		return fEntries.containsKey(config);
+	}
+
+	/**
+	 * Returns the number of indexed configurations.
+	 *
+	 * @return number of configurations
+	 */
+	public int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * Returns all indexed configurations.
+	 *
+	 * @return all configurations
+	 */
+	public ILaunchConfiguration[] toArray() {
+		return fEntries.keySet().toArray(new ILaunchConfiguration[fEntries.size()]);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Iterable#iterator()
+	 */
+	@Override
+	public Iterator<ILaunchConfiguration> iterator() {
+		return fEntries.keySet().iterator();
+	}
+
+	/**
+	 * Returns the first configuration added with the given name, or
+	 * <code>null</code> if none.
+	 *
+	 * @param name a launch configuration name
+	 * @return configuration with the given name or <code>null</code>
+	 */
+	public ILaunchConfiguration findByName(String name) {
+		Set<ILaunchConfiguration> configs = fByName.get(name);
+		if (configs == null) {
+			return null;
+		}
+		return configs.iterator().next();
+	}
+
+	/**
+	 * Returns whether a configuration with the given name is indexed.
+	 *
+	 * @param name a launch configuration name
+	 * @return whether the name is in use
+	 */
+	public boolean containsName(String name) {
+		return fByName.containsKey(name);
+	}
+
+	/**
+	 * Returns the configurations of the given type.
+	 *
+	 * @param typeId launch configuration type identifier
+	 * @return configurations of the given type, possibly empty
+	 */
+	public List<ILaunchConfiguration> getByType(String typeId) {
+		return get(fByType, typeId);
+	}
+
+	/**
+	 * Returns the configurations stored as resources in the given project.
+	 *
+	 * @param project a project
+	 * @return configurations stored in the project, possibly empty
+	 */
+	public List<ILaunchConfiguration> getByProject(IProject project) {
+		return get(fByProject, project);
+	}
+
+	/**
+	 * Returns the configurations mapped to the given resource.
+	 *
+	 * @param resource a resource
+	 * @return configurations mapped to the resource, possibly empty
+	 */
+	public List<ILaunchConfiguration> getByMappedResource(IResource resource) {
+		return get(fByResource, resource);
+	}
+
+	/**
+	 * Adds the given configuration to the index using the entry loaded for it
+	 * from a saved index, provided its file has not changed and its type is
+	 * still defined.
+	 *
+	 * @param config a launch configuration
+	 * @return whether the configuration was added, <code>false</code> if it
+	 *         needs to be read and added again
+	 */
+	public boolean restore(ILaunchConfiguration config) {
+		Entry entry = fSaved.remove(getKey(config));
+		if (entry == null || fEntries.containsKey(config)) {
+			return false;
+		}
+		long timeStamp = entry.fTimeStamp;
+		long modificationStamp = entry.fModificationStamp;
+		readStamps(config, entry);
+		if (timeStamp != entry.fTimeStamp || modificationStamp != entry.fModificationStamp || timeStamp <= 0) {
+			return false;
+		}
+		if (DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(entry.fTypeId) == null) {
+			return false;
+		}
+		entry.fName = config.getName();
+		IFile file = config.getFile();
+		if (file != null) {
+			entry.fProject = file.getProject();
+		}
+		fEntries.put(config, entry);
+		index(config, entry);
+		return true;
+	}
+
+	/**
+	 * Loads the entries of an index saved to the given file, to be restored by
+	 * {@link #restore(ILaunchConfiguration)}. A missing or unreadable file is
+	 * ignored.
+	 *
+	 * @param file index file
+	 */
+	public void load(File file) {
+		if (!file.isFile()) {
+			return;
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		Map<String, Entry> saved = new HashMap<String, Entry>();
+		DataInputStream stream = null;
+		try {
+			stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (stream.readInt() != VERSION) {
+				return;
+			}
+			int count = stream.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = stream.readUTF();
+				Entry entry = new Entry();
+				entry.fTypeId = stream.readUTF();
+				entry.fTimeStamp = stream.readLong();
+				entry.fModificationStamp = stream.readLong();
+				int resources = stream.readInt();
+				if (resources > 0) {
+					entry.fResources = new IResource[resources];
+					for (int j = 0; j < resources; j++) {
+						int type = stream.readInt();
+						entry.fResources[j] = getResource(root, type, new Path(stream.readUTF()));
+					}
+				}
+				saved.put(key, entry);
+			}
+			fSaved = saved;
+		} catch (IOException e) {
+			// the configurations are read again
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Saves the entries of this index to the given file.
+	 *
+	 * @param file index file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>(fEntries.size());
+		for (Map.Entry<ILaunchConfiguration, Entry> entry : fEntries.entrySet()) {
+			if (entry.getValue().fTypeId != null && entry.getValue().fTimeStamp > 0) {
+				configs.add(entry.getKey());
+			}
+		}
+		DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			stream.writeInt(VERSION);
+			stream.writeInt(configs.size());
+			for (ILaunchConfiguration config : configs) {
+				Entry entry = fEntries.get(config);
+				stream.writeUTF(getKey(config));
+				stream.writeUTF(entry.fTypeId);
+				stream.writeLong(entry.fTimeStamp);
+				stream.writeLong(entry.fModificationStamp);
+				IResource[] resources = entry.fResources;
+				if (resources == null) {
+					stream.writeInt(0);
+				} else {
+					stream.writeInt(resources.length);
+					for (int i = 0; i < resources.length; i++) {
+						stream.writeInt(resources[i].getType());
+						stream.writeUTF(resources[i].getFullPath().toPortableString());
+					}
+				}
+			}
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Returns the key of the given configuration in a saved index: the
+	 * workspace path of a shared configuration or the name of a local one.
+	 */
+	private static String getKey(ILaunchConfiguration config) {
+		IFile file = config.getFile();
+		if (file != null) {
+			return file.getFullPath().toPortableString();
+		}
+		return config.getName();
+	}
+
+	/**
+	 * Records the time stamps of the file of the given configuration in the
+	 * entry. The local time stamp is <code>0</code> or negative when the file
+	 * does not exist.
+	 */
+	private static void readStamps(ILaunchConfiguration config, Entry entry) {
+		IFile file = config.getFile();
+		if (file != null) {
+			entry.fTimeStamp = file.getLocalTimeStamp();
+			entry.fModificationStamp = file.getModificationStamp();
+		} else {
+			File local = LaunchManager.LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.append(config.getName() + '.' + ILaunchConfiguration.LAUNCH_CONFIGURATION_FILE_EXTENSION).toFile();
+			entry.fTimeStamp = local.lastModified();
+			entry.fModificationStamp = local.length();
+		}
+	}
+
+	private static IResource getResource(IWorkspaceRoot root, int type, IPath path) {
+		switch (type) {
+			case IResource.FILE:
+				return root.getFile(path);
+			case IResource.FOLDER:
+				return root.getFolder(path);
+			case IResource.PROJECT:
+				return root.getProject(path.segment(0));
+			default:
+				return root;
+		}
+	}
+
+	/**
+	 * Reads the keys to index the given configuration under. Attributes that
+	 * cannot be read are not indexed.
+	 */
+	private Entry createEntry(ILaunchConfiguration config) {
+		Entry entry = new Entry();
+		entry.fName = config.getName();
+		IFile file = config.getFile();
+		if (file != null) {
+			entry.fProject = file.getProject();
+		}
+		readStamps(config, entry);
+		try {
+			ILaunchConfigurationType type = config.getType();
+			if (type != null) {
+				entry.fTypeId = type.getIdentifier();
+			}
+		} catch (CoreException e) {
+			// invalid configurations are not indexed by the launch manager
+		}
+		try {
+			entry.fResources = config.getMappedResources();
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+		}
+		return entry;
+	}
+
+	private void index(ILaunchConfiguration config, Entry entry) {
+		put(fByName, entry.fName, config);
+		if (entry.fTypeId != null) {
+			put(fByType, entry.fTypeId, config);
+		}
+		if (entry.fProject != null) {
+			put(fByProject, entry.fProject, config);
+		}
+		if (entry.fResources != null) {
+			for (int i = 0; i < entry.fResources.length; i++) {
+				put(fByResource, entry.fResources[i], config);
+			}
+		}
+	}
+
+	private void unindex(ILaunchConfiguration config, Entry entry) {
+		remove(fByName, entry.fName, config);
+		if (entry.fTypeId != null) {
+			remove(fByType, entry.fTypeId, config);
+		}
+		if (entry.fProject != null) {
+			remove(fByProject, entry.fProject, config);
+		}
+		if (entry.fResources != null) {
+			for (int i = 0; i < entry.fResources.length; i++) {
+				remove(fByResource, entry.fResources[i], config);
+			}
+		}
+	}
+
+	private static <K> void put(Map<K, Set<ILaunchConfiguration>> map, K key, ILaunchConfiguration config) {
+		Set<ILaunchConfiguration> configs = map.get(key);
+		if (configs == null) {
+			configs = new LinkedHashSet<ILaunchConfiguration>(4);
+			map.put(key, configs);
+		}
+		configs.add(config);
+	}
+
+	private static <K> void remove(Map<K, Set<ILaunchConfiguration>> map, K key, ILaunchConfiguration config) {
+		Set<ILaunchConfiguration> configs = map.get(key);
+		if (configs != null) {
+			configs.remove(config);
+			if (configs.isEmpty()) {
+				map.remove(key);
+			}
+		}
+	}
+
+	private static <K> List<ILaunchConfiguration> get(Map<K, Set<ILaunchConfiguration>> map, K key) {
+		Set<ILaunchConfiguration> configs = map.get(key);
+		if (configs == null) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<ILaunchConfiguration>(configs);
+	}
+}
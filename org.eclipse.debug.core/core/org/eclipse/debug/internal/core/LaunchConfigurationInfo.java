@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,8 @@
 package org.eclipse.debug.internal.core;
 
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -20,11 +20,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
@@ -32,10 +34,6 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunchConfigurationType;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import com.ibm.icu.text.MessageFormat;
 
@@ -60,6 +58,8 @@ public class LaunchConfigurationInfo {
 	private static final String INT_ATTRIBUTE = "intAttribute"; //$NON-NLS-1$
 	private static final String STRING_ATTRIBUTE = "stringAttribute"; //$NON-NLS-1$
 	private static final String TYPE = "type"; //$NON-NLS-1$
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"; //$NON-NLS-1$
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
 
 	/**
 	 * This configurations attribute table. Keys are <code>String</code>s and
@@ -356,27 +356,26 @@ public class LaunchConfigurationInfo {
 	}
 
 	/**
-	 * Returns the content of this info as XML
+	 * Returns the content of this info as XML. The content is written
+	 * directly, in the format of a DOM serialized by the default JAXP
+	 * transformer with indentation: one element per line, platform line
+	 * separators and set and map entries sorted.
 	 *
 	 * @return the content of this info as XML
 	 * @throws CoreException
 	 *             if a attribute has been set with a null key
-	 * @throws IOException
-	 *             if an exception occurs creating the XML
-	 * @throws ParserConfigurationException
-	 *             if an exception occurs creating the XML
-	 * @throws TransformerException
-	 *             if an exception occurs creating the XML
 	 */
 	@SuppressWarnings("unchecked")
-	protected String getAsXML() throws CoreException, IOException, ParserConfigurationException, TransformerException {
-		Document doc = LaunchManager.getDocument();
-		Element configRootElement = doc.createElement(LAUNCH_CONFIGURATION);
-		doc.appendChild(configRootElement);
-
-		configRootElement.setAttribute(TYPE, getType().getIdentifier());
-
-		for (String key : getAttributeTable().keySet()) {
+	protected String getAsXML() throws CoreException {
+		StringBuilder buffer = new StringBuilder(128 + getAttributeTable().size() * 96);
+		buffer.append(XML_DECLARATION).append(LINE_SEPARATOR);
+		buffer.append('<').append(LAUNCH_CONFIGURATION);
+		appendAttribute(buffer, TYPE, getType().getIdentifier());
+		int start = buffer.length();
+		buffer.append('>').append(LINE_SEPARATOR);
+		int contents = buffer.length();
+		for (Entry<String, Object> entry : getAttributeTable().entrySet()) {
+			String key = entry.getKey();
 			if (key == null) {
 				throw new DebugException(
 					new Status(
@@ -385,140 +384,157 @@ public class LaunchConfigurationInfo {
 					)
 				);
 			}
-			Object value = getAttributeTable().get(key);
-			if (value == null) {
-				continue;
-			}
-			Element element = null;
-			String valueString = null;
+			Object value = entry.getValue();
 			if (value instanceof String) {
-				valueString = (String)value;
-				element = createKeyValueElement(doc, STRING_ATTRIBUTE, key, valueString);
+				appendKeyValueElement(buffer, STRING_ATTRIBUTE, key, (String) value);
 			} else if (value instanceof Integer) {
-				valueString = ((Integer)value).toString();
-				element = createKeyValueElement(doc, INT_ATTRIBUTE, key, valueString);
+				appendKeyValueElement(buffer, INT_ATTRIBUTE, key, value.toString());
 			} else if (value instanceof Boolean) {
-				valueString = ((Boolean)value).toString();
-				element = createKeyValueElement(doc, BOOLEAN_ATTRIBUTE, key, valueString);
+				appendKeyValueElement(buffer, BOOLEAN_ATTRIBUTE, key, value.toString());
 			} else if (value instanceof List) {
-				element = createListElement(doc, LIST_ATTRIBUTE, key, (List<String>) value);
+				appendCollectionElement(buffer, LIST_ATTRIBUTE, LIST_ENTRY, key, (List<String>) value);
 			} else if (value instanceof Map) {
-				element = createMapElement(doc, MAP_ATTRIBUTE, key, (Map<String, String>) value);
-			} else if(value instanceof Set) {
-				element = createSetElement(doc, SET_ATTRIBUTE, key, (Set<String>) value);
+				appendMapElement(buffer, MAP_ATTRIBUTE, key, (Map<String, String>) value);
+			} else if (value instanceof Set) {
+				// persist in sorted order
+				List<String> list = new ArrayList<String>((Set<String>) value);
+				Collections.sort(list);
+				appendCollectionElement(buffer, SET_ATTRIBUTE, SET_ENTRY, key, list);
 			}
-			configRootElement.appendChild(element);
 		}
-		return LaunchManager.serializeDocument(doc);
+		if (buffer.length() == contents) {
+			buffer.setLength(start);
+			buffer.append("/>"); //$NON-NLS-1$
+		} else {
+			buffer.append("</").append(LAUNCH_CONFIGURATION).append('>'); //$NON-NLS-1$
+		}
+		buffer.append(LINE_SEPARATOR);
+		return buffer.toString();
 	}
 
 	/**
-	 * Helper method that creates a 'key value' element of the specified type
-	 * with the specified attribute values.
-	 * @param doc the {@link Document}
-	 * @param elementType the {@link Element} type to create
-	 * @param key the {@link Element} key
-	 * @param value the {@link Element} value
-	 * @return the new {@link Element}
+	 * Appends a 'key value' element of the specified type.
+	 *
+	 * @param buffer the buffer to append to
+	 * @param elementType the element type
+	 * @param key the element key
+	 * @param value the element value
 	 */
-	protected Element createKeyValueElement(Document doc, String elementType, String key, String value) {
-		Element element = doc.createElement(elementType);
-		element.setAttribute(KEY, key);
-		element.setAttribute(VALUE, value);
-		return element;
+	private static void appendKeyValueElement(StringBuilder buffer, String elementType, String key, String value) {
+		buffer.append('<').append(elementType);
+		appendAttribute(buffer, KEY, key);
+		appendAttribute(buffer, VALUE, value);
+		buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
 	}
 
 	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.List</code>
+	 * Appends an element with a child entry element for each of the given
+	 * values.
 	 *
-	 * @param doc the doc to add the element to
-	 * @param elementType the type of the element
-	 * @param listKey the key for the element
-	 * @param list the list to fill the new element with
-	 * @return the new element
-	 */
-	protected Element createListElement(Document doc, String elementType, String listKey, List<String> list) {
-		Element listElement = doc.createElement(elementType);
-		listElement.setAttribute(KEY, listKey);
-		for (String value : list) {
-			Element element = doc.createElement(LIST_ENTRY);
-			element.setAttribute(VALUE, value);
-			listElement.appendChild(element);
+	 * @param buffer the buffer to append to
+	 * @param elementType the element type
+	 * @param entryType the type of the entry elements
+	 * @param key the element key
+	 * @param values the values of the entries, in order
+	 */
+	private static void appendCollectionElement(StringBuilder buffer, String elementType, String entryType, String key, Collection<String> values) {
+		buffer.append('<').append(elementType);
+		appendAttribute(buffer, KEY, key);
+		if (values.isEmpty()) {
+			buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
+			return;
 		}
-		return listElement;
-	}
-
-	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.Set</code>
-	 *
-	 * @param doc the doc to add the element to
-	 * @param elementType the type of the element
-	 * @param setKey the key for the element
-	 * @param set the set to fill the new element with
-	 * @return the new element
-	 *
-	 * @since 3.3
-	 */
-	protected Element createSetElement(Document doc, String elementType, String setKey, Set<String> set) {
-		Element setElement = doc.createElement(elementType);
-		setElement.setAttribute(KEY, setKey);
-		// persist in sorted order
-		List<String> list = new ArrayList<String>(set);
-		Collections.sort(list);
-		Element element = null;
-		for (String str : list) {
-			element = doc.createElement(SET_ENTRY);
-			element.setAttribute(VALUE, str);
-			setElement.appendChild(element);
+		buffer.append('>').append(LINE_SEPARATOR);
+		for (String value : values) {
+			buffer.append('<').append(entryType);
+			appendAttribute(buffer, VALUE, value);
+			buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
 		}
-		return setElement;
+		buffer.append("</").append(elementType).append('>').append(LINE_SEPARATOR); //$NON-NLS-1$
 	}
 
 	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.Map</code>
-	 *
-	 * @param doc the doc to add the element to
-	 * @param elementType the type of the element
-	 * @param mapKey the key for the element
-	 * @param map the map to fill the new element with
-	 * @return the new element
+	 * Appends an element with a child entry element for each mapping of the
+	 * given map, sorted by key.
 	 *
-	 */
-	protected Element createMapElement(Document doc, String elementType, String mapKey, Map<String, String> map) {
-		Element mapElement = doc.createElement(elementType);
-		mapElement.setAttribute(KEY, mapKey);
+	 * @param buffer the buffer to append to
+	 * @param elementType the element type
+	 * @param mapKey the element key
+	 * @param map the map to persist
+	 */
+	private static void appendMapElement(StringBuilder buffer, String elementType, String mapKey, Map<String, String> map) {
+		buffer.append('<').append(elementType);
+		appendAttribute(buffer, KEY, mapKey);
+		if (map.isEmpty()) {
+			buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
+			return;
+		}
+		buffer.append('>').append(LINE_SEPARATOR);
 		// persist in sorted order based on keys
 		List<String> keys = new ArrayList<String>(map.keySet());
 		Collections.sort(keys);
 		for (String key : keys) {
-			String value = map.get(key);
-			Element element = doc.createElement(MAP_ENTRY);
-			element.setAttribute(KEY, key);
-			element.setAttribute(VALUE, value);
-			mapElement.appendChild(element);
+			buffer.append('<').append(MAP_ENTRY);
+			appendAttribute(buffer, KEY, key);
+			appendAttribute(buffer, VALUE, map.get(key));
+			buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
 		}
-		return mapElement;
+		buffer.append("</").append(elementType).append('>').append(LINE_SEPARATOR); //$NON-NLS-1$
 	}
 
 	/**
-	 * Initializes the mapping of attributes from the XML file
-	 * @param root the root node from the XML document
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void initializeFromXML(Element root) throws CoreException {
-		if (!root.getNodeName().equalsIgnoreCase(LAUNCH_CONFIGURATION)) {
-			throw getInvalidFormatDebugException();
+	 * Appends an XML attribute, escaping markup characters and control
+	 * characters (such as line delimiters) the way the JAXP serializer does.
+	 *
+	 * @param buffer the buffer to append to
+	 * @param name the attribute name
+	 * @param value the attribute value
+	 */
+	private static void appendAttribute(StringBuilder buffer, String name, String value) {
+		buffer.append(' ').append(name).append("=\""); //$NON-NLS-1$
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '&':
+					buffer.append("&amp;"); //$NON-NLS-1$
+					break;
+				case '<':
+					buffer.append("&lt;"); //$NON-NLS-1$
+					break;
+				case '>':
+					buffer.append("&gt;"); //$NON-NLS-1$
+					break;
+				case '"':
+					buffer.append("&quot;"); //$NON-NLS-1$
+					break;
+				default:
+					if (c < 0x20) {
+						buffer.append("&#").append((int) c).append(';'); //$NON-NLS-1$
+					} else {
+						buffer.append(c);
+					}
+			}
 		}
+		buffer.append('"');
+	}
 
-		// read type
-		String id = root.getAttribute(TYPE);
-		if (id == null) {
+	/**
+	 * Initializes the mapping of attributes from the XML read by the given
+	 * reader, positioned before the root element.
+	 *
+	 * @param reader the reader of the XML document
+	 * @throws CoreException if the content is not a launch configuration
+	 * @throws XMLStreamException if the XML is not well formed
+	 * @since 3.10
+	 */
+	protected void initializeFromXML(XMLStreamReader reader) throws CoreException, XMLStreamException {
+		if (!nextElement(reader) || !reader.getLocalName().equalsIgnoreCase(LAUNCH_CONFIGURATION)) {
 			throw getInvalidFormatDebugException();
 		}
 
+		// read type
+		String id = getAttribute(reader, TYPE);
 		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(id);
 		if (type == null) {
 			String message= MessageFormat.format(DebugCoreMessages.LaunchConfigurationInfo_missing_type, new Object[]{id});
@@ -530,167 +546,118 @@ public class LaunchConfigurationInfo {
 		}
 		setType(type);
 
-		NodeList list = root.getChildNodes();
-		Node node = null;
-		Element element = null;
-		String nodeName = null;
-		for (int i = 0; i < list.getLength(); ++i) {
-			node = list.item(i);
-			short nodeType = node.getNodeType();
-			if (nodeType == Node.ELEMENT_NODE) {
-				element = (Element) node;
-				nodeName = element.getNodeName();
-				if (nodeName.equalsIgnoreCase(STRING_ATTRIBUTE)) {
-					setStringAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(INT_ATTRIBUTE)) {
-					setIntegerAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(BOOLEAN_ATTRIBUTE))  {
-					setBooleanAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(LIST_ATTRIBUTE)) {
-					setListAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(MAP_ATTRIBUTE)) {
-					setMapAttribute(element);
-				} else if(nodeName.equalsIgnoreCase(SET_ATTRIBUTE)) {
-					setSetAttribute(element);
-				}
+		while (nextElement(reader)) {
+			String nodeName = reader.getLocalName();
+			if (nodeName.equalsIgnoreCase(STRING_ATTRIBUTE)) {
+				setAttribute(getAttribute(reader, KEY), getAttribute(reader, VALUE));
+			} else if (nodeName.equalsIgnoreCase(INT_ATTRIBUTE)) {
+				setAttribute(getAttribute(reader, KEY), Integer.valueOf(getAttribute(reader, VALUE)));
+			} else if (nodeName.equalsIgnoreCase(BOOLEAN_ATTRIBUTE)) {
+				setAttribute(getAttribute(reader, KEY), Boolean.valueOf(getAttribute(reader, VALUE)));
+			} else if (nodeName.equalsIgnoreCase(LIST_ATTRIBUTE)) {
+				String listKey = getAttribute(reader, KEY);
+				List<String> list = new ArrayList<String>();
+				readEntries(reader, LIST_ENTRY, list, null);
+				setAttribute(listKey, list);
+				continue;
+			} else if (nodeName.equalsIgnoreCase(MAP_ATTRIBUTE)) {
+				String mapKey = getAttribute(reader, KEY);
+				Map<String, String> map = new HashMap<String, String>();
+				readEntries(reader, MAP_ENTRY, null, map);
+				setAttribute(mapKey, map);
+				continue;
+			} else if (nodeName.equalsIgnoreCase(SET_ATTRIBUTE)) {
+				String setKey = getAttribute(reader, KEY);
+				Set<String> set = new HashSet<String>();
+				readEntries(reader, SET_ENTRY, set, null);
+				setAttribute(setKey, set);
+				continue;
 			}
+			skipElement(reader);
 		}
 	}
 
 	/**
-	 * Loads a <code>String</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void setStringAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), getValueAttribute(element));
-	}
-
-	/**
-	 * Loads an <code>Integer</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void setIntegerAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), new Integer(getValueAttribute(element)));
-	}
-
-	/**
-	 * Loads a <code>Boolean</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void setBooleanAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), Boolean.valueOf(getValueAttribute(element)));
-	}
-
-	/**
-	 * Reads a <code>List</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
+	 * Reads the entry elements of the current list, set or map element up to
+	 * and including its end tag.
 	 *
-	 * @param element the element to read the list attribute from
-	 * @throws CoreException if the element has an invalid format
-	 */
-	protected void setListAttribute(Element element) throws CoreException {
-		String listKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		List<String> list = new ArrayList<String>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for (int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element) node;
-				if (!selement.getNodeName().equalsIgnoreCase(LIST_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				list.add(getValueAttribute(selement));
+	 * @param reader the reader positioned on the start of the element
+	 * @param entryType the expected type of the entry elements
+	 * @param values collection to add the entry values to, or
+	 *            <code>null</code> for a map
+	 * @param map map to add the entry keys and values to, or <code>null</code>
+	 * @throws CoreException if an entry has the wrong type
+	 * @throws XMLStreamException if the XML is not well formed
+	 */
+	private void readEntries(XMLStreamReader reader, String entryType, Collection<String> values, Map<String, String> map) throws CoreException, XMLStreamException {
+		while (nextElement(reader)) {
+			if (!reader.getLocalName().equalsIgnoreCase(entryType)) {
+				throw getInvalidFormatDebugException();
+			}
+			if (map != null) {
+				map.put(getAttribute(reader, KEY), getAttribute(reader, VALUE));
+			} else {
+				values.add(getAttribute(reader, VALUE));
 			}
+			skipElement(reader);
 		}
-		setAttribute(listKey, list);
 	}
 
 	/**
-	 * Reads a <code>Set</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
+	 * Advances the reader to the next child element of the current element,
+	 * ignoring text, comments and processing instructions.
 	 *
-	 * @param element the element to read the set attribute from
-	 * @throws CoreException if the element has an invalid format
-	 *
-	 * @since 3.3
-	 */
-	protected void setSetAttribute(Element element) throws CoreException {
-		String setKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		Set<String> set = new HashSet<String>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for(int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if(node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element)node;
-				if(!selement.getNodeName().equalsIgnoreCase(SET_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				set.add(getValueAttribute(selement));
+	 * @param reader the reader
+	 * @return <code>true</code> if positioned on the start of a child
+	 *         element, <code>false</code> if positioned on the end of the
+	 *         current element or at the end of the document
+	 * @throws XMLStreamException if the XML is not well formed
+	 */
+	private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					return true;
+				case XMLStreamConstants.END_ELEMENT:
+					return false;
+				default:
+					break;
 			}
 		}
-		setAttribute(setKey, set);
+		return false;
 	}
 
 	/**
-	 * Reads a <code>Map</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
+	 * Advances the reader to the end of the current element, skipping its
+	 * content.
 	 *
-	 * @param element the element to read the map attribute from
-	 * @throws CoreException if the element has an invalid format
-	 */
-	protected void setMapAttribute(Element element) throws CoreException {
-		String mapKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		Map<String, String> map = new HashMap<String, String>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for (int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element) node;
-				if (!selement.getNodeName().equalsIgnoreCase(MAP_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				map.put(getKeyAttribute(selement), getValueAttribute(selement));
+	 * @param reader the reader positioned on the start of an element
+	 * @throws XMLStreamException if the XML is not well formed
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
 			}
 		}
-		setAttribute(mapKey, map);
 	}
 
 	/**
-	 * Returns the <code>String</code> representation of the 'key' attribute from the specified element
-	 * @param element the element to read from
-	 * @return the value
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected String getKeyAttribute(Element element) throws CoreException {
-		String key = element.getAttribute(KEY);
-		if (key == null) {
-			throw getInvalidFormatDebugException();
-		}
-		return key;
-	}
-
-	/**
-	 * Returns the <code>String</code> representation of the 'value' attribute from the specified element
-	 * @param element the element to read from
-	 * @return the value
-	 * @throws CoreException if a problem is encountered
+	 * Returns the value of an attribute of the current element or an empty
+	 * string if not specified, like the DOM does.
+	 *
+	 * @param reader the reader positioned on the start of an element
+	 * @param name the attribute name
+	 * @return the attribute value, possibly empty
 	 */
-	protected String getValueAttribute(Element element) throws CoreException {
-		String value = element.getAttribute(VALUE);
+	private static String getAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue(null, name);
 		if (value == null) {
-			throw getInvalidFormatDebugException();
+			return IInternalDebugCoreConstants.EMPTY_STRING;
 		}
 		return value;
 	}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Cache of the info objects read from launch configuration files.
+ * <p>
+ * The most recently used info objects are strongly referenced, up to a
+ * maximum number of entries. Least recently used entries beyond that limit
+ * are only softly referenced, so they remain available until the memory is
+ * needed. Both kinds of entries are discarded when a configuration changes
+ * or is deleted.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationInfoCache {
+
+	/**
+	 * Soft reference to an evicted info object, remembering its key so it
+	 * can be removed once cleared.
+	 */
+	static class SoftEntry extends SoftReference<LaunchConfigurationInfo> {
+
+		final ILaunchConfiguration fConfig;
+
+		SoftEntry(ILaunchConfiguration config, LaunchConfigurationInfo info, ReferenceQueue<LaunchConfigurationInfo> queue) {
+			super(info, queue);
+			fConfig = config;
+		}
+	}
+
+	private final LinkedHashMap<ILaunchConfiguration, LaunchConfigurationInfo> fStrong;
+
+	private final Map<ILaunchConfiguration, SoftEntry> fSoft = new HashMap<ILaunchConfiguration, SoftEntry>();
+
+	private final ReferenceQueue<LaunchConfigurationInfo> fQueue = new ReferenceQueue<LaunchConfigurationInfo>();
+
+	private int fCapacity;
+
+	private long fHits = 0;
+	private long fSoftHits = 0;
+	private long fMisses = 0;
+	private long fEvictions = 0;
+
+	/**
+	 * Constructs a cache strongly referencing up to the given number of info
+	 * objects.
+	 *
+	 * @param capacity maximum number of strongly referenced entries,
+	 *            <code>0</code> or less for no limit
+	 */
+	public LaunchConfigurationInfoCache(int capacity) {
+		fCapacity = capacity;
+		fStrong = new LinkedHashMap<ILaunchConfiguration, LaunchConfigurationInfo>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the cached info of the given configuration, or <code>null</code>
+	 * if it needs to be read.
+	 *
+	 * @param config a launch configuration
+	 * @return cached info or <code>null</code>
+	 */
+	public synchronized LaunchConfigurationInfo get(ILaunchConfiguration config) {
+		LaunchConfigurationInfo info = fStrong.get(config);
+		if (info != null) {
+			fHits++;
+			return info;
+		}
+		SoftEntry entry = fSoft.remove(config);
+		if (entry != null) {
+			info = entry.get();
+			if (info != null) {
+				fSoftHits++;
+				fStrong.put(config, info);
+				evict();
+				return info;
+			}
+		}
+		fMisses++;
+		return null;
+	}
+
+	/**
+	 * Caches the info of the given configuration.
+	 *
+	 * @param config a launch configuration
+	 * @param info the info read from its file
+	 */
+	public synchronized void put(ILaunchConfiguration config, LaunchConfigurationInfo info) {
+		fSoft.remove(config);
+		fStrong.put(config, info);
+		evict();
+	}
+
+	/**
+	 * Caches the given info objects.
+	 *
+	 * @param infos info objects keyed by launch configuration
+	 */
+	public synchronized void putAll(Map<ILaunchConfiguration, LaunchConfigurationInfo> infos) {
+		for (Map.Entry<ILaunchConfiguration, LaunchConfigurationInfo> entry : infos.entrySet()) {
+			fSoft.remove(entry.getKey());
+			fStrong.put(entry.getKey(), entry.getValue());
+		}
+		evict();
+	}
+
+	/**
+	 * Discards the cached info of the given configuration.
+	 *
+	 * @param config a launch configuration
+	 * @return whether the info of the configuration was cached
+	 */
+	public synchronized boolean remove(ILaunchConfiguration config) {
+		boolean removed = fStrong.remove(config) != null;
+		SoftEntry entry = fSoft.remove(config);
+		return removed || (entry != null && entry.get() != null);
+	}
+
+	/**
+	 * Discards all cached info objects.
+	 */
+	public synchronized void clear() {
+		fStrong.clear();
+		fSoft.clear();
+		expunge();
+	}
+
+	/**
+	 * Sets the maximum number of strongly referenced entries.
+	 *
+	 * @param capacity maximum number of entries, <code>0</code> or less for
+	 *            no limit
+	 */
+	public synchronized void setCapacity(int capacity) {
+		fCapacity = capacity;
+		evict();
+	}
+
+	/**
+	 * Returns the maximum number of strongly referenced entries.
+	 *
+	 * @return maximum number of entries, <code>0</code> or less for no limit
+	 */
+	public synchronized int getCapacity() {
+		return fCapacity;
+	}
+
+	/**
+	 * Returns the number of strongly referenced entries.
+	 *
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		return fStrong.size();
+	}
+
+	/**
+	 * Returns the number of lookups answered by a strongly referenced entry.
+	 *
+	 * @return hit count
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * Returns the number of lookups answered by a softly referenced entry.
+	 *
+	 * @return soft hit count
+	 */
+	public synchronized long getSoftHitCount() {
+		return fSoftHits;
+	}
+
+	/**
+	 * Returns the number of lookups that required reading the configuration.
+	 *
+	 * @return miss count
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Returns the number of entries that were moved to soft references.
+	 *
+	 * @return eviction count
+	 */
+	public synchronized long getEvictionCount() {
+		return fEvictions;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "LaunchConfigurationInfoCache: " + fStrong.size() + '/' + fCapacity + " entries, " + fSoft.size() + " soft, hits " + fHits + ", soft hits " + fSoftHits + ", misses " + fMisses + ", evictions " + fEvictions; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	}
+
+	/**
+	 * Moves the least recently used entries beyond the capacity to soft
+	 * references and drops soft references that have been cleared.
+	 */
+	private void evict() {
+		if (fCapacity > 0 && fStrong.size() > fCapacity) {
+			Iterator<Map.Entry<ILaunchConfiguration, LaunchConfigurationInfo>> iterator = fStrong.entrySet().iterator();
+			while (fStrong.size() > fCapacity) {
+				Map.Entry<ILaunchConfiguration, LaunchConfigurationInfo> eldest = iterator.next();
+				fSoft.put(eldest.getKey(), new SoftEntry(eldest.getKey(), eldest.getValue(), fQueue));
+				iterator.remove();
+				fEvictions++;
+			}
+		}
+		expunge();
+	}
+
+	private void expunge() {
+		Reference<? extends LaunchConfigurationInfo> reference = fQueue.poll();
+		while (reference != null) {
+			SoftEntry entry = (SoftEntry) reference;
+			if (fSoft.get(entry.fConfig) == entry) {
+				fSoft.remove(entry.fConfig);
+			}
+			reference = fQueue.poll();
+		}
+	}
+}
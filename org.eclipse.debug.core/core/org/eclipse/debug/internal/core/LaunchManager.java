@@ -21,12 +21,12 @@ import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -34,16 +34,23 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -63,6 +70,7 @@ import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceProxy;
 import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -73,12 +81,15 @@ import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
@@ -86,6 +97,7 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationListener;
 import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchDelegate;
 import org.eclipse.debug.core.ILaunchListener;
 import org.eclipse.debug.core.ILaunchManager;
@@ -106,9 +118,6 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
 import com.ibm.icu.text.MessageFormat;
 
@@ -200,6 +209,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		 * @param update the type of change
 		 */
 		public void notify(ILaunchConfiguration configuration, int update) {
+			ConfigurationNotificationBatch batch = fNotificationBatch.get();
+			if (batch != null) {
+				batch.add(configuration, update);
+				return;
+			}
 			fConfiguration = configuration;
 			fType = update;
 			if (fLaunchConfigurationListeners.size() > 0) {
@@ -234,6 +248,95 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 	}
 
+	/**
+	 * Launch configuration notifications deferred while launch configurations
+	 * are saved together. Notifications are coalesced per configuration and
+	 * sent once all configurations have been saved.
+	 *
+	 * @since 3.10
+	 */
+	class ConfigurationNotificationBatch {
+
+		private final Map<ILaunchConfiguration, Integer> fPending = new LinkedHashMap<ILaunchConfiguration, Integer>();
+
+		/**
+		 * Moves made during the batch, keyed by both configurations
+		 */
+		private final Map<ILaunchConfiguration, ILaunchConfiguration[]> fMoves = new HashMap<ILaunchConfiguration, ILaunchConfiguration[]>();
+
+		/**
+		 * Records a notification, combining it with a pending notification
+		 * of the same configuration.
+		 *
+		 * @param configuration the configuration that has changed
+		 * @param update the type of change
+		 */
+		synchronized void add(ILaunchConfiguration configuration, int update) {
+			Integer pending = fPending.get(configuration);
+			if (pending == null) {
+				fPending.put(configuration, Integer.valueOf(update));
+				return;
+			}
+			switch (pending.intValue()) {
+				case ADDED:
+					// changes of an added configuration are implied
+					if (update == REMOVED) {
+						fPending.remove(configuration);
+					}
+					break;
+				case REMOVED:
+					// the configuration has been replaced
+					if (update != REMOVED) {
+						fPending.put(configuration, Integer.valueOf(CHANGED));
+					}
+					break;
+				default:
+					if (update == REMOVED) {
+						fPending.put(configuration, Integer.valueOf(REMOVED));
+					}
+					break;
+			}
+		}
+
+		/**
+		 * Records a configuration being moved, so that listeners can query
+		 * the move when notified.
+		 *
+		 * @param from the configuration moved
+		 * @param to the configuration it was moved to
+		 */
+		synchronized void moved(ILaunchConfiguration from, ILaunchConfiguration to) {
+			ILaunchConfiguration[] move = new ILaunchConfiguration[] { from, to };
+			fMoves.put(from, move);
+			fMoves.put(to, move);
+		}
+
+		/**
+		 * Notifies listeners of the pending notifications.
+		 */
+		void flush() {
+			Map<ILaunchConfiguration, Integer> pending = null;
+			Map<ILaunchConfiguration, ILaunchConfiguration[]> moves = null;
+			synchronized (this) {
+				pending = new LinkedHashMap<ILaunchConfiguration, Integer>(fPending);
+				moves = new HashMap<ILaunchConfiguration, ILaunchConfiguration[]>(fMoves);
+				fPending.clear();
+				fMoves.clear();
+			}
+			ConfigurationNotifier notifier = getConfigurationNotifier();
+			for (Entry<ILaunchConfiguration, Integer> entry : pending.entrySet()) {
+				ILaunchConfiguration[] move = moves.get(entry.getKey());
+				if (move != null) {
+					setMovedFromTo(move[0], move[1]);
+				}
+				notifier.notify(entry.getKey(), entry.getValue().intValue());
+			}
+			if (!moves.isEmpty()) {
+				setMovedFromTo(null, null);
+			}
+		}
+	}
+
 	/**
 	 * Notifies a launch listener (multiple launches) in a safe runnable to
 	 * handle exceptions.
@@ -527,6 +630,20 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	public static final int CHANGED= 2;
 	public static final int TERMINATE= 3;
 
+	/**
+	 * Factories of the readers parsing launch configuration files, one per
+	 * thread since configurations may be read in parallel and factories are
+	 * not guaranteed to be thread safe.
+	 *
+	 * @since 3.10
+	 */
+	private static final ThreadLocal<XMLInputFactory> fgInputFactory = new ThreadLocal<XMLInputFactory>() {
+		@Override
+		protected XMLInputFactory initialValue() {
+			return XMLInputFactory.newInstance();
+		}
+	};
+
 	/**
 	 * The collection of native environment variables on the user's system. Cached
 	 * after being computed once as the environment cannot change.
@@ -540,6 +657,47 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	public static final IPath LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH =
 		DebugPlugin.getDefault().getStateLocation().append(".launches"); //$NON-NLS-1$
+
+	/**
+	 * File the index of launch configurations is saved to on shutdown.
+	 *
+	 * @since 3.10
+	 */
+	private static final IPath LAUNCH_CONFIGURATION_INDEX_PATH =
+		DebugPlugin.getDefault().getStateLocation().append(".launches.index"); //$NON-NLS-1$
+
+	/**
+	 * Minimum number of launch configurations read in parallel while
+	 * building the index; fewer configurations are read on demand.
+	 *
+	 * @since 3.10
+	 */
+	private static final int PARALLEL_READ_THRESHOLD = 16;
+
+	/**
+	 * Number of launch configurations read by one task when reading in
+	 * parallel.
+	 *
+	 * @since 3.10
+	 */
+	private static final int PARALLEL_READ_BATCH = 8;
+
+	/**
+	 * Minimum number of local launch configurations saved together that are
+	 * written in parallel.
+	 *
+	 * @since 3.10
+	 */
+	private static final int PARALLEL_SAVE_THRESHOLD = 8;
+
+	/**
+	 * Number of launch configurations written by one task when saving in
+	 * parallel.
+	 *
+	 * @since 3.10
+	 */
+	private static final int PARALLEL_SAVE_BATCH = 4;
+
 	/**
 	 * Returns a Document that can be used to build a DOM tree
 	 * @return the Document
@@ -576,15 +734,20 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 
 	/**
 	 * Collection of defined launch configuration type
-	 * extensions.
+	 * extensions. Once initialized, types are looked up without
+	 * locking the manager so that launch configurations can be read
+	 * in parallel.
 	 */
-	private List<ILaunchConfigurationType> fLaunchConfigurationTypes = null;
+	private volatile List<ILaunchConfigurationType> fLaunchConfigurationTypes = null;
 
 	/**
 	 * Launch configuration cache. Keys are <code>LaunchConfiguration</code>,
-	 * values are <code>LaunchConfigurationInfo</code>.
+	 * values are <code>LaunchConfigurationInfo</code>. The number of strongly
+	 * referenced entries is bounded by the
+	 * {@link IInternalDebugCoreConstants#PREF_LAUNCH_CONFIGURATION_CACHE_SIZE}
+	 * preference.
 	 */
-	private Map<ILaunchConfiguration, LaunchConfigurationInfo> fLaunchConfigurations = new HashMap<ILaunchConfiguration, LaunchConfigurationInfo>(10);
+	private LaunchConfigurationInfoCache fLaunchConfigurations = new LaunchConfigurationInfoCache(Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_SIZE, 200, null));
 
 	/**
 	 * A cache of launch configuration names currently in the workspace.
@@ -592,10 +755,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	private String[] fSortedConfigNames = null;
 
 	/**
-	 * Collection of all launch configurations in the workspace.
-	 * <code>List</code> of <code>ILaunchConfiguration</code>.
+	 * Collection of all launch configurations in the workspace, indexed
+	 * by name, type, project and mapped resource. Guarded by the lock of this
+	 * manager once published.
 	 */
-	private List<ILaunchConfiguration> fLaunchConfigurationIndex = null;
+	private LaunchConfigurationIndex fLaunchConfigurationIndex = null;
 
 	/**
 	 * Launch configuration comparator extensions,
@@ -668,6 +832,14 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	private ListenerList fLaunchConfigurationListeners = new ListenerList();
 
+	/**
+	 * Notifications deferred by the launch configurations being saved
+	 * together on the current thread, if any.
+	 *
+	 * @since 3.10
+	 */
+	private final ThreadLocal<ConfigurationNotificationBatch> fNotificationBatch = new ThreadLocal<ConfigurationNotificationBatch>();
+
 	/**
 	 * Table of source locator extensions. Keys
 	 * are identifiers, and values are associated
@@ -887,6 +1059,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		if (fLaunchConfigurationIndex != null) {
 			fLaunchConfigurationIndex.clear();
 		}
+		if (DebugOptions.DEBUG_LAUNCH_CONFIGURATIONS) {
+			DebugOptions.trace(DebugOptions.DEBUG_FLAG_LAUNCH_CONFIGURATIONS, fLaunchConfigurations.toString(), null);
+		}
+		fLaunchConfigurations.clear();
 	}
 
 	/* (non-Javadoc)
@@ -941,24 +1117,22 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * caller can deal with them.  This is important since caller may need access to the
 	 * actual exception.
 	 *
+	 * The stream is read as it is parsed, without building a DOM.
+	 *
 	 * @param stream the {@link InputStream} to read from
 	 * @return the new {@link LaunchConfigurationInfo}
 	 * @throws CoreException if a problem is encountered
-	 * @throws ParserConfigurationException if the stream fails to parse
-	 * @throws IOException if there is a problem handling the given stream or writing the new info file
-	 * @throws SAXException if there is a SAX parse exception
-	 */
-	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream) throws CoreException,
-																			 ParserConfigurationException,
-																			 IOException,
-																			 SAXException {
-		Element root = null;
-		DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-		parser.setErrorHandler(new DefaultHandler());
-		root = parser.parse(new InputSource(stream)).getDocumentElement();
-		LaunchConfigurationInfo info = new LaunchConfigurationInfo();
-		info.initializeFromXML(root);
-		return info;
+	 * @throws XMLStreamException if the stream fails to parse
+	 */
+	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream) throws CoreException, XMLStreamException {
+		XMLStreamReader reader = fgInputFactory.get().createXMLStreamReader(stream);
+		try {
+			LaunchConfigurationInfo info = new LaunchConfigurationInfo();
+			info.initializeFromXML(reader);
+			return info;
+		} finally {
+			reader.close();
+		}
 	}
 
 	/**
@@ -997,11 +1171,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	public ILaunchConfiguration findLaunchConfiguration(String name) {
 		if(name != null) {
-			ILaunchConfiguration[] configs = getLaunchConfigurations();
-			for (int i = 0; i < configs.length; i++) {
-				if(name.equals(configs[i].getName())) {
-					return configs[i];
-				}
+			LaunchConfigurationIndex index = getAllLaunchConfigurations();
+			synchronized (this) {
+				return index.findByName(name);
 			}
 		}
 		return null;
@@ -1139,22 +1311,259 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	/**
 	 * Returns a collection of all launch configuration handles in
 	 * the workspace. This collection is initialized lazily.
+	 * <p>
+	 * Configurations whose file has not changed since the index was last
+	 * saved are restored from the saved index without being read. Other
+	 * configurations are read in parallel and verified.
+	 * </p>
+	 * <p>
+	 * The index is built without holding the lock of this manager, so that
+	 * building it in the background does not block other clients of the
+	 * manager, and published once built. A thread needing the index before
+	 * it is published builds it as well, and the first index published is
+	 * kept. Changes to launch configurations are applied to the published
+	 * index, holding the lock of this manager.
+	 * </p>
 	 *
 	 * @return all launch configuration handles
 	 */
-	private synchronized List<ILaunchConfiguration> getAllLaunchConfigurations() {
-		if (fLaunchConfigurationIndex == null) {
+	private LaunchConfigurationIndex getAllLaunchConfigurations() {
+		synchronized (this) {
+			if (fLaunchConfigurationIndex != null) {
+				return fLaunchConfigurationIndex;
+			}
+		}
+		// configurations changed while the index is built are applied to the
+		// published index
+		hookResourceChangeListener();
+		LaunchConfigurationIndex index = new LaunchConfigurationIndex();
+		index.load(LAUNCH_CONFIGURATION_INDEX_PATH.toFile());
+		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>(findLocalLaunchConfigurations());
+		configs.addAll(findLaunchConfigurations(ResourcesPlugin.getWorkspace().getRoot()));
+		List<ILaunchConfiguration> changed = new ArrayList<ILaunchConfiguration>();
+		for (ILaunchConfiguration config : configs) {
+			if (!index.restore(config)) {
+				changed.add(config);
+			}
+		}
+		readInfos(changed);
+		verifyConfigurations(changed, index);
+		synchronized (this) {
+			if (fLaunchConfigurationIndex == null) {
+				fLaunchConfigurationIndex = index;
+			}
+			return fLaunchConfigurationIndex;
+		}
+	}
+
+	/**
+	 * Reads and caches the info objects of the given launch configurations
+	 * using a fork join pool, so that verifying a large number of
+	 * configurations does not read them one after the other. Configurations
+	 * that cannot be read are skipped, the error is reported when they are
+	 * verified.
+	 *
+	 * @param configs the launch configurations to read
+	 * @since 3.10
+	 */
+	private void readInfos(List<ILaunchConfiguration> configs) {
+		if (configs.size() < PARALLEL_READ_THRESHOLD) {
+			return;
+		}
+		// types are needed to read configurations and must not be initialized
+		// by the pool threads while this thread may hold the lock
+		getLaunchConfigurationTypes();
+		Map<ILaunchConfiguration, LaunchConfigurationInfo> infos = new ConcurrentHashMap<ILaunchConfiguration, LaunchConfigurationInfo>(configs.size());
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			pool.invoke(new ReadInfosTask(configs, 0, configs.size(), infos));
+		} finally {
+			pool.shutdown();
+		}
+		fLaunchConfigurations.putAll(infos);
+	}
+
+	/**
+	 * Schedules a background job building the index of launch configurations,
+	 * so that the first client accessing launch configurations does not have
+	 * to wait for the workspace to be scanned.
+	 *
+	 * @since 3.10
+	 */
+	public static void scheduleIndexing() {
+		Job job = new Job(DebugCoreMessages.LaunchManager_32) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				DebugPlugin plugin = DebugPlugin.getDefault();
+				if (plugin != null && !monitor.isCanceled()) {
+					((LaunchManager) plugin.getLaunchManager()).getAllLaunchConfigurations();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+		job.schedule();
+	}
+
+	/**
+	 * Reads the info objects of a range of launch configurations, splitting
+	 * the range between pool threads. Only calls methods that do not lock the
+	 * manager.
+	 *
+	 * @since 3.10
+	 */
+	class ReadInfosTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<ILaunchConfiguration> fConfigs;
+		private final int fFrom;
+		private final int fTo;
+		private final Map<ILaunchConfiguration, LaunchConfigurationInfo> fInfos;
+
+		ReadInfosTask(List<ILaunchConfiguration> configs, int from, int to, Map<ILaunchConfiguration, LaunchConfigurationInfo> infos) {
+			fConfigs = configs;
+			fFrom = from;
+			fTo = to;
+			fInfos = infos;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (fTo - fFrom > PARALLEL_READ_BATCH) {
+				int middle = (fFrom + fTo) >>> 1;
+				invokeAll(new ReadInfosTask(fConfigs, fFrom, middle, fInfos), new ReadInfosTask(fConfigs, middle, fTo, fInfos));
+				return;
+			}
+			for (int i = fFrom; i < fTo; i++) {
+				ILaunchConfiguration config = fConfigs.get(i);
+				if (config instanceof LaunchConfiguration) {
+					try {
+						fInfos.put(config, readInfo((LaunchConfiguration) config));
+					} catch (CoreException e) {
+						// reported when verified
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Saves working copies of local launch configurations in parallel,
+	 * deferring notifications to the batch of the thread saving them.
+	 *
+	 * @since 3.10
+	 */
+	class SaveConfigurationsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ILaunchConfigurationWorkingCopy[] fWorkingCopies;
+		private final int[] fIndices;
+		private final int fFrom;
+		private final int fTo;
+		private final ILaunchConfiguration[] fSaved;
+		private final List<IStatus> fStati;
+		private final ConfigurationNotificationBatch fBatch;
+
+		SaveConfigurationsTask(ILaunchConfigurationWorkingCopy[] workingCopies, int[] indices, int from, int to, ILaunchConfiguration[] saved, List<IStatus> stati, ConfigurationNotificationBatch batch) {
+			fWorkingCopies = workingCopies;
+			fIndices = indices;
+			fFrom = from;
+			fTo = to;
+			fSaved = saved;
+			fStati = stati;
+			fBatch = batch;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (fTo - fFrom > PARALLEL_SAVE_BATCH) {
+				int middle = (fFrom + fTo) >>> 1;
+				invokeAll(new SaveConfigurationsTask(fWorkingCopies, fIndices, fFrom, middle, fSaved, fStati, fBatch), new SaveConfigurationsTask(fWorkingCopies, fIndices, middle, fTo, fSaved, fStati, fBatch));
+				return;
+			}
+			fNotificationBatch.set(fBatch);
 			try {
-				fLaunchConfigurationIndex = new ArrayList<ILaunchConfiguration>(20);
-				List<ILaunchConfiguration> configs = findLocalLaunchConfigurations();
-				verifyConfigurations(configs, fLaunchConfigurationIndex);
-				configs = findLaunchConfigurations(ResourcesPlugin.getWorkspace().getRoot());
-				verifyConfigurations(configs, fLaunchConfigurationIndex);
+				for (int i = fFrom; i < fTo; i++) {
+					saveLaunchConfiguration(fWorkingCopies, fIndices[i], fSaved, fStati, null);
+				}
 			} finally {
-				hookResourceChangeListener();
+				fNotificationBatch.remove();
+			}
+		}
+	}
+
+	/**
+	 * Configurations imported from files, by index of the file.
+	 *
+	 * @since 3.10
+	 */
+	static class ImportResults {
+
+		final LaunchConfiguration[] fConfigs;
+		final LaunchConfigurationInfo[] fInfos;
+		final boolean[] fAdded;
+
+		ImportResults(int size) {
+			fConfigs = new LaunchConfiguration[size];
+			fInfos = new LaunchConfigurationInfo[size];
+			fAdded = new boolean[size];
+		}
+	}
+
+	/**
+	 * Copies and reads files to import in parallel. The files must have
+	 * distinct names, so that they are copied to distinct targets.
+	 *
+	 * @since 3.10
+	 */
+	class ImportConfigurationsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final File[] fFiles;
+		private final int[] fIndices;
+		private final int fFrom;
+		private final int fTo;
+		private final ImportResults fResults;
+		private final List<Status> fStati;
+		private final IProgressMonitor fMonitor;
+
+		ImportConfigurationsTask(File[] files, int[] indices, int from, int to, ImportResults results, List<Status> stati, IProgressMonitor monitor) {
+			fFiles = files;
+			fIndices = indices;
+			fFrom = from;
+			fTo = to;
+			fResults = results;
+			fStati = stati;
+			fMonitor = monitor;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (fTo - fFrom > PARALLEL_READ_BATCH) {
+				int middle = (fFrom + fTo) >>> 1;
+				invokeAll(new ImportConfigurationsTask(fFiles, fIndices, fFrom, middle, fResults, fStati, fMonitor), new ImportConfigurationsTask(fFiles, fIndices, middle, fTo, fResults, fStati, fMonitor));
+				return;
+			}
+			for (int i = fFrom; i < fTo; i++) {
+				if (fMonitor.isCanceled()) {
+					return;
+				}
+				importConfiguration(fFiles, fIndices[i], fResults, fStati);
 			}
 		}
-		return fLaunchConfigurationIndex;
 	}
 
 	/**
@@ -1163,16 +1572,19 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * deleted or changed.
 	 * @return the sorted array of {@link ILaunchConfiguration} names
 	 */
-	protected synchronized String[] getAllSortedConfigNames() {
-		if (fSortedConfigNames == null) {
-			ILaunchConfiguration[] configs = getLaunchConfigurations();
-			fSortedConfigNames = new String[configs.length];
-			for (int i = 0; i < configs.length; i++) {
-				fSortedConfigNames[i] = configs[i].getName();
+	protected String[] getAllSortedConfigNames() {
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
+		synchronized (this) {
+			if (fSortedConfigNames == null) {
+				ILaunchConfiguration[] configs = index.toArray();
+				fSortedConfigNames = new String[configs.length];
+				for (int i = 0; i < configs.length; i++) {
+					fSortedConfigNames[i] = configs[i].getName();
+				}
+				Arrays.sort(fSortedConfigNames);
 			}
-			Arrays.sort(fSortedConfigNames);
+			return fSortedConfigNames;
 		}
-		return fSortedConfigNames;
 	}
 
 	/**
@@ -1368,40 +1780,48 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	protected LaunchConfigurationInfo getInfo(LaunchConfiguration config) throws CoreException {
 		LaunchConfigurationInfo info = fLaunchConfigurations.get(config);
 		if (info == null) {
-			IFileStore store = config.getFileStore();
-			if (config.exists()) {
-				BufferedInputStream stream = null;
-				try {
-					stream = new BufferedInputStream(store.openInputStream(EFS.NONE, null));
-					info = createInfoFromXML(stream);
-					synchronized (this) {
-						fLaunchConfigurations.put(config, info);
-					}
-				} catch (FileNotFoundException e) {
-					throwException(config, e);
-				} catch (SAXException e) {
-					throwException(config, e);
-				} catch (ParserConfigurationException e) {
-					throwException(config, e);
-				} catch (IOException e) {
-					throwException(config, e);
-				} finally {
-					if (stream != null) {
-						try {
-							stream.close();
-						} catch (IOException e) {
-							throwException(config, e);
-						}
+			info = readInfo(config);
+			fLaunchConfigurations.put(config, info);
+		}
+		return info;
+	}
+
+	/**
+	 * Reads the info object of the given launch configuration from its file,
+	 * without caching it. Does not lock the manager.
+	 *
+	 * @param config the launch configuration to read
+	 * @return the {@link LaunchConfigurationInfo} read from the file
+	 * @exception CoreException if an exception occurs building the info object
+	 * @exception DebugException if the config does not exist
+	 * @since 3.10
+	 */
+	private LaunchConfigurationInfo readInfo(LaunchConfiguration config) throws CoreException {
+		LaunchConfigurationInfo info = null;
+		IFileStore store = config.getFileStore();
+		if (config.exists()) {
+			BufferedInputStream stream = null;
+			try {
+				stream = new BufferedInputStream(store.openInputStream(EFS.NONE, null));
+				info = createInfoFromXML(stream);
+			} catch (XMLStreamException e) {
+				throwException(config, e);
+			} finally {
+				if (stream != null) {
+					try {
+						stream.close();
+					} catch (IOException e) {
+						throwException(config, e);
 					}
 				}
+			}
 
+		} else {
+			if (store != null){
+				throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist, new Object[] {
+						config.getName(), store.toURI().toString() }), null);
 			} else {
-				if (store != null){
-					throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist, new Object[] {
-							config.getName(), store.toURI().toString() }), null);
-				} else {
-					throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist_no_store_found, new Object[] { config.getName() }), null);
-				}
+				throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist_no_store_found, new Object[] { config.getName() }), null);
 			}
 		}
 		return info;
@@ -1429,23 +1849,23 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @see ILaunchManager#getLaunchConfigurations()
 	 */
 	@Override
-	public synchronized ILaunchConfiguration[] getLaunchConfigurations() {
-		List<ILaunchConfiguration> allConfigs = getAllLaunchConfigurations();
-		return allConfigs.toArray(new ILaunchConfiguration[allConfigs.size()]);
+	public ILaunchConfiguration[] getLaunchConfigurations() {
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
+		synchronized (this) {
+			return index.toArray();
+		}
 	}
 
 	/**
 	 * @see ILaunchManager#getLaunchConfigurations(ILaunchConfigurationType)
 	 */
 	@Override
-	public synchronized ILaunchConfiguration[] getLaunchConfigurations(ILaunchConfigurationType type) throws CoreException {
-		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
-			if (config.getType().equals(type)) {
-				configs.add(config);
-			}
+	public ILaunchConfiguration[] getLaunchConfigurations(ILaunchConfigurationType type) throws CoreException {
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
+		synchronized (this) {
+			List<ILaunchConfiguration> configs = index.getByType(type.getIdentifier());
+			return configs.toArray(new ILaunchConfiguration[configs.size()]);
 		}
-		return configs.toArray(new ILaunchConfiguration[configs.size()]);
 	}
 
 	/**
@@ -1456,15 +1876,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @return collection of launch configurations that are stored as resources
 	 *  in the given project
 	 */
-	protected synchronized List<ILaunchConfiguration> getLaunchConfigurations(IProject project) {
-		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
-			IFile file = config.getFile();
-			if (file != null && file.getProject().equals(project)) {
-				configs.add(config);
-			}
+	protected List<ILaunchConfiguration> getLaunchConfigurations(IProject project) {
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
+		synchronized (this) {
+			return index.getByProject(project);
 		}
-		return configs;
 	}
 
 	/**
@@ -1486,8 +1902,12 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	@Override
 	public ILaunchConfigurationType[] getLaunchConfigurationTypes() {
-		initializeLaunchConfigurationTypes();
-		return fLaunchConfigurationTypes.toArray(new ILaunchConfigurationType[fLaunchConfigurationTypes.size()]);
+		List<ILaunchConfigurationType> types = fLaunchConfigurationTypes;
+		if (types == null) {
+			initializeLaunchConfigurationTypes();
+			types = fLaunchConfigurationTypes;
+		}
+		return types.toArray(new ILaunchConfigurationType[types.size()]);
 	}
 
 	/**
@@ -1725,11 +2145,14 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 *
 	 * @return collection of launch configurations stored locally
 	 */
-	protected synchronized List<ILaunchConfiguration> getLocalLaunchConfigurations() {
+	protected List<ILaunchConfiguration> getLocalLaunchConfigurations() {
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
 		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
-			if (config.isLocal()) {
-				configs.add(config);
+		synchronized (this) {
+			for (ILaunchConfiguration config : index) {
+				if (config.isLocal()) {
+					configs.add(config);
+				}
 			}
 		}
 		return configs;
@@ -1742,23 +2165,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @since 3.2
 	 */
 	public ILaunchConfiguration[] getMappedConfigurations(IResource resource) {
-		List<ILaunchConfiguration> configurations = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
-			try {
-				IResource[] resources = config.getMappedResources();
-				if(resources != null) {
-					for(int j = 0; j < resources.length; j++) {
-						if(resources[j].equals(resource)) {
-							configurations.add(config);
-							break;
-						}
-					}
-				}
-			} catch (CoreException ce) {
-				DebugPlugin.log(ce);
-			}
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
+		synchronized (this) {
+			List<ILaunchConfiguration> configurations = index.getByMappedResource(resource);
+			return configurations.toArray(new ILaunchConfiguration[configurations.size()]);
 		}
-		return configurations.toArray(new ILaunchConfiguration[configurations.size()]);
 	}
 
 	/* (non-Javadoc)
@@ -1932,10 +2343,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 			hookResourceChangeListener();
 			IExtensionPoint extensionPoint= Platform.getExtensionRegistry().getExtensionPoint(DebugPlugin.getUniqueIdentifier(), DebugPlugin.EXTENSION_POINT_LAUNCH_CONFIGURATION_TYPES);
 			IConfigurationElement[] infos = extensionPoint.getConfigurationElements();
-			fLaunchConfigurationTypes = new ArrayList<ILaunchConfigurationType>(infos.length);
+			List<ILaunchConfigurationType> types = new ArrayList<ILaunchConfigurationType>(infos.length);
 			for (int i= 0; i < infos.length; i++) {
-				fLaunchConfigurationTypes.add(new LaunchConfigurationType(infos[i]));
+				types.add(new LaunchConfigurationType(infos[i]));
 			}
+			fLaunchConfigurationTypes = types;
 		}
 	}
 
@@ -2048,12 +2460,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	@Override
 	public boolean isExistingLaunchConfigurationName(String name) {
-		String[] sortedConfigNames = getAllSortedConfigNames();
-		int index = Arrays.binarySearch(sortedConfigNames, name);
-		if (index < 0) {
-			return false;
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
+		synchronized (this) {
+			return index.containsName(name);
 		}
-		return true;
 	}
 
 	/**
@@ -2128,12 +2538,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 		if (isValid(config)) {
 			boolean added = false;
+			LaunchConfigurationIndex index = getAllLaunchConfigurations();
 			synchronized (this) {
-				List<ILaunchConfiguration> allConfigs = getAllLaunchConfigurations();
-				if (!allConfigs.contains(config)) {
-					allConfigs.add(config);
-					added = true;
-				}
+				added = index.add(config);
 			}
 			if (added) {
 				getConfigurationNotifier().notify(config, ADDED);
@@ -2154,11 +2561,31 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param config the launch configuration that was changed
 	 */
 	protected void launchConfigurationChanged(ILaunchConfiguration config) {
-		synchronized(this) {
+		launchConfigurationChanged(config, null);
+	}
+
+	/**
+	 * Notifies the launch manager that a launch configuration has been
+	 * changed, caching the given info object read from the changed file.
+	 *
+	 * @param config the launch configuration that was changed
+	 * @param info the info read from the changed file, or <code>null</code>
+	 *            to read it on the next access
+	 * @since 3.10
+	 */
+	private void launchConfigurationChanged(ILaunchConfiguration config, LaunchConfigurationInfo info) {
+		if (info == null) {
 			fLaunchConfigurations.remove(config);
+		} else {
+			fLaunchConfigurations.put(config, info);
 		}
 		clearConfigNameCache();
 		if (isValid(config)) {
+			// the type and mapped resources may have changed
+			LaunchConfigurationIndex index = getAllLaunchConfigurations();
+			synchronized (this) {
+				index.update(config);
+			}
 			// in case the config has been refreshed and it was removed from the
 			// index due to 'out of synch with local file system' (see bug 36147),
 			// add it back (will only add if required)
@@ -2179,10 +2606,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	protected void launchConfigurationDeleted(ILaunchConfiguration config) {
 		boolean removed = false;
+		LaunchConfigurationIndex index = getAllLaunchConfigurations();
 		synchronized (this) {
-			Object key = fLaunchConfigurations.remove(config);
-			removed = key != null;
-			getAllLaunchConfigurations().remove(config);
+			removed = fLaunchConfigurations.remove(config);
+			// the info may have been evicted from the cache
+			removed |= index.remove(config);
 		}
 		if (removed) {
 			getConfigurationNotifier().notify(config, REMOVED);
@@ -2359,6 +2787,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	protected void setMovedFromTo(ILaunchConfiguration from, ILaunchConfiguration to) {
 		fFrom = from;
 		fTo = to;
+		ConfigurationNotificationBatch batch = fNotificationBatch.get();
+		if (batch != null && from != null && to != null) {
+			batch.moved(from, to);
+		}
 	}
 	/**
 	 * Terminates/Disconnects any active debug targets/processes.
@@ -2390,11 +2822,28 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 
 		persistPreferredLaunchDelegates();
+		saveLaunchConfigurationIndex();
 		clearAllLaunchConfigurations();
 		fStepFilterManager = null;
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
 	}
 
+	/**
+	 * Saves the index of launch configurations, if built, so that unchanged
+	 * configurations do not need to be read on the next startup.
+	 *
+	 * @since 3.10
+	 */
+	private synchronized void saveLaunchConfigurationIndex() {
+		if (fLaunchConfigurationIndex != null) {
+			try {
+				fLaunchConfigurationIndex.save(LAUNCH_CONFIGURATION_INDEX_PATH.toFile());
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
+		}
+	}
+
 	/**
 	 * Saves the listings of preferred launch delegates from all of the launch configuration types
 	 *
@@ -2486,9 +2935,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * Exceptions are logged for invalid configurations.
 	 *
 	 * @param verify the list of configurations to verify
-	 * @param valid the list to place valid configurations in
+	 * @param valid the index to add valid configurations to
 	 */
-	protected void verifyConfigurations(List<ILaunchConfiguration> verify, List<ILaunchConfiguration> valid) {
+	protected void verifyConfigurations(List<ILaunchConfiguration> verify, LaunchConfigurationIndex valid) {
 		for (ILaunchConfiguration config : verify) {
 			if (!valid.contains(config) && isValid(config)) {
 				valid.add(config);
@@ -2551,6 +3000,126 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		return fStepFilterManager;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.ILaunchManager#saveLaunchConfigurations(org.eclipse.debug.core.ILaunchConfigurationWorkingCopy[], org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	@Override
+	public ILaunchConfiguration[] saveLaunchConfigurations(final ILaunchConfigurationWorkingCopy[] workingCopies, IProgressMonitor monitor) throws CoreException {
+		final ILaunchConfiguration[] saved = new ILaunchConfiguration[workingCopies.length];
+		final List<IStatus> stati = Collections.synchronizedList(new ArrayList<IStatus>());
+		ConfigurationNotificationBatch batch = fNotificationBatch.get();
+		final boolean nested = batch != null;
+		if (!nested) {
+			batch = new ConfigurationNotificationBatch();
+			fNotificationBatch.set(batch);
+		}
+		final ConfigurationNotificationBatch notifications = batch;
+		try {
+			IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+				@Override
+				public void run(IProgressMonitor pm) throws CoreException {
+					saveLaunchConfigurations(workingCopies, saved, stati, notifications, pm);
+				}
+			};
+			ResourcesPlugin.getWorkspace().run(runnable, null, 0, monitor);
+		} finally {
+			if (!nested) {
+				fNotificationBatch.remove();
+				batch.flush();
+			}
+		}
+		if (!stati.isEmpty()) {
+			if (stati.size() > 1) {
+				MultiStatus multi = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, DebugCoreMessages.LaunchManager_34, null);
+				for (IStatus status : stati) {
+					multi.add(status);
+				}
+				throw new CoreException(multi);
+			} else {
+				throw new CoreException(stati.get(0));
+			}
+		}
+		return saved;
+	}
+
+	/**
+	 * Saves the given working copies within a workspace operation. Working
+	 * copies of local configurations that are not renamed or moved do not
+	 * change the workspace and are written in parallel, the others are saved
+	 * in order.
+	 *
+	 * @param workingCopies the working copies to save
+	 * @param saved array to store the saved configurations into
+	 * @param stati list to add the status of failed saves to
+	 * @param batch the notifications deferred by the current thread
+	 * @param monitor progress monitor
+	 * @since 3.10
+	 */
+	private void saveLaunchConfigurations(ILaunchConfigurationWorkingCopy[] workingCopies, ILaunchConfiguration[] saved, List<IStatus> stati, ConfigurationNotificationBatch batch, IProgressMonitor monitor) {
+		SubMonitor lmonitor = SubMonitor.convert(monitor, DebugCoreMessages.LaunchManager_33, workingCopies.length);
+		int[] parallel = new int[workingCopies.length];
+		int count = 0;
+		for (int i = 0; i < workingCopies.length; i++) {
+			ILaunchConfigurationWorkingCopy wc = workingCopies[i];
+			if (wc.getParent() == null && wc.isLocal() && wc instanceof LaunchConfigurationWorkingCopy && !((LaunchConfigurationWorkingCopy) wc).isMoved()) {
+				parallel[count++] = i;
+			}
+		}
+		if (count < PARALLEL_SAVE_THRESHOLD) {
+			count = 0;
+		} else {
+			if (lmonitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			// types are needed to verify the saved configurations, initialize
+			// them once rather than contending for the lock in the pool threads
+			getLaunchConfigurationTypes();
+			ForkJoinPool pool = new ForkJoinPool();
+			try {
+				pool.invoke(new SaveConfigurationsTask(workingCopies, parallel, 0, count, saved, stati, batch));
+			} finally {
+				pool.shutdown();
+			}
+			lmonitor.worked(count);
+		}
+		int next = 0;
+		for (int i = 0; i < workingCopies.length; i++) {
+			if (next < count && parallel[next] == i) {
+				next++;
+				continue;
+			}
+			if (lmonitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			saveLaunchConfiguration(workingCopies, i, saved, stati, lmonitor.newChild(1));
+		}
+	}
+
+	/**
+	 * Saves one of the given working copies, recording its status if it
+	 * fails.
+	 *
+	 * @param workingCopies the working copies being saved
+	 * @param index index of the working copy to save
+	 * @param saved array to store the saved configuration into
+	 * @param stati list to add the status to if the save fails
+	 * @param monitor progress monitor or <code>null</code>
+	 * @since 3.10
+	 */
+	void saveLaunchConfiguration(ILaunchConfigurationWorkingCopy[] workingCopies, int index, ILaunchConfiguration[] saved, List<IStatus> stati, IProgressMonitor monitor) {
+		ILaunchConfigurationWorkingCopy wc = workingCopies[index];
+		try {
+			if (wc instanceof LaunchConfigurationWorkingCopy) {
+				saved[index] = ((LaunchConfigurationWorkingCopy) wc).doSave(monitor == null ? new NullProgressMonitor() : monitor);
+			} else {
+				saved[index] = wc.doSave();
+			}
+		} catch (CoreException e) {
+			stati.add(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR,
+					MessageFormat.format(DebugCoreMessages.LaunchManager_35, new Object[] { wc.getName() }), e));
+		}
+	}
+
 	/**
 	 * Imports launch configurations represented by the given local files, overwriting
 	 * any existing configurations. Sends launch configuration change notification
@@ -2564,8 +3133,8 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @throws CoreException if an exception occurs while importing configurations
 	 * @since 3.4.0
 	 */
-	public void importConfigurations(File[] files, IProgressMonitor monitor) throws CoreException {
-		Map<String, ILaunchConfiguration> sharedConfigs = new HashMap<String, ILaunchConfiguration>();
+	public void importConfigurations(final File[] files, IProgressMonitor monitor) throws CoreException {
+		final Map<String, ILaunchConfiguration> sharedConfigs = new HashMap<String, ILaunchConfiguration>();
 		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
 			if (!config.isLocal()) {
 				StringBuffer buf = new StringBuffer(config.getName());
@@ -2574,47 +3143,92 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 				sharedConfigs.put(buf.toString(), config);
 			}
 		}
-		List<Status> stati = null;
-		SubMonitor lmonitor = SubMonitor.convert(monitor, DebugCoreMessages.LaunchManager_29, files.length);
+		List<Status> stati = Collections.synchronizedList(new ArrayList<Status>());
+		final SubMonitor lmonitor = SubMonitor.convert(monitor, DebugCoreMessages.LaunchManager_29, files.length * 2);
+		File dir = LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.toFile();
+		if (!dir.exists()) {
+			dir.mkdirs();
+		}
+		// files with the same name are copied to the same target: import the
+		// first of them in parallel and the others afterwards, in order
+		final ImportResults results = new ImportResults(files.length);
+		Set<String> names = new HashSet<String>(files.length);
+		int[] indices = new int[files.length];
+		int count = 0;
+		List<Integer> duplicates = new ArrayList<Integer>();
 		for (int i = 0; i < files.length; i++) {
-			if (lmonitor.isCanceled()) {
-				break;
+			if (names.add(files[i].getName())) {
+				indices[count++] = i;
+			} else {
+				duplicates.add(Integer.valueOf(i));
 			}
-			File source = files[i];
-			lmonitor.subTask(MessageFormat.format(DebugCoreMessages.LaunchManager_28, new Object[] { source.getName() }));
-			IPath location = new Path(LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.toOSString()).append(source.getName());
-			File target = location.toFile();
-			IPath locationdir = location.removeLastSegments(1);
-			if(!locationdir.toFile().exists()) {
-				locationdir.toFile().mkdirs();
+		}
+		// copy and read the files in parallel, then notify in order
+		if (count < PARALLEL_READ_THRESHOLD) {
+			for (int i = 0; i < count && !lmonitor.isCanceled(); i++) {
+				importConfiguration(files, indices[i], results, stati);
 			}
-			boolean added = !target.exists();
+		} else {
+			// types are needed to read configurations, initialize them once
+			// rather than contending for the lock in the pool threads
+			getLaunchConfigurationTypes();
+			ForkJoinPool pool = new ForkJoinPool();
 			try {
-				copyFile(source, target);
-				ILaunchConfiguration configuration = new LaunchConfiguration(LaunchConfiguration.getSimpleName(source.getName()), null);
-				ILaunchConfiguration shared = sharedConfigs.get(target.getName());
-				if (shared != null) {
-					setMovedFromTo(shared, configuration);
-					shared.delete();
-					launchConfigurationChanged(configuration);
-				} else if (added) {
-					launchConfigurationAdded(configuration);
-				} else {
-					launchConfigurationChanged(configuration);
-				}
-			} catch (IOException e) {
-				if (stati == null) {
-					stati = new ArrayList<Status>();
+				pool.invoke(new ImportConfigurationsTask(files, indices, 0, count, results, stati, lmonitor));
+			} finally {
+				pool.shutdown();
+			}
+		}
+		for (int i = 0; i < duplicates.size() && !lmonitor.isCanceled(); i++) {
+			importConfiguration(files, duplicates.get(i).intValue(), results, stati);
+		}
+		lmonitor.worked(files.length);
+		ConfigurationNotificationBatch batch = fNotificationBatch.get();
+		final boolean nested = batch != null;
+		if (!nested) {
+			batch = new ConfigurationNotificationBatch();
+			fNotificationBatch.set(batch);
+		}
+		try {
+			// deleting shared configurations changes the workspace
+			IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+				@Override
+				public void run(IProgressMonitor pm) throws CoreException {
+					for (int i = 0; i < results.fConfigs.length; i++) {
+						LaunchConfiguration configuration = results.fConfigs[i];
+						if (configuration == null) {
+							continue;
+						}
+						lmonitor.subTask(MessageFormat.format(DebugCoreMessages.LaunchManager_28, new Object[] { files[i].getName() }));
+						LaunchConfigurationInfo info = results.fInfos[i];
+						if (info != null) {
+							fLaunchConfigurations.put(configuration, info);
+						}
+						ILaunchConfiguration shared = sharedConfigs.get(files[i].getName());
+						if (shared != null) {
+							setMovedFromTo(shared, configuration);
+							shared.delete();
+							launchConfigurationChanged(configuration, info);
+						} else if (results.fAdded[i]) {
+							launchConfigurationAdded(configuration);
+						} else {
+							launchConfigurationChanged(configuration, info);
+						}
+						lmonitor.worked(1);
+					}
 				}
-				stati.add(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR,
- MessageFormat.format(DebugCoreMessages.LaunchManager_27, new Object[] { source.getPath() }), e));
+			};
+			ResourcesPlugin.getWorkspace().run(runnable, null, 0, null);
+		} finally {
+			if (!nested) {
+				fNotificationBatch.remove();
+				batch.flush();
 			}
-			lmonitor.worked(1);
 		}
 		if (!lmonitor.isCanceled()) {
 			lmonitor.done();
 		}
-		if (stati != null) {
+		if (!stati.isEmpty()) {
 			if (stati.size() > 1) {
 				MultiStatus multi = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, DebugCoreMessages.LaunchManager_26, null);
 				for (Status status : stati) {
@@ -2627,6 +3241,37 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 	}
 
+	/**
+	 * Copies a file to import into the local launch configuration container
+	 * and reads it, recording the imported configuration.
+	 *
+	 * @param files the files to import
+	 * @param index index of the file to import
+	 * @param results the results to record the configuration into
+	 * @param stati list to add the status to if the copy fails
+	 * @since 3.10
+	 */
+	void importConfiguration(File[] files, int index, ImportResults results, List<Status> stati) {
+		File source = files[index];
+		File target = new Path(LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.toOSString()).append(source.getName()).toFile();
+		boolean added = !target.exists();
+		try {
+			copyFile(source, target);
+		} catch (IOException e) {
+			stati.add(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR,
+ MessageFormat.format(DebugCoreMessages.LaunchManager_27, new Object[] { source.getPath() }), e));
+			return;
+		}
+		LaunchConfiguration configuration = new LaunchConfiguration(LaunchConfiguration.getSimpleName(source.getName()), null);
+		results.fConfigs[index] = configuration;
+		results.fAdded[index] = added;
+		try {
+			results.fInfos[index] = readInfo(configuration);
+		} catch (CoreException e) {
+			// reported when the configuration is verified
+		}
+	}
+
 	/**
 	 * Copies a file from one location to another, replacing any existing file.
 	 *
@@ -2636,13 +3281,7 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @since 3.4.0
 	 */
 	private void copyFile(File in, File out) throws IOException {
-		try (FileInputStream fis = new FileInputStream(in); FileOutputStream fos = new FileOutputStream(out)) {
-			byte[] buf = new byte[1024];
-			int i = 0;
-			while ((i = fis.read(buf)) != -1) {
-				fos.write(buf, 0, i);
-			}
-	    }
+		Files.copy(in.toPath(), out.toPath(), StandardCopyOption.REPLACE_EXISTING);
 	}
 
 	/**
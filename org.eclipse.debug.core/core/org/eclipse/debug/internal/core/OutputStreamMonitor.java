@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,13 +14,24 @@ package org.eclipse.debug.internal.core;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IBinaryStreamListener;
 import org.eclipse.debug.core.IStreamListener;
-import org.eclipse.debug.core.model.IFlushableStreamMonitor;
+import org.eclipse.debug.core.model.IBinaryStreamMonitor;
+import org.eclipse.debug.core.model.IBoundedStreamMonitor;
 
 /**
  * Monitors the output stream of a system process and notifies
@@ -29,7 +40,7 @@ import org.eclipse.debug.core.model.IFlushableStreamMonitor;
  * The output stream monitor reads system out (or err) via
  * and input stream.
  */
-public class OutputStreamMonitor implements IFlushableStreamMonitor {
+public class OutputStreamMonitor implements IBoundedStreamMonitor, IBinaryStreamMonitor {
 	/**
 	 * The stream being monitored (connected system out or err).
 	 */
@@ -40,20 +51,26 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	private ListenerList fListeners= new ListenerList();
 
+	/**
+	 * A collection of binary listeners
+	 */
+	private ListenerList fBinaryListeners= new ListenerList();
+
 	/**
 	 * Whether content is being buffered
 	 */
 	private boolean fBuffered = true;
 
 	/**
-	 * The local copy of the stream contents
+	 * The local copy of the stream contents, bounded by the
+	 * {@link IInternalDebugCoreConstants#PREF_STREAM_BUFFER_CAPACITY} preference
 	 */
-	private StringBuffer fContents;
+	private StreamContentsBuffer fContents;
 
 	/**
-	 * The thread which reads from the stream
+	 * The task which reads from the stream
 	 */
-	private Thread fThread;
+	private Future<?> fReader;
 
 	/**
 	 * The size of the read buffer
@@ -67,10 +84,20 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	private boolean fKilled= false;
 
-    private long lastSleep;
-
 	private String fEncoding;
 
+	/**
+	 * Decoder converting the stream bytes into characters. It is reused
+	 * for the lifetime of the monitor, so multi-byte sequences split between
+	 * two reads are decoded correctly.
+	 */
+	private CharsetDecoder fDecoder;
+
+	/**
+	 * Reusable buffer receiving the decoded characters
+	 */
+	private CharBuffer fDecodedChars;
+
 	/**
 	 * Creates an output stream monitor on the
 	 * given stream (connected to system out or err).
@@ -81,7 +108,7 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	public OutputStreamMonitor(InputStream stream, String encoding) {
         fStream = new BufferedInputStream(stream, 8192);
         fEncoding = encoding;
-		fContents= new StringBuffer();
+		fContents= new StreamContentsBuffer(Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_BUFFER_CAPACITY, 0, null));
 	}
 
 	/* (non-Javadoc)
@@ -92,20 +119,31 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		fListeners.add(listener);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBinaryStreamMonitor#addBinaryListener(org.eclipse.debug.core.IBinaryStreamListener)
+	 */
+	@Override
+	public synchronized void addBinaryListener(IBinaryStreamListener listener) {
+		fBinaryListeners.add(listener);
+	}
+
 	/**
 	 * Causes the monitor to close all
 	 * communications between it and the
-	 * underlying stream by waiting for the thread to terminate.
+	 * underlying stream by waiting for the reader to terminate.
 	 */
 	protected void close() {
-		if (fThread != null) {
-			Thread thread= fThread;
-			fThread= null;
+		if (fReader != null) {
+			Future<?> reader= fReader;
+			fReader= null;
 			try {
-				thread.join();
+				reader.get();
 			} catch (InterruptedException ie) {
+			} catch (ExecutionException e) {
+				DebugPlugin.log(e.getCause());
 			}
 			fListeners = new ListenerList();
+			fBinaryListeners = new ListenerList();
 		}
 	}
 
@@ -118,6 +156,17 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		getNotifier().notifyAppend(text);
 	}
 
+	/**
+	 * Notifies the binary listeners that bytes have
+	 * been appended to the stream.
+	 * @param data buffer containing the appended bytes
+	 * @param offset offset of the first appended byte
+	 * @param length number of appended bytes
+	 */
+	private void fireBinaryStreamAppended(byte[] data, int offset, int length) {
+		getBinaryNotifier().notifyAppend(data, offset, length);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.debug.core.model.IStreamMonitor#getContents()
 	 */
@@ -126,37 +175,88 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		return fContents.toString();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBoundedStreamMonitor#getContents(int, int)
+	 */
+	@Override
+	public synchronized String getContents(int offset, int length) {
+		return fContents.get(offset, length);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBoundedStreamMonitor#getContentsLength()
+	 */
+	@Override
+	public synchronized int getContentsLength() {
+		return fContents.length();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBoundedStreamMonitor#setBufferCapacity(int)
+	 */
+	@Override
+	public synchronized void setBufferCapacity(int capacity) {
+		fContents.setCapacity(capacity);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBoundedStreamMonitor#getBufferCapacity()
+	 */
+	@Override
+	public synchronized int getBufferCapacity() {
+		return fContents.getCapacity();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBoundedStreamMonitor#getDroppedLength()
+	 */
+	@Override
+	public synchronized long getDroppedLength() {
+		return fContents.getDroppedCount();
+	}
+
 	/**
 	 * Continually reads from the stream.
 	 * <p>
+	 * Reading is not throttled by the monitor itself. Listeners that cannot
+	 * keep up with the output apply backpressure by blocking while notified,
+	 * which stops reading until they are ready and lets the process block on
+	 * its full output pipe.
+	 * </p>
+	 * <p>
 	 * This method, along with the <code>startReading</code>
 	 * method is used to allow <code>OutputStreamMonitor</code>
 	 * to implement <code>Runnable</code> without publicly
 	 * exposing a <code>run</code> method.
 	 */
 	private void read() {
-        lastSleep = System.currentTimeMillis();
-        long currentTime = lastSleep;
 		byte[] bytes= new byte[BUFFER_SIZE];
+		// bytes not decoded yet are between position and limit
+		ByteBuffer undecoded = ByteBuffer.wrap(bytes, 0, 0);
 		int read = 0;
 		while (read >= 0) {
 			try {
 				if (fKilled) {
 					break;
 				}
-				read= fStream.read(bytes);
+				// keep an incomplete multi-byte sequence at the start of the buffer
+				undecoded.compact();
+				int pending = undecoded.position();
+				read= fStream.read(bytes, pending, bytes.length - pending);
+				if (read > 0) {
+					undecoded.position(pending + read);
+				}
+				undecoded.flip();
 				if (read > 0) {
-					String text;
-					if (fEncoding != null) {
-						text = new String(bytes, 0, read, fEncoding);
-					} else {
-						text = new String(bytes, 0, read);
-					}
 					synchronized (this) {
-						if (isBuffered()) {
-							fContents.append(text);
+						// only decode when text is actually requested, binary
+						// listeners get the raw bytes
+						if (isBuffered() || !fListeners.isEmpty()) {
+							decode(undecoded, false);
+						} else {
+							undecoded.position(undecoded.limit());
 						}
-						fireStreamAppended(text);
+						fireBinaryStreamAppended(bytes, pending, read);
 					}
 				}
 			} catch (IOException ioe) {
@@ -167,20 +267,17 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 			} catch (NullPointerException e) {
 				// killing the stream monitor while reading can cause an NPE
 				// when reading from the stream
-				if (!fKilled && fThread != null) {
+				if (!fKilled && fReader != null) {
 					DebugPlugin.log(e);
 				}
 				return;
 			}
-
-            currentTime = System.currentTimeMillis();
-            if (currentTime - lastSleep > 1000) {
-                lastSleep = currentTime;
-                try {
-                    Thread.sleep(1); // just give up CPU to maintain UI responsiveness.
-                } catch (InterruptedException e) {
-                }
-            }
+		}
+		if (undecoded.hasRemaining()) {
+			// end of stream within a multi-byte sequence
+			synchronized (this) {
+				decode(undecoded, true);
+			}
 		}
 		try {
 			fStream.close();
@@ -189,6 +286,78 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		}
 	}
 
+	/**
+	 * Decodes the given bytes, appends the resulting text to the buffered
+	 * contents and notifies the listeners. Bytes of a trailing incomplete
+	 * sequence are left in the buffer unless the end of input is reached.
+	 * <p>
+	 * The buffered contents are appended directly from the decoded characters,
+	 * a <code>String</code> is only created when there are listeners to notify.
+	 * </p>
+	 *
+	 * @param bytes the bytes to decode
+	 * @param endOfInput whether no more bytes will follow
+	 */
+	private void decode(ByteBuffer bytes, boolean endOfInput) {
+		CharsetDecoder decoder = getDecoder();
+		CoderResult result;
+		do {
+			result = decoder.decode(bytes, fDecodedChars, endOfInput);
+			appendDecoded();
+		} while (result.isOverflow());
+		if (endOfInput) {
+			do {
+				result = decoder.flush(fDecodedChars);
+				appendDecoded();
+			} while (result.isOverflow());
+		}
+	}
+
+	/**
+	 * Appends the characters in the decoded character buffer to the buffered
+	 * contents, notifies listeners and clears the buffer.
+	 */
+	private void appendDecoded() {
+		fDecodedChars.flip();
+		int length = fDecodedChars.remaining();
+		if (length > 0) {
+			char[] chars = fDecodedChars.array();
+			if (isBuffered()) {
+				fContents.append(chars, 0, length);
+			}
+			if (!fListeners.isEmpty()) {
+				fireStreamAppended(new String(chars, 0, length));
+			}
+		}
+		fDecodedChars.clear();
+	}
+
+	/**
+	 * Returns the decoder for the stream encoding, creating it if required.
+	 * Malformed input is replaced the same way <code>new String(byte[], ...)</code>
+	 * does.
+	 *
+	 * @return the decoder for the stream encoding
+	 */
+	private CharsetDecoder getDecoder() {
+		if (fDecoder == null) {
+			Charset charset = null;
+			if (fEncoding != null) {
+				try {
+					charset = Charset.forName(fEncoding);
+				} catch (IllegalArgumentException e) {
+					DebugPlugin.log(e);
+				}
+			}
+			if (charset == null) {
+				charset = Charset.defaultCharset();
+			}
+			fDecoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+			fDecodedChars = CharBuffer.allocate(BUFFER_SIZE);
+		}
+		return fDecoder;
+	}
+
 	protected void kill() {
 		fKilled= true;
 	}
@@ -201,20 +370,25 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		fListeners.remove(listener);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IBinaryStreamMonitor#removeBinaryListener(org.eclipse.debug.core.IBinaryStreamListener)
+	 */
+	@Override
+	public synchronized void removeBinaryListener(IBinaryStreamListener listener) {
+		fBinaryListeners.remove(listener);
+	}
+
 	/**
-	 * Starts a thread which reads from the stream
+	 * Starts reading from the stream on a process I/O thread
 	 */
 	protected void startMonitoring() {
-		if (fThread == null) {
-			fThread= new Thread(new Runnable() {
+		if (fReader == null) {
+			fReader= ProcessIOExecutor.getDefault().execute(new Runnable() {
 				@Override
 				public void run() {
 					read();
 				}
-			}, DebugCoreMessages.OutputStreamMonitor_label);
-            fThread.setDaemon(true);
-            fThread.setPriority(Thread.MIN_PRIORITY);
-			fThread.start();
+			}, DebugCoreMessages.OutputStreamMonitor_label, Thread.MIN_PRIORITY);
 		}
 	}
 
@@ -231,11 +405,11 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	@Override
 	public synchronized void flushContents() {
-		fContents.setLength(0);
+		fContents.clear();
 	}
 
 	/**
-	 * @see IFlushableStreamMonitor#isBuffered()
+	 * @see org.eclipse.debug.core.model.IFlushableStreamMonitor#isBuffered()
 	 */
 	@Override
 	public synchronized boolean isBuffered() {
@@ -246,6 +420,10 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		return new ContentNotifier();
 	}
 
+	private BinaryContentNotifier getBinaryNotifier() {
+		return new BinaryContentNotifier();
+	}
+
 	class ContentNotifier implements ISafeRunnable {
 
 		private IStreamListener fListener;
@@ -281,4 +459,44 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 			fText = null;
 		}
 	}
+
+	class BinaryContentNotifier implements ISafeRunnable {
+
+		private IBinaryStreamListener fListener;
+		private byte[] fData;
+		private int fOffset;
+		private int fLength;
+
+		/**
+		 * @see org.eclipse.core.runtime.ISafeRunnable#handleException(java.lang.Throwable)
+		 */
+		@Override
+		public void handleException(Throwable exception) {
+			DebugPlugin.log(exception);
+		}
+
+		/**
+		 * @see org.eclipse.core.runtime.ISafeRunnable#run()
+		 */
+		@Override
+		public void run() throws Exception {
+			fListener.streamAppended(fData, fOffset, fLength, OutputStreamMonitor.this);
+		}
+
+		public void notifyAppend(byte[] data, int offset, int length) {
+			if (data == null || fBinaryListeners.isEmpty()) {
+				return;
+			}
+			fData = data;
+			fOffset = offset;
+			fLength = length;
+			Object[] copiedListeners= fBinaryListeners.getListeners();
+			for (int i= 0; i < copiedListeners.length; i++) {
+				fListener = (IBinaryStreamListener) copiedListeners[i];
+				SafeRunner.run(this);
+			}
+			fListener = null;
+			fData = null;
+		}
+	}
 }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * Runs the blocking tasks servicing system processes: reading standard
+ * output and error, writing standard input and waiting for termination.
+ * <p>
+ * Process pipes only support blocking I/O, so every active task needs a
+ * thread. Rather than creating and destroying threads for each process,
+ * tasks run on a shared pool of daemon threads that are reused by later
+ * processes and expire after being idle for a while. When the
+ * {@link IInternalDebugCoreConstants#PREF_SHARE_PROCESS_IO_THREADS}
+ * preference is <code>false</code>, each task runs on a dedicated thread
+ * instead.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class ProcessIOExecutor {
+
+	/**
+	 * Time in seconds an idle pool thread is kept for reuse
+	 */
+	private static final int KEEP_ALIVE_SECONDS = 60;
+
+	private static ProcessIOExecutor fgDefault;
+
+	private final ThreadPoolExecutor fPool;
+
+	private final AtomicInteger fThreadCount = new AtomicInteger();
+
+	/**
+	 * Returns the shared executor.
+	 *
+	 * @return the shared executor
+	 */
+	public static synchronized ProcessIOExecutor getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new ProcessIOExecutor();
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Shuts down the shared executor, if created. Running tasks are not
+	 * interrupted and idle threads are released.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			fgDefault.fPool.shutdown();
+			fgDefault = null;
+		}
+	}
+
+	private ProcessIOExecutor() {
+		fPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Process I/O " + fThreadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Runs the given task. While running, the executing thread has the given
+	 * name and priority. A failure of the task is logged, as it would be
+	 * reported by a dedicated thread, and completes the returned future.
+	 *
+	 * @param runnable the task to run
+	 * @param name the thread name to use while running the task
+	 * @param priority the thread priority to use while running the task
+	 * @return a future completing when the task has run
+	 */
+	public Future<?> execute(Runnable runnable, final String name, final int priority) {
+		final Runnable task = logFailures(runnable);
+		if (!isShared()) {
+			FutureTask<Object> future = new FutureTask<Object>(task, null);
+			Thread thread = new Thread(future, name);
+			thread.setDaemon(true);
+			thread.setPriority(priority);
+			thread.start();
+			return future;
+		}
+		return fPool.submit(new Runnable() {
+			@Override
+			public void run() {
+				Thread thread = Thread.currentThread();
+				String poolName = thread.getName();
+				thread.setName(name);
+				thread.setPriority(priority);
+				try {
+					task.run();
+				} finally {
+					thread.setName(poolName);
+					thread.setPriority(Thread.NORM_PRIORITY);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns a task running the given task and logging its failure, which
+	 * would otherwise only be recorded by the future of the task.
+	 */
+	private static Runnable logFailures(final Runnable task) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					DebugPlugin.log(e);
+					throw e;
+				} catch (Error e) {
+					DebugPlugin.log(e);
+					throw e;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of pool threads currently running a task.
+	 *
+	 * @return the number of busy threads
+	 */
+	public int getActiveCount() {
+		return fPool.getActiveCount();
+	}
+
+	/**
+	 * Returns the number of threads currently in the pool, busy or idle.
+	 *
+	 * @return the number of pool threads
+	 */
+	public int getPoolSize() {
+		return fPool.getPoolSize();
+	}
+
+	private static boolean isShared() {
+		return Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SHARE_PROCESS_IO_THREADS, true, null);
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+
+/**
+ * Character storage for the buffered contents of a stream monitor.
+ * <p>
+ * Characters are stored in fixed size chunks. When a capacity is set, the
+ * oldest characters are discarded as new characters are appended, so the
+ * buffer never holds more than the capacity. Discarded chunks are recycled
+ * for new output, which makes the buffer behave as a ring once it reaches its
+ * capacity.
+ * </p>
+ * <p>
+ * This class is not thread safe, clients must synchronize access.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class StreamContentsBuffer {
+
+	/**
+	 * Number of characters in a chunk
+	 */
+	static final int CHUNK_SIZE = 8192;
+
+	/**
+	 * Chunks holding the contents, the first chunk may be partially consumed
+	 * and the last one partially filled.
+	 */
+	private ArrayList<char[]> fChunks = new ArrayList<char[]>();
+
+	/**
+	 * Offset of the first character in the first chunk
+	 */
+	private int fStart = 0;
+
+	/**
+	 * Number of characters stored
+	 */
+	private int fLength = 0;
+
+	/**
+	 * Maximum number of characters stored, or <code>0</code> when unbounded
+	 */
+	private int fCapacity;
+
+	/**
+	 * Number of characters discarded because of the capacity
+	 */
+	private long fDropped = 0;
+
+	/**
+	 * A discarded chunk kept for reuse, or <code>null</code>
+	 */
+	private char[] fSpare;
+
+	/**
+	 * Creates a buffer with the given capacity.
+	 *
+	 * @param capacity maximum number of characters to retain, or <code>0</code>
+	 *            or less for an unbounded buffer
+	 */
+	public StreamContentsBuffer(int capacity) {
+		setCapacity(capacity);
+	}
+
+	/**
+	 * Sets the maximum number of characters to retain, discarding the
+	 * oldest characters if the buffer currently exceeds the new capacity.
+	 *
+	 * @param capacity maximum number of characters to retain, or <code>0</code>
+	 *            or less for an unbounded buffer
+	 */
+	public void setCapacity(int capacity) {
+		fCapacity = Math.max(0, capacity);
+		trim();
+	}
+
+	/**
+	 * Returns the maximum number of characters retained, or <code>0</code>
+	 * when unbounded.
+	 *
+	 * @return the capacity of this buffer
+	 */
+	public int getCapacity() {
+		return fCapacity;
+	}
+
+	/**
+	 * Returns the number of characters currently stored.
+	 *
+	 * @return the number of characters stored
+	 */
+	public int length() {
+		return fLength;
+	}
+
+	/**
+	 * Returns the total number of characters discarded because the capacity
+	 * of this buffer was exceeded.
+	 *
+	 * @return the number of discarded characters
+	 */
+	public long getDroppedCount() {
+		return fDropped;
+	}
+
+	/**
+	 * Appends the given characters.
+	 *
+	 * @param text the characters to append
+	 */
+	public void append(String text) {
+		append(text, null, 0, text.length());
+	}
+
+	/**
+	 * Appends a range of the given characters.
+	 *
+	 * @param chars buffer containing the characters to append
+	 * @param offset offset of the first character to append
+	 * @param length number of characters to append
+	 */
+	public void append(char[] chars, int offset, int length) {
+		append(null, chars, offset, length);
+	}
+
+	/**
+	 * Appends characters from either a string or a character array.
+	 *
+	 * @param text string to copy from, or <code>null</code>
+	 * @param chars array to copy from when <code>text</code> is <code>null</code>
+	 * @param offset offset of the first character to append
+	 * @param length number of characters to append
+	 */
+	private void append(String text, char[] chars, int offset, int length) {
+		int copied = 0;
+		while (copied < length) {
+			int end = fStart + fLength;
+			int fill = end % CHUNK_SIZE;
+			char[] chunk;
+			if (fill == 0 && end / CHUNK_SIZE == fChunks.size()) {
+				chunk = newChunk();
+				fChunks.add(chunk);
+			} else {
+				chunk = fChunks.get(fChunks.size() - 1);
+			}
+			int count = Math.min(CHUNK_SIZE - fill, length - copied);
+			if (text != null) {
+				text.getChars(offset + copied, offset + copied + count, chunk, fill);
+			} else {
+				System.arraycopy(chars, offset + copied, chunk, fill, count);
+			}
+			copied += count;
+			fLength += count;
+		}
+		trim();
+	}
+
+	/**
+	 * Returns the characters in the given range.
+	 *
+	 * @param offset offset of the first character, relative to the oldest
+	 *            stored character
+	 * @param length number of characters
+	 * @return the characters in the given range
+	 * @exception IndexOutOfBoundsException if the range is not within the
+	 *                stored characters
+	 */
+	public String get(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > fLength) {
+			throw new IndexOutOfBoundsException();
+		}
+		char[] result = new char[length];
+		int copied = 0;
+		int position = fStart + offset;
+		while (copied < length) {
+			char[] chunk = fChunks.get(position / CHUNK_SIZE);
+			int index = position % CHUNK_SIZE;
+			int count = Math.min(CHUNK_SIZE - index, length - copied);
+			System.arraycopy(chunk, index, result, copied, count);
+			copied += count;
+			position += count;
+		}
+		return new String(result);
+	}
+
+	/**
+	 * Removes all characters from this buffer.
+	 */
+	public void clear() {
+		if (!fChunks.isEmpty()) {
+			fSpare = fChunks.get(0);
+		}
+		fChunks.clear();
+		fStart = 0;
+		fLength = 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return get(0, fLength);
+	}
+
+	/**
+	 * Discards the oldest characters until the capacity is respected.
+	 */
+	private void trim() {
+		if (fCapacity == 0 || fLength <= fCapacity) {
+			return;
+		}
+		int excess = fLength - fCapacity;
+		fDropped += excess;
+		fLength -= excess;
+		fStart += excess;
+		int freed = fStart / CHUNK_SIZE;
+		if (freed > 0) {
+			fSpare = fChunks.get(freed - 1);
+			fChunks.subList(0, freed).clear();
+			fStart = fStart % CHUNK_SIZE;
+		}
+	}
+
+	/**
+	 * Returns an empty chunk, reusing a discarded one if possible.
+	 *
+	 * @return a chunk
+	 */
+	private char[] newChunk() {
+		char[] chunk = fSpare;
+		fSpare = null;
+		return chunk != null ? chunk : new char[CHUNK_SIZE];
+	}
+}
@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * Index of the entries of an archive searched for source, by simple name.
+ * Also holds the directories of the archive, which are the potential root
+ * paths of source in the archive.
+ * <p>
+ * An index is built once for an archive and saved in the debug plug-in's
+ * state location, keyed by the archive's path. An index is identified by
+ * the size and last modification time of its archive when the archive was
+ * opened, and is only saved if the archive has not changed since. A saved
+ * index is reused across sessions as long as the size and last modification
+ * time of its archive are unchanged. The saved indexes of archives that no
+ * longer exist are deleted once per session. Indexes are kept in memory
+ * until their shared archive is closed.
+ * </p>
+ * <p>
+ * Indexes are immutable.
+ * </p>
+ *
+ * @see SourceLookupUtils#getArchiveIndex(String, ZipFile)
+ */
+public class ArchiveIndex {
+
+	private static final int VERSION = 1;
+
+	private static final String INDEX_EXTENSION = ".index"; //$NON-NLS-1$
+
+	/**
+	 * Indexes in memory, keyed by archive path
+	 */
+	private static final Map<String, ArchiveIndex> fgIndexes = new HashMap<String, ArchiveIndex>();
+
+	/**
+	 * Whether the saved indexes of archives that no longer exist have been
+	 * deleted in this session
+	 */
+	private static boolean fgPruned = false;
+
+	private final String fPath;
+	private final long fSize;
+	private final long fLastModified;
+
+	/**
+	 * Entry names, in archive order
+	 */
+	private final String[] fEntries;
+
+	/**
+	 * Directories of the archive, including the root (empty) directory
+	 */
+	private final String[] fDirectories;
+
+	/**
+	 * Entry names keyed by their simple name, in archive order
+	 */
+	private final Map<String, List<String>> fSimpleNames;
+
+	private ArchiveIndex(String path, long size, long lastModified, String[] entries, String[] directories) {
+		fPath = path;
+		fSize = size;
+		fLastModified = lastModified;
+		fEntries = entries;
+		fDirectories = directories;
+		fSimpleNames = new HashMap<String, List<String>>(entries.length * 4 / 3 + 1);
+		for (int i = 0; i < entries.length; i++) {
+			String simpleName = getSimpleName(entries[i]);
+			List<String> names = fSimpleNames.get(simpleName);
+			if (names == null) {
+				names = new ArrayList<String>(1);
+				fSimpleNames.put(simpleName, names);
+			}
+			names.add(entries[i]);
+		}
+	}
+
+	/**
+	 * Returns the index of the archive at the given path, reading it from the
+	 * given zip file if it has not been built yet or the archive has changed.
+	 * The index of an archive whose size and last modification time are
+	 * unknown is built from the zip file every time, and is not saved.
+	 *
+	 * @param path path of the archive in the local file system
+	 * @param file the archive, opened
+	 * @param size size of the archive when the zip file was opened, or -1 if
+	 *            unknown
+	 * @param lastModified last modification time of the archive when the
+	 *            zip file was opened, or -1 if unknown
+	 * @return index of the archive
+	 * @throws IllegalStateException if the zip file has been closed
+	 */
+	public static ArchiveIndex getIndex(String path, ZipFile file, long size, long lastModified) {
+		if (size < 0) {
+			return build(path, size, lastModified, file);
+		}
+		synchronized (fgIndexes) {
+			ArchiveIndex index = fgIndexes.get(path);
+			if (index != null && index.fSize == size && index.fLastModified == lastModified) {
+				return index;
+			}
+			File indexFile = getIndexFile(path);
+			if (indexFile != null) {
+				index = load(indexFile);
+			}
+			if (index == null || !index.fPath.equals(path) || index.fSize != size || index.fLastModified != lastModified) {
+				index = build(path, size, lastModified, file);
+				File archive = new File(path);
+				// an archive changed since it was opened is indexed again
+				if (indexFile != null && archive.length() == size && archive.lastModified() == lastModified) {
+					try {
+						index.save(indexFile);
+					} catch (IOException e) {
+						// the index is built again in the next session
+						indexFile.delete();
+					}
+				}
+			}
+			fgIndexes.put(path, index);
+			return index;
+		}
+	}
+
+	/**
+	 * Deletes the saved indexes of archives that no longer exist, and saved
+	 * indexes that cannot be read. Called once per session when indexes are
+	 * first loaded or saved.
+	 */
+	public static void pruneIndexes() {
+		synchronized (fgIndexes) {
+			File directory = getIndexDirectory();
+			if (directory == null) {
+				return;
+			}
+			fgPruned = true;
+			File[] files = directory.listFiles();
+			if (files == null) {
+				return;
+			}
+			for (int i = 0; i < files.length; i++) {
+				if (files[i].getName().endsWith(INDEX_EXTENSION)) {
+					String path = readPath(files[i]);
+					if (path == null || !new File(path).isFile()) {
+						files[i].delete();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the index of the given archive from memory. The saved index is
+	 * kept.
+	 *
+	 * @param path path of the archive in the local file system
+	 */
+	public static void removeIndex(String path) {
+		synchronized (fgIndexes) {
+			fgIndexes.remove(path);
+		}
+	}
+
+	/**
+	 * Removes all indexes from memory. Saved indexes are kept.
+	 */
+	public static void clearIndexes() {
+		synchronized (fgIndexes) {
+			fgIndexes.clear();
+		}
+	}
+
+	/**
+	 * Returns the names of the entries with the given simple name, in
+	 * archive order. The simple name of a directory is empty.
+	 *
+	 * @param simpleName name following the last <code>'/'</code> of an entry
+	 * @return entry names, possibly empty
+	 */
+	public List<String> getEntries(String simpleName) {
+		List<String> names = fSimpleNames.get(simpleName);
+		if (names == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Returns the number of entries of the archive.
+	 *
+	 * @return number of entries
+	 */
+	public int size() {
+		return fEntries.length;
+	}
+
+	/**
+	 * Returns the directories of the archive, each ending with
+	 * <code>'/'</code>, and the empty root directory. The set returned may be
+	 * modified by the caller.
+	 *
+	 * @return a new set of the directories of the archive
+	 */
+	public Set<String> getDirectories() {
+		Set<String> directories = new HashSet<String>(fDirectories.length * 4 / 3 + 1);
+		for (int i = 0; i < fDirectories.length; i++) {
+			directories.add(fDirectories[i]);
+		}
+		return directories;
+	}
+
+	/**
+	 * Returns the simple name of the given entry name, which is the name
+	 * following its last <code>'/'</code>.
+	 *
+	 * @param name entry name or file name
+	 * @return simple name
+	 */
+	public static String getSimpleName(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Reads the entries and directories of the given zip file.
+	 */
+	private static ArchiveIndex build(String path, long size, long lastModified, ZipFile file) {
+		List<String> entries = new ArrayList<String>(file.size());
+		Set<String> directories = new HashSet<String>();
+		directories.add(""); //$NON-NLS-1$
+		Enumeration<? extends ZipEntry> enumeration = file.entries();
+		while (enumeration.hasMoreElements()) {
+			ZipEntry entry = enumeration.nextElement();
+			String name = entry.getName();
+			entries.add(name);
+			if (entry.isDirectory()) {
+				directories.add(name);
+			}
+			// directories are not required to have entries
+			int index = name.lastIndexOf('/', name.length() - 2);
+			while (index > 0 && directories.add(name.substring(0, index + 1))) {
+				index = name.lastIndexOf('/', index - 1);
+			}
+		}
+		return new ArchiveIndex(path, size, lastModified, entries.toArray(new String[entries.size()]), directories.toArray(new String[directories.size()]));
+	}
+
+	/**
+	 * Returns the directory indexes are saved to, or <code>null</code> if
+	 * indexes cannot be saved.
+	 */
+	private static File getIndexDirectory() {
+		DebugPlugin plugin = DebugPlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		try {
+			File directory = plugin.getStateLocation().append(".archives").toFile(); //$NON-NLS-1$
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				return null;
+			}
+			return directory;
+		} catch (IllegalStateException e) {
+			// no instance location
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the file the index of the given archive is saved to, or
+	 * <code>null</code> if indexes cannot be saved.
+	 */
+	private static File getIndexFile(String path) {
+		if (!fgPruned) {
+			pruneIndexes();
+		}
+		File directory = getIndexDirectory();
+		if (directory == null) {
+			return null;
+		}
+		// the archive path is stored in the file to resolve collisions
+		return new File(directory, Integer.toHexString(path.hashCode()) + INDEX_EXTENSION);
+	}
+
+	/**
+	 * Returns the path of the archive of the index saved to the given file,
+	 * or <code>null</code> if the file is unreadable.
+	 */
+	private static String readPath(File file) {
+		DataInputStream stream = null;
+		try {
+			stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (stream.readInt() != VERSION) {
+				return null;
+			}
+			return stream.readUTF();
+		} catch (IOException e) {
+			return null;
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads an index saved to the given file. Returns <code>null</code> if the
+	 * file is missing or unreadable.
+	 */
+	private static ArchiveIndex load(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		DataInputStream stream = null;
+		try {
+			stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (stream.readInt() != VERSION) {
+				return null;
+			}
+			String path = stream.readUTF();
+			long size = stream.readLong();
+			long lastModified = stream.readLong();
+			String[] entries = new String[stream.readInt()];
+			for (int i = 0; i < entries.length; i++) {
+				entries[i] = stream.readUTF();
+			}
+			String[] directories = new String[stream.readInt()];
+			for (int i = 0; i < directories.length; i++) {
+				directories[i] = stream.readUTF();
+			}
+			return new ArchiveIndex(path, size, lastModified, entries, directories);
+		} catch (IOException e) {
+			// the index is built again
+			return null;
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Saves this index to the given file.
+	 */
+	private void save(File file) throws IOException {
+		DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			stream.writeInt(VERSION);
+			stream.writeUTF(fPath);
+			stream.writeLong(fSize);
+			stream.writeLong(fLastModified);
+			stream.writeInt(fEntries.length);
+			for (int i = 0; i < fEntries.length; i++) {
+				stream.writeUTF(fEntries[i]);
+			}
+			stream.writeInt(fDirectories.length);
+			for (int i = 0; i < fDirectories.length; i++) {
+				stream.writeUTF(fDirectories[i]);
+			}
+		} finally {
+			stream.close();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+
+/**
+ * Searches a list of source containers for a source name in parallel.
+ * <p>
+ * The searches run on a shared pool with a bounded number of threads.
+ * Clients retrieve the results in container order with
+ * {@link #getResult(int)}, which runs a search on the calling thread if no
+ * pool thread has started it yet, so that a search completes even when the
+ * pool is busy. When duplicates are not requested, a match cancels the
+ * searches of the following containers that have not started yet.
+ * </p>
+ * <p>
+ * Source containers searched in parallel must support concurrent
+ * searches.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class SourceContainerSearch {
+
+	/**
+	 * Time in seconds an idle pool thread is kept for reuse
+	 */
+	private static final int KEEP_ALIVE_SECONDS = 60;
+
+	/**
+	 * Maximum number of pool threads
+	 */
+	private static final int MAX_THREADS = Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 2), 8);
+
+	private static ThreadPoolExecutor fgPool;
+
+	private static final AtomicInteger fgThreadCount = new AtomicInteger();
+
+	private final FutureTask<Object[]>[] fTasks;
+
+	private final boolean fDuplicates;
+
+	/**
+	 * Starts searching the given containers for the given source name.
+	 *
+	 * @param name the source name
+	 * @param containers the containers to search, in priority order, or
+	 *            <code>null</code> for containers not to search
+	 * @param duplicates whether the results of all containers are required
+	 */
+	@SuppressWarnings("unchecked")
+	public SourceContainerSearch(final String name, ISourceContainer[] containers, boolean duplicates) {
+		fDuplicates = duplicates;
+		fTasks = new FutureTask[containers.length];
+		for (int i = 0; i < containers.length; i++) {
+			final int index = i;
+			final ISourceContainer container = containers[i];
+			fTasks[i] = new FutureTask<Object[]>(new Callable<Object[]>() {
+				@Override
+				public Object[] call() throws Exception {
+					if (container == null) {
+						return null;
+					}
+					Object[] objects = container.findSourceElements(name);
+					if (!fDuplicates && objects.length > 0) {
+						cancel(index + 1);
+					}
+					return objects;
+				}
+			});
+		}
+		// the first container is searched by the caller
+		ThreadPoolExecutor pool = getPool();
+		for (int i = 1; i < fTasks.length; i++) {
+			pool.execute(fTasks[i]);
+		}
+	}
+
+	/**
+	 * Returns the source elements found by the container at the given index,
+	 * waiting for its search to complete. Returns <code>null</code> if the
+	 * container was not searched.
+	 *
+	 * @param index index of a container
+	 * @return the source elements found, or <code>null</code>
+	 * @throws CoreException if the search failed or the caller was
+	 *             interrupted
+	 */
+	public Object[] getResult(int index) throws CoreException {
+		FutureTask<Object[]> task = fTasks[index];
+		// runs the search unless it has been started by the pool
+		task.run();
+		try {
+			return task.get();
+		} catch (CancellationException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CoreException(new Status(IStatus.CANCEL, DebugPlugin.getUniqueIdentifier(), e.getMessage(), e));
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CoreException) {
+				throw (CoreException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), cause.getMessage(), cause));
+		}
+	}
+
+	/**
+	 * Cancels the searches that have not started yet, starting with the
+	 * container at the given index. Running searches complete.
+	 *
+	 * @param index index of the first container whose search to cancel
+	 */
+	public void cancel(int index) {
+		for (int i = index; i < fTasks.length; i++) {
+			fTasks[i].cancel(false);
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getPool() {
+		if (fgPool == null) {
+			fgPool = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Source Lookup " + fgThreadCount.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			fgPool.allowCoreThreadTimeOut(true);
+		}
+		return fgPool;
+	}
+
+	/**
+	 * Shuts down the shared pool, if created. Running searches are not
+	 * interrupted.
+	 */
+	public static synchronized void shutdown() {
+		if (fgPool != null) {
+			fgPool.shutdown();
+			fgPool = null;
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+
+/**
+ * Cache of the source elements found by the participants of a source lookup
+ * director. Results are keyed by participant, source name and whether
+ * duplicates were searched for.
+ * <p>
+ * The cache of a director is cleared when its source containers or
+ * participants change. All caches are invalidated when resources are added
+ * to, removed from, opened or replaced in the workspace, since that may
+ * change the elements found in workspace source containers. Changes to the
+ * contents of files do not invalidate caches, since source elements are file
+ * handles. Source elements found outside the workspace are not tracked.
+ * </p>
+ * <p>
+ * Only source elements that were found are cached. Source that is not found
+ * is searched for again, since it may be added to directories and archives
+ * outside the workspace, which do not invalidate caches.
+ * </p>
+ * <p>
+ * A lookup that runs while its cache is invalidated does not store its
+ * result: clients get a stamp before searching and pass it to
+ * {@link #put(ISourceLookupParticipant, String, boolean, Object[], long)}.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class SourceLookupCache {
+
+	/**
+	 * Number of times the workspace changed in a way that invalidates
+	 * cached results
+	 */
+	private static final AtomicLong fgGeneration = new AtomicLong();
+	private static WorkspaceListener fgListener = null;
+
+	/**
+	 * Cached results, keyed by {@link Key}
+	 */
+	private final Map<Key, Object[]> fResults = new HashMap<Key, Object[]>();
+
+	/**
+	 * Workspace generation the cached results were found in
+	 */
+	private long fGeneration;
+
+	/**
+	 * Number of times this cache has been cleared
+	 */
+	private long fEpoch = 0;
+
+	private long fHits = 0;
+	private long fMisses = 0;
+
+	/**
+	 * Key of a cached result.
+	 */
+	static class Key {
+
+		private final ISourceLookupParticipant fParticipant;
+		private final String fName;
+		private final boolean fDuplicates;
+
+		Key(ISourceLookupParticipant participant, String name, boolean duplicates) {
+			fParticipant = participant;
+			fName = name;
+			fDuplicates = duplicates;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Key) {
+				Key key = (Key) obj;
+				return fDuplicates == key.fDuplicates && fName.equals(key.fName) && fParticipant.equals(key.fParticipant);
+			}
+			return false;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return (fParticipant.hashCode() * 31 + fName.hashCode()) * 2 + (fDuplicates ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Invalidates all caches when the workspace changes structurally.
+	 */
+	static class WorkspaceListener implements IResourceChangeListener {
+
+		/**
+		 * Resource delta flags that invalidate cached results
+		 */
+		private static final int INVALIDATING_FLAGS = IResourceDelta.OPEN | IResourceDelta.REPLACED | IResourceDelta.TYPE | IResourceDelta.LOCAL_CHANGED;
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+		 */
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if (delta != null && invalidates(delta)) {
+				fgGeneration.incrementAndGet();
+			}
+		}
+
+		/**
+		 * Returns whether the given delta adds, removes, opens or replaces
+		 * any resource.
+		 */
+		private boolean invalidates(IResourceDelta delta) {
+			final boolean[] invalidates = new boolean[1];
+			try {
+				delta.accept(new IResourceDeltaVisitor() {
+					@Override
+					public boolean visit(IResourceDelta child) {
+						if (invalidates[0]) {
+							return false;
+						}
+						switch (child.getKind()) {
+							case IResourceDelta.ADDED:
+							case IResourceDelta.REMOVED:
+								invalidates[0] = true;
+								return false;
+							default:
+								if ((child.getFlags() & INVALIDATING_FLAGS) != 0) {
+									invalidates[0] = true;
+									return false;
+								}
+								return true;
+						}
+					}
+				});
+			} catch (CoreException e) {
+				return true;
+			}
+			return invalidates[0];
+		}
+	}
+
+	/**
+	 * Constructs an empty cache.
+	 */
+	public SourceLookupCache() {
+		synchronized (SourceLookupCache.class) {
+			if (fgListener == null) {
+				fgListener = new WorkspaceListener();
+				ResourcesPlugin.getWorkspace().addResourceChangeListener(fgListener, IResourceChangeEvent.POST_CHANGE);
+			}
+		}
+		fGeneration = fgGeneration.get();
+	}
+
+	/**
+	 * Returns the source elements the given participant found for the given
+	 * source name, or <code>null</code> if they are not cached.
+	 *
+	 * @param participant the participant that searched for source
+	 * @param name the source name
+	 * @param duplicates whether duplicates were searched for
+	 * @return the source elements found or <code>null</code>
+	 */
+	public synchronized Object[] get(ISourceLookupParticipant participant, String name, boolean duplicates) {
+		validate();
+		Object[] elements = fResults.get(new Key(participant, name, duplicates));
+		if (elements == null) {
+			fMisses++;
+			return null;
+		}
+		fHits++;
+		return elements.clone();
+	}
+
+	/**
+	 * Returns a stamp identifying the current contents of this cache. A
+	 * result is only stored if the cache has not been invalidated since its
+	 * search started.
+	 *
+	 * @return the current stamp of this cache
+	 */
+	public synchronized long getStamp() {
+		validate();
+		return fEpoch;
+	}
+
+	/**
+	 * Stores the source elements the given participant found for the given
+	 * source name, unless this cache was invalidated since the given stamp
+	 * was returned.
+	 *
+	 * @param participant the participant that searched for source
+	 * @param name the source name
+	 * @param duplicates whether duplicates were searched for
+	 * @param elements the source elements found
+	 * @param stamp the stamp of this cache when the search started
+	 */
+	public synchronized void put(ISourceLookupParticipant participant, String name, boolean duplicates, Object[] elements, long stamp) {
+		validate();
+		if (stamp == fEpoch) {
+			fResults.put(new Key(participant, name, duplicates), elements.clone());
+		}
+	}
+
+	/**
+	 * Removes all cached results.
+	 */
+	public synchronized void clear() {
+		fResults.clear();
+		fEpoch++;
+	}
+
+	/**
+	 * Clears this cache if the workspace changed since its results were
+	 * found.
+	 */
+	private void validate() {
+		long generation = fgGeneration.get();
+		if (generation != fGeneration) {
+			fGeneration = generation;
+			clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached results.
+	 *
+	 * @return the number of cached results
+	 */
+	public synchronized int size() {
+		validate();
+		return fResults.size();
+	}
+
+	/**
+	 * Returns the number of lookups answered by this cache.
+	 *
+	 * @return hit count
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * Returns the number of lookups not answered by this cache.
+	 *
+	 * @return miss count
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Invalidates the results of all caches.
+	 */
+	public static void invalidateAll() {
+		fgGeneration.incrementAndGet();
+	}
+
+	/**
+	 * Called when the debug plug-in shuts down.
+	 */
+	public static void shutdown() {
+		synchronized (SourceLookupCache.class) {
+			if (fgListener != null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(fgListener);
+				fgListener = null;
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "SourceLookupCache: " + fResults.size() + " entries, hits " + fHits + ", misses " + fMisses; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2013 IBM Corporation and others.
+ * Copyright (c) 2003, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,13 +10,23 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.core.sourcelookup;
 
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchesListener2;
@@ -32,16 +42,67 @@ import org.eclipse.debug.core.ILaunchesListener2;
 public class SourceLookupUtils {
 
 	/**
-	 * Cache of shared zip files. Zip files are closed
-	 * when this class's plug-in is shutdown, when a project
-	 * is about to be closed or deleted, when a launch is
-	 * removed, and when a debug target or process terminates.
+	 * Number of archives kept open when they are not in use. Archives in use
+	 * are never closed to respect this limit.
 	 */
-	private static HashMap<String, ZipFile> fgZipFileCache = new HashMap<String, ZipFile>(5);
+	private static final int MAX_OPEN_ARCHIVES = 20;
+
+	/**
+	 * Cache of shared zip files, keyed by name. Archives referenced by a
+	 * client (see {@link #acquireZipFile(String)}) or by an open stream (see
+	 * {@link #getInputStream(ZipFile, ZipEntry)}) are kept open. Idle archives
+	 * are closed when more than {@link #MAX_OPEN_ARCHIVES} archives are open,
+	 * least recently used first, and when a launch is removed or a debug
+	 * target or process terminates. All archives in a project are
+	 * closed when the project is about to be closed or deleted, and all
+	 * archives are closed when this class's plug-in is shutdown.
+	 * <p>
+	 * Open archives are retrieved without locking. Opening, referencing and
+	 * closing archives is guarded by {@link #fgLock}.
+	 * </p>
+	 */
+	private static final ConcurrentHashMap<String, Archive> fgArchives = new ConcurrentHashMap<String, Archive>();
+	private static final Object fgLock = new Object();
+	private static final AtomicLong fgClock = new AtomicLong();
 	private static ArchiveCleaner fgCleaner = null;
 
 	/**
-	 * Returns a zip file with the given name
+	 * A shared archive.
+	 */
+	static class Archive {
+
+		final String fName;
+
+		/**
+		 * The open zip file, or <code>null</code> if the archive is closed
+		 */
+		volatile ZipFile fFile;
+
+		/**
+		 * Size and last modification time of the archive when it was opened,
+		 * or -1 if it changed while it was opened
+		 */
+		long fSize = -1;
+		long fLastModified = -1;
+
+		/**
+		 * Number of clients using the archive
+		 */
+		int fReferences = 0;
+
+		/**
+		 * Value of the clock when the archive was last used
+		 */
+		volatile long fLastUsed;
+
+		Archive(String name) {
+			fName = name;
+		}
+	}
+
+	/**
+	 * Returns a zip file with the given name. The zip file is shared, and
+	 * may be closed when it is not referenced by a client.
 	 *
 	 * @param name zip file name
 	 * @return The zip file with the given name
@@ -49,18 +110,255 @@ public class SourceLookupUtils {
 	 * 	file
 	 */
 	public static ZipFile getZipFile(String name) throws IOException {
-		synchronized (fgZipFileCache) {
+		Archive archive = fgArchives.get(name);
+		if (archive != null) {
+			ZipFile file = archive.fFile;
+			if (file != null) {
+				archive.fLastUsed = fgClock.incrementAndGet();
+				return file;
+			}
+		}
+		return openZipFile(name, 0);
+	}
+
+	/**
+	 * Returns a zip file with the given name, and references it until it is
+	 * released with {@link #releaseZipFile(String)}. A referenced zip file is
+	 * only closed when its plug-in shuts down or its project is closed or
+	 * deleted. Clients retrieve it with {@link #getZipFile(String)} for every
+	 * use, which opens it again when required.
+	 *
+	 * @param name zip file name
+	 * @return The zip file with the given name
+	 * @exception IOException if unable to create the specified zip
+	 * 	file
+	 * @since 3.10
+	 */
+	public static ZipFile acquireZipFile(String name) throws IOException {
+		return openZipFile(name, 1);
+	}
+
+	/**
+	 * Releases a reference to the zip file with the given name, obtained
+	 * with {@link #acquireZipFile(String)}. The zip file is kept open until it
+	 * is evicted from the cache.
+	 *
+	 * @param name zip file name
+	 * @since 3.10
+	 */
+	public static void releaseZipFile(String name) {
+		List<ZipFile> closed = new ArrayList<ZipFile>();
+		synchronized (fgLock) {
+			Archive archive = fgArchives.get(name);
+			if (archive != null && archive.fReferences > 0) {
+				archive.fReferences--;
+				if (archive.fReferences == 0 && archive.fFile == null) {
+					fgArchives.remove(name);
+				}
+			}
+			evictArchives(MAX_OPEN_ARCHIVES, closed);
+		}
+		closeFiles(closed);
+	}
+
+	/**
+	 * Returns an input stream reading the given entry of the given zip file.
+	 * If the zip file is shared by this class, it is referenced until the
+	 * stream is closed, so that it is not closed while the stream is read.
+	 *
+	 * @param file a zip file
+	 * @param entry an entry of the zip file
+	 * @return an input stream reading the entry, or <code>null</code> if the
+	 *         entry is not found
+	 * @exception IOException if an I/O error has occurred
+	 * @throws IllegalStateException if the zip file has been closed
+	 * @since 3.10
+	 */
+	public static InputStream getInputStream(ZipFile file, ZipEntry entry) throws IOException {
+		String name = file.getName();
+		boolean shared = false;
+		synchronized (fgLock) {
+			Archive archive = fgArchives.get(name);
+			if (archive != null && archive.fFile == file) {
+				archive.fReferences++;
+				archive.fLastUsed = fgClock.incrementAndGet();
+				shared = true;
+			}
+		}
+		if (!shared) {
+			return file.getInputStream(entry);
+		}
+		InputStream stream = null;
+		try {
+			stream = file.getInputStream(entry);
+		} finally {
+			if (stream == null) {
+				releaseZipFile(name);
+			}
+		}
+		if (stream == null) {
+			return null;
+		}
+		return new ArchiveInputStream(stream, name);
+	}
+
+	/**
+	 * Stream reading an entry of a shared archive, which releases its
+	 * reference to the archive when it is closed.
+	 */
+	static class ArchiveInputStream extends FilterInputStream {
+
+		private final String fName;
+		private boolean fReleased = false;
+
+		ArchiveInputStream(InputStream stream, String name) {
+			super(stream);
+			fName = name;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			boolean release;
+			synchronized (this) {
+				release = !fReleased;
+				fReleased = true;
+			}
+			try {
+				super.close();
+			} finally {
+				if (release) {
+					releaseZipFile(fName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the given zip file, obtained with the given name
+	 * from this class. The index is identified by the size and last
+	 * modification time of the archive when the zip file was opened, so that
+	 * an index read from an archive that has changed since is not taken for
+	 * the index of the new archive.
+	 *
+	 * @param name zip file name
+	 * @param file the zip file with the given name
+	 * @return the index of the zip file
+	 * @throws IllegalStateException if the zip file has been closed
+	 */
+	public static ArchiveIndex getArchiveIndex(String name, ZipFile file) {
+		long size = -1;
+		long lastModified = -1;
+		synchronized (fgLock) {
+			Archive archive = fgArchives.get(name);
+			if (archive != null && archive.fFile == file) {
+				size = archive.fSize;
+				lastModified = archive.fLastModified;
+			}
+		}
+		return ArchiveIndex.getIndex(name, file, size, lastModified);
+	}
+
+	/**
+	 * Opens the zip file with the given name if it is not open, adding the
+	 * given number of references to it.
+	 */
+	private static ZipFile openZipFile(String name, int references) throws IOException {
+		List<ZipFile> closed = new ArrayList<ZipFile>();
+		ZipFile file;
+		synchronized (fgLock) {
 			if (fgCleaner == null) {
 				fgCleaner = new ArchiveCleaner();
 				DebugPlugin.getDefault().getLaunchManager().addLaunchListener(fgCleaner);
 				ResourcesPlugin.getWorkspace().addResourceChangeListener(fgCleaner, IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.PRE_CLOSE);
 			}
-			ZipFile zip = fgZipFileCache.get(name);
-			if (zip == null) {
-				zip = new ZipFile(name);
-				fgZipFileCache.put(name, zip);
+			Archive archive = fgArchives.get(name);
+			if (archive == null) {
+				archive = new Archive(name);
+			}
+			if (archive.fFile == null) {
+				File local = new File(name);
+				long size = local.length();
+				long lastModified = local.lastModified();
+				ZipFile opened = new ZipFile(name);
+				if (local.length() == size && local.lastModified() == lastModified) {
+					archive.fSize = size;
+					archive.fLastModified = lastModified;
+				} else {
+					archive.fSize = -1;
+					archive.fLastModified = -1;
+				}
+				archive.fFile = opened;
+				fgArchives.put(name, archive);
+			}
+			archive.fReferences += references;
+			archive.fLastUsed = fgClock.incrementAndGet();
+			file = archive.fFile;
+			evictArchives(MAX_OPEN_ARCHIVES, closed);
+		}
+		closeFiles(closed);
+		return file;
+	}
+
+	/**
+	 * Closes the least recently used idle archives until no more than the
+	 * given number of archives are open, or no idle archive is left. Must be
+	 * called holding {@link #fgLock}.
+	 *
+	 * @param max the number of archives to keep open
+	 * @param closed collects the zip files to close
+	 */
+	private static void evictArchives(int max, List<ZipFile> closed) {
+		int open = 0;
+		for (Archive archive : fgArchives.values()) {
+			if (archive.fFile != null) {
+				open++;
+			}
+		}
+		while (open > max) {
+			Archive eldest = null;
+			for (Archive archive : fgArchives.values()) {
+				if (archive.fFile != null && archive.fReferences == 0 && (eldest == null || archive.fLastUsed < eldest.fLastUsed)) {
+					eldest = archive;
+				}
+			}
+			if (eldest == null) {
+				return;
+			}
+			closeArchive(eldest, closed);
+			open--;
+		}
+	}
+
+	/**
+	 * Closes the given archive. Must be called holding {@link #fgLock}.
+	 *
+	 * @param archive the archive to close
+	 * @param closed collects the zip files to close
+	 */
+	private static void closeArchive(Archive archive, List<ZipFile> closed) {
+		if (archive.fFile != null) {
+			closed.add(archive.fFile);
+			archive.fFile = null;
+			ArchiveIndex.removeIndex(archive.fName);
+		}
+		if (archive.fReferences == 0) {
+			fgArchives.remove(archive.fName);
+		}
+	}
+
+	/**
+	 * Closes the given zip files, which have been removed from the cache.
+	 */
+	private static void closeFiles(List<ZipFile> files) {
+		for (ZipFile file : files) {
+			try {
+				file.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
 			}
-			return zip;
 		}
 	}
 
@@ -71,18 +369,43 @@ public class SourceLookupUtils {
 	 * plug-in.
 	 */
 	public static void closeArchives() {
-		synchronized (fgZipFileCache) {
-			for (ZipFile file : fgZipFileCache.values()) {
-				synchronized (file) {
-					try {
-						file.close();
-					} catch (IOException e) {
-						DebugPlugin.log(e);
-					}
+		List<ZipFile> closed = new ArrayList<ZipFile>();
+		synchronized (fgLock) {
+			for (Archive archive : fgArchives.values()) {
+				closeArchive(archive, closed);
+			}
+		}
+		closeFiles(closed);
+		ArchiveIndex.clearIndexes();
+	}
+
+	/**
+	 * Closes the zip files located in the given directory, whether they are
+	 * referenced or not.
+	 *
+	 * @param location a directory in the local file system
+	 */
+	static void closeArchives(IPath location) {
+		List<ZipFile> closed = new ArrayList<ZipFile>();
+		synchronized (fgLock) {
+			for (Archive archive : fgArchives.values()) {
+				if (location.isPrefixOf(new Path(archive.fName))) {
+					closeArchive(archive, closed);
 				}
 			}
-			fgZipFileCache.clear();
 		}
+		closeFiles(closed);
+	}
+
+	/**
+	 * Closes all zip files that are not referenced.
+	 */
+	static void closeIdleArchives() {
+		List<ZipFile> closed = new ArrayList<ZipFile>();
+		synchronized (fgLock) {
+			evictArchives(0, closed);
+		}
+		closeFiles(closed);
 	}
 
 	/**
@@ -94,11 +417,13 @@ public class SourceLookupUtils {
 			DebugPlugin.getDefault().getLaunchManager().removeLaunchListener(fgCleaner);
 			ResourcesPlugin.getWorkspace().removeResourceChangeListener(fgCleaner);
 		}
+		SourceLookupCache.shutdown();
+		SourceContainerSearch.shutdown();
 	}
 
 	/**
-	 * Clears the cache of open zip files when a launch terminates,
-	 * is removed, or when a project is about to be deleted or closed.
+	 * Closes idle archives when a launch terminates or is removed, and
+	 * the archives in a project when it is about to be deleted or closed.
 	 */
 	static class ArchiveCleaner implements IResourceChangeListener, ILaunchesListener2 {
 
@@ -110,7 +435,7 @@ public class SourceLookupUtils {
 			for (int i = 0; i < launches.length; i++) {
 				ILaunch launch = launches[i];
 				if (!launch.isTerminated()) {
-					SourceLookupUtils.closeArchives();
+					SourceLookupUtils.closeIdleArchives();
 					return;
 				}
 			}
@@ -135,7 +460,13 @@ public class SourceLookupUtils {
 		 */
 		@Override
 		public void resourceChanged(IResourceChangeEvent event) {
-			SourceLookupUtils.closeArchives();
+			IResource project = event.getResource();
+			IPath location = project == null ? null : project.getLocation();
+			if (location == null) {
+				SourceLookupUtils.closeArchives();
+			} else {
+				SourceLookupUtils.closeArchives(location);
+			}
 		}
 
 		/* (non-Javadoc)
@@ -143,7 +474,7 @@ public class SourceLookupUtils {
 		 */
 		@Override
 		public void launchesTerminated(ILaunch[] launches) {
-			SourceLookupUtils.closeArchives();
+			SourceLookupUtils.closeIdleArchives();
 		}
 
 	}
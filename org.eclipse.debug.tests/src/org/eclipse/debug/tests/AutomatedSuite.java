@@ -16,17 +16,34 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.debug.tests.breakpoint.BreakpointOrderingTests;
+import org.eclipse.debug.tests.console.ConsoleHyperlinkIndexTests;
+import org.eclipse.debug.tests.console.ConsoleTextStoreTests;
+import org.eclipse.debug.tests.console.IOConsoleTests;
+import org.eclipse.debug.tests.console.IOConsolePartitionListTests;
+import org.eclipse.debug.tests.console.WrappedLineIndexTests;
+import org.eclipse.debug.tests.console.OutputStreamMonitorTests;
+import org.eclipse.debug.tests.console.ProcessIOExecutorTests;
+import org.eclipse.debug.tests.console.PatternMatchListenerTests;
+import org.eclipse.debug.tests.console.StreamContentsBufferTests;
+import org.eclipse.debug.tests.events.EventDispatchTests;
 import org.eclipse.debug.tests.launching.AcceleratorSubstitutionTests;
 import org.eclipse.debug.tests.launching.ArgumentParsingTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationInfoCacheTests;
 import org.eclipse.debug.tests.launching.LaunchConfigurationTests;
 import org.eclipse.debug.tests.launching.LaunchFavoriteTests;
 import org.eclipse.debug.tests.launching.LaunchHistoryTests;
 import org.eclipse.debug.tests.launching.LaunchManagerTests;
 import org.eclipse.debug.tests.launching.RefreshTabTests;
+import org.eclipse.debug.tests.sourcelookup.ArchiveCacheTests;
+import org.eclipse.debug.tests.sourcelookup.ArchiveIndexTests;
+import org.eclipse.debug.tests.sourcelookup.ParallelSourceSearchTests;
+import org.eclipse.debug.tests.sourcelookup.SourceLookupCacheTests;
 import org.eclipse.debug.tests.sourcelookup.SourceLookupFacilityTests;
 import org.eclipse.debug.tests.statushandlers.StatusHandlerTests;
 import org.eclipse.debug.tests.stepfilters.StepFiltersTests;
 import org.eclipse.debug.tests.view.memory.MemoryRenderingTests;
+import org.eclipse.debug.tests.view.memory.MemoryBlockContentAdapterTests;
+import org.eclipse.debug.tests.view.memory.MemorySegmentTests;
 import org.eclipse.debug.tests.viewer.model.ChildrenUpdateTests;
 import org.eclipse.debug.tests.viewer.model.FilterTransformTests;
 import org.eclipse.debug.tests.viewer.model.PresentationContextTests;
@@ -60,6 +77,10 @@ public class AutomatedSuite extends TestSuite {
 	public AutomatedSuite() {
 		// Source lookup tests
 		addTest(new TestSuite(SourceLookupFacilityTests.class));
+		addTest(new TestSuite(SourceLookupCacheTests.class));
+		addTest(new TestSuite(ArchiveIndexTests.class));
+		addTest(new TestSuite(ArchiveCacheTests.class));
+		addTest(new TestSuite(ParallelSourceSearchTests.class));
 		// BP tests
 		addTest(new TestSuite(BreakpointOrderingTests.class));
 	    // Note: jface viewer tests were moved out of nightly tests
@@ -82,6 +103,8 @@ public class AutomatedSuite extends TestSuite {
 
 		// Memory view
 		addTest(new TestSuite(MemoryRenderingTests.class));
+		addTest(new TestSuite(MemorySegmentTests.class));
+		addTest(new TestSuite(MemoryBlockContentAdapterTests.class));
 
 		// Launch framework
 		addTest(new TestSuite(LaunchConfigurationTests.class));
@@ -91,6 +114,21 @@ public class AutomatedSuite extends TestSuite {
 		addTest(new TestSuite(LaunchManagerTests.class));
 		addTest(new TestSuite(RefreshTabTests.class));
 		addTest(new TestSuite(ArgumentParsingTests.class));
+		addTest(new TestSuite(LaunchConfigurationInfoCacheTests.class));
+
+		// Process streams and console
+		addTest(new TestSuite(StreamContentsBufferTests.class));
+		addTest(new TestSuite(OutputStreamMonitorTests.class));
+		addTest(new TestSuite(ProcessIOExecutorTests.class));
+		addTest(new TestSuite(IOConsoleTests.class));
+		addTest(new TestSuite(PatternMatchListenerTests.class));
+		addTest(new TestSuite(IOConsolePartitionListTests.class));
+		addTest(new TestSuite(ConsoleTextStoreTests.class));
+		addTest(new TestSuite(ConsoleHyperlinkIndexTests.class));
+		addTest(new TestSuite(WrappedLineIndexTests.class));
+
+		// Debug events
+		addTest(new TestSuite(EventDispatchTests.class));
 
 		// Status handlers
 		addTest(new TestSuite(StatusHandlerTests.class));
@@ -13,6 +13,8 @@ package org.eclipse.debug.tests;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.debug.tests.console.OutputStreamMonitorPerformanceTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.JFaceViewerPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerPerformanceTests;
 
@@ -41,6 +43,12 @@ public class PerformanceSuite extends TestSuite {
         
         // Virtual viewer tests
         addTest(new TestSuite(VirtualViewerPerformanceTests.class));
+
+        // Process output decoding
+        addTest(new TestSuite(OutputStreamMonitorPerformanceTests.class));
+
+        // Launch configuration XML
+        addTest(new TestSuite(LaunchConfigurationPerformanceTests.class));
     }
 
 }
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import org.eclipse.ui.console.IHyperlink;
+import org.eclipse.ui.internal.console.ConsoleHyperlinkIndex;
+import org.eclipse.ui.internal.console.ConsoleHyperlinkPosition;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link ConsoleHyperlinkIndex}.
+ */
+public class ConsoleHyperlinkIndexTests extends TestCase {
+
+	private static class TestHyperlink implements IHyperlink {
+		@Override
+		public void linkEntered() {
+		}
+
+		@Override
+		public void linkExited() {
+		}
+
+		@Override
+		public void linkActivated() {
+		}
+	}
+
+	/**
+	 * Adds the given number of hyperlinks of length 5, one every 10
+	 * characters.
+	 */
+	private static ConsoleHyperlinkPosition[] createIndex(ConsoleHyperlinkIndex index, int count) {
+		ConsoleHyperlinkPosition[] positions = new ConsoleHyperlinkPosition[count];
+		for (int i = 0; i < count; i++) {
+			positions[i] = new ConsoleHyperlinkPosition(new TestHyperlink(), i * 10, 5);
+			index.add(positions[i]);
+		}
+		return positions;
+	}
+
+	/**
+	 * Tests looking up hyperlinks by offset and by range.
+	 */
+	public void testFind() {
+		ConsoleHyperlinkIndex index = new ConsoleHyperlinkIndex();
+		ConsoleHyperlinkPosition[] positions = createIndex(index, 1000);
+		assertEquals(1000, index.size());
+		assertSame(positions[0], index.find(0));
+		assertSame(positions[0], index.find(4));
+		assertNull(index.find(5));
+		assertSame(positions[573], index.find(5732));
+		assertNull(index.find(10000));
+		assertSame(positions[12], index.find(positions[12].getHyperLink()));
+
+		ConsoleHyperlinkPosition[] line = index.getPositions(25, 20);
+		assertEquals(2, line.length);
+		assertSame(positions[3], line[0]);
+		assertSame(positions[4], line[1]);
+		assertEquals(0, index.getPositions(5, 5).length);
+		assertEquals(1, index.getPositions(4, 1).length);
+	}
+
+	/**
+	 * Tests that hyperlinks added out of order are kept in offset order.
+	 */
+	public void testAddUnordered() {
+		ConsoleHyperlinkIndex index = new ConsoleHyperlinkIndex();
+		for (int i = 99; i >= 0; i--) {
+			index.add(new ConsoleHyperlinkPosition(new TestHyperlink(), i * 10, 5));
+		}
+		ConsoleHyperlinkPosition[] positions = index.getPositions();
+		for (int i = 0; i < positions.length; i++) {
+			assertEquals(i * 10, positions[i].getOffset());
+		}
+	}
+
+	/**
+	 * Tests that removing the start of the document deletes the hyperlinks it
+	 * covers and moves the others.
+	 */
+	public void testTrim() {
+		ConsoleHyperlinkIndex index = new ConsoleHyperlinkIndex();
+		ConsoleHyperlinkPosition[] positions = createIndex(index, 100);
+		index.replace(0, 503, 0);
+		assertEquals(49, index.size());
+		assertTrue(positions[50].isDeleted());
+		assertFalse(positions[51].isDeleted());
+		assertEquals(7, positions[51].getOffset());
+		assertSame(positions[51], index.find(7));
+		// removed hyperlinks keep their last offset
+		assertEquals(500, positions[50].getOffset());
+		index.replace(0, 7, 0);
+		assertEquals(49, index.size());
+		assertEquals(0, positions[51].getOffset());
+	}
+
+	/**
+	 * Tests that changes delete the hyperlinks they touch and move the
+	 * hyperlinks following them.
+	 */
+	public void testReplace() {
+		ConsoleHyperlinkIndex index = new ConsoleHyperlinkIndex();
+		ConsoleHyperlinkPosition[] positions = createIndex(index, 10);
+		// appending text does not touch hyperlinks
+		index.replace(100, 0, 10);
+		index.replace(95, 0, 10);
+		assertEquals(10, index.size());
+		// inserting text between hyperlinks moves the following ones
+		index.replace(27, 0, 3);
+		assertEquals(20, positions[2].getOffset());
+		assertEquals(33, positions[3].getOffset());
+		// inserting text within a hyperlink deletes it
+		index.replace(34, 0, 1);
+		assertTrue(positions[3].isDeleted());
+		assertEquals(44, positions[4].getOffset());
+		// replacing text overlapping hyperlinks deletes them
+		index.replace(64, 30, 0);
+		assertTrue(positions[6].isDeleted());
+		assertTrue(positions[8].isDeleted());
+		assertFalse(positions[5].isDeleted());
+		assertEquals(64, positions[9].getOffset());
+		assertEquals(6, index.size());
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(positions[0].isDeleted());
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import org.eclipse.ui.internal.console.ConsoleTextStore;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link ConsoleTextStore}.
+ */
+public class ConsoleTextStoreTests extends TestCase {
+
+	private static String text(int length, int seed) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + (i + seed) % 26));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Tests appending text across chunks.
+	 */
+	public void testAppend() {
+		ConsoleTextStore store = new ConsoleTextStore();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			String text = text(1000 + i * 37, i);
+			store.replace(store.getLength(), 0, text);
+			expected.append(text);
+		}
+		assertEquals(expected.length(), store.getLength());
+		assertEquals(expected.toString(), store.get(0, store.getLength()));
+		assertEquals(expected.charAt(40000), store.get(40000));
+		assertEquals(expected.substring(16000, 50000), store.get(16000, 34000));
+	}
+
+	/**
+	 * Tests that removing text from the start drops the chunks it was
+	 * stored in.
+	 */
+	public void testRemoveFirst() {
+		ConsoleTextStore store = new ConsoleTextStore();
+		String text = text(200000, 0);
+		store.set(text);
+		int chunks = store.getChunkCount();
+		store.replace(0, 100000, ""); //$NON-NLS-1$
+		assertEquals(text.substring(100000), store.get(0, store.getLength()));
+		assertTrue("Chunks not dropped", store.getChunkCount() < chunks); //$NON-NLS-1$
+		store.replace(store.getLength(), 0, text);
+		assertEquals(text.substring(100000) + text, store.get(0, store.getLength()));
+		store.replace(0, store.getLength(), null);
+		assertEquals(0, store.getLength());
+		assertEquals(0, store.getChunkCount());
+	}
+
+	/**
+	 * Tests replacing text in the middle of the store.
+	 */
+	public void testReplace() {
+		ConsoleTextStore store = new ConsoleTextStore();
+		String text = text(40000, 3);
+		store.set(text);
+		store.replace(0, 20000, ""); //$NON-NLS-1$
+		store.replace(100, 50, "input"); //$NON-NLS-1$
+		String expected = text.substring(20000, 20100) + "input" + text.substring(20150); //$NON-NLS-1$
+		assertEquals(expected, store.get(0, store.getLength()));
+		store.replace(store.getLength() - 10, 10, "\n"); //$NON-NLS-1$
+		expected = expected.substring(0, expected.length() - 10) + "\n"; //$NON-NLS-1$
+		assertEquals(expected, store.get(0, store.getLength()));
+		store.replace(0, 0, "head"); //$NON-NLS-1$
+		assertEquals("head" + expected, store.get(0, store.getLength())); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import org.eclipse.ui.internal.console.IOConsolePartition;
+import org.eclipse.ui.internal.console.IOConsolePartitionList;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link IOConsolePartitionList}.
+ */
+public class IOConsolePartitionListTests extends TestCase {
+
+	/**
+	 * Appends the given number of output partitions of the given length.
+	 */
+	private static IOConsolePartitionList createList(int count, int length) {
+		IOConsolePartitionList list = new IOConsolePartitionList();
+		for (int i = 0; i < count; i++) {
+			append(list, length);
+		}
+		return list;
+	}
+
+	private static IOConsolePartition append(IOConsolePartitionList list, int length) {
+		int offset = 0;
+		if (list.size() > 0) {
+			IOConsolePartition last = list.get(list.size() - 1);
+			offset = last.getOffset() + last.getLength();
+		}
+		IOConsolePartition partition = new IOConsolePartition(null, length);
+		partition.setOffset(offset);
+		list.add(partition);
+		return partition;
+	}
+
+	/**
+	 * Tests finding the partition containing an offset.
+	 */
+	public void testFind() {
+		IOConsolePartitionList list = createList(1000, 10);
+		assertEquals(0, list.find(0));
+		assertEquals(0, list.find(9));
+		assertEquals(1, list.find(10));
+		assertEquals(573, list.find(5739));
+		assertEquals(999, list.find(9999));
+		assertEquals(-1, list.find(10000));
+		assertEquals(-1, list.find(-1));
+	}
+
+	/**
+	 * Tests that empty partitions do not contain any offset and can be found
+	 * by identity.
+	 */
+	public void testEmptyPartition() {
+		IOConsolePartitionList list = createList(3, 10);
+		IOConsolePartition empty = append(list, 0);
+		assertEquals(2, list.find(29));
+		assertEquals(-1, list.find(30));
+		assertEquals(3, list.indexOf(empty));
+		assertTrue(list.remove(empty));
+		assertEquals(3, list.size());
+		assertFalse(list.remove(empty));
+	}
+
+	/**
+	 * Tests the partitions returned for a range.
+	 */
+	public void testGetPartitions() {
+		IOConsolePartitionList list = createList(100, 10);
+		IOConsolePartition[] partitions = list.getPartitions(15, 20);
+		assertEquals(3, partitions.length);
+		assertSame(list.get(1), partitions[0]);
+		assertSame(list.get(3), partitions[2]);
+		assertEquals(1, list.getPartitions(20, 10).length);
+		assertEquals(0, list.getPartitions(1000, 10).length);
+		assertEquals(100, list.getPartitions(0, 1000).length);
+	}
+
+	/**
+	 * Tests trimming partitions from the front and appending afterwards.
+	 */
+	public void testRemoveFirst() {
+		IOConsolePartitionList list = createList(100, 10);
+		IOConsolePartition first = list.get(60);
+		list.removeFirst(60);
+		assertEquals(40, list.size());
+		assertSame(first, list.get(0));
+		list.rebase(600);
+		assertEquals(0, first.getOffset());
+		assertEquals(10, list.get(1).getOffset());
+		assertEquals(39, list.find(395));
+		for (int i = 0; i < 200; i++) {
+			append(list, 10);
+		}
+		assertEquals(240, list.size());
+		assertSame(first, list.get(0));
+		assertEquals(239, list.find(2399));
+		list.clear();
+		assertEquals(0, list.size());
+		assertEquals(-1, list.find(0));
+	}
+
+	/**
+	 * Tests that partitions keep their offsets relative to the start of the
+	 * document once removed, and that offsets wrap around safely.
+	 */
+	public void testRebase() {
+		IOConsolePartitionList list = new IOConsolePartitionList();
+		list.rebase(Integer.MAX_VALUE - 50);
+		for (int i = 0; i < 10; i++) {
+			append(list, 10);
+		}
+		assertEquals(90, list.get(9).getOffset());
+		list.removeFirst(1);
+		list.rebase(10);
+		IOConsolePartition partition = list.get(0);
+		assertEquals(0, partition.getOffset());
+		IOConsolePartition appended = append(list, 10);
+		assertEquals(90, appended.getOffset());
+		assertEquals(9, list.find(95));
+		assertTrue(list.remove(partition));
+		assertEquals(0, partition.getOffset());
+		partition.setOffset(5);
+		assertEquals(5, partition.getOffset());
+	}
+
+	/**
+	 * Tests inserting a partition.
+	 */
+	public void testInsert() {
+		IOConsolePartitionList list = createList(4, 10);
+		IOConsolePartition last = list.get(3);
+		IOConsolePartition partition = new IOConsolePartition(null, 5);
+		partition.setOffset(last.getOffset());
+		list.add(3, partition);
+		last.setOffset(last.getOffset() + 5);
+		last.setLength(5);
+		assertEquals(5, list.size());
+		assertEquals(3, list.find(30));
+		assertEquals(4, list.find(35));
+		assertEquals(4, list.indexOf(last));
+	}
+}
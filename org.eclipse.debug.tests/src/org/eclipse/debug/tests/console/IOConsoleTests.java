@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.ILogListener;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.console.IOConsole;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests writing output to an {@link IOConsole}. Must run in the UI thread,
+ * which appends the output to the console's document.
+ */
+public class IOConsoleTests extends TestCase {
+
+	/**
+	 * Time in milliseconds to wait for output to be appended to a document
+	 */
+	private static final long TIMEOUT = 30000;
+
+	private IOConsole fConsole;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fConsole = new IOConsole("Test", null, null, "UTF-8", false); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		if (fConsole != null) {
+			fConsole.destroy();
+		}
+		super.tearDown();
+	}
+
+	/**
+	 * Processes UI events until the document of the console has at least the
+	 * given length, or the timeout expires.
+	 *
+	 * @param length the expected length of the document
+	 * @return the document of the console
+	 */
+	static IDocument waitForDocument(IOConsole console, int length) throws InterruptedException {
+		Display display = Display.getCurrent();
+		IDocument document = console.getDocument();
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (document.getLength() < length && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * Returns the number of jobs of the given console, including the jobs of
+	 * its partitioner appending output to the document.
+	 */
+	private static int countJobs(IOConsole console, Object partitioner) {
+		return Job.getJobManager().find(console).length + Job.getJobManager().find(partitioner).length;
+	}
+
+	/**
+	 * Tests that multi-byte characters split between writes are decoded once,
+	 * without replacement characters.
+	 *
+	 * @throws Exception
+	 */
+	public void testSplitCharacters() throws Exception {
+		String text = OutputStreamMonitorTests.repeat(OutputStreamMonitorTests.MIXED, 50);
+		byte[] bytes = text.getBytes("UTF-8"); //$NON-NLS-1$
+		IOConsoleOutputStream stream = fConsole.newOutputStream();
+		int offset = 0;
+		int[] sizes = new int[] { 1, 2, 7 };
+		for (int i = 0; offset < bytes.length; i++) {
+			int length = Math.min(sizes[i % sizes.length], bytes.length - offset);
+			stream.write(bytes, offset, length);
+			offset += length;
+		}
+		stream.close();
+		IDocument document = waitForDocument(fConsole, text.length());
+		assertEquals(text, document.get());
+	}
+
+	/**
+	 * Tests that a multi-byte character left incomplete when the stream is
+	 * closed is replaced once.
+	 *
+	 * @throws Exception
+	 */
+	public void testTruncatedCharacter() throws Exception {
+		IOConsoleOutputStream stream = fConsole.newOutputStream();
+		stream.write(new byte[] { 'a', (byte) 0xe4 });
+		stream.write((byte) 0xb8);
+		stream.close();
+		IDocument document = waitForDocument(fConsole, 2);
+		assertEquals("a\ufffd", document.get()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Writes chunks of output to a stream from a thread other than the UI
+	 * thread, counting the chunks written.
+	 */
+	static class Writer extends Thread {
+
+		final IOConsoleOutputStream fStream;
+		final String fChunk;
+		final int fChunks;
+		final AtomicInteger fWritten = new AtomicInteger();
+		volatile IOException fError;
+
+		Writer(IOConsoleOutputStream stream, String chunk, int chunks) {
+			super("IOConsoleTests Writer"); //$NON-NLS-1$
+			fStream = stream;
+			fChunk = chunk;
+			fChunks = chunks;
+			setDaemon(true);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				for (int i = 0; i < fChunks; i++) {
+					fStream.write(fChunk);
+					fWritten.incrementAndGet();
+				}
+			} catch (IOException e) {
+				fError = e;
+			}
+		}
+
+		/**
+		 * Waits, without processing UI events, until this writer is blocked
+		 * or has completed.
+		 */
+		void waitUntilBlocked() throws InterruptedException {
+			long end = System.currentTimeMillis() + TIMEOUT;
+			while (isAlive() && getState() != Thread.State.WAITING && System.currentTimeMillis() < end) {
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	/**
+	 * Returns a chunk of output of the given length.
+	 */
+	static String createChunk(int length) {
+		StringBuilder chunk = new StringBuilder(length);
+		for (int i = 0; i < length - 1; i++) {
+			chunk.append((char) ('a' + i % 26));
+		}
+		return chunk.append('\n').toString();
+	}
+
+	/**
+	 * Tests that a writer blocks once the pending output passes the high
+	 * water mark while the UI thread does not append it to the document,
+	 * and resumes once the output has been appended.
+	 *
+	 * @throws Exception
+	 */
+	public void testFlowControl() throws Exception {
+		fConsole.setPendingOutputWaterMarks(1000, 4000);
+		String chunk = createChunk(1000);
+		Writer writer = new Writer(fConsole.newOutputStream(), chunk, 20);
+		writer.start();
+		writer.waitUntilBlocked();
+		assertTrue("Writer not blocked", writer.isAlive()); //$NON-NLS-1$
+		int written = writer.fWritten.get();
+		assertTrue("Writer blocked below the high water mark", written >= 4); //$NON-NLS-1$
+		assertTrue("Writer not blocked at the high water mark", written < 20); //$NON-NLS-1$
+		assertEquals(1, fConsole.getThrottledWriteCount());
+
+		IDocument document = waitForDocument(fConsole, 20 * chunk.length());
+		writer.join(TIMEOUT);
+		assertFalse("Writer not resumed", writer.isAlive()); //$NON-NLS-1$
+		assertNull(writer.fError);
+		assertEquals(20 * chunk.length(), document.getLength());
+		assertTrue(fConsole.getThrottledWriteCount() >= 1);
+	}
+
+	/**
+	 * Tests that writers are never blocked when flow control is disabled.
+	 *
+	 * @throws Exception
+	 */
+	public void testFlowControlDisabled() throws Exception {
+		fConsole.setPendingOutputWaterMarks(-1, -1);
+		String chunk = createChunk(1000);
+		Writer writer = new Writer(fConsole.newOutputStream(), chunk, 20);
+		writer.start();
+		writer.join(TIMEOUT);
+		assertFalse("Writer blocked", writer.isAlive()); //$NON-NLS-1$
+		assertEquals(0, fConsole.getThrottledWriteCount());
+		assertEquals(20 * chunk.length(), waitForDocument(fConsole, 20 * chunk.length()).getLength());
+	}
+
+	/**
+	 * Tests that a blocked writer is released when the console is disposed.
+	 *
+	 * @throws Exception
+	 */
+	public void testFlowControlReleasedOnDispose() throws Exception {
+		fConsole.setPendingOutputWaterMarks(1000, 4000);
+		Writer writer = new Writer(fConsole.newOutputStream(), createChunk(1000), 20);
+		writer.start();
+		writer.waitUntilBlocked();
+		assertTrue("Writer not blocked", writer.isAlive()); //$NON-NLS-1$
+		fConsole.destroy();
+		fConsole = null;
+		writer.join(TIMEOUT);
+		assertFalse("Writer not released", writer.isAlive()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that output exceeding the document update budget is appended in
+	 * several updates, completely and in the order it was written.
+	 *
+	 * @throws Exception
+	 */
+	public void testUpdateBudgetSlices() throws Exception {
+		fConsole.setPendingOutputWaterMarks(-1, -1);
+		fConsole.setDocumentUpdateBudget(1);
+		assertEquals(1, fConsole.getDocumentUpdateBudget());
+		IOConsoleOutputStream[] streams = new IOConsoleOutputStream[] {
+				fConsole.newOutputStream(), fConsole.newOutputStream() };
+		StringBuilder expected = new StringBuilder();
+		StringBuilder write = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			write.append("Line ").append(i).append('\n'); //$NON-NLS-1$
+			if (i % 100 == 99) {
+				streams[i / 100 % 2].write(write.toString());
+				expected.append(write);
+				write.setLength(0);
+			}
+		}
+
+		Display display = Display.getCurrent();
+		IDocument document = fConsole.getDocument();
+		int updates = 0;
+		int length = document.getLength();
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (length < expected.length() && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+			if (document.getLength() > length) {
+				length = document.getLength();
+				updates++;
+			}
+		}
+		assertEquals("Output not appended completely and in order", expected.toString(), document.get()); //$NON-NLS-1$
+		assertTrue("Output not appended in several updates", updates > 1); //$NON-NLS-1$
+		assertTrue(fConsole.getLastDocumentUpdateTime() > 0);
+		assertTrue(fConsole.getMaxDocumentUpdateTime() >= fConsole.getLastDocumentUpdateTime());
+	}
+
+	/**
+	 * Tests that disposing a console with output still queued for its
+	 * document neither fails nor leaves its update jobs behind.
+	 *
+	 * @throws Exception
+	 */
+	public void testDisposeWithQueuedOutput() throws Exception {
+		final List<IStatus> errors = new ArrayList<IStatus>();
+		ILogListener listener = new ILogListener() {
+			@Override
+			public void logging(IStatus status, String plugin) {
+				if (status.getSeverity() == IStatus.ERROR) {
+					synchronized (errors) {
+						errors.add(status);
+					}
+				}
+			}
+		};
+		Platform.addLogListener(listener);
+		try {
+			fConsole.setPendingOutputWaterMarks(-1, -1);
+			fConsole.setDocumentUpdateBudget(1);
+			IOConsoleOutputStream stream = fConsole.newOutputStream();
+			String chunk = createChunk(1000);
+			for (int i = 0; i < 1000; i++) {
+				stream.write(chunk);
+			}
+			// let part of the output be appended
+			waitForDocument(fConsole, 1);
+
+			IOConsole console = fConsole;
+			Object partitioner = console.getDocument().getDocumentPartitioner();
+			console.destroy();
+			fConsole = null;
+			Display display = Display.getCurrent();
+			long end = System.currentTimeMillis() + TIMEOUT;
+			while (countJobs(console, partitioner) > 0 && System.currentTimeMillis() < end) {
+				if (!display.readAndDispatch()) {
+					Thread.sleep(10);
+				}
+			}
+			assertEquals("Jobs of the disposed console left", 0, countJobs(console, partitioner)); //$NON-NLS-1$
+			synchronized (errors) {
+				assertTrue("Errors logged: " + errors, errors.isEmpty()); //$NON-NLS-1$
+			}
+		} finally {
+			Platform.removeLogListener(listener);
+		}
+	}
+}
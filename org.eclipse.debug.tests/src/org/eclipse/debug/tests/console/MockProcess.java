@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A system process replaying fixed standard output and error contents.
+ * Standard output is returned in chunks of a given size to exercise the
+ * handling of chunk boundaries by stream monitors.
+ */
+public class MockProcess extends Process {
+
+	private final InputStream fOutput;
+	private final InputStream fError;
+	private final ByteArrayOutputStream fInput = new ByteArrayOutputStream();
+
+	/**
+	 * Creates a process with the given output.
+	 *
+	 * @param output bytes written to standard output
+	 * @param error bytes written to standard error
+	 * @param chunkSize maximum number of bytes returned by a single read of
+	 *            standard output
+	 */
+	public MockProcess(byte[] output, byte[] error, final int chunkSize) {
+		fOutput = new ByteArrayInputStream(output) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, chunkSize));
+			}
+		};
+		fError = new ByteArrayInputStream(error);
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return fInput;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return fOutput;
+	}
+
+	@Override
+	public InputStream getErrorStream() {
+		return fError;
+	}
+
+	@Override
+	public int waitFor() throws InterruptedException {
+		return 0;
+	}
+
+	@Override
+	public int exitValue() {
+		return 0;
+	}
+
+	@Override
+	public void destroy() {
+	}
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import org.eclipse.debug.internal.core.StreamsProxy;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+import junit.framework.TestCase;
+
+/**
+ * Measures the decoding throughput of
+ * {@link org.eclipse.debug.internal.core.OutputStreamMonitor} for ASCII,
+ * CJK and mixed UTF-8 output. Each pass decodes and buffers
+ * {@link #OUTPUT_SIZE} bytes of process output.
+ */
+public class OutputStreamMonitorPerformanceTests extends TestCase {
+
+	/**
+	 * Approximate number of bytes of output per pass
+	 */
+	private static final int OUTPUT_SIZE = 16 * 1024 * 1024;
+
+	public void testDecodeAscii() throws Exception {
+		runScenario("The quick brown fox jumps over the lazy dog 0123456789\n"); //$NON-NLS-1$
+	}
+
+	public void testDecodeCJK() throws Exception {
+		runScenario("\u65e5\u672c\u8a9e\u306e\u30c6\u30ad\u30b9\u30c8\u4e2d\u6587\u6587\u672c\ud55c\uad6d\uc5b4\n"); //$NON-NLS-1$
+	}
+
+	public void testDecodeMixed() throws Exception {
+		runScenario(OutputStreamMonitorTests.MIXED);
+	}
+
+	private void runScenario(String line) throws Exception {
+		byte[] lineBytes = line.getBytes("UTF-8"); //$NON-NLS-1$
+		String text = OutputStreamMonitorTests.repeat(line, OUTPUT_SIZE / lineBytes.length);
+		byte[] bytes = text.getBytes("UTF-8"); //$NON-NLS-1$
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		try {
+			for (int i = 0; i < 10; i++) {
+				MockProcess process = new MockProcess(bytes, new byte[0], 8192);
+				meter.start();
+				StreamsProxy proxy = new StreamsProxy(process, "UTF-8"); //$NON-NLS-1$
+				proxy.close();
+				meter.stop();
+				assertEquals(text.length(), proxy.getOutputStreamMonitor().getContents().length());
+				System.gc();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
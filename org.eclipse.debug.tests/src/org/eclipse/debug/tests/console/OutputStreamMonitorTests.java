@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.eclipse.debug.core.IBinaryStreamListener;
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IBinaryStreamMonitor;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.eclipse.debug.internal.core.StreamsProxy;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests decoding and notification of process output by
+ * {@link org.eclipse.debug.internal.core.OutputStreamMonitor}.
+ */
+public class OutputStreamMonitorTests extends TestCase {
+
+	/**
+	 * Text mixing ASCII, two and three byte UTF-8 sequences and surrogate pairs
+	 */
+	static final String MIXED = "abc \u00e9\u00e8 \u4e2d\u6587 \ud83d\ude00\n"; //$NON-NLS-1$
+
+	static String repeat(String text, int count) {
+		StringBuilder builder = new StringBuilder(text.length() * count);
+		for (int i = 0; i < count; i++) {
+			builder.append(text);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Tests that multi-byte sequences split between reads are decoded
+	 * correctly, for several read sizes.
+	 */
+	public void testDecodeAcrossReads() throws Exception {
+		String text = repeat(MIXED, 2000);
+		byte[] bytes = text.getBytes("UTF-8"); //$NON-NLS-1$
+		int[] chunkSizes = new int[] { 1, 7, 777, 8192 };
+		for (int i = 0; i < chunkSizes.length; i++) {
+			StreamsProxy proxy = new StreamsProxy(new MockProcess(bytes, new byte[0], chunkSizes[i]), "UTF-8"); //$NON-NLS-1$
+			proxy.close();
+			assertEquals("Wrong contents for chunk size " + chunkSizes[i], text, proxy.getOutputStreamMonitor().getContents()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that an incomplete sequence at the end of the stream is replaced.
+	 */
+	public void testTruncatedSequence() throws Exception {
+		byte[] bytes = new byte[] { 'a', (byte) 0xe4, (byte) 0xb8 };
+		StreamsProxy proxy = new StreamsProxy(new MockProcess(bytes, new byte[0], 8192), "UTF-8"); //$NON-NLS-1$
+		proxy.close();
+		assertEquals("a\ufffd", proxy.getOutputStreamMonitor().getContents()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that text and binary listeners are notified of the same output.
+	 */
+	public void testListeners() throws Exception {
+		String text = repeat(MIXED, 2000);
+		final byte[] bytes = text.getBytes("UTF-8"); //$NON-NLS-1$
+		final StringBuilder appended = new StringBuilder();
+		final ByteArrayOutputStream appendedBytes = new ByteArrayOutputStream();
+		final Object lock = new Object();
+		// let the test register its listeners before output is read
+		MockProcess process = new MockProcess(bytes, new byte[0], 333) {
+			@Override
+			public InputStream getInputStream() {
+				final InputStream in = super.getInputStream();
+				return new InputStream() {
+					@Override
+					public int read() throws IOException {
+						synchronized (lock) {
+							return in.read();
+						}
+					}
+
+					@Override
+					public int read(byte[] b, int off, int len) throws IOException {
+						synchronized (lock) {
+							return in.read(b, off, len);
+						}
+					}
+				};
+			}
+		};
+		StreamsProxy proxy;
+		synchronized (lock) {
+			proxy = new StreamsProxy(process, "UTF-8"); //$NON-NLS-1$
+			IStreamMonitor monitor = proxy.getOutputStreamMonitor();
+			monitor.addListener(new IStreamListener() {
+				@Override
+				public void streamAppended(String t, IStreamMonitor m) {
+					appended.append(t);
+				}
+			});
+			((IBinaryStreamMonitor) monitor).addBinaryListener(new IBinaryStreamListener() {
+				@Override
+				public void streamAppended(byte[] data, int offset, int length, IBinaryStreamMonitor m) {
+					appendedBytes.write(data, offset, length);
+				}
+			});
+		}
+		proxy.close();
+		assertEquals(text, appended.toString());
+		assertEquals(text, new String(appendedBytes.toByteArray(), "UTF-8")); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.console.IOConsole;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+import org.eclipse.ui.console.IPatternMatchListener;
+import org.eclipse.ui.console.PatternMatchEvent;
+import org.eclipse.ui.console.TextConsole;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the notification of pattern match listeners of an {@link IOConsole}.
+ * Must run in the UI thread, which appends output to the console's document.
+ */
+public class PatternMatchListenerTests extends TestCase {
+
+	/**
+	 * Time in milliseconds to wait for output to be appended and matched
+	 */
+	private static final long TIMEOUT = 30000;
+
+	private IOConsole fConsole;
+
+	private IOConsoleOutputStream fStream;
+
+	/**
+	 * Records the matches of a pattern as "offset:length" strings.
+	 */
+	static class Recorder implements IPatternMatchListener {
+
+		final String fPattern;
+		final int fFlags;
+		final String fQualifier;
+		final List<String> fMatches = new ArrayList<String>();
+
+		Recorder(String pattern, int flags, String qualifier) {
+			fPattern = pattern;
+			fFlags = flags;
+			fQualifier = qualifier;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.ui.console.IPatternMatchListener#getPattern()
+		 */
+		@Override
+		public String getPattern() {
+			return fPattern;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.ui.console.IPatternMatchListener#getCompilerFlags()
+		 */
+		@Override
+		public int getCompilerFlags() {
+			return fFlags;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.ui.console.IPatternMatchListener#getLineQualifier()
+		 */
+		@Override
+		public String getLineQualifier() {
+			return fQualifier;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.ui.console.IPatternMatchListenerDelegate#connect(org.eclipse.ui.console.TextConsole)
+		 */
+		@Override
+		public void connect(TextConsole console) {
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.ui.console.IPatternMatchListenerDelegate#disconnect()
+		 */
+		@Override
+		public void disconnect() {
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.ui.console.IPatternMatchListenerDelegate#matchFound(org.eclipse.ui.console.PatternMatchEvent)
+		 */
+		@Override
+		public synchronized void matchFound(PatternMatchEvent event) {
+			fMatches.add(event.getOffset() + ":" + event.getLength()); //$NON-NLS-1$
+		}
+
+		synchronized List<String> getMatches() {
+			return new ArrayList<String>(fMatches);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fConsole = new IOConsole("Test", null, null, "UTF-8", false); //$NON-NLS-1$ //$NON-NLS-2$
+		fStream = fConsole.newOutputStream();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fConsole.destroy();
+		super.tearDown();
+	}
+
+	private Recorder addListener(String pattern, int flags, String qualifier) {
+		Recorder recorder = new Recorder(pattern, flags, qualifier);
+		fConsole.addPatternMatchListener(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Writes the given text and processes UI events until it has been
+	 * appended to the document and matched.
+	 *
+	 * @return the text of the document
+	 */
+	private String write(String text) throws Exception {
+		IDocument document = fConsole.getDocument();
+		int length = document.getLength() + text.length();
+		fStream.write(text);
+		Display display = Display.getCurrent();
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while ((document.getLength() < length || Job.getJobManager().find(fConsole).length > 0) && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+		assertEquals("Output not appended", length, document.getLength()); //$NON-NLS-1$
+		return document.get();
+	}
+
+	/**
+	 * Returns the matches of the given pattern in the whole text.
+	 */
+	private static List<String> find(String text, String pattern, int flags) {
+		List<String> matches = new ArrayList<String>();
+		Matcher matcher = Pattern.compile(pattern, flags).matcher(text);
+		while (matcher.find()) {
+			matches.add(matcher.start() + ":" + (matcher.end() - matcher.start())); //$NON-NLS-1$
+		}
+		return matches;
+	}
+
+	/**
+	 * Tests that patterns that may match line delimiters find matches
+	 * spanning lines.
+	 *
+	 * @throws Exception
+	 */
+	public void testMultiLinePatterns() throws Exception {
+		String[] patterns = new String[] {
+				"a\\sb", //$NON-NLS-1$
+				"\\(([^)]*)\\)", //$NON-NLS-1$
+				"x\\Wy", //$NON-NLS-1$
+				"(?s)c.d", //$NON-NLS-1$
+				"e[\\s\\S]f", //$NON-NLS-1$
+				"g\\R+h" }; //$NON-NLS-1$
+		Recorder[] recorders = new Recorder[patterns.length];
+		for (int i = 0; i < patterns.length; i++) {
+			recorders[i] = addListener(patterns[i], 0, null);
+		}
+		String text = write("a\nb (p\nq) x\ny c\nd e\nf g\r\nh\n"); //$NON-NLS-1$
+		for (int i = 0; i < patterns.length; i++) {
+			List<String> expected = find(text, patterns[i], 0);
+			assertEquals("Pattern should match across lines: " + patterns[i], 1, expected.size()); //$NON-NLS-1$
+			assertEquals("Wrong matches of " + patterns[i], expected, recorders[i].getMatches()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that anchors match at line boundaries with the MULTILINE flag,
+	 * and at the start and end of the text otherwise.
+	 *
+	 * @throws Exception
+	 */
+	public void testAnchoredPatterns() throws Exception {
+		Recorder lineStart = addListener("^err \\d", Pattern.MULTILINE, null); //$NON-NLS-1$
+		Recorder lineEnd = addListener("\\d$", Pattern.MULTILINE, null); //$NON-NLS-1$
+		Recorder textStart = addListener("^err \\d", 0, null); //$NON-NLS-1$
+		Recorder textEnd = addListener("done$", 0, null); //$NON-NLS-1$
+		Recorder word = addListener("\\berr\\b", 0, null); //$NON-NLS-1$
+		String text = write("err 1\nxerr 2 done\nerr 3\n done done"); //$NON-NLS-1$
+		assertEquals(find(text, "^err \\d", Pattern.MULTILINE), lineStart.getMatches()); //$NON-NLS-1$
+		assertEquals("[0:5, 18:5]", lineStart.getMatches().toString()); //$NON-NLS-1$
+		assertEquals(find(text, "\\d$", Pattern.MULTILINE), lineEnd.getMatches()); //$NON-NLS-1$
+		assertEquals("[4:1, 22:1]", lineEnd.getMatches().toString()); //$NON-NLS-1$
+		assertEquals("[0:5]", textStart.getMatches().toString()); //$NON-NLS-1$
+		assertEquals("[30:4]", textEnd.getMatches().toString()); //$NON-NLS-1$
+		assertEquals(find(text, "\\berr\\b", 0), word.getMatches()); //$NON-NLS-1$
+		assertEquals("[0:3, 18:3]", word.getMatches().toString()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that only lines containing the line qualifier are searched, from
+	 * their beginning.
+	 *
+	 * @throws Exception
+	 */
+	public void testQualifiedPatterns() throws Exception {
+		Recorder literal = addListener("\\d+", 0, "ERROR"); //$NON-NLS-1$ //$NON-NLS-2$
+		Recorder regex = addListener("\\d+", 0, "ERR(OR)?:"); //$NON-NLS-1$ //$NON-NLS-2$
+		Recorder shared = addListener("[a-z]+", 0, "ERROR"); //$NON-NLS-1$ //$NON-NLS-2$
+		write("ERROR 1 2\nWARN 3\n4 ERROR\nINFO 5\nERR: 6\n"); //$NON-NLS-1$
+		assertEquals("[6:1, 8:1, 17:1]", literal.getMatches().toString()); //$NON-NLS-1$
+		assertEquals("[37:1]", regex.getMatches().toString()); //$NON-NLS-1$
+		assertTrue(shared.getMatches().isEmpty());
+	}
+
+	/**
+	 * Tests that matching resumes where it stopped when output is appended,
+	 * reporting each match once, including matches spanning appends.
+	 *
+	 * @throws Exception
+	 */
+	public void testMatchingResumedAcrossAppends() throws Exception {
+		Recorder line = addListener("x\\d", 0, null); //$NON-NLS-1$
+		Recorder span = addListener("a\\sb", 0, null); //$NON-NLS-1$
+		Recorder qualified = addListener("\\d", 0, "ERROR"); //$NON-NLS-1$ //$NON-NLS-2$
+		write("x1 x2"); //$NON-NLS-1$
+		assertEquals("[0:2, 3:2]", line.getMatches().toString()); //$NON-NLS-1$
+		write(" x3 a"); //$NON-NLS-1$
+		write("\nb x4 ER"); //$NON-NLS-1$
+		String text = write("ROR 7\n"); //$NON-NLS-1$
+		assertEquals(find(text, "x\\d", 0), line.getMatches()); //$NON-NLS-1$
+		assertEquals("[0:2, 3:2, 6:2, 13:2]", line.getMatches().toString()); //$NON-NLS-1$
+		assertEquals("[9:3]", span.getMatches().toString()); //$NON-NLS-1$
+		assertEquals("[14:1, 22:1]", qualified.getMatches().toString()); //$NON-NLS-1$
+	}
+}
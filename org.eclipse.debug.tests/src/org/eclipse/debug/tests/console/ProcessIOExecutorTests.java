@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.ILogListener;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.DebugCoreMessages;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.InputStreamMonitor;
+import org.eclipse.debug.internal.core.Preferences;
+import org.eclipse.debug.internal.core.ProcessIOExecutor;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests running process I/O tasks with {@link ProcessIOExecutor}, on shared
+ * and dedicated threads.
+ */
+public class ProcessIOExecutorTests extends TestCase {
+
+	/**
+	 * Time in milliseconds to wait for a task
+	 */
+	private static final long TIMEOUT = 30000;
+
+	/**
+	 * Records the text written to it and the names of the threads writing it.
+	 */
+	static class RecordingStream extends ByteArrayOutputStream {
+
+		final List<String> fThreadNames = new ArrayList<String>();
+
+		/* (non-Javadoc)
+		 * @see java.io.ByteArrayOutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			fThreadNames.add(Thread.currentThread().getName());
+			super.write(b, off, len);
+			notifyAll();
+		}
+
+		synchronized String waitForText(int length) throws InterruptedException {
+			long end = System.currentTimeMillis() + TIMEOUT;
+			while (size() < length && System.currentTimeMillis() < end) {
+				wait(10);
+			}
+			return toString();
+		}
+
+		synchronized List<String> getThreadNames() {
+			return new ArrayList<String>(fThreadNames);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		setShared(true);
+		super.tearDown();
+	}
+
+	private static void setShared(boolean shared) {
+		Preferences.setBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SHARE_PROCESS_IO_THREADS, shared, InstanceScope.INSTANCE);
+	}
+
+	/**
+	 * Returns whether a live thread has the given name.
+	 */
+	private static boolean hasThread(String name) {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (name.equals(thread.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Waits until no live thread has the given name.
+	 *
+	 * @return whether no live thread has the name
+	 */
+	private static boolean waitForNoThread(String name) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (hasThread(name) && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		return !hasThread(name);
+	}
+
+	/**
+	 * Tests that the writer of standard input only runs while input is queued.
+	 *
+	 * @throws Exception
+	 */
+	public void testInputWriterRunsWhileQueued() throws Exception {
+		String label = DebugCoreMessages.InputStreamMonitor_label;
+		assertTrue("Writer of another test still running", waitForNoThread(label)); //$NON-NLS-1$
+		RecordingStream stream = new RecordingStream();
+		InputStreamMonitor monitor = new InputStreamMonitor(stream);
+		monitor.startMonitoring();
+		try {
+			assertFalse("Writer running without input", hasThread(label)); //$NON-NLS-1$
+			monitor.write("abc"); //$NON-NLS-1$
+			assertEquals("abc", stream.waitForText(3)); //$NON-NLS-1$
+			assertTrue("Writer still running without input", waitForNoThread(label)); //$NON-NLS-1$
+			monitor.write("def"); //$NON-NLS-1$
+			assertEquals("abcdef", stream.waitForText(6)); //$NON-NLS-1$
+			assertTrue("Writer still running without input", waitForNoThread(label)); //$NON-NLS-1$
+			List<String> names = stream.getThreadNames();
+			assertFalse(names.isEmpty());
+			for (String name : names) {
+				assertEquals(label, name);
+			}
+		} finally {
+			monitor.close();
+		}
+	}
+
+	/**
+	 * Tests that a task runs on a pool thread, named as the task while
+	 * running, that is kept after the task completes.
+	 *
+	 * @throws Exception
+	 */
+	public void testSharedThreads() throws Exception {
+		setShared(true);
+		final Thread[] thread = new Thread[1];
+		final String[] name = new String[1];
+		Future<?> future = ProcessIOExecutor.getDefault().execute(new Runnable() {
+			@Override
+			public void run() {
+				thread[0] = Thread.currentThread();
+				name[0] = thread[0].getName();
+			}
+		}, "ProcessIOExecutorTests shared", Thread.NORM_PRIORITY); //$NON-NLS-1$
+		future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+		assertEquals("ProcessIOExecutorTests shared", name[0]); //$NON-NLS-1$
+		assertTrue("Pool thread not a daemon", thread[0].isDaemon()); //$NON-NLS-1$
+		assertTrue("Pool thread not named back", waitForNoThread("ProcessIOExecutorTests shared")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue("Pool thread not kept", thread[0].isAlive()); //$NON-NLS-1$
+		assertTrue(thread[0].getName().startsWith("Process I/O ")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that switching back to dedicated threads runs each task on its own
+	 * thread, which terminates with the task.
+	 *
+	 * @throws Exception
+	 */
+	public void testDedicatedThreads() throws Exception {
+		setShared(false);
+		final Thread[] threads = new Thread[2];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			Future<?> future = ProcessIOExecutor.getDefault().execute(new Runnable() {
+				@Override
+				public void run() {
+					threads[index] = Thread.currentThread();
+				}
+			}, "ProcessIOExecutorTests dedicated", Thread.MIN_PRIORITY); //$NON-NLS-1$
+			future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+			assertEquals("ProcessIOExecutorTests dedicated", threads[i].getName()); //$NON-NLS-1$
+			assertEquals(Thread.MIN_PRIORITY, threads[i].getPriority());
+			assertTrue(threads[i].isDaemon());
+			threads[i].join(TIMEOUT);
+			assertFalse("Dedicated thread not terminated", threads[i].isAlive()); //$NON-NLS-1$
+		}
+		assertNotSame(threads[0], threads[1]);
+
+		// input is written on a dedicated thread too
+		RecordingStream stream = new RecordingStream();
+		InputStreamMonitor monitor = new InputStreamMonitor(stream);
+		monitor.startMonitoring();
+		try {
+			monitor.write("abc"); //$NON-NLS-1$
+			assertEquals("abc", stream.waitForText(3)); //$NON-NLS-1$
+			assertEquals(DebugCoreMessages.InputStreamMonitor_label, stream.getThreadNames().get(0));
+		} finally {
+			monitor.close();
+		}
+	}
+
+	/**
+	 * Tests that the failure of a task is logged, on shared and dedicated
+	 * threads.
+	 *
+	 * @throws Exception
+	 */
+	public void testFailureLogged() throws Exception {
+		final List<IStatus> logged = new ArrayList<IStatus>();
+		ILogListener listener = new ILogListener() {
+			@Override
+			public void logging(IStatus status, String plugin) {
+				synchronized (logged) {
+					logged.add(status);
+				}
+			}
+		};
+		Platform.addLogListener(listener);
+		try {
+			boolean[] shared = new boolean[] { true, false };
+			for (int i = 0; i < shared.length; i++) {
+				setShared(shared[i]);
+				final RuntimeException failure = new IllegalStateException("ProcessIOExecutorTests failure"); //$NON-NLS-1$
+				Future<?> future = ProcessIOExecutor.getDefault().execute(new Runnable() {
+					@Override
+					public void run() {
+						throw failure;
+					}
+				}, "ProcessIOExecutorTests failure", Thread.NORM_PRIORITY); //$NON-NLS-1$
+				try {
+					future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+					fail("Failure not reported by the future"); //$NON-NLS-1$
+				} catch (ExecutionException e) {
+					assertSame(failure, e.getCause());
+				}
+				// log listeners may be notified asynchronously
+				long end = System.currentTimeMillis() + TIMEOUT;
+				while (!isLogged(logged, failure) && System.currentTimeMillis() < end) {
+					Thread.sleep(10);
+				}
+				assertTrue("Failure not logged", isLogged(logged, failure)); //$NON-NLS-1$
+			}
+		} finally {
+			Platform.removeLogListener(listener);
+		}
+	}
+
+	private static boolean isLogged(List<IStatus> logged, Throwable exception) {
+		synchronized (logged) {
+			for (IStatus status : logged) {
+				if (status.getException() == exception) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Tests that closing a monitor without queued input does not start a
+	 * writer.
+	 *
+	 * @throws Exception
+	 */
+	public void testCloseWithoutInput() throws Exception {
+		RecordingStream stream = new RecordingStream();
+		InputStreamMonitor monitor = new InputStreamMonitor(stream);
+		monitor.startMonitoring();
+		monitor.close();
+		assertFalse("Writer running without input", hasThread(DebugCoreMessages.InputStreamMonitor_label)); //$NON-NLS-1$
+		assertEquals(0, stream.size());
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import org.eclipse.debug.internal.core.StreamContentsBuffer;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link StreamContentsBuffer}.
+ */
+public class StreamContentsBufferTests extends TestCase {
+
+	private static String repeat(char c, int count) {
+		StringBuilder builder = new StringBuilder(count);
+		for (int i = 0; i < count; i++) {
+			builder.append((char) (c + (i % 26)));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Tests that an unbounded buffer keeps all contents across chunks.
+	 */
+	public void testUnbounded() {
+		StreamContentsBuffer buffer = new StreamContentsBuffer(0);
+		String text = repeat('a', 20000);
+		buffer.append(text.substring(0, 5));
+		buffer.append(text.substring(5));
+		assertEquals(20000, buffer.length());
+		assertEquals(text, buffer.toString());
+		assertEquals(text.substring(8000, 8500), buffer.get(8000, 500));
+		assertEquals(0, buffer.getDroppedCount());
+	}
+
+	/**
+	 * Tests that a bounded buffer keeps the most recent contents only.
+	 */
+	public void testBounded() {
+		StreamContentsBuffer buffer = new StreamContentsBuffer(10000);
+		StringBuilder all = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			String text = repeat((char) ('a' + (i % 3)), 1000 + i);
+			all.append(text);
+			buffer.append(text);
+		}
+		assertEquals(10000, buffer.length());
+		assertEquals(all.substring(all.length() - 10000), buffer.toString());
+		assertEquals(all.length() - 10000, buffer.getDroppedCount());
+		assertEquals(all.substring(all.length() - 100), buffer.get(buffer.length() - 100, 100));
+	}
+
+	/**
+	 * Tests that lowering the capacity trims the oldest contents and that
+	 * clearing the buffer does not reset the dropped count.
+	 */
+	public void testSetCapacityAndClear() {
+		StreamContentsBuffer buffer = new StreamContentsBuffer(0);
+		String text = repeat('a', 30000);
+		buffer.append(text);
+		buffer.setCapacity(100);
+		assertEquals(text.substring(29900), buffer.toString());
+		assertEquals(29900, buffer.getDroppedCount());
+		buffer.clear();
+		assertEquals(0, buffer.length());
+		assertEquals("", buffer.toString()); //$NON-NLS-1$
+		buffer.append("abc"); //$NON-NLS-1$
+		assertEquals("abc", buffer.toString()); //$NON-NLS-1$
+		assertEquals(29900, buffer.getDroppedCount());
+	}
+
+	/**
+	 * Tests reading outside of the buffered contents.
+	 */
+	public void testOutOfBounds() {
+		StreamContentsBuffer buffer = new StreamContentsBuffer(0);
+		buffer.append("abc"); //$NON-NLS-1$
+		try {
+			buffer.get(2, 2);
+			fail("Expected IndexOutOfBoundsException"); //$NON-NLS-1$
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.ui.internal.console.WrappedLineIndex;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link WrappedLineIndex}.
+ */
+public class WrappedLineIndexTests extends TestCase {
+
+	/**
+	 * Asserts that the index answers the same rows as the given row counts.
+	 */
+	private static void assertRows(List<Integer> expected, WrappedLineIndex index) {
+		assertEquals("Wrong line count", expected.size(), index.size()); //$NON-NLS-1$
+		int row = 0;
+		for (int line = 0; line < expected.size(); line++) {
+			int rows = expected.get(line).intValue();
+			assertEquals("Wrong row count", rows, index.get(line)); //$NON-NLS-1$
+			assertEquals("Wrong first row", row, index.getRow(line)); //$NON-NLS-1$
+			for (int i = 0; i < rows; i++) {
+				assertEquals("Wrong line of row", line, index.getLine(row + i)); //$NON-NLS-1$
+			}
+			row += rows;
+		}
+		assertEquals("Wrong total row count", row, index.getRowCount()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests appending lines and looking up rows and lines.
+	 */
+	public void testAdd() {
+		WrappedLineIndex index = new WrappedLineIndex();
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			int rows = i % 7 + 1;
+			index.add(rows);
+			expected.add(Integer.valueOf(rows));
+		}
+		assertRows(expected, index);
+		assertEquals("Row past the end", 999, index.getLine(index.getRowCount() + 10)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests removing lines from the start and appending lines, as a trimmed
+	 * console does.
+	 */
+	public void testRemoveFirst() {
+		WrappedLineIndex index = new WrappedLineIndex();
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			int rows = i % 3 + 1;
+			index.add(rows);
+			expected.add(Integer.valueOf(rows));
+			if (expected.size() > 300) {
+				index.removeFirst(100);
+				expected.subList(0, 100).clear();
+			}
+		}
+		assertRows(expected, index);
+		index.clear();
+		assertEquals(0, index.size());
+		assertEquals(0, index.getRowCount());
+	}
+
+	/**
+	 * Tests replacing lines anywhere in the index.
+	 */
+	public void testReplace() {
+		Random random = new Random(0);
+		WrappedLineIndex index = new WrappedLineIndex();
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 2000; i++) {
+			int line = random.nextInt(expected.size() + 1);
+			int count = random.nextInt(Math.min(expected.size() - line, 3) + 1);
+			int[] rows = new int[random.nextInt(4)];
+			List<Integer> replacement = new ArrayList<Integer>();
+			for (int j = 0; j < rows.length; j++) {
+				rows[j] = random.nextInt(5) + 1;
+				replacement.add(Integer.valueOf(rows[j]));
+			}
+			index.replace(line, count, rows);
+			expected.subList(line, line + count).clear();
+			expected.addAll(line, replacement);
+		}
+		assertRows(expected, index);
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IAsynchronousDebugEventSetListener;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.internal.core.EventListenerMonitor;
+import org.eclipse.debug.internal.core.EventListenerMonitor.Dispatch;
+import org.eclipse.debug.internal.core.EventListenerMonitor.DispatchHistogram;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests delivery of debug events to synchronous and asynchronous listeners.
+ */
+public class EventDispatchTests extends TestCase {
+
+	static final int EVENT_SETS = 100;
+
+	/**
+	 * Fires model specific event sets carrying their index as data.
+	 */
+	void fireEvents(int count) {
+		for (int i = 0; i < count; i++) {
+			DebugEvent event = new DebugEvent(this, DebugEvent.MODEL_SPECIFIC);
+			event.setData(Integer.valueOf(i));
+			DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { event });
+		}
+	}
+
+	/**
+	 * Tests that an asynchronous listener receives all event sets in order,
+	 * not on the thread dispatching events to other listeners.
+	 */
+	public void testAsynchronousListenerOrder() throws Exception {
+		final List<Object> received = new ArrayList<Object>();
+		final List<Thread> threads = new ArrayList<Thread>();
+		final CountDownLatch done = new CountDownLatch(EVENT_SETS);
+		IAsynchronousDebugEventSetListener async = new IAsynchronousDebugEventSetListener() {
+			@Override
+			public void handleDebugEvents(DebugEvent[] events) {
+				if (events[0].getSource() == EventDispatchTests.this) {
+					synchronized (received) {
+						received.add(events[0].getData());
+						threads.add(Thread.currentThread());
+					}
+					done.countDown();
+				}
+			}
+		};
+		final List<Thread> syncThreads = new ArrayList<Thread>();
+		IDebugEventSetListener sync = new IDebugEventSetListener() {
+			@Override
+			public void handleDebugEvents(DebugEvent[] events) {
+				if (events[0].getSource() == EventDispatchTests.this) {
+					synchronized (syncThreads) {
+						syncThreads.add(Thread.currentThread());
+					}
+				}
+			}
+		};
+		DebugPlugin.getDefault().addDebugEventListener(async);
+		DebugPlugin.getDefault().addDebugEventListener(sync);
+		try {
+			fireEvents(EVENT_SETS);
+			assertTrue("Events not delivered", done.await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+			synchronized (received) {
+				for (int i = 0; i < EVENT_SETS; i++) {
+					assertEquals("Wrong event order", Integer.valueOf(i), received.get(i)); //$NON-NLS-1$
+				}
+				synchronized (syncThreads) {
+					assertFalse("Asynchronous listener notified on dispatch thread", syncThreads.contains(threads.get(0))); //$NON-NLS-1$
+				}
+			}
+		} finally {
+			DebugPlugin.getDefault().removeDebugEventListener(async);
+			DebugPlugin.getDefault().removeDebugEventListener(sync);
+		}
+	}
+
+	/**
+	 * Tests that a blocked asynchronous listener does not delay other
+	 * listeners.
+	 */
+	public void testBlockedAsynchronousListener() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch asyncDone = new CountDownLatch(EVENT_SETS);
+		IAsynchronousDebugEventSetListener async = new IAsynchronousDebugEventSetListener() {
+			@Override
+			public void handleDebugEvents(DebugEvent[] events) {
+				if (events[0].getSource() == EventDispatchTests.this) {
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+					}
+					asyncDone.countDown();
+				}
+			}
+		};
+		final CountDownLatch syncDone = new CountDownLatch(EVENT_SETS);
+		IDebugEventSetListener sync = new IDebugEventSetListener() {
+			@Override
+			public void handleDebugEvents(DebugEvent[] events) {
+				if (events[0].getSource() == EventDispatchTests.this) {
+					syncDone.countDown();
+				}
+			}
+		};
+		DebugPlugin.getDefault().addDebugEventListener(async);
+		DebugPlugin.getDefault().addDebugEventListener(sync);
+		try {
+			fireEvents(EVENT_SETS);
+			assertTrue("Blocked listener delayed other listeners", syncDone.await(5, TimeUnit.SECONDS)); //$NON-NLS-1$
+			assertEquals("Blocked listener was not blocked", EVENT_SETS, asyncDone.getCount()); //$NON-NLS-1$
+			release.countDown();
+			assertTrue("Events not delivered after release", asyncDone.await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+		} finally {
+			release.countDown();
+			DebugPlugin.getDefault().removeDebugEventListener(async);
+			DebugPlugin.getDefault().removeDebugEventListener(sync);
+		}
+	}
+
+	/**
+	 * Tests that dispatch times are recorded in the expected buckets.
+	 */
+	public void testDispatchHistogram() throws Exception {
+		EventListenerMonitor monitor = new EventListenerMonitor(0);
+		Object listener = new Object();
+		for (int i = 0; i < 3; i++) {
+			monitor.end(monitor.begin(listener));
+		}
+		Dispatch dispatch = monitor.begin(listener);
+		Thread.sleep(20);
+		monitor.end(dispatch);
+		DispatchHistogram histogram = monitor.getHistogram(listener);
+		assertNotNull("Missing histogram", histogram); //$NON-NLS-1$
+		assertEquals("Wrong dispatch count", 4, histogram.getCount()); //$NON-NLS-1$
+		assertTrue("Wrong maximum dispatch time", histogram.getMaxTime() >= 20); //$NON-NLS-1$
+		long[] buckets = histogram.getBuckets();
+		assertEquals("Wrong number of buckets", EventListenerMonitor.BUCKETS, buckets.length); //$NON-NLS-1$
+		long total = 0;
+		for (int i = 0; i < 5; i++) {
+			total += buckets[i];
+		}
+		assertTrue("Slow dispatch counted as fast", total <= 3); //$NON-NLS-1$
+		monitor.remove(listener);
+		assertNull("Histogram not removed", monitor.getHistogram(listener)); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfoCache;
+
+/**
+ * Tests the bounded cache of launch configuration info objects.
+ */
+public class LaunchConfigurationInfoCacheTests extends AbstractLaunchTest {
+
+	/**
+	 * Constructor
+	 * @param name
+	 */
+	public LaunchConfigurationInfoCacheTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Returns an unsaved configuration to use as a cache key.
+	 */
+	private ILaunchConfiguration newConfiguration(String name) throws CoreException {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		return type.newInstance(null, name);
+	}
+
+	private LaunchConfigurationInfo newInfo() {
+		return new LaunchConfigurationInfo() {
+		};
+	}
+
+	/**
+	 * Tests that the least recently used entries are evicted first and are
+	 * still answered while softly referenced.
+	 *
+	 * @throws Exception
+	 */
+	public void testEviction() throws Exception {
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache(2);
+		ILaunchConfiguration a = newConfiguration("a"); //$NON-NLS-1$
+		ILaunchConfiguration b = newConfiguration("b"); //$NON-NLS-1$
+		ILaunchConfiguration c = newConfiguration("c"); //$NON-NLS-1$
+		LaunchConfigurationInfo infoA = newInfo();
+		cache.put(a, infoA);
+		cache.put(b, newInfo());
+		assertSame("Wrong info", infoA, cache.get(a)); //$NON-NLS-1$
+		cache.put(c, newInfo());
+		assertEquals("Cache exceeds capacity", 2, cache.size()); //$NON-NLS-1$
+		assertEquals("Wrong eviction count", 1, cache.getEvictionCount()); //$NON-NLS-1$
+		assertEquals("Wrong hit count", 1, cache.getHitCount()); //$NON-NLS-1$
+		// 'b' was least recently used and is only softly referenced now
+		assertNotNull("Evicted info discarded", cache.get(b)); //$NON-NLS-1$
+		assertEquals("Wrong soft hit count", 1, cache.getSoftHitCount()); //$NON-NLS-1$
+		assertEquals("Cache exceeds capacity", 2, cache.size()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests removing entries and counting misses.
+	 *
+	 * @throws Exception
+	 */
+	public void testRemove() throws Exception {
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache(1);
+		ILaunchConfiguration a = newConfiguration("a"); //$NON-NLS-1$
+		ILaunchConfiguration b = newConfiguration("b"); //$NON-NLS-1$
+		cache.put(a, newInfo());
+		cache.put(b, newInfo());
+		assertTrue("Evicted entry not removed", cache.remove(a)); //$NON-NLS-1$
+		assertTrue("Entry not removed", cache.remove(b)); //$NON-NLS-1$
+		assertFalse("Entry removed twice", cache.remove(b)); //$NON-NLS-1$
+		assertNull("Removed entry answered", cache.get(a)); //$NON-NLS-1$
+		assertEquals("Wrong miss count", 1, cache.getMissCount()); //$NON-NLS-1$
+		assertEquals("Cache not empty", 0, cache.size()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that lowering the capacity evicts entries, and that a capacity of
+	 * zero does not bound the cache.
+	 *
+	 * @throws Exception
+	 */
+	public void testCapacity() throws Exception {
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache(0);
+		for (int i = 0; i < 10; i++) {
+			cache.put(newConfiguration("config" + i), newInfo()); //$NON-NLS-1$
+		}
+		assertEquals("Unbounded cache evicted entries", 10, cache.size()); //$NON-NLS-1$
+		cache.setCapacity(4);
+		assertEquals("Entries not evicted", 4, cache.size()); //$NON-NLS-1$
+		assertEquals("Wrong eviction count", 6, cache.getEvictionCount()); //$NON-NLS-1$
+		cache.clear();
+		assertEquals("Cache not cleared", 0, cache.size()); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+import junit.framework.TestCase;
+
+/**
+ * Measures the throughput of reading and writing launch configuration XML
+ * over a corpus of {@link #CORPUS_SIZE} generated configurations with
+ * {@link #ATTRIBUTES} attributes each. The performance meters record elapsed
+ * and CPU time as well as the heap used by each pass.
+ */
+public class LaunchConfigurationPerformanceTests extends TestCase {
+
+	/**
+	 * Number of configurations in the corpus
+	 */
+	private static final int CORPUS_SIZE = 500;
+
+	/**
+	 * Number of attributes of each kind per configuration
+	 */
+	private static final int ATTRIBUTES = 20;
+
+	/**
+	 * Number of measured passes over the corpus
+	 */
+	private static final int PASSES = 10;
+
+	private List<TestLaunchConfigurationInfo> createCorpus() {
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		List<TestLaunchConfigurationInfo> corpus = new ArrayList<TestLaunchConfigurationInfo>(CORPUS_SIZE);
+		for (int i = 0; i < CORPUS_SIZE; i++) {
+			TestLaunchConfigurationInfo info = new TestLaunchConfigurationInfo(type);
+			for (int j = 0; j < ATTRIBUTES; j++) {
+				info.set("org.eclipse.debug.tests.string" + j, "-Dproperty" + j + "=\"value " + i + "\" -Xmx512m\n-verbose:gc & <more>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				info.set("org.eclipse.debug.tests.int" + j, Integer.valueOf(i * j)); //$NON-NLS-1$
+				info.set("org.eclipse.debug.tests.boolean" + j, Boolean.valueOf((i + j) % 2 == 0)); //$NON-NLS-1$
+				List<String> list = new ArrayList<String>();
+				Map<String, String> map = new HashMap<String, String>();
+				for (int k = 0; k < 10; k++) {
+					list.add("/project" + i + "/src/org/eclipse/Type" + k + ".java"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					map.put("VARIABLE_" + k, "${workspace_loc:/project" + i + "}/lib" + k); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+				info.set("org.eclipse.debug.tests.list" + j, list); //$NON-NLS-1$
+				info.set("org.eclipse.debug.tests.map" + j, map); //$NON-NLS-1$
+			}
+			corpus.add(info);
+		}
+		return corpus;
+	}
+
+	public void testWriteXML() throws Exception {
+		List<TestLaunchConfigurationInfo> corpus = createCorpus();
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		try {
+			for (int i = 0; i < PASSES; i++) {
+				long length = 0;
+				meter.start();
+				for (TestLaunchConfigurationInfo info : corpus) {
+					length += info.toXML().length();
+				}
+				meter.stop();
+				assertTrue(length > 0);
+				System.gc();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	public void testReadXML() throws Exception {
+		List<TestLaunchConfigurationInfo> corpus = createCorpus();
+		List<byte[]> files = new ArrayList<byte[]>(corpus.size());
+		for (TestLaunchConfigurationInfo info : corpus) {
+			files.add(info.toXML().getBytes("UTF-8")); //$NON-NLS-1$
+		}
+		corpus = null;
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		try {
+			for (int i = 0; i < PASSES; i++) {
+				int attributes = 0;
+				meter.start();
+				for (byte[] file : files) {
+					attributes += new TestLaunchConfigurationInfo(file).getAttributeMap().size();
+				}
+				meter.stop();
+				assertEquals(CORPUS_SIZE * ATTRIBUTES * 5, attributes);
+				System.gc();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
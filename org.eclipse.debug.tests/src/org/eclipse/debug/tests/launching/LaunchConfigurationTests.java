@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
@@ -41,6 +42,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.DebugPlugin;
@@ -52,6 +54,7 @@ import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.Launch;
 import org.eclipse.debug.internal.core.LaunchConfiguration;
+import org.eclipse.debug.internal.core.LaunchConfigurationIndex;
 import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.tests.TestsPlugin;
 import org.eclipse.debug.ui.DebugUITools;
@@ -1152,6 +1155,166 @@ public class LaunchConfigurationTests extends AbstractLaunchTest implements ILau
 
 	}
 
+	/**
+	 * Writes launch configuration files to import into a new directory. The
+	 * configuration named <code>prefix + i</code> has an integer attribute
+	 * "Index" of <code>i</code> and an integer attribute "Value" of the given
+	 * value.
+	 *
+	 * @param directory name of the directory to create in the state location
+	 * @param prefix prefix of the configuration names
+	 * @param count number of files to write
+	 * @param value value of the "Value" attribute
+	 * @return the files, in order
+	 * @throws Exception if a file cannot be written
+	 */
+	private File[] createImportFiles(String directory, String prefix, int count, int value) throws Exception {
+		File dir = TestsPlugin.getDefault().getStateLocation().append(directory).toFile();
+		dir.mkdirs();
+		File[] files = new File[count];
+		for (int i = 0; i < count; i++) {
+			TestLaunchConfigurationInfo info = new TestLaunchConfigurationInfo(getLaunchManager().getLaunchConfigurationType(ID_TEST_LAUNCH_TYPE));
+			info.set("Index", Integer.valueOf(i)); //$NON-NLS-1$
+			info.set("Value", Integer.valueOf(value)); //$NON-NLS-1$
+			files[i] = new File(dir, prefix + i + '.' + ILaunchConfiguration.LAUNCH_CONFIGURATION_FILE_EXTENSION);
+			Files.write(files[i].toPath(), info.toXML().getBytes("UTF-8")); //$NON-NLS-1$
+		}
+		return files;
+	}
+
+	/**
+	 * Deletes imported configurations and the files they were imported from.
+	 */
+	private void deleteImported(List<ILaunchConfiguration> configurations, File[] files) throws CoreException {
+		for (ILaunchConfiguration configuration : configurations) {
+			configuration.delete();
+		}
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests that importing configurations in parallel, above the parallel
+	 * threshold and between the batch size and the threshold, notifies of
+	 * each configuration once and in the order of the files.
+	 *
+	 * @throws Exception
+	 */
+	public void testImportInParallel() throws Exception {
+		LaunchManager manager = (LaunchManager) getLaunchManager();
+		int[] counts = new int[] { 12, 40 };
+		for (int count : counts) {
+			String prefix = "ImportParallel" + count + "_"; //$NON-NLS-1$ //$NON-NLS-2$
+			File[] files = createImportFiles("import-parallel-" + count, prefix, count, 0); //$NON-NLS-1$
+			Listener listener = new Listener();
+			manager.addLaunchConfigurationListener(listener);
+			try {
+				manager.importConfigurations(files, null);
+				List<ILaunchConfiguration> added = listener.getAdded();
+				assertEquals("Wrong number of added configs", count, added.size()); //$NON-NLS-1$
+				assertTrue("No configs should be changed", listener.getChanged().isEmpty()); //$NON-NLS-1$
+				for (int i = 0; i < count; i++) {
+					ILaunchConfiguration configuration = added.get(i);
+					assertEquals("Added out of order", prefix + i, configuration.getName()); //$NON-NLS-1$
+					assertTrue("Imported config should be local", configuration.isLocal()); //$NON-NLS-1$
+					assertEquals("Wrong attribute", i, configuration.getAttribute("Index", -1)); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+
+				// importing again changes the same configurations, in order
+				Listener again = new Listener();
+				manager.addLaunchConfigurationListener(again);
+				try {
+					manager.importConfigurations(files, null);
+				} finally {
+					manager.removeLaunchConfigurationListener(again);
+				}
+				assertTrue("No configs should be added", again.getAdded().isEmpty()); //$NON-NLS-1$
+				assertEquals("Wrong number of changed configs", added, again.getChanged()); //$NON-NLS-1$
+			} finally {
+				manager.removeLaunchConfigurationListener(listener);
+				deleteImported(listener.getAdded(), files);
+			}
+		}
+	}
+
+	/**
+	 * Tests that files with the same name are imported one after the other,
+	 * the last one replacing the others.
+	 *
+	 * @throws Exception
+	 */
+	public void testImportDuplicateNames() throws Exception {
+		LaunchManager manager = (LaunchManager) getLaunchManager();
+		File[] first = createImportFiles("import-duplicates-1", "ImportDuplicate", 20, 1); //$NON-NLS-1$ //$NON-NLS-2$
+		File[] second = createImportFiles("import-duplicates-2", "ImportDuplicate", 20, 2); //$NON-NLS-1$ //$NON-NLS-2$
+		File[] files = new File[22];
+		System.arraycopy(first, 0, files, 0, 20);
+		files[20] = second[3];
+		files[21] = second[17];
+		Listener listener = new Listener();
+		manager.addLaunchConfigurationListener(listener);
+		try {
+			manager.importConfigurations(files, null);
+			List<ILaunchConfiguration> added = listener.getAdded();
+			assertEquals("Wrong number of added configs", 20, added.size()); //$NON-NLS-1$
+			for (int i = 0; i < 20; i++) {
+				ILaunchConfiguration configuration = added.get(i);
+				assertEquals("Added out of order", "ImportDuplicate" + i, configuration.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+				int value = i == 3 || i == 17 ? 2 : 1;
+				assertEquals("Wrong file imported last", value, configuration.getAttribute("Value", -1)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			manager.removeLaunchConfigurationListener(listener);
+			deleteImported(listener.getAdded(), first);
+			deleteImported(new ArrayList<ILaunchConfiguration>(), second);
+		}
+	}
+
+	/**
+	 * Tests that files failing to import are reported once the other files
+	 * have been imported.
+	 *
+	 * @throws Exception
+	 */
+	public void testImportErrors() throws Exception {
+		LaunchManager manager = (LaunchManager) getLaunchManager();
+		File[] valid = createImportFiles("import-errors", "ImportError", 20, 0); //$NON-NLS-1$ //$NON-NLS-2$
+		File dir = valid[0].getParentFile();
+		File[] files = new File[22];
+		System.arraycopy(valid, 0, files, 0, 10);
+		files[10] = new File(dir, "Missing1.launch"); //$NON-NLS-1$
+		System.arraycopy(valid, 10, files, 11, 10);
+		files[21] = new File(dir, "Missing2.launch"); //$NON-NLS-1$
+		Listener listener = new Listener();
+		manager.addLaunchConfigurationListener(listener);
+		try {
+			try {
+				manager.importConfigurations(files, null);
+				fail("Missing files should be reported"); //$NON-NLS-1$
+			} catch (CoreException e) {
+				IStatus status = e.getStatus();
+				assertTrue("Both failures should be reported", status.isMultiStatus()); //$NON-NLS-1$
+				IStatus[] children = status.getChildren();
+				assertEquals("Both failures should be reported", 2, children.length); //$NON-NLS-1$
+				Set<String> messages = new HashSet<String>();
+				for (IStatus child : children) {
+					assertEquals(IStatus.ERROR, child.getSeverity());
+					messages.add(child.getMessage());
+				}
+				assertEquals("Failures should be distinct", 2, messages.size()); //$NON-NLS-1$
+			}
+			List<ILaunchConfiguration> added = listener.getAdded();
+			assertEquals("Valid files should be imported", 20, added.size()); //$NON-NLS-1$
+			for (int i = 0; i < 20; i++) {
+				assertEquals("Added out of order", "ImportError" + i, added.get(i).getName()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			manager.removeLaunchConfigurationListener(listener);
+			deleteImported(listener.getAdded(), valid);
+		}
+	}
+
 	/**
 	 * Tests the location of a local working copy.
 	 *
@@ -1518,6 +1681,200 @@ public class LaunchConfigurationTests extends AbstractLaunchTest implements ILau
 		}
 	}
 
+	/**
+	 * Tests that queries by name, type and mapped resource follow changes to
+	 * a configuration.
+	 *
+	 * @throws Exception
+	 */
+	public void testIndexedQueries() throws Exception {
+		LaunchManager lm = (LaunchManager) getLaunchManager();
+		ILaunchConfigurationType type = lm.getLaunchConfigurationType(ID_TEST_LAUNCH_TYPE);
+		IProject project = getProject();
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(null, "test.indexed.queries"); //$NON-NLS-1$
+		wc.setMappedResources(new IResource[] { project });
+		ILaunchConfiguration handle = wc.doSave();
+		try {
+			assertEquals("Should find configuration by name", handle, lm.findLaunchConfiguration("test.indexed.queries")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertTrue("Name should exist", lm.isExistingLaunchConfigurationName("test.indexed.queries")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertTrue("Should find configuration by type", existsIn(lm.getLaunchConfigurations(type), handle)); //$NON-NLS-1$
+			assertTrue("Should find configuration by mapped resource", existsIn(lm.getMappedConfigurations(project), handle)); //$NON-NLS-1$
+
+			wc = handle.getWorkingCopy();
+			wc.setMappedResources(null);
+			handle = wc.doSave();
+			assertFalse("Should not find unmapped configuration", existsIn(lm.getMappedConfigurations(project), handle)); //$NON-NLS-1$
+			assertTrue("Should still find configuration by type", existsIn(lm.getLaunchConfigurations(type), handle)); //$NON-NLS-1$
+		} finally {
+			handle.delete();
+		}
+		assertNull("Should not find deleted configuration", lm.findLaunchConfiguration("test.indexed.queries")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse("Deleted name should not exist", lm.isExistingLaunchConfigurationName("test.indexed.queries")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse("Should not find deleted configuration by type", existsIn(lm.getLaunchConfigurations(type), handle)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a saved index restores unchanged configurations only.
+	 *
+	 * @throws Exception
+	 */
+	public void testSavedIndex() throws Exception {
+		ILaunchConfiguration handle = newConfiguration(null, "test.saved.index").doSave(); //$NON-NLS-1$
+		File file = File.createTempFile("launches", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			LaunchConfigurationIndex index = new LaunchConfigurationIndex();
+			assertTrue("Should add configuration", index.add(handle)); //$NON-NLS-1$
+			index.save(file);
+
+			LaunchConfigurationIndex restored = new LaunchConfigurationIndex();
+			restored.load(file);
+			assertTrue("Unchanged configuration should be restored", restored.restore(handle)); //$NON-NLS-1$
+			assertEquals("Should find restored configuration by name", handle, restored.findByName("test.saved.index")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertTrue("Should find restored configuration by type", restored.getByType(ID_TEST_LAUNCH_TYPE).contains(handle)); //$NON-NLS-1$
+
+			ILaunchConfigurationWorkingCopy wc = handle.getWorkingCopy();
+			wc.setAttribute("String1", "A longer value changing the size of the file"); //$NON-NLS-1$ //$NON-NLS-2$
+			handle = wc.doSave();
+			restored = new LaunchConfigurationIndex();
+			restored.load(file);
+			assertFalse("Changed configuration should not be restored", restored.restore(handle)); //$NON-NLS-1$
+		} finally {
+			file.delete();
+			handle.delete();
+		}
+	}
+
+	/**
+	 * Tests that working copies saved together are all saved and that
+	 * listeners are notified once per configuration.
+	 *
+	 * @throws Exception
+	 */
+	public void testSaveLaunchConfigurations() throws Exception {
+		ILaunchConfigurationWorkingCopy[] wcs = new ILaunchConfigurationWorkingCopy[20];
+		for (int i = 0; i < wcs.length - 1; i++) {
+			wcs[i] = newConfiguration(null, "test.batch.save" + i); //$NON-NLS-1$
+		}
+		wcs[wcs.length - 1] = newConfiguration(getProject(), "test.batch.save.shared"); //$NON-NLS-1$
+		Listener listener = new Listener();
+		getLaunchManager().addLaunchConfigurationListener(listener);
+		ILaunchConfiguration[] saved = null;
+		try {
+			saved = getLaunchManager().saveLaunchConfigurations(wcs, null);
+			assertEquals("Wrong number of saved configurations", wcs.length, saved.length); //$NON-NLS-1$
+			for (int i = 0; i < saved.length; i++) {
+				assertTrue("Configuration should exist", saved[i].exists()); //$NON-NLS-1$
+				assertEquals("Wrong configuration name", wcs[i].getName(), saved[i].getName()); //$NON-NLS-1$
+				assertEquals("Should be notified of addition once", 1, count(listener.getAdded(), saved[i])); //$NON-NLS-1$
+			}
+			assertEquals("Wrong number of added notifications", saved.length, listener.getAdded().size()); //$NON-NLS-1$
+			assertTrue("Additions should not be notified as changes", listener.getChanged().isEmpty()); //$NON-NLS-1$
+
+			for (int i = 0; i < saved.length; i++) {
+				wcs[i] = saved[i].getWorkingCopy();
+				wcs[i].setAttribute("String1", "changed"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			saved = getLaunchManager().saveLaunchConfigurations(wcs, null);
+			for (int i = 0; i < saved.length; i++) {
+				assertEquals("Attribute should be saved", "changed", saved[i].getAttribute("String1", (String) null)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				assertEquals("Should be notified of change once", 1, count(listener.getChanged(), saved[i])); //$NON-NLS-1$
+			}
+		} finally {
+			getLaunchManager().removeLaunchConfigurationListener(listener);
+			if (saved != null) {
+				for (int i = 0; i < saved.length; i++) {
+					saved[i].delete();
+				}
+			}
+		}
+	}
+
+	private int count(List<ILaunchConfiguration> configurations, ILaunchConfiguration configuration) {
+		int count = 0;
+		for (ILaunchConfiguration config : configurations) {
+			if (config.equals(configuration)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Removes the indentation of elements added by the transformers of newer
+	 * JDKs, which the transformers of Java 7 and 8 did not write.
+	 */
+	private static String unindent(String xml) {
+		return xml.replaceAll("(?m)^[ \\t]+<", "<"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that launch configuration XML is written as it was when a DOM was
+	 * serialized, apart from indentation, and reads back the same attributes.
+	 *
+	 * @throws Exception
+	 */
+	public void testXMLFormat() throws Exception {
+		TestLaunchConfigurationInfo info = new TestLaunchConfigurationInfo(getLaunchManager().getLaunchConfigurationType(ID_TEST_LAUNCH_TYPE));
+		info.set("String1", "a \"quoted\" <value> & more\nsecond line\r\n\tend"); //$NON-NLS-1$ //$NON-NLS-2$
+		info.set("Int1", Integer.valueOf(42)); //$NON-NLS-1$
+		info.set("Boolean1", Boolean.TRUE); //$NON-NLS-1$
+		List<String> list = new ArrayList<String>();
+		list.add("z"); //$NON-NLS-1$
+		list.add("a"); //$NON-NLS-1$
+		info.set("List1", list); //$NON-NLS-1$
+		info.set("List2", new ArrayList<String>()); //$NON-NLS-1$
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("k2", "v2"); //$NON-NLS-1$ //$NON-NLS-2$
+		map.put("k1", "v1"); //$NON-NLS-1$ //$NON-NLS-2$
+		info.set("Map1", map); //$NON-NLS-1$
+		Set<String> set = new HashSet<String>();
+		set.add("s2"); //$NON-NLS-1$
+		set.add("s1"); //$NON-NLS-1$
+		info.set("Set1", set); //$NON-NLS-1$
+
+		String xml = info.toXML();
+		assertEquals("XML differs from the DOM serialization", unindent(info.toDOMXML()), xml); //$NON-NLS-1$
+
+		TestLaunchConfigurationInfo read = new TestLaunchConfigurationInfo(xml.getBytes("UTF-8")); //$NON-NLS-1$
+		assertEquals("Wrong type", ID_TEST_LAUNCH_TYPE, read.getTypeId()); //$NON-NLS-1$
+		assertEquals("Attributes should survive a round trip", info.getAttributeMap(), read.getAttributeMap()); //$NON-NLS-1$
+
+		TestLaunchConfigurationInfo empty = new TestLaunchConfigurationInfo(getLaunchManager().getLaunchConfigurationType(ID_TEST_LAUNCH_TYPE));
+		assertEquals("XML of an empty configuration differs from the DOM serialization", unindent(empty.toDOMXML()), empty.toXML()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that launch configuration XML with indentation, comments and
+	 * unknown elements is read like it was by the DOM parser.
+	 *
+	 * @throws Exception
+	 */
+	public void testReadXMLIgnoresUnknownContent() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" //$NON-NLS-1$
+				+ "<!-- comment -->\n" //$NON-NLS-1$
+				+ "<launchConfiguration type=\"" + ID_TEST_LAUNCH_TYPE + "\">\n" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "    <unknownAttribute key=\"x\"><nested/></unknownAttribute>\n" //$NON-NLS-1$
+				+ "    <stringAttribute key=\"String1\" value=\"\u00e9\u65e5\"/>\n" //$NON-NLS-1$
+				+ "    <listAttribute key=\"List1\">\n" //$NON-NLS-1$
+				+ "        <listEntry value=\"a\"/>\n" //$NON-NLS-1$
+				+ "    </listAttribute>\n" //$NON-NLS-1$
+				+ "</launchConfiguration>\n"; //$NON-NLS-1$
+		TestLaunchConfigurationInfo read = new TestLaunchConfigurationInfo(xml.getBytes("UTF-8")); //$NON-NLS-1$
+		Map<String, Object> attributes = read.getAttributeMap();
+		assertEquals("Wrong number of attributes", 2, attributes.size()); //$NON-NLS-1$
+		assertEquals("Wrong string attribute", "\u00e9\u65e5", attributes.get("String1")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		List<String> list = new ArrayList<String>();
+		list.add("a"); //$NON-NLS-1$
+		assertEquals("Wrong list attribute", list, attributes.get("List1")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		try {
+			new TestLaunchConfigurationInfo(("<launchConfiguration type=\"" + ID_TEST_LAUNCH_TYPE + "\"><listAttribute key=\"l\"><mapEntry key=\"k\" value=\"v\"/></listAttribute></launchConfiguration>").getBytes("UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			fail("Entry of the wrong type should be rejected"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			// expected
+		}
+	}
+
 	/**
 	 * Tests that a launch created without a backing
 	 * {@link ILaunchConfiguration} does not cause {@link NullPointerException}s
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchManager;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Exposes the XML reading and writing of launch configuration info objects.
+ */
+public class TestLaunchConfigurationInfo extends LaunchConfigurationInfo {
+
+	private static final XMLInputFactory fgInputFactory = XMLInputFactory.newInstance();
+
+	/**
+	 * Constructs an empty info of the given type.
+	 *
+	 * @param type launch configuration type
+	 */
+	public TestLaunchConfigurationInfo(ILaunchConfigurationType type) {
+		setType(type);
+	}
+
+	/**
+	 * Constructs an info read from the given XML.
+	 *
+	 * @param xml launch configuration XML, encoded in UTF-8
+	 * @throws Exception if the XML cannot be read
+	 */
+	public TestLaunchConfigurationInfo(byte[] xml) throws Exception {
+		XMLStreamReader reader = fgInputFactory.createXMLStreamReader(new ByteArrayInputStream(xml));
+		try {
+			initializeFromXML(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Sets an attribute of this info.
+	 *
+	 * @param key attribute key
+	 * @param value attribute value
+	 */
+	public void set(String key, Object value) {
+		setAttribute(key, value);
+	}
+
+	/**
+	 * Returns the identifier of the type of this info.
+	 *
+	 * @return launch configuration type identifier
+	 */
+	public String getTypeId() {
+		return getType().getIdentifier();
+	}
+
+	/**
+	 * Returns the attributes of this info.
+	 *
+	 * @return attribute table
+	 */
+	public Map<String, Object> getAttributeMap() {
+		return getAttributes();
+	}
+
+	/**
+	 * Returns the content of this info as XML.
+	 *
+	 * @return the content of this info as XML
+	 * @throws CoreException if the XML cannot be created
+	 */
+	public String toXML() throws CoreException {
+		return getAsXML();
+	}
+
+	/**
+	 * Returns the content of this info as XML, written the way it was before
+	 * launch configurations were written without a DOM: by building a DOM
+	 * and serializing it with {@link LaunchManager#serializeDocument(Document)}.
+	 *
+	 * @return the content of this info as XML
+	 * @throws Exception if the XML cannot be created
+	 */
+	@SuppressWarnings("unchecked")
+	public String toDOMXML() throws Exception {
+		Document doc = LaunchManager.getDocument();
+		Element root = doc.createElement("launchConfiguration"); //$NON-NLS-1$
+		doc.appendChild(root);
+		root.setAttribute("type", getTypeId()); //$NON-NLS-1$
+		for (Map.Entry<String, Object> entry : getAttributes().entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			Element element = null;
+			if (value instanceof String) {
+				element = createKeyValueElement(doc, "stringAttribute", key, (String) value); //$NON-NLS-1$
+			} else if (value instanceof Integer) {
+				element = createKeyValueElement(doc, "intAttribute", key, value.toString()); //$NON-NLS-1$
+			} else if (value instanceof Boolean) {
+				element = createKeyValueElement(doc, "booleanAttribute", key, value.toString()); //$NON-NLS-1$
+			} else if (value instanceof List) {
+				element = createEntriesElement(doc, "listAttribute", "listEntry", key, (List<String>) value); //$NON-NLS-1$ //$NON-NLS-2$
+			} else if (value instanceof Map) {
+				Map<String, String> map = (Map<String, String>) value;
+				element = doc.createElement("mapAttribute"); //$NON-NLS-1$
+				element.setAttribute("key", key); //$NON-NLS-1$
+				List<String> keys = new ArrayList<String>(map.keySet());
+				Collections.sort(keys);
+				for (String mapKey : keys) {
+					element.appendChild(createKeyValueElement(doc, "mapEntry", mapKey, map.get(mapKey))); //$NON-NLS-1$
+				}
+			} else if (value instanceof Set) {
+				List<String> list = new ArrayList<String>((Set<String>) value);
+				Collections.sort(list);
+				element = createEntriesElement(doc, "setAttribute", "setEntry", key, list); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			root.appendChild(element);
+		}
+		return LaunchManager.serializeDocument(doc);
+	}
+
+	private static Element createKeyValueElement(Document doc, String elementType, String key, String value) {
+		Element element = doc.createElement(elementType);
+		element.setAttribute("key", key); //$NON-NLS-1$
+		element.setAttribute("value", value); //$NON-NLS-1$
+		return element;
+	}
+
+	private static Element createEntriesElement(Document doc, String elementType, String entryType, String key, Collection<String> values) {
+		Element element = doc.createElement(elementType);
+		element.setAttribute("key", key); //$NON-NLS-1$
+		for (String value : values) {
+			Element entry = doc.createElement(entryType);
+			entry.setAttribute("value", value); //$NON-NLS-1$
+			element.appendChild(entry);
+		}
+		return element;
+	}
+}
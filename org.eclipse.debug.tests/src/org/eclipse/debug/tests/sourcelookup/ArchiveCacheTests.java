@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
+
+/**
+ * Tests the shared archives of {@link SourceLookupUtils}.
+ */
+public class ArchiveCacheTests extends TestCase {
+
+	/**
+	 * More archives than are kept open when idle
+	 */
+	private static final int ARCHIVES = 25;
+
+	private File[] fArchives;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fArchives = new File[ARCHIVES];
+		for (int i = 0; i < fArchives.length; i++) {
+			fArchives[i] = File.createTempFile("ArchiveCacheTests", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+			ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(fArchives[i]));
+			try {
+				stream.putNextEntry(new ZipEntry("a/B.java")); //$NON-NLS-1$
+				stream.write(i);
+				stream.closeEntry();
+			} finally {
+				stream.close();
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		SourceLookupUtils.closeArchives();
+		for (int i = 0; i < fArchives.length; i++) {
+			fArchives[i].delete();
+		}
+		super.tearDown();
+	}
+
+	private ZipFile getZipFile(int i) throws IOException {
+		return SourceLookupUtils.getZipFile(fArchives[i].getAbsolutePath());
+	}
+
+	/**
+	 * Tests that archives are shared, and that the least recently used idle
+	 * archives are closed when too many archives are open.
+	 *
+	 * @throws Exception
+	 */
+	public void testEviction() throws Exception {
+		ZipFile referenced = SourceLookupUtils.acquireZipFile(fArchives[0].getAbsolutePath());
+		assertSame(referenced, getZipFile(0));
+		ZipFile first = getZipFile(1);
+		for (int i = 2; i < fArchives.length; i++) {
+			getZipFile(i);
+		}
+		assertSame("Referenced archive closed", referenced, getZipFile(0)); //$NON-NLS-1$
+		assertNotSame("Least recently used archive not closed", first, getZipFile(1)); //$NON-NLS-1$
+		ZipFile last = getZipFile(fArchives.length - 1);
+		assertSame("Recently used archive closed", last, getZipFile(fArchives.length - 1)); //$NON-NLS-1$
+		SourceLookupUtils.releaseZipFile(fArchives[0].getAbsolutePath());
+	}
+
+	/**
+	 * Tests that an archive is not closed while a storage's contents are
+	 * read, and is closed by eviction once the stream is closed.
+	 *
+	 * @throws Exception
+	 */
+	public void testStreamKeepsArchiveOpen() throws Exception {
+		ZipFile file = getZipFile(0);
+		ZipEntryStorage storage = new ZipEntryStorage(file, file.getEntry("a/B.java")); //$NON-NLS-1$
+		InputStream contents = storage.getContents();
+		try {
+			for (int i = 1; i < fArchives.length; i++) {
+				getZipFile(i);
+			}
+			assertSame("Archive read closed", file, getZipFile(0)); //$NON-NLS-1$
+			assertEquals(0, contents.read());
+		} finally {
+			contents.close();
+		}
+		contents.close();
+		for (int i = 1; i < fArchives.length; i++) {
+			getZipFile(i);
+		}
+		assertNotSame("Archive no longer read not closed", file, getZipFile(0)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that storages read an archive that was closed and opened again.
+	 *
+	 * @throws Exception
+	 */
+	public void testStorageReopens() throws Exception {
+		ZipFile file = getZipFile(3);
+		ZipEntryStorage storage = new ZipEntryStorage(file, file.getEntry("a/B.java")); //$NON-NLS-1$
+		SourceLookupUtils.closeArchives();
+		InputStream contents = storage.getContents();
+		try {
+			assertEquals(3, contents.read());
+		} finally {
+			contents.close();
+		}
+		ZipFile reopened = getZipFile(3);
+		assertNotSame(file, reopened);
+		assertEquals("Storages of a reopened archive differ", storage, new ZipEntryStorage(reopened, reopened.getEntry("a/B.java"))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.sourcelookup.containers.ExternalArchiveSourceContainer;
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveIndex;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
+
+/**
+ * Tests {@link ArchiveIndex}.
+ */
+public class ArchiveIndexTests extends TestCase {
+
+	private File fArchive;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fArchive = File.createTempFile("ArchiveIndexTests", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+		writeArchive(new String[] { "src/a/B.java", "x/", "src/a/C.java", "lib/B.java" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		SourceLookupUtils.closeArchives();
+		fArchive.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Writes an archive with the given entries.
+	 */
+	private void writeArchive(String[] names) throws IOException {
+		ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(fArchive));
+		try {
+			for (int i = 0; i < names.length; i++) {
+				stream.putNextEntry(new ZipEntry(names[i]));
+				stream.closeEntry();
+			}
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Returns the index of the test archive, opened as a shared archive.
+	 */
+	private ArchiveIndex getIndex() throws IOException {
+		String path = fArchive.getAbsolutePath();
+		return SourceLookupUtils.getArchiveIndex(path, SourceLookupUtils.getZipFile(path));
+	}
+
+	/**
+	 * Tests looking up entries by simple name and listing directories.
+	 *
+	 * @throws Exception
+	 */
+	public void testIndex() throws Exception {
+		ArchiveIndex index = getIndex();
+		assertEquals(4, index.size());
+		assertEquals(Arrays.asList("src/a/B.java", "lib/B.java"), index.getEntries("B.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertTrue(index.getEntries("D.java").isEmpty()); //$NON-NLS-1$
+		Set<String> directories = index.getDirectories();
+		assertEquals(5, directories.size());
+		assertTrue(directories.containsAll(Arrays.asList("", "src/", "src/a/", "lib/", "x/"))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		assertSame("Index not kept in memory", index, getIndex()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a saved index is reused, and rebuilt when its archive
+	 * changes.
+	 *
+	 * @throws Exception
+	 */
+	public void testSaved() throws Exception {
+		ArchiveIndex index = getIndex();
+		SourceLookupUtils.closeArchives();
+		ArchiveIndex loaded = getIndex();
+		assertNotSame(index, loaded);
+		assertEquals(Arrays.asList("src/a/B.java", "lib/B.java"), loaded.getEntries("B.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(index.getDirectories(), loaded.getDirectories());
+
+		long lastModified = fArchive.lastModified();
+		writeArchive(new String[] { "src/a/D.java" }); //$NON-NLS-1$
+		fArchive.setLastModified(lastModified - 10000);
+		SourceLookupUtils.closeArchives();
+		index = getIndex();
+		assertEquals(1, index.size());
+		assertEquals(1, index.getEntries("D.java").size()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the index of an archive read after the archive changed is
+	 * not taken for the index of the changed archive.
+	 *
+	 * @throws Exception
+	 */
+	public void testChangedSinceOpened() throws Exception {
+		String path = fArchive.getAbsolutePath();
+		long size = fArchive.length();
+		long lastModified = fArchive.lastModified();
+		File opened = File.createTempFile("ArchiveIndexTests", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			// the zip file holds the archive as it was when it was opened
+			Files.copy(fArchive.toPath(), opened.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			writeArchive(new String[] { "src/a/D.java" }); //$NON-NLS-1$
+			fArchive.setLastModified(lastModified - 10000);
+			ZipFile file = new ZipFile(opened);
+			try {
+				ArchiveIndex index = ArchiveIndex.getIndex(path, file, size, lastModified);
+				assertEquals(4, index.size());
+			} finally {
+				file.close();
+			}
+		} finally {
+			opened.delete();
+		}
+		ArchiveIndex.clearIndexes();
+		ArchiveIndex index = getIndex();
+		assertEquals(1, index.size());
+		assertEquals(1, index.getEntries("D.java").size()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the saved index of a deleted archive is deleted, so that it
+	 * is not taken for the index of a new archive with the same path, size
+	 * and last modification time.
+	 *
+	 * @throws Exception
+	 */
+	public void testPruneIndexes() throws Exception {
+		long size = fArchive.length();
+		long lastModified = fArchive.lastModified();
+		assertEquals(2, getIndex().getEntries("B.java").size()); //$NON-NLS-1$
+		SourceLookupUtils.closeArchives();
+		assertTrue(fArchive.delete());
+		ArchiveIndex.pruneIndexes();
+
+		writeArchive(new String[] { "src/a/D.java", "x/", "src/a/E.java", "lib/D.java" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		fArchive.setLastModified(lastModified);
+		assertEquals(size, fArchive.length());
+		ArchiveIndex index = getIndex();
+		assertTrue("Index of the deleted archive used", index.getEntries("B.java").isEmpty()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, index.getEntries("D.java").size()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests finding source by suffix in an external archive.
+	 *
+	 * @throws Exception
+	 */
+	public void testFindSourceElements() throws Exception {
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), false);
+		Object[] elements = container.findSourceElements("a/C.java"); //$NON-NLS-1$
+		assertEquals(1, elements.length);
+		assertEquals("src/a/C.java", ((ZipEntryStorage) elements[0]).getZipEntry().getName()); //$NON-NLS-1$
+		elements = container.findSourceElements("B.java"); //$NON-NLS-1$
+		assertEquals(1, elements.length);
+		assertEquals("src/a/B.java", ((ZipEntryStorage) elements[0]).getZipEntry().getName()); //$NON-NLS-1$
+		assertEquals(0, container.findSourceElements("a/B.jav").length); //$NON-NLS-1$
+
+		container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), true);
+		elements = container.findSourceElements("a/B.java"); //$NON-NLS-1$
+		assertEquals(1, elements.length);
+		assertEquals("src/a/B.java", ((ZipEntryStorage) elements[0]).getZipEntry().getName()); //$NON-NLS-1$
+		container.dispose();
+	}
+}
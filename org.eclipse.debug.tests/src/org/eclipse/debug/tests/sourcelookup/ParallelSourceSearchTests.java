@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.containers.AbstractSourceContainer;
+import org.eclipse.debug.tests.TestsPlugin;
+
+/**
+ * Tests searching source containers in parallel.
+ */
+public class ParallelSourceSearchTests extends TestCase {
+
+	/**
+	 * Container that finds its prefixed name after a delay, or fails.
+	 */
+	static class DelayedContainer extends AbstractSourceContainer {
+
+		private final String fPrefix;
+		private final long fDelay;
+		private final boolean fFail;
+
+		DelayedContainer(String prefix, long delay, boolean fail) {
+			fPrefix = prefix;
+			fDelay = delay;
+			fFail = fail;
+		}
+
+		@Override
+		public Object[] findSourceElements(String name) throws CoreException {
+			try {
+				Thread.sleep(fDelay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (fFail) {
+				throw new CoreException(new Status(IStatus.ERROR, TestsPlugin.PLUGIN_ID, "Search failed")); //$NON-NLS-1$
+			}
+			if (fPrefix == null) {
+				return EMPTY;
+			}
+			return new Object[] { fPrefix + name };
+		}
+
+		@Override
+		public String getName() {
+			return "Delayed"; //$NON-NLS-1$
+		}
+
+		@Override
+		public ISourceContainerType getType() {
+			return null;
+		}
+	}
+
+	private TestSourceDirector fDirector;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fDirector = new TestSourceDirector();
+		fDirector.setParallelSearch(true);
+		fDirector.addParticipants(new ISourceLookupParticipant[] { new SourceLookupCacheTests.TestParticipant() });
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fDirector.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that a slow match in a container wins over faster matches in
+	 * containers of lower priority.
+	 *
+	 * @throws Exception
+	 */
+	public void testPriority() throws Exception {
+		fDirector.setSourceContainers(new ISourceContainer[] {
+				new DelayedContainer(null, 50, false),
+				new DelayedContainer("b/", 200, false), //$NON-NLS-1$
+				new DelayedContainer("c/", 0, false) }); //$NON-NLS-1$
+		Object[] elements = fDirector.findSourceElements("A.java"); //$NON-NLS-1$
+		assertEquals(Arrays.asList("b/A.java"), Arrays.asList(elements)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that duplicates are returned in container order.
+	 *
+	 * @throws Exception
+	 */
+	public void testDuplicates() throws Exception {
+		fDirector.setFindDuplicates(true);
+		fDirector.setSourceContainers(new ISourceContainer[] {
+				new DelayedContainer("a/", 150, false), //$NON-NLS-1$
+				new DelayedContainer("b/", 0, false), //$NON-NLS-1$
+				new DelayedContainer("c/", 50, false) }); //$NON-NLS-1$
+		Object[] elements = fDirector.findSourceElements("A.java"); //$NON-NLS-1$
+		assertEquals(Arrays.asList("a/A.java", "b/A.java", "c/A.java"), Arrays.asList(elements)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * Tests that a failed search does not prevent the results of other
+	 * containers from being returned.
+	 *
+	 * @throws Exception
+	 */
+	public void testError() throws Exception {
+		fDirector.setSourceContainers(new ISourceContainer[] {
+				new DelayedContainer(null, 0, true),
+				new DelayedContainer("b/", 50, false) }); //$NON-NLS-1$
+		Object[] elements = fDirector.findSourceElements("A.java"); //$NON-NLS-1$
+		assertEquals(Arrays.asList("b/A.java"), Arrays.asList(elements)); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.containers.AbstractSourceContainer;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
+import org.eclipse.debug.tests.TestsPlugin;
+
+/**
+ * Tests {@link SourceLookupCache} and the caching of source elements by
+ * source lookup directors.
+ */
+public class SourceLookupCacheTests extends TestCase {
+
+	/**
+	 * Participant that looks up the string of an element.
+	 */
+	static class TestParticipant extends AbstractSourceLookupParticipant {
+		@Override
+		public String getSourceName(Object object) throws CoreException {
+			return object.toString();
+		}
+	}
+
+	/**
+	 * Container that finds every name twice, unless it is empty, and counts
+	 * its searches.
+	 */
+	static class CountingContainer extends AbstractSourceContainer {
+
+		int fSearches = 0;
+		boolean fFail = false;
+		boolean fEmpty = false;
+
+		@Override
+		public Object[] findSourceElements(String name) throws CoreException {
+			fSearches++;
+			if (fFail) {
+				throw new CoreException(new Status(IStatus.ERROR, TestsPlugin.PLUGIN_ID, "Search failed")); //$NON-NLS-1$
+			}
+			if (fEmpty) {
+				return new Object[0];
+			}
+			return new Object[] { name + "1", name + "2" }; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		@Override
+		public String getName() {
+			return "Counting"; //$NON-NLS-1$
+		}
+
+		@Override
+		public ISourceContainerType getType() {
+			return null;
+		}
+	}
+
+	private TestSourceDirector fDirector;
+	private CountingContainer fContainer;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fDirector = new TestSourceDirector();
+		fContainer = new CountingContainer();
+		fDirector.setSourceContainers(new ISourceContainer[] { fContainer });
+		fDirector.addParticipants(new ISourceLookupParticipant[] { new TestParticipant() });
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fDirector.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that a source name is only searched for once.
+	 *
+	 * @throws Exception
+	 */
+	public void testFindCached() throws Exception {
+		Object[] elements = fDirector.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(1, elements.length);
+		assertEquals("a1", elements[0]); //$NON-NLS-1$
+		elements = fDirector.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(1, elements.length);
+		assertEquals("a1", elements[0]); //$NON-NLS-1$
+		assertEquals("Cached name searched again", 1, fContainer.fSearches); //$NON-NLS-1$
+		fDirector.findSourceElements("b"); //$NON-NLS-1$
+		assertEquals(2, fContainer.fSearches);
+	}
+
+	/**
+	 * Tests that searching for duplicates does not use results found without
+	 * duplicates.
+	 *
+	 * @throws Exception
+	 */
+	public void testFindDuplicates() throws Exception {
+		fDirector.findSourceElements("a"); //$NON-NLS-1$
+		fDirector.setFindDuplicates(true);
+		assertEquals(2, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		assertEquals(2, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		assertEquals(2, fContainer.fSearches);
+	}
+
+	/**
+	 * Tests that changing the source containers clears the cache.
+	 *
+	 * @throws Exception
+	 */
+	public void testSourceContainersChanged() throws Exception {
+		fDirector.findSourceElements("a"); //$NON-NLS-1$
+		fDirector.setSourceContainers(new ISourceContainer[] { fContainer });
+		fDirector.findSourceElements("a"); //$NON-NLS-1$
+		assertEquals(2, fContainer.fSearches);
+	}
+
+	/**
+	 * Tests that failed searches are not cached.
+	 *
+	 * @throws Exception
+	 */
+	public void testErrorNotCached() throws Exception {
+		fContainer.fFail = true;
+		try {
+			fDirector.findSourceElements("a"); //$NON-NLS-1$
+			fail("Search should fail"); //$NON-NLS-1$
+		} catch (CoreException e) {
+		}
+		fContainer.fFail = false;
+		assertEquals(1, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		assertEquals(2, fContainer.fSearches);
+	}
+
+	/**
+	 * Tests that source not found is searched for again, with and without
+	 * duplicates, as it may be added outside the workspace.
+	 *
+	 * @throws Exception
+	 */
+	public void testNotFoundNotCached() throws Exception {
+		fContainer.fEmpty = true;
+		assertEquals(0, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		fDirector.setFindDuplicates(true);
+		assertEquals(0, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		fContainer.fEmpty = false;
+		assertEquals(2, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		fDirector.setFindDuplicates(false);
+		assertEquals(1, fDirector.findSourceElements("a").length); //$NON-NLS-1$
+		assertEquals(4, fContainer.fSearches);
+	}
+
+	/**
+	 * Tests hit and miss counts, and that results found while the cache is
+	 * invalidated are not stored.
+	 */
+	public void testStamp() {
+		SourceLookupCache cache = new SourceLookupCache();
+		ISourceLookupParticipant participant = new TestParticipant();
+		assertNull(cache.get(participant, "a", false)); //$NON-NLS-1$
+		long stamp = cache.getStamp();
+		cache.put(participant, "a", false, new Object[] { "a1" }, stamp); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("a1", cache.get(participant, "a", false)[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(cache.get(participant, "a", true)); //$NON-NLS-1$
+
+		stamp = cache.getStamp();
+		SourceLookupCache.invalidateAll();
+		cache.put(participant, "b", false, new Object[] { "b1" }, stamp); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Invalidated cache not cleared", 0, cache.size()); //$NON-NLS-1$
+		assertNull(cache.get(participant, "b", false)); //$NON-NLS-1$
+
+		assertEquals("Wrong hit count", 1, cache.getHitCount()); //$NON-NLS-1$
+		assertEquals("Wrong miss count", 3, cache.getMissCount()); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IMemoryBlockExtension2;
+import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.elements.adapters.MemoryBlockContentAdapter;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
+
+/**
+ * Tests retrieving memory into packed arrays and organizing it in lines with
+ * {@link MemoryBlockContentAdapter}.
+ */
+public class MemoryBlockContentAdapterTests extends TestCase {
+
+	private static final byte READ_WRITE = MemoryByte.READABLE | MemoryByte.WRITABLE;
+
+	/**
+	 * Memory block returning the given bytes, counting the requests for
+	 * <code>MemoryByte</code>s.
+	 */
+	static class ExtensionBlock extends MemoryBlock implements IMemoryBlockExtension {
+
+		final MemoryByte[] fBytes;
+		int fRequests = 0;
+
+		ExtensionBlock(MemoryByte[] bytes) {
+			fBytes = bytes;
+		}
+
+		@Override
+		public String getExpression() {
+			return "0"; //$NON-NLS-1$
+		}
+
+		@Override
+		public BigInteger getBigBaseAddress() throws DebugException {
+			return BigInteger.ZERO;
+		}
+
+		@Override
+		public BigInteger getMemoryBlockStartAddress() throws DebugException {
+			return null;
+		}
+
+		@Override
+		public BigInteger getMemoryBlockEndAddress() throws DebugException {
+			return null;
+		}
+
+		@Override
+		public BigInteger getBigLength() throws DebugException {
+			return BigInteger.valueOf(getLength());
+		}
+
+		@Override
+		public int getAddressSize() throws DebugException {
+			return 4;
+		}
+
+		@Override
+		public boolean supportBaseAddressModification() throws DebugException {
+			return false;
+		}
+
+		@Override
+		public boolean supportsChangeManagement() {
+			return false;
+		}
+
+		@Override
+		public void setBaseAddress(BigInteger address) throws DebugException {
+		}
+
+		@Override
+		public MemoryByte[] getBytesFromOffset(BigInteger unitOffset, long addressableUnits) throws DebugException {
+			return getBytesFromAddress(unitOffset, addressableUnits);
+		}
+
+		@Override
+		public MemoryByte[] getBytesFromAddress(BigInteger address, long units) throws DebugException {
+			fRequests++;
+			return fBytes;
+		}
+
+		@Override
+		public void setValue(BigInteger offset, byte[] bytes) throws DebugException {
+		}
+
+		@Override
+		public void connect(Object client) {
+		}
+
+		@Override
+		public void disconnect(Object client) {
+		}
+
+		@Override
+		public Object[] getConnections() {
+			return new Object[0];
+		}
+
+		@Override
+		public void dispose() throws DebugException {
+		}
+
+		@Override
+		public IMemoryBlockRetrieval getMemoryBlockRetrieval() {
+			return null;
+		}
+
+		@Override
+		public int getAddressableSize() throws DebugException {
+			return 1;
+		}
+	}
+
+	/**
+	 * Memory block filling packed arrays with the values and flags of the
+	 * given bytes.
+	 */
+	static class PackedBlock extends ExtensionBlock implements IMemoryBlockExtension2 {
+
+		PackedBlock(MemoryByte[] bytes) {
+			super(bytes);
+		}
+
+		@Override
+		public void getBytesFromAddress(BigInteger address, long units, byte[] values, byte[] flags, int offset) throws DebugException {
+			for (int i = 0; i < units; i++) {
+				values[offset + i] = fBytes[i].getValue();
+				flags[offset + i] = fBytes[i].getFlags();
+			}
+		}
+	}
+
+	/**
+	 * Returns bytes with the values and flags of their index, covering all
+	 * combinations of flags.
+	 */
+	private static MemoryByte[] createBytes(int length) {
+		MemoryByte[] bytes = new MemoryByte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = new MemoryByte((byte) i, (byte) i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the flags of a byte as lines were organized before memory was
+	 * packed, turning off the change and history known bits.
+	 */
+	private static byte clearDelta(byte flags) {
+		byte changeFlag = flags;
+		changeFlag |= MemoryByte.HISTORY_KNOWN;
+		changeFlag ^= MemoryByte.HISTORY_KNOWN;
+		changeFlag |= MemoryByte.CHANGED;
+		changeFlag ^= MemoryByte.CHANGED;
+		return changeFlag;
+	}
+
+	/**
+	 * Checks that the given lines hold the given bytes, with the change
+	 * information cleared if the delta is managed by the rendering.
+	 */
+	private static void assertLines(Object[] lines, MemoryByte[] bytes, int bytesPerLine, int unitsPerLine, boolean manageDelta) {
+		assertEquals(bytes.length / bytesPerLine, lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			MemorySegment line = (MemorySegment) lines[i];
+			assertEquals(BigInteger.valueOf(0x100 + i * unitsPerLine), line.getAddress());
+			assertEquals(bytesPerLine, line.getLength());
+			assertEquals(unitsPerLine, line.getNumAddressableUnits());
+			MemoryByte[] lineBytes = line.getBytes();
+			for (int j = 0; j < bytesPerLine; j++) {
+				MemoryByte expected = bytes[i * bytesPerLine + j];
+				byte flags = manageDelta ? clearDelta(expected.getFlags()) : expected.getFlags();
+				assertEquals(expected.getValue(), lineBytes[j].getValue());
+				assertEquals("Wrong flags of byte " + (i * bytesPerLine + j), flags, lineBytes[j].getFlags()); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Tests that memory blocks supporting packed retrieval fill the arrays
+	 * without returning <code>MemoryByte</code>s.
+	 *
+	 * @throws Exception
+	 */
+	public void testPackedBytes() throws Exception {
+		MemoryByte[] bytes = createBytes(256);
+		PackedBlock block = new PackedBlock(bytes);
+		byte[] values = new byte[bytes.length];
+		byte[] flags = new byte[bytes.length];
+		MemoryBlockContentAdapter.getBytesFromAddress(block, BigInteger.valueOf(0x100), bytes.length, values, flags);
+		assertEquals("MemoryBytes requested", 0, block.fRequests); //$NON-NLS-1$
+		for (int i = 0; i < bytes.length; i++) {
+			assertEquals(bytes[i].getValue(), values[i]);
+			assertEquals(bytes[i].getFlags(), flags[i]);
+		}
+		Object[] lines = MemoryBlockContentAdapter.organizeLines(16, 16, 1, values, flags, BigInteger.valueOf(0x100), true);
+		assertLines(lines, bytes, 16, 16, true);
+	}
+
+	/**
+	 * Tests that the bytes of memory blocks returning
+	 * <code>MemoryByte</code>s are packed, and their change information
+	 * cleared as when lines held <code>MemoryByte</code>s.
+	 *
+	 * @throws Exception
+	 */
+	public void testMemoryByteFallback() throws Exception {
+		MemoryByte[] bytes = createBytes(256);
+		ExtensionBlock block = new ExtensionBlock(bytes);
+		byte[] values = new byte[bytes.length];
+		byte[] flags = new byte[bytes.length];
+		MemoryBlockContentAdapter.getBytesFromAddress(block, BigInteger.valueOf(0x100), bytes.length, values, flags);
+		assertEquals(1, block.fRequests);
+		Object[] lines = MemoryBlockContentAdapter.organizeLines(16, 16, 2, values, flags, BigInteger.valueOf(0x100), true);
+		assertLines(lines, bytes, 16, 8, true);
+
+		// change information managed by the memory block is kept
+		MemoryBlockContentAdapter.getBytesFromAddress(block, BigInteger.valueOf(0x100), bytes.length, values, flags);
+		lines = MemoryBlockContentAdapter.organizeLines(16, 16, 2, values, flags, BigInteger.valueOf(0x100), false);
+		assertLines(lines, bytes, 16, 8, false);
+	}
+
+	/**
+	 * Tests that bytes missing from the memory returned are not readable, and
+	 * that extra bytes are ignored.
+	 *
+	 * @throws Exception
+	 */
+	public void testShortBuffer() throws Exception {
+		MemoryByte[] bytes = new MemoryByte[5];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = new MemoryByte((byte) (i + 1), (byte) (READ_WRITE | MemoryByte.CHANGED));
+		}
+		byte[] values = new byte[8];
+		byte[] flags = new byte[8];
+		MemoryBlockContentAdapter.getBytesFromAddress(new ExtensionBlock(bytes), BigInteger.valueOf(0x100), 8, values, flags);
+		Object[] lines = MemoryBlockContentAdapter.organizeLines(2, 4, 1, values, flags, BigInteger.valueOf(0x100), true);
+		assertEquals(2, lines.length);
+		MemorySegment line = (MemorySegment) lines[1];
+		assertEquals(5, line.getValue(0));
+		assertEquals(READ_WRITE, line.getFlags(0));
+		MemoryByte[] padding = line.getBytes(1, 3);
+		for (int i = 0; i < padding.length; i++) {
+			assertEquals(0, padding[i].getValue());
+			assertFalse(padding[i].isReadable());
+			assertFalse(padding[i].isWritable());
+			assertFalse(padding[i].isEndianessKnown());
+		}
+
+		values = new byte[4];
+		flags = new byte[4];
+		MemoryBlockContentAdapter.getBytesFromAddress(new ExtensionBlock(bytes), BigInteger.valueOf(0x100), 4, values, flags);
+		assertEquals(4, values[3]);
+	}
+
+	/**
+	 * Tests that failing to retrieve <code>MemoryByte</code>s is reported.
+	 */
+	public void testNoBytes() {
+		try {
+			MemoryBlockContentAdapter.getBytesFromAddress(new ExtensionBlock(null), BigInteger.ZERO, 4, new byte[4], new byte[4]);
+			fail("Missing memory not reported"); //$NON-NLS-1$
+		} catch (DebugException e) {
+		}
+	}
+}
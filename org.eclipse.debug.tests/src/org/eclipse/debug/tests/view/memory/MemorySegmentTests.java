@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
+
+/**
+ * Tests memory segments holding packed bytes.
+ */
+public class MemorySegmentTests extends TestCase {
+
+	private static final byte READ_WRITE = MemoryByte.READABLE | MemoryByte.WRITABLE;
+
+	/**
+	 * Returns a segment of the second half of packed arrays.
+	 */
+	private MemorySegment createSegment() {
+		byte[] values = new byte[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+		byte[] flags = new byte[] { 0, 0, 0, 0, READ_WRITE, READ_WRITE, 0, READ_WRITE };
+		return new MemorySegment(BigInteger.valueOf(4), values, flags, 4, 4, 4);
+	}
+
+	public void testPackedBytes() {
+		MemorySegment segment = createSegment();
+		assertEquals(4, segment.getLength());
+		assertEquals(5, segment.getValue(1));
+		assertEquals(0, segment.getFlags(2));
+
+		MemoryByte[] bytes = segment.getBytes(1, 2);
+		assertEquals(2, bytes.length);
+		assertEquals(5, bytes[0].getValue());
+		assertTrue(bytes[0].isReadable());
+		assertFalse(bytes[1].isReadable());
+		assertEquals("Range outside of segment", 0, segment.getBytes(3, 2).length); //$NON-NLS-1$
+		try {
+			segment.getValue(4);
+			fail("Index outside of segment"); //$NON-NLS-1$
+		} catch (ArrayIndexOutOfBoundsException e) {
+		}
+	}
+
+	public void testFlagsKeptWhenMaterialized() {
+		MemorySegment segment = createSegment();
+		segment.setFlags(0, (byte) (READ_WRITE | MemoryByte.CHANGED));
+		MemoryByte[] bytes = segment.getBytes();
+		assertEquals(4, bytes.length);
+		assertTrue(bytes[0].isChanged());
+		assertSame("Bytes created again", bytes, segment.getBytes()); //$NON-NLS-1$
+
+		segment.setFlags(3, (byte) (READ_WRITE | MemoryByte.CHANGED));
+		assertTrue("Flags not set on byte", bytes[3].isChanged()); //$NON-NLS-1$
+		assertEquals(7, segment.getValue(3));
+	}
+}
@@ -14,7 +14,7 @@
 package org.eclipse.debug.internal.ui.elements.adapters;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Vector;
 
 import org.eclipse.core.runtime.CoreException;
@@ -22,6 +22,7 @@ import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IMemoryBlockExtension2;
 import org.eclipse.debug.core.model.MemoryByte;
 import org.eclipse.debug.internal.ui.DebugUIMessages;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
@@ -257,7 +258,10 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		IMemoryBlockExtension extMemoryBlock = null;
-		MemoryByte[] memoryBuffer = null;
+
+		// memory is kept packed, one value and one set of flags per byte
+		byte[] values = null;
+		byte[] flags = null;
 
 		long reqNumBytes = 0;
 		try {
@@ -269,12 +273,9 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				long reqNumberOfUnits = tableRendering.getAddressableUnitPerLine() * numberOfLines;
 
-				memoryBuffer = extMemoryBlock.getBytesFromAddress(startAddress, reqNumberOfUnits);
-
-				if (memoryBuffer == null) {
-					DebugException e = new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, null));
-					throw e;
-				}
+				values = new byte[(int) reqNumBytes];
+				flags = new byte[(int) reqNumBytes];
+				getBytesFromAddress(extMemoryBlock, startAddress, reqNumberOfUnits, values, flags);
 			} else {
 				// get memory from memory block
 				byte[] memory = descriptor.getMemoryBlock().getBytes();
@@ -304,72 +305,40 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				numberOfLines = reqNumBytes / tableRendering.getBytesPerLine();
 
-				// create memory byte for IMemoryBlock
-				memoryBuffer = new MemoryByte[(int) reqNumBytes];
-
-				// prefill buffer to ensure double-word alignment
-				for (int i = 0; i < prefillNumBytes; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				// the prefilled bytes ensuring double-word alignment and the
+				// bytes appended to fill up the entire line are not readable
+				values = new byte[(int) reqNumBytes];
+				flags = new byte[(int) reqNumBytes];
 
 				// fill buffer with memory returned by debug adapter
-				int j = prefillNumBytes; // counter for memoryBuffer
-				for (int i = 0; i < memory.length; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue(memory[i]);
-					tmp.setReadable(true);
-					tmp.setWritable(true);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[j] = tmp;
-					j++;
-				}
-
-				// append to buffer to fill up the entire line
-				for (int i = j; i < memoryBuffer.length; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				System.arraycopy(memory, 0, values, prefillNumBytes, memory.length);
+				Arrays.fill(flags, prefillNumBytes, prefillNumBytes + memory.length, (byte) (MemoryByte.READABLE | MemoryByte.WRITABLE));
 			}
 		} catch (DebugException e) {
-			memoryBuffer = makeDummyContent(numberOfLines, tableRendering.getBytesPerLine());
+			values = null;
+			flags = null;
 
 			// finish creating the content provider before throwing an event
 			dbgEvt = e;
 		} catch (Throwable e) {
 			// catch all errors from this process just to be safe
-			memoryBuffer = makeDummyContent(numberOfLines, tableRendering.getBytesPerLine());
+			values = null;
+			flags = null;
 
 			// finish creating the content provider before throwing an event
 			dbgEvt = new DebugException(DebugUIPlugin.newErrorStatus(e.getMessage(), e));
 		}
 
-		// if debug adapter did not return enough memory, create dummy memory
-		if (memoryBuffer.length < reqNumBytes) {
-			ArrayList<MemoryByte> newBuffer = new ArrayList<MemoryByte>();
-
-			for (int i = 0; i < memoryBuffer.length; i++) {
-				newBuffer.add(memoryBuffer[i]);
-			}
-
-			for (int i = memoryBuffer.length; i < reqNumBytes; i++) {
-				MemoryByte mb = new MemoryByte();
-				mb.setReadable(false);
-				mb.setWritable(false);
-				mb.setEndianessKnown(false);
-				newBuffer.add(mb);
-			}
-
-			memoryBuffer = newBuffer.toArray(new MemoryByte[newBuffer.size()]);
-
+		// if debug adapter did not return enough memory, or failed, create
+		// dummy memory, needed for recovery in case the debug adapter is
+		// capable of retrieving memory again. Dummy bytes are not readable.
+		int numBytes = (int) Math.max(reqNumBytes, tableRendering.getBytesPerLine() * numberOfLines);
+		if (values == null) {
+			values = new byte[numBytes];
+			flags = new byte[numBytes];
+		} else if (values.length < numBytes) {
+			values = Arrays.copyOf(values, numBytes);
+			flags = Arrays.copyOf(flags, numBytes);
 		}
 
 		boolean manageDelta = true;
@@ -386,76 +355,81 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		// put memory information into MemoryViewLine
-		return organizeLines(numberOfLines, memoryBuffer, startAddress, manageDelta, context);
+		return organizeLines(numberOfLines, tableRendering.getBytesPerLine(), tableRendering.getAddressableSize(), values, flags, startAddress, manageDelta);
 
 	}
 
-	private Object[] organizeLines(long numberOfLines, MemoryByte[] memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
-		Vector<MemorySegment> lineCache = new Vector<MemorySegment>();
-		IMemoryRendering rendering = context.getRendering();
-		if (!(rendering instanceof AbstractAsyncTableRendering)) {
-			return lineCache.toArray();
+	/**
+	 * Retrieves memory from the given memory block into packed arrays of
+	 * values and flags, as {@link IMemoryBlockExtension2} does. The bytes of
+	 * memory blocks that only return <code>MemoryByte</code>s are copied.
+	 * Bytes beyond the memory returned are left unreadable.
+	 *
+	 * @param memoryBlock the memory block
+	 * @param address address at which to begin retrieving bytes
+	 * @param units number of addressable units of memory to retrieve
+	 * @param values array receiving the values of the bytes
+	 * @param flags array receiving the flags of the bytes, initially zero
+	 * @throws DebugException if unable to retrieve the bytes
+	 */
+	public static void getBytesFromAddress(IMemoryBlockExtension memoryBlock, BigInteger address, long units, byte[] values, byte[] flags) throws DebugException {
+		if (memoryBlock instanceof IMemoryBlockExtension2) {
+			((IMemoryBlockExtension2) memoryBlock).getBytesFromAddress(address, units, values, flags, 0);
+			return;
 		}
 
-		AbstractAsyncTableRendering tableRendering = (AbstractAsyncTableRendering) rendering;
-		int addressableUnit = tableRendering.getBytesPerLine() / tableRendering.getAddressableSize();
-
-		for (int i = 0; i < numberOfLines; i++) {
-			int bytesPerLine = tableRendering.getBytesPerLine();
-			MemoryByte[] memory = new MemoryByte[bytesPerLine];
-
-			// counter for memory, starts from 0 to number of bytes per line
-			int k = 0;
-			// j is the counter for memArray, memory returned by debug adapter
-			for (int j = i * bytesPerLine; j < i * bytesPerLine + bytesPerLine; j++) {
-
-				byte changeFlag = memoryBuffer[j].getFlags();
-				if (manageDelta) {
-					// turn off both change and known bits to make sure that
-					// the change bits returned by debug adapters do not take
-					// any effect
+		MemoryByte[] memoryBuffer = memoryBlock.getBytesFromAddress(address, units);
 
-					changeFlag |= MemoryByte.HISTORY_KNOWN;
-					changeFlag ^= MemoryByte.HISTORY_KNOWN;
+		if (memoryBuffer == null) {
+			DebugException e = new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, null));
+			throw e;
+		}
 
-					changeFlag |= MemoryByte.CHANGED;
-					changeFlag ^= MemoryByte.CHANGED;
-				}
+		int length = Math.min(memoryBuffer.length, values.length);
+		for (int i = 0; i < length; i++) {
+			values[i] = memoryBuffer[i].getValue();
+			flags[i] = memoryBuffer[i].getFlags();
+		}
+	}
 
-				MemoryByte newByteObj = new MemoryByte(memoryBuffer[j].getValue(), changeFlag);
-				memory[k] = newByteObj;
-				k++;
+	/**
+	 * Creates the lines of memory, as <code>MemorySegment</code>s sharing the
+	 * given packed arrays of values and flags.
+	 *
+	 * @param numberOfLines number of lines to create
+	 * @param bytesPerLine number of bytes per line
+	 * @param addressableSize number of bytes per addressable unit
+	 * @param values values of the bytes
+	 * @param flags flags of the bytes, see <code>MemoryByte</code>
+	 * @param address address of the first line
+	 * @param manageDelta whether the change information returned by the
+	 *            memory block is cleared, as it is computed by the rendering
+	 * @return the lines of memory
+	 */
+	public static Object[] organizeLines(long numberOfLines, int bytesPerLine, int addressableSize, byte[] values, byte[] flags, BigInteger address, boolean manageDelta) {
+		Vector<MemorySegment> lineCache = new Vector<MemorySegment>();
+		int addressableUnit = bytesPerLine / addressableSize;
+
+		if (manageDelta) {
+			// turn off both change and known bits to make sure that
+			// the change bits returned by debug adapters do not take
+			// any effect
+			byte mask = (byte) ~(MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED);
+			for (int j = 0; j < flags.length; j++) {
+				flags[j] &= mask;
 			}
+		}
 
-			MemorySegment newLine = new MemorySegment(address, memory, addressableUnit);
+		// lines share the packed memory, no MemoryByte is created until
+		// a line's bytes are requested
+		for (int i = 0; i < numberOfLines; i++) {
+			MemorySegment newLine = new MemorySegment(address, values, flags, i * bytesPerLine, bytesPerLine, addressableUnit);
 			lineCache.add(newLine);
 			address = address.add(BigInteger.valueOf(addressableUnit));
 		}
 		return lineCache.toArray();
 	}
 
-	/**
-	 * @param numberOfLines
-	 * @return an array of dummy MemoryByte
-	 */
-	private MemoryByte[] makeDummyContent(long numberOfLines, int bytesPerLine) {
-		MemoryByte[] memoryBuffer;
-		// make up dummy memory, needed for recovery in case the debug adapter
-		// is capable of retrieving memory again
-
-		int numBytes = (int) (bytesPerLine * numberOfLines);
-		memoryBuffer = new MemoryByte[numBytes];
-
-		for (int i = 0; i < memoryBuffer.length; i++) {
-			memoryBuffer[i] = new MemoryByte();
-			memoryBuffer[i].setValue((byte) 0);
-			memoryBuffer[i].setWritable(false);
-			memoryBuffer[i].setReadable(false);
-			memoryBuffer[i].setEndianessKnown(false);
-		}
-		return memoryBuffer;
-	}
-
 	protected AbstractAsyncTableRendering getTableRendering(MemoryViewPresentationContext context) {
 		IMemoryRendering memRendering = context.getRendering();
 		if (memRendering != null && memRendering instanceof AbstractAsyncTableRendering) {
@@ -112,7 +112,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 			if (element instanceof MemorySegment)
 			{
 				MemorySegment segment = (MemorySegment)element;
-				if (segment.getBytes().length != tableRendering.getBytesPerLine())
+				if (segment.getLength() != tableRendering.getBytesPerLine())
 					return IInternalDebugCoreConstants.EMPTY_STRING;
 			}
 			
@@ -170,7 +170,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getLength() != tableRendering.getBytesPerLine())
 				return null;
 			
 			ILabelProvider labelProvider = tableRendering.getAdapter(ILabelProvider.class);
@@ -240,7 +240,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{	
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getLength() != tableRendering.getBytesPerLine())
 				return null;
 			
 			IFontProvider fontProvider = tableRendering.getAdapter(IFontProvider.class);
@@ -293,7 +293,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{	
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getLength() != tableRendering.getBytesPerLine())
 				return null;
 			
 			IColorProvider colorProvider = tableRendering.getAdapter(IColorProvider.class);
@@ -318,7 +318,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{	
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getLength() != tableRendering.getBytesPerLine())
 				return null;
 			
 			IColorProvider colorProvider = tableRendering.getAdapter(IColorProvider.class);
@@ -37,10 +37,12 @@ import org.eclipse.core.variables.IStringVariableManager;
 import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IBinaryStreamListener;
 import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationType;
 import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IBinaryStreamMonitor;
 import org.eclipse.debug.core.model.IFlushableStreamMonitor;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.IStreamMonitor;
@@ -598,9 +600,11 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
     }
 
     /**
-     * This class listens to a specified IO stream
+     * This class listens to a specified IO stream. When the stream monitor
+     * supports it, the raw bytes of the stream are forwarded to the console
+     * output stream and the log file, so the output is decoded only once.
      */
-    private class StreamListener implements IStreamListener {
+    private class StreamListener implements IStreamListener, IBinaryStreamListener {
 
         private IOConsoleOutputStream fStream;
 
@@ -616,11 +620,42 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
             this.fStreamId = streamIdentifier;
             this.fStreamMonitor = monitor;
             this.fStream = stream;
-            fStreamMonitor.addListener(this);  
+            if (fStreamMonitor instanceof IBinaryStreamMonitor) {
+                ((IBinaryStreamMonitor) fStreamMonitor).addBinaryListener(this);
+            } else {
+                fStreamMonitor.addListener(this);
+            }
             //fix to bug 121454. Ensure that output to fast processes is processed.
             streamAppended(null, monitor);
         }
 
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.eclipse.debug.core.IBinaryStreamListener#streamAppended(byte[], int, int,
+         *      org.eclipse.debug.core.model.IBinaryStreamMonitor)
+         */
+        @Override
+		public void streamAppended(byte[] data, int offset, int length, IBinaryStreamMonitor monitor) {
+            if (fFlushed) {
+                try {
+                    if (fStream != null) {
+                        fStream.write(data, offset, length);
+                    }
+                    if (fFileOutputStream != null) {
+                        synchronized (fFileOutputStream) {
+                            fFileOutputStream.write(data, offset, length);
+                        }
+                    }
+                } catch (IOException e) {
+                    DebugUIPlugin.log(e);
+                }
+            } else {
+                // the appended bytes are part of the buffered contents
+                streamAppended(null, monitor);
+            }
+        }
+
         /*
          * (non-Javadoc)
          * 
@@ -684,7 +719,11 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
                 return;
             }
             synchronized (fStreamMonitor) {
-                fStreamMonitor.removeListener(this);
+                if (fStreamMonitor instanceof IBinaryStreamMonitor) {
+                    ((IBinaryStreamMonitor) fStreamMonitor).removeBinaryListener(this);
+                } else {
+                    fStreamMonitor.removeListener(this);
+                }
                 if (!fFlushed) {
                     String contents = fStreamMonitor.getContents();
                     streamAppended(contents, fStreamMonitor);
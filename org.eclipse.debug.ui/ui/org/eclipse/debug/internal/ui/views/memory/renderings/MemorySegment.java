@@ -1,10 +1,10 @@
 /*******************************************************************************
- * Copyright (c) 2006 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
  * http://www.eclipse.org/legal/epl-v10.html
- * 
+ *
  * Contributors:
  *     IBM Corporation - initial API and implementation
  *******************************************************************************/
@@ -12,44 +12,129 @@
 package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.debug.core.model.MemoryByte;
 
+/**
+ * A line of memory. The bytes of a segment are either held as
+ * <code>MemoryByte</code>s, or packed as a range of value and flag arrays
+ * that may be shared with other segments. <code>MemoryByte</code>s are only
+ * created for a packed segment when all its bytes are requested with
+ * {@link #getBytes()}, after which the segment holds them.
+ */
 public class MemorySegment extends PlatformObject {
-	
+
 	private BigInteger fAddress;
 	private BigInteger fEndAddress;
 	private MemoryByte[] fBytes;
+	private byte[] fValues;
+	private byte[] fFlags;
+	private int fOffset;
+	private int fLength;
 	private int fNumAddressableUnits;
-	
+
 	public MemorySegment(BigInteger address, MemoryByte[] bytes, int numAddressableUnits)
 	{
 		fAddress = address;
 		fBytes = bytes;
+		fLength = bytes.length;
+		fNumAddressableUnits = numAddressableUnits;
+	}
+
+	/**
+	 * Creates a segment of packed bytes.
+	 *
+	 * @param address address of the segment
+	 * @param values values of the bytes
+	 * @param flags flags of the bytes, see <code>MemoryByte</code>
+	 * @param offset index of the first byte of the segment in the arrays
+	 * @param length number of bytes of the segment
+	 * @param numAddressableUnits number of addressable units of the segment
+	 */
+	public MemorySegment(BigInteger address, byte[] values, byte[] flags, int offset, int length, int numAddressableUnits)
+	{
+		fAddress = address;
+		fValues = values;
+		fFlags = flags;
+		fOffset = offset;
+		fLength = length;
 		fNumAddressableUnits = numAddressableUnits;
 	}
-	
+
 	public BigInteger getAddress() {
 		return fAddress;
 	}
-	
-	public MemoryByte[] getBytes() {
+
+	public synchronized MemoryByte[] getBytes() {
+		if (fBytes == null)
+		{
+			fBytes = createBytes(0, fLength);
+			fValues = null;
+			fFlags = null;
+		}
 		return fBytes;
 	}
-	
+
+	/**
+	 * @return the number of bytes of this segment
+	 */
+	public int getLength() {
+		return fLength;
+	}
+
+	/**
+	 * @param index - zero-based index of a byte
+	 * @return the value of the byte
+	 */
+	public synchronized byte getValue(int index) {
+		if (fBytes != null)
+			return fBytes[index].getValue();
+		checkIndex(index);
+		return fValues[fOffset + index];
+	}
+
+	/**
+	 * @param index - zero-based index of a byte
+	 * @return the flags of the byte, see <code>MemoryByte</code>
+	 */
+	public synchronized byte getFlags(int index) {
+		if (fBytes != null)
+			return fBytes[index].getFlags();
+		checkIndex(index);
+		return fFlags[fOffset + index];
+	}
+
+	/**
+	 * @param index - zero-based index of a byte
+	 * @param flags - the new flags of the byte, see <code>MemoryByte</code>
+	 */
+	public synchronized void setFlags(int index, byte flags) {
+		if (fBytes != null)
+		{
+			fBytes[index].setFlags(flags);
+			return;
+		}
+		checkIndex(index);
+		fFlags[fOffset + index] = flags;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= fLength)
+			throw new ArrayIndexOutOfBoundsException(index);
+	}
+
 	public int getNumAddressableUnits() {
 		return fNumAddressableUnits;
 	}
-	
+
 	public boolean containsAddress(BigInteger address)
 	{
 		if (getAddress().compareTo(address) <= 0 && getEndAddress().compareTo(address) >= 0)
 			return true;
 		return false;
 	}
-	
+
 	public BigInteger getEndAddress()
 	{
 		if (fEndAddress == null)
@@ -58,27 +143,39 @@ public class MemorySegment extends PlatformObject {
 		}
 		return fEndAddress;
 	}
-	
+
 	/**
 	 * @param start - zero-based start offset
 	 * @param length - number of bytes to get
 	 * @return the bytes from start offset to the end.
 	 */
-	public MemoryByte[] getBytes(int start, int length)
+	public synchronized MemoryByte[] getBytes(int start, int length)
 	{
 		if (start < 0)
 			return new MemoryByte[0];
-		
-		if (start + length > fBytes.length)
+
+		if (start + length > fLength)
 			return new MemoryByte[0];
-		
-		ArrayList<MemoryByte> ret = new ArrayList<MemoryByte>();
-		
-		for (int i=start; i< start+length; i++)
+
+		if (fBytes == null)
+			return createBytes(start, length);
+
+		MemoryByte[] ret = new MemoryByte[length];
+		System.arraycopy(fBytes, start, ret, 0, length);
+		return ret;
+	}
+
+	/**
+	 * Creates <code>MemoryByte</code>s for a range of packed bytes.
+	 */
+	private MemoryByte[] createBytes(int start, int length)
+	{
+		MemoryByte[] ret = new MemoryByte[length];
+		for (int i = 0; i < length; i++)
 		{
-			ret.add(fBytes[i]);
+			ret[i] = new MemoryByte(fValues[fOffset + start + i], fFlags[fOffset + start + i]);
 		}
-		return ret.toArray(new MemoryByte[ret.size()]);
+		return ret;
 	}
-	
+
 }
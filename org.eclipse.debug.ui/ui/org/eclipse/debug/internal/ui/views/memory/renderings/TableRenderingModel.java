@@ -191,20 +191,20 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 
 				if (oldSegment != null) {
 					if (oldSegment.getNumAddressableUnits() == newSegment.getNumAddressableUnits()) {
-						MemoryByte[] newBytes = newSegment.getBytes();
-						MemoryByte[] oldBytes = oldSegment.getBytes();
-
-						for (int i = 0; i < newBytes.length; i++) {
-							newBytes[i].setHistoryKnown(true);
-
-							if (newBytes[i].isReadable() != oldBytes[i].isReadable()) {
-								newBytes[i].setChanged(true);
-								continue;
-							}
-
-							if (newBytes[i].isReadable() && oldBytes[i].isReadable() && (newBytes[i].getValue() != oldBytes[i].getValue())) {
-								newBytes[i].setChanged(true);
+						// compare flags and values in place, segments may
+						// hold packed bytes
+						int length = Math.min(newSegment.getLength(), oldSegment.getLength());
+						for (int i = 0; i < length; i++) {
+							byte newFlags = (byte) (newSegment.getFlags(i) | MemoryByte.HISTORY_KNOWN);
+							boolean newReadable = (newFlags & MemoryByte.READABLE) != 0;
+							boolean oldReadable = (oldSegment.getFlags(i) & MemoryByte.READABLE) != 0;
+
+							if (newReadable != oldReadable) {
+								newFlags |= MemoryByte.CHANGED;
+							} else if (newReadable && newSegment.getValue(i) != oldSegment.getValue(i)) {
+								newFlags |= MemoryByte.CHANGED;
 							}
+							newSegment.setFlags(i, newFlags);
 						}
 					}
 				}
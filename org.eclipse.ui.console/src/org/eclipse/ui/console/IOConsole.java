@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -227,6 +227,125 @@ public class IOConsole extends TextConsole {
 		partitioner.setWaterMarks(low, high);
 	}
 
+	/**
+	 * Sets the flow control limits for output written to this console's output
+	 * streams that has not yet been appended to the console's document. When
+	 * more than <code>high</code> characters are pending, threads writing to
+	 * this console (other than the UI thread) are blocked until the pending
+	 * output has been processed down to <code>low</code> characters. Blocking
+	 * writers propagates backpressure to the producer of the output, for
+	 * example a process whose output is displayed in this console.
+	 *
+	 * @param low the number of pending characters at which blocked writers
+	 *            resume
+	 * @param high the maximum number of pending characters before writers are
+	 *            blocked (if -1 writers are never blocked)
+	 * @exception IllegalArgumentException if low >= high & high != -1, or low &lt; 0
+	 * @since 3.6
+	 */
+	public void setPendingOutputWaterMarks(int low, int high) {
+		if (high >= 0 && (low < 0 || low >= high)) {
+			throw new IllegalArgumentException("High water mark must be greater than low water mark"); //$NON-NLS-1$
+		}
+		partitioner.setPendingWaterMarks(low, high);
+	}
+
+	/**
+	 * Returns the maximum number of characters written to this console that
+	 * may be pending before writers are blocked, or -1 if writers are never
+	 * blocked.
+	 *
+	 * @return the pending output high water mark
+	 * @since 3.6
+	 */
+	public int getPendingOutputHighWaterMark() {
+		return partitioner.getPendingHighWaterMark();
+	}
+
+	/**
+	 * Returns the number of pending characters at which blocked writers
+	 * resume.
+	 *
+	 * @return the pending output low water mark
+	 * @since 3.6
+	 */
+	public int getPendingOutputLowWaterMark() {
+		return partitioner.getPendingLowWaterMark();
+	}
+
+	/**
+	 * Returns the number of times threads writing to this console have been
+	 * blocked because the pending output exceeded the high water mark.
+	 *
+	 * @return the number of times writers have been throttled
+	 * @since 3.6
+	 */
+	public long getThrottledWriteCount() {
+		return partitioner.getThrottleCount();
+	}
+
+	/**
+	 * Returns the total time in milliseconds threads writing to this console
+	 * have been blocked because the pending output exceeded the high water
+	 * mark.
+	 *
+	 * @return the total time writers have been throttled, in milliseconds
+	 * @since 3.6
+	 */
+	public long getThrottledWriteTime() {
+		return partitioner.getThrottledTime();
+	}
+
+	/**
+	 * Sets the time the UI thread may spend appending output written to this
+	 * console to its document before yielding to other work. Output that
+	 * cannot be appended within the budget is appended in subsequent updates,
+	 * keeping the user interface responsive regardless of the output rate.
+	 *
+	 * @param millis the time budget in milliseconds
+	 * @exception IllegalArgumentException if millis &lt;= 0
+	 * @since 3.6
+	 */
+	public void setDocumentUpdateBudget(int millis) {
+		if (millis <= 0) {
+			throw new IllegalArgumentException("Update budget must be positive"); //$NON-NLS-1$
+		}
+		partitioner.setUpdateBudget(millis);
+	}
+
+	/**
+	 * Returns the time in milliseconds the UI thread may spend appending
+	 * output to this console's document before yielding to other work.
+	 *
+	 * @return the document update budget in milliseconds
+	 * @since 3.6
+	 */
+	public int getDocumentUpdateBudget() {
+		return partitioner.getUpdateBudget();
+	}
+
+	/**
+	 * Returns the time in nanoseconds the UI thread spent in the last update
+	 * of this console's document with output written to the console.
+	 *
+	 * @return the time of the last document update in nanoseconds
+	 * @since 3.6
+	 */
+	public long getLastDocumentUpdateTime() {
+		return partitioner.getLastUpdateTime();
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds the UI thread spent in a single
+	 * update of this console's document with output written to the console.
+	 *
+	 * @return the time of the longest document update in nanoseconds
+	 * @since 3.6
+	 */
+	public long getMaxDocumentUpdateTime() {
+		return partitioner.getMaxUpdateTime();
+	}
+
     /**
      * Check if all streams connected to this console are closed. If so,
      * notify the partitioner that this console is finished.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,13 @@ package org.eclipse.ui.console;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.ui.WorkbenchEncoding;
@@ -72,6 +79,30 @@ public class IOConsoleOutputStream extends OutputStream {
 
     private boolean prependCR;
 
+    /**
+     * Decoder used to convert bytes written to this stream into characters,
+     * created lazily for the current encoding. The decoder keeps its state
+     * between writes, so multi-byte sequences split across writes are decoded
+     * correctly.
+     */
+    private CharsetDecoder fDecoder;
+
+    /**
+     * Reusable buffer receiving decoded characters.
+     */
+    private CharBuffer fDecodedChars;
+
+    /**
+     * Bytes of an incomplete multi-byte sequence left over from the previous
+     * write, or <code>null</code> if none.
+     */
+    private ByteBuffer fUndecodedBytes;
+
+    /**
+     * Size of the decoded character buffer.
+     */
+    private static final int DECODE_BUFFER_SIZE = 8192;
+
     /**
      * Constructs a new output stream on the given console.
      *
@@ -167,6 +198,7 @@ public class IOConsoleOutputStream extends OutputStream {
         if(closed) {
             throw new IOException("Output Stream is closed"); //$NON-NLS-1$
         }
+        flushDecoder();
         if (prependCR) { // force writing of last /r
             prependCR = false;
             notifyParitioner("\r"); //$NON-NLS-1$
@@ -192,13 +224,26 @@ public class IOConsoleOutputStream extends OutputStream {
      * @see java.io.OutputStream#write(byte[], int, int)
      */
     @Override
-	public void write(byte[] b, int off, int len) throws IOException {
-        if (fNeedsEncoding) {
-            encodedWrite(new String(b, off, len, fEncoding));
+	public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if(closed) {
+            throw new IOException("Output Stream is closed"); //$NON-NLS-1$
+        }
+        ByteBuffer in;
+        if (fUndecodedBytes != null) {
+            in = ByteBuffer.allocate(fUndecodedBytes.remaining() + len);
+            in.put(fUndecodedBytes).put(b, off, len).flip();
+            fUndecodedBytes = null;
         } else {
-            encodedWrite(new String(b, off, len));
+            in = ByteBuffer.wrap(b, off, len);
+        }
+        decode(in, false);
+        if (in.hasRemaining()) {
+            // incomplete multi-byte sequence, keep it for the next write
+            fUndecodedBytes = ByteBuffer.allocate(in.remaining());
+            fUndecodedBytes.put(in).flip();
         }
     }
+
     /*
      *  (non-Javadoc)
      * @see java.io.OutputStream#write(byte[])
@@ -226,23 +271,124 @@ public class IOConsoleOutputStream extends OutputStream {
         encodedWrite(str);
     }
 
-    private synchronized void encodedWrite(String encodedString) throws IOException {
+    /**
+     * Writes characters to the attached console. The characters are copied
+     * before this method returns, so the given sequence may be reused
+     * by the caller.
+     *
+     * @param chars the characters to write to the attached console
+     * @throws IOException if the stream is closed.
+     * @since 3.6
+     */
+    public void write(CharSequence chars) throws IOException {
+        encodedWrite(chars);
+    }
+
+    /**
+     * Writes a range of characters to the attached console. The characters
+     * are copied before this method returns, so the given array may be reused
+     * by the caller.
+     *
+     * @param buffer the buffer containing the characters to write
+     * @param off offset of the first character to write
+     * @param len number of characters to write
+     * @throws IOException if the stream is closed.
+     * @since 3.6
+     */
+    public void write(char[] buffer, int off, int len) throws IOException {
+        encodedWrite(CharBuffer.wrap(buffer, off, len));
+    }
+
+    /**
+     * Decodes the given bytes with the current decoder and appends the
+     * resulting characters to the console. Bytes of a trailing incomplete
+     * sequence are left in <code>in</code>.
+     *
+     * @param in bytes to decode
+     * @param endOfInput whether no more bytes will follow
+     * @throws IOException if the stream is closed
+     */
+    private void decode(ByteBuffer in, boolean endOfInput) throws IOException {
+        CharsetDecoder decoder = getDecoder();
+        if (fDecodedChars == null) {
+            fDecodedChars = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+        }
+        CoderResult result;
+        do {
+            fDecodedChars.clear();
+            result = decoder.decode(in, fDecodedChars, endOfInput);
+            fDecodedChars.flip();
+            if (fDecodedChars.hasRemaining()) {
+                encodedWrite(fDecodedChars);
+            }
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Appends the characters of any pending incomplete multi-byte sequence
+     * (as replacement characters) and resets the decoder.
+     *
+     * @throws IOException if the stream is closed
+     */
+    private void flushDecoder() throws IOException {
+        if (fDecoder == null) {
+            return;
+        }
+        ByteBuffer in = fUndecodedBytes != null ? fUndecodedBytes : ByteBuffer.allocate(0);
+        fUndecodedBytes = null;
+        decode(in, true);
+        fDecodedChars.clear();
+        fDecoder.flush(fDecodedChars);
+        fDecodedChars.flip();
+        if (fDecodedChars.hasRemaining()) {
+            encodedWrite(fDecodedChars);
+        }
+        fDecoder.reset();
+    }
+
+    /**
+     * Returns the decoder for the current encoding, creating it if required.
+     * Malformed input is replaced the same way <code>new String(byte[], ...)</code>
+     * does.
+     *
+     * @return the decoder for the current encoding
+     * @throws UnsupportedEncodingException if the encoding is not supported
+     */
+    private CharsetDecoder getDecoder() throws UnsupportedEncodingException {
+        if (fDecoder == null) {
+            Charset charset;
+            try {
+                charset = fNeedsEncoding ? Charset.forName(fEncoding) : Charset.defaultCharset();
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(fEncoding);
+            }
+            fDecoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return fDecoder;
+    }
+
+    private synchronized void encodedWrite(CharSequence encodedString) throws IOException {
         if(closed) {
             throw new IOException("Output Stream is closed"); //$NON-NLS-1$
         }
-		String newencoding = encodedString;
-        if (prependCR){
-			newencoding = "\r" + newencoding; //$NON-NLS-1$
-            prependCR=false;
+        int length = encodedString.length();
+        if (length == 0) {
+            notifyParitioner(encodedString);
+            return;
         }
-		if (newencoding.endsWith("\r")) { //$NON-NLS-1$
-            prependCR = true;
-			newencoding = new String(newencoding.substring(0, newencoding.length() - 1));
+        boolean leadingCR = prependCR;
+        prependCR = encodedString.charAt(length - 1) == '\r';
+        int end = prependCR ? length - 1 : length;
+        if (leadingCR) {
+            StringBuilder newencoding = new StringBuilder(end + 1);
+            newencoding.append('\r').append(encodedString, 0, end);
+            notifyParitioner(newencoding);
+        } else {
+            notifyParitioner(end == length ? encodedString : encodedString.subSequence(0, end));
         }
-		notifyParitioner(newencoding);
     }
 
-    private void notifyParitioner(String encodedString) throws IOException {
+    private void notifyParitioner(CharSequence encodedString) throws IOException {
         try {
             partitioner.streamAppended(this, encodedString);
 
@@ -264,8 +410,10 @@ public class IOConsoleOutputStream extends OutputStream {
      *
      * @param encoding encoding identifier
      */
-    public void setEncoding(String encoding) {
+    public synchronized void setEncoding(String encoding) {
         fEncoding = encoding;
         fNeedsEncoding = (fEncoding!=null) && (!fEncoding.equals(fDefaultEncoding));
+        fDecoder = null;
+        fUndecodedBytes = null;
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,10 +17,8 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
-import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
@@ -121,7 +119,6 @@ public abstract class TextConsole extends AbstractConsole {
     public TextConsole(String name, String consoleType, ImageDescriptor imageDescriptor, boolean autoLifecycle) {
         super(name, consoleType, imageDescriptor, autoLifecycle);
         fDocument = new ConsoleDocument();
-        fDocument.addPositionCategory(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY);
         fPatternMatcher = new ConsolePatternMatcher(this);
         fDocument.addDocumentListener(fPatternMatcher);
         fTabWidth = IConsoleConstants.DEFAULT_TAB_SIZE;
@@ -318,17 +315,12 @@ public abstract class TextConsole extends AbstractConsole {
      * @return all hyperlinks in this console
      */
     public IHyperlink[] getHyperlinks() {
-        try {
-            Position[] positions = getDocument().getPositions(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY);
-            IHyperlink[] hyperlinks = new IHyperlink[positions.length];
-            for (int i = 0; i < positions.length; i++) {
-                ConsoleHyperlinkPosition position = (ConsoleHyperlinkPosition) positions[i];
-                hyperlinks[i] = position.getHyperLink();
-            }
-            return hyperlinks;
-        } catch (BadPositionCategoryException e) {
-            return new IHyperlink[0];
+        ConsoleHyperlinkPosition[] positions = fDocument.getHyperlinkPositions();
+        IHyperlink[] hyperlinks = new IHyperlink[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            hyperlinks[i] = positions[i].getHyperLink();
         }
+        return hyperlinks;
     }
 
     /**
@@ -338,66 +330,13 @@ public abstract class TextConsole extends AbstractConsole {
      * @return the hyperlink at the given offset of <code>null</code> if none
      */
     public IHyperlink getHyperlink(int offset) {
-        try {
-        	IDocument document = getDocument();
-        	if (document != null) {
-	            Position[] positions = document.getPositions(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY);
-	            Position position = findPosition(offset, positions);
-	            if (position instanceof ConsoleHyperlinkPosition) {
-	                return ((ConsoleHyperlinkPosition) position).getHyperLink();
-	            }
-        	}
-        } catch (BadPositionCategoryException e) {
+        ConsoleHyperlinkPosition position = fDocument.getHyperlinkPosition(offset);
+        if (position != null) {
+            return position.getHyperLink();
         }
         return null;
     }
 
-	/**
-	 * Binary search for the position at a given offset.
-	 *
-	 * @param offset the offset whose position should be found
-	 * @return the position containing the offset, or <code>null</code>
-	 */
-	private Position findPosition(int offset, Position[] positions) {
-
-		if (positions.length == 0) {
-			return null;
-		}
-
-		int left= 0;
-		int right= positions.length -1;
-		int mid= 0;
-		Position position= null;
-
-		while (left < right) {
-
-			mid= (left + right) / 2;
-
-			position= positions[mid];
-			if (offset < position.getOffset()) {
-				if (left == mid) {
-					right= left;
-				} else {
-					right= mid -1;
-				}
-			} else if (offset > (position.getOffset() + position.getLength() - 1)) {
-				if (right == mid) {
-					left= right;
-				} else {
-					left= mid  +1;
-				}
-			} else {
-				left= right= mid;
-			}
-		}
-
-		position= positions[left];
-		if (offset >= position.getOffset() && (offset < (position.getOffset() + position.getLength()))) {
-			return position;
-		}
-		return null;
-	}
-
     /**
      * Adds the given pattern match listener to this console. The listener will
      * be connected and receive match notifications. Has no effect if an identical
@@ -420,6 +359,19 @@ public abstract class TextConsole extends AbstractConsole {
         fPatternMatcher.removePatternMatchListener(listener);
     }
 
+    /**
+     * Returns the total time in nanoseconds this console has spent matching
+     * the pattern of the given pattern match listener against its document,
+     * or -1 if the listener has not been added to this console.
+     *
+     * @param listener a pattern match listener added to this console
+     * @return time spent matching the listener's pattern in nanoseconds, or -1
+     * @since 3.6
+     */
+    public long getPatternMatchTime(IPatternMatchListener listener) {
+        return fPatternMatcher.getMatchTime(listener);
+    }
+
 
     /**
      * Job scheduling rule that prevent the job from running if the console's PatternMatcher
@@ -505,14 +457,9 @@ public abstract class TextConsole extends AbstractConsole {
      * @throws BadLocationException if the specified location is not valid.
      */
     public void addHyperlink(IHyperlink hyperlink, int offset, int length) throws BadLocationException {
-        IDocument document = getDocument();
 		ConsoleHyperlinkPosition hyperlinkPosition = new ConsoleHyperlinkPosition(hyperlink, offset, length);
-		try {
-			document.addPosition(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY, hyperlinkPosition);
-            fConsoleManager.refresh(this);
-		} catch (BadPositionCategoryException e) {
-			ConsolePlugin.log(e);
-		}
+		fDocument.addHyperlink(hyperlinkPosition);
+		fConsoleManager.refresh(this);
     }
 
     /**
@@ -522,18 +469,9 @@ public abstract class TextConsole extends AbstractConsole {
      * @return the region associated with the hyperlink or null if the hyperlink is not found.
      */
     public IRegion getRegion(IHyperlink link) {
-		try {
-		    IDocument doc = getDocument();
-		    if (doc != null) {
-				Position[] positions = doc.getPositions(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY);
-				for (int i = 0; i < positions.length; i++) {
-					ConsoleHyperlinkPosition position = (ConsoleHyperlinkPosition)positions[i];
-					if (position.getHyperLink().equals(link)) {
-						return new Region(position.getOffset(), position.getLength());
-					}
-				}
-		    }
-		} catch (BadPositionCategoryException e) {
+		ConsoleHyperlinkPosition position = fDocument.getHyperlinkPosition(link);
+		if (position != null) {
+			return new Region(position.getOffset(), position.getLength());
 		}
 		return null;
     }
@@ -65,6 +65,7 @@ import org.eclipse.jface.text.JFaceTextUtil;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.source.SourceViewer;
 
+import org.eclipse.ui.internal.console.ConsoleDocument;
 import org.eclipse.ui.internal.console.ConsoleDocumentAdapter;
 import org.eclipse.ui.internal.console.ConsoleHyperlinkPosition;
 import org.eclipse.ui.progress.WorkbenchJob;
@@ -72,6 +73,12 @@ import org.eclipse.ui.progress.WorkbenchJob;
 /**
  * Default viewer used to display a <code>TextConsole</code>.
  * <p>
+ * The hyperlinks of a console document are kept in an index of the document
+ * rather than in its hyperlink position category. For other documents, the
+ * viewer styles the hyperlinks in the hyperlink position category, if the
+ * document has one.
+ * </p>
+ * <p>
  * Clients may subclass this class.
  * </p>
  *
@@ -168,6 +175,10 @@ public class TextConsoleViewer extends SourceViewer implements LineStyleListener
 		return false;
 	}
 
+    /**
+     * Removes hyperlink positions whose text has been replaced, for documents
+     * that keep hyperlinks in a position category.
+     */
     private IPositionUpdater positionUpdater = new IPositionUpdater() {
         @Override
 		public void update(DocumentEvent event) {
@@ -296,7 +307,9 @@ public class TextConsoleViewer extends SourceViewer implements LineStyleListener
 
         revealJob.setSystem(true);
         document.addDocumentListener(documentListener);
-        document.addPositionUpdater(positionUpdater);
+        if (!(document instanceof ConsoleDocument)) {
+            document.addPositionUpdater(positionUpdater);
+        }
     }
 
     /**
@@ -359,19 +372,20 @@ public class TextConsoleViewer extends SourceViewer implements LineStyleListener
                 ranges.add(new StyleRange(offset, length, null, null));
             }
 
-            try {
-                Position[] positions = getDocument().getPositions(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY);
-                Position[] overlap = findPosition(offset, length, positions);
+            Position[] overlap;
+            if (document instanceof ConsoleDocument) {
+                overlap = ((ConsoleDocument) document).getHyperlinkPositions(offset, length);
+            } else {
+                overlap = findHyperlinkPositions(document, offset, length);
+            }
+            if (overlap.length > 0) {
                 Color color = JFaceColors.getHyperlinkText(Display.getCurrent());
-                if (overlap != null) {
-                    for (int i = 0; i < overlap.length; i++) {
-                        Position position = overlap[i];
-                        StyleRange linkRange = new StyleRange(position.offset, position.length, color, null);
-                        linkRange.underline = true;
-                        override(ranges, linkRange);
-                    }
+                for (int i = 0; i < overlap.length; i++) {
+                    Position position = overlap[i];
+                    StyleRange linkRange = new StyleRange(position.getOffset(), position.getLength(), color, null);
+                    linkRange.underline = true;
+                    override(ranges, linkRange);
                 }
-            } catch (BadPositionCategoryException e) {
             }
 
             if (ranges.size() > 0) {
@@ -380,6 +394,29 @@ public class TextConsoleViewer extends SourceViewer implements LineStyleListener
         }
     }
 
+    /**
+     * Returns the positions in the hyperlink position category of the given
+     * document overlapping the given range.
+     *
+     * @param document a document other than a console document
+     * @param offset the offset of the range
+     * @param length the length of the range
+     * @return the positions overlapping the range, possibly empty
+     */
+    private Position[] findHyperlinkPositions(IDocument document, int offset, int length) {
+        List<Position> overlap = new ArrayList<Position>();
+        try {
+            Position[] positions = document.getPositions(ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY);
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i].overlapsWith(offset, length)) {
+                    overlap.add(positions[i]);
+                }
+            }
+        } catch (BadPositionCategoryException e) {
+        }
+        return overlap.toArray(new Position[overlap.size()]);
+    }
+
 	private void override(List<StyleRange> ranges, StyleRange newRange) {
         if (ranges.isEmpty()) {
             ranges.add(newRange);
@@ -417,78 +454,6 @@ public class TextConsoleViewer extends SourceViewer implements LineStyleListener
         }
     }
 
-    /**
-     * Binary search for the positions overlapping the given range
-     *
-     * @param offset
-     *            the offset of the range
-     * @param length
-     *            the length of the range
-     * @param positions
-     *            the positions to search
-     * @return the positions overlapping the given range, or <code>null</code>
-     */
-    private Position[] findPosition(int offset, int length, Position[] positions) {
-
-        if (positions.length == 0) {
-			return null;
-		}
-
-        int rangeEnd = offset + length;
-        int left = 0;
-        int right = positions.length - 1;
-        int mid = 0;
-        Position position = null;
-
-        while (left < right) {
-
-            mid = (left + right) / 2;
-
-            position = positions[mid];
-            if (rangeEnd < position.getOffset()) {
-                if (left == mid) {
-					right = left;
-				} else {
-					right = mid - 1;
-				}
-            } else if (offset > (position.getOffset() + position.getLength() - 1)) {
-                if (right == mid) {
-					left = right;
-				} else {
-					left = mid + 1;
-				}
-            } else {
-                left = right = mid;
-            }
-        }
-
-		List<Position> list = new ArrayList<Position>();
-        int index = left - 1;
-        if (index >= 0) {
-            position = positions[index];
-            while (index >= 0 && (position.getOffset() + position.getLength()) > offset) {
-                index--;
-                if (index > 0) {
-                    position = positions[index];
-                }
-            }
-        }
-        index++;
-        position = positions[index];
-        while (index < positions.length && (position.getOffset() < rangeEnd)) {
-            list.add(position);
-            index++;
-            if (index < positions.length) {
-                position = positions[index];
-            }
-        }
-
-        if (list.isEmpty()) {
-            return null;
-        }
-        return list.toArray(new Position[list.size()]);
-    }
-
     /*
      * (non-Javadoc)
      *
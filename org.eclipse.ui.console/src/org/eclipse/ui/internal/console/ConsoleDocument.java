@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,8 +14,10 @@ package org.eclipse.ui.internal.console;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Position;
+import org.eclipse.ui.console.IHyperlink;
 
 /**
  * A console document. Requires synchronization for multi-threaded access.
@@ -40,6 +42,21 @@ public class ConsoleDocument extends Document {
 		}
 	}
 
+	/**
+	 * Constructs an empty console document. The text is kept in a
+	 * {@link ConsoleTextStore}, so that the start of the document can be
+	 * removed cheaply when the console is trimmed.
+	 */
+	public ConsoleDocument() {
+		super();
+		setTextStore(new ConsoleTextStore());
+	}
+
+	/**
+	 * The hyperlinks in this document, updated as the document changes
+	 */
+	private final ConsoleHyperlinkIndex fHyperlinks = new ConsoleHyperlinkIndex();
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.jface.text.IDocument#get(int, int)
 	 */
@@ -162,13 +179,67 @@ public class ConsoleDocument extends Document {
         super.set(text);
     }
 	/* (non-Javadoc)
-	 * @see org.eclipse.jface.text.AbstractDocument#completeInitialization()
+	 * @see org.eclipse.jface.text.AbstractDocument#updateDocumentStructures(org.eclipse.jface.text.DocumentEvent)
 	 */
-    @Override
-	protected void completeInitialization() {
-        super.completeInitialization();
-        addPositionUpdater(new HyperlinkUpdater());
-    }
+	@Override
+	protected void updateDocumentStructures(DocumentEvent event) {
+		super.updateDocumentStructures(event);
+		fHyperlinks.replace(event.getOffset(), event.getLength(), event.getText() == null ? 0 : event.getText().length());
+	}
+
+	/**
+	 * Adds a hyperlink to this document. The hyperlink is deleted when the
+	 * text it covers is changed.
+	 *
+	 * @param position the position of the hyperlink
+	 * @throws BadLocationException if the position is not in this document
+	 */
+	public synchronized void addHyperlink(ConsoleHyperlinkPosition position) throws BadLocationException {
+		if (position.getOffset() < 0 || position.getLength() < 0 || position.getOffset() + position.getLength() > getLength()) {
+			throw new BadLocationException();
+		}
+		fHyperlinks.add(position);
+	}
+
+	/**
+	 * Returns the hyperlinks in this document, in offset order.
+	 *
+	 * @return the hyperlinks in this document
+	 */
+	public synchronized ConsoleHyperlinkPosition[] getHyperlinkPositions() {
+		return fHyperlinks.getPositions();
+	}
+
+	/**
+	 * Returns the hyperlinks overlapping the given range, in offset order.
+	 *
+	 * @param offset start of the range
+	 * @param length length of the range
+	 * @return the hyperlinks overlapping the range, possibly empty
+	 */
+	public synchronized ConsoleHyperlinkPosition[] getHyperlinkPositions(int offset, int length) {
+		return fHyperlinks.getPositions(offset, length);
+	}
+
+	/**
+	 * Returns the hyperlink at the given offset, or <code>null</code>.
+	 *
+	 * @param offset an offset in this document
+	 * @return the hyperlink at the offset or <code>null</code>
+	 */
+	public synchronized ConsoleHyperlinkPosition getHyperlinkPosition(int offset) {
+		return fHyperlinks.find(offset);
+	}
+
+	/**
+	 * Returns the position of the given hyperlink, or <code>null</code>.
+	 *
+	 * @param link a hyperlink
+	 * @return the position of the hyperlink or <code>null</code>
+	 */
+	public synchronized ConsoleHyperlinkPosition getHyperlinkPosition(IHyperlink link) {
+		return fHyperlinks.find(link);
+	}
 	/* (non-Javadoc)
 	 * @see org.eclipse.jface.text.IDocument#addPosition(java.lang.String, org.eclipse.jface.text.Position)
 	 */
@@ -188,6 +259,10 @@ public class ConsoleDocument extends Document {
 	 */
     @Override
 	public synchronized Position[] getPositions(String category) throws BadPositionCategoryException {
+        if (ConsoleHyperlinkPosition.HYPER_LINK_CATEGORY.equals(category) && !containsPositionCategory(category)) {
+            // hyperlinks are indexed rather than kept in a position category
+            return fHyperlinks.getPositions();
+        }
         return super.getPositions(category);
     }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,6 @@ package org.eclipse.ui.internal.console;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.text.BadLocationException;
@@ -21,6 +19,7 @@ import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentAdapter;
 import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.swt.custom.TextChangeListener;
 import org.eclipse.swt.custom.TextChangedEvent;
 import org.eclipse.swt.custom.TextChangingEvent;
@@ -30,7 +29,8 @@ import org.eclipse.swt.custom.TextChangingEvent;
  * wrapping of fixed width consoles without having to add line delimiters to the StyledText.
  *
  * By using this adapter, the offset of any character is the same in both the widget and the
- * document.
+ * document. The lines of the widget are the rows the lines of the document are wrapped into,
+ * which are kept in a {@link WrappedLineIndex} updated for the lines a change touches.
  *
  * @since 3.1
  */
@@ -40,86 +40,64 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
 	private List<TextChangeListener> textChangeListeners;
     private IDocument document;
 
-    int[] offsets = new int[5000];
-    int[] lengths = new int[5000];
-    private int regionCount = 1;
-    private Pattern pattern = Pattern.compile("$", Pattern.MULTILINE); //$NON-NLS-1$
+    /**
+     * Number of rows each line of the document is wrapped into
+     */
+    private WrappedLineIndex lines = new WrappedLineIndex();
 
+    /**
+     * First document line touched by the current change, or -1 if the lines
+     * have to be rebuilt after the change
+     */
+    private int changeLine = -1;
+
+    /**
+     * Number of document lines touched by the current change
+     */
+    private int changeLineCount = 0;
 
     public ConsoleDocumentAdapter(int width) {
 		textChangeListeners = new ArrayList<TextChangeListener>();
         consoleWidth = width;
+        lines.add(1);
     }
 
     /*
-     * repairs lines list from the beginning of the line containing the offset of any
-     * DocumentEvent, to the end of the Document.
+     * Recomputes the rows of all lines of the document.
      */
-    private void repairLines(int eventOffset) {
+    private void repairLines() {
         if (document == null) {
             return;
         }
         try {
-            int docLine = document.getLineOfOffset(eventOffset);
-            int docLineOffset = document.getLineOffset(docLine);
-            int widgetLine = getLineAtOffset(docLineOffset);
-
-            for (int i=regionCount-1; i>=widgetLine; i--) {
-                regionCount--;
-            }
-
-            int numLinesInDoc = document.getNumberOfLines();
-
-            int nextOffset =  document.getLineOffset(docLine);
-            for (int i = docLine; i<numLinesInDoc; i++) {
-                int offset = nextOffset;
-                int length = document.getLineLength(i);
-                nextOffset += length;
-
-                if (length == 0) {
-                    addRegion(offset, 0);
-                } else {
-                    while (length > 0) {
-                        int trimmedLength = length;
-                        String lineDelimiter = document.getLineDelimiter(i);
-                        int lineDelimiterLength = 0;
-                        if (lineDelimiter != null) {
-                            lineDelimiterLength = lineDelimiter.length();
-                            trimmedLength -= lineDelimiterLength;
-                        }
-
-                        if (consoleWidth > 0 && consoleWidth < trimmedLength) {
-                            addRegion(offset, consoleWidth);
-                            offset += consoleWidth;
-                            length -= consoleWidth;
-                        } else {
-                            addRegion(offset, length);
-                            offset += length;
-                            length -= length;
-                        }
-                    }
-                }
+            int[] rows = new int[document.getNumberOfLines()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = getLineRows(i);
             }
+            lines.replace(0, lines.size(), rows);
         } catch (BadLocationException e) {
+            lines.clear();
+            lines.add(1);
         }
+    }
 
-        if (regionCount == 0) {
-            addRegion(0, document.getLength());
-        }
+    /*
+     * Returns the number of rows the given document line is wrapped into.
+     */
+    private int getLineRows(int line) throws BadLocationException {
+        IRegion region = document.getLineInformation(line);
+        return getRows(region.getLength());
     }
 
-    private void addRegion(int offset, int length) {
-        if (regionCount == 0) {
-            offsets[0] = offset;
-            lengths[0] = length;
-        } else {
-            if (regionCount == offsets.length) {
-                growRegionArray(regionCount * 2);
-            }
-            offsets[regionCount] = offset;
-            lengths[regionCount] = length;
+    /*
+     * Returns the number of rows a line of the given length without its
+     * delimiter is wrapped into.
+     */
+    private int getRows(int length) {
+        if (consoleWidth > 0 && length > consoleWidth) {
+            return (length + consoleWidth - 1) / consoleWidth;
         }
-        regionCount++;
+        return 1;
     }
 
     /* (non-Javadoc)
@@ -135,7 +113,7 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
 
         if (document != null) {
             document.addDocumentListener(this);
-            repairLines(0);
+            repairLines();
         }
     }
 
@@ -175,12 +153,18 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
     @Override
 	public String getLine(int lineIndex) {
         try {
-            StringBuffer line = new StringBuffer(document.get(offsets[lineIndex], lengths[lineIndex]));
-            int index = line.length() - 1;
-            while(index > -1 && (line.charAt(index)=='\n' || line.charAt(index)=='\r')) {
-                index--;
+            int line = lines.getLine(lineIndex);
+            int row = lineIndex - lines.getRow(line);
+            IRegion region = document.getLineInformation(line);
+            int start = 0;
+            int end = region.getLength();
+            if (consoleWidth > 0) {
+                start = row * consoleWidth;
+                if (row < lines.get(line) - 1) {
+                    end = start + consoleWidth;
+                }
             }
-            return new String(line.substring(0, index+1));
+            return document.get(region.getOffset() + start, end - start);
         } catch (BadLocationException e) {
         }
         return ""; //$NON-NLS-1$
@@ -191,34 +175,22 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
      */
     @Override
 	public int getLineAtOffset(int offset) {
-        if (offset == 0 || regionCount <= 1) {
+        if (offset <= 0 || document == null) {
             return 0;
         }
-
-        if (offset == document.getLength()) {
-            return regionCount-1;
+        try {
+            int line = document.getLineOfOffset(offset);
+            int row = lines.getRow(line);
+            if (consoleWidth > 0) {
+                int column = offset - document.getLineOffset(line);
+                row += Math.min(column / consoleWidth, lines.get(line) - 1);
+            }
+            return row;
+        } catch (BadLocationException e) {
+        } catch (IndexOutOfBoundsException e) {
+            // the document changed but the lines have not been updated yet
         }
-
-		int left= 0;
-		int right= regionCount-1;
-		int midIndex = 0;
-
-		while (left <= right) {
-			if(left == right) {
-	    		return right;
-	    	}
-		    midIndex = (left + right) / 2;
-
-		    if (offset < offsets[midIndex]) {
-		        right = midIndex;
-		    } else if (offset >= offsets[midIndex] + lengths[midIndex]) {
-		        left = midIndex + 1;
-		    } else {
-		        return midIndex;
-		    }
-		}
-
-		return midIndex;
+        return lines.getRowCount() - 1;
     }
 
     /* (non-Javadoc)
@@ -226,7 +198,7 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
      */
     @Override
 	public int getLineCount() {
-        return regionCount;
+        return lines.getRowCount();
     }
 
     /* (non-Javadoc)
@@ -242,7 +214,16 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
      */
     @Override
 	public int getOffsetAtLine(int lineIndex) {
-        return offsets[lineIndex];
+        try {
+            int line = lines.getLine(lineIndex);
+            int offset = document.getLineOffset(line);
+            if (consoleWidth > 0) {
+                offset += (lineIndex - lines.getRow(line)) * consoleWidth;
+            }
+            return offset;
+        } catch (BadLocationException e) {
+        }
+        return document.getLength();
     }
 
     /* (non-Javadoc)
@@ -294,16 +275,25 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
         changeEvent.replaceCharCount = event.fLength;
         changeEvent.newCharCount = (event.fText == null ? 0 : event.fText.length());
 
-        int first = getLineAtOffset(event.fOffset);
-        int lOffset = Math.max(event.fOffset + event.fLength - 1, 0);
-		int last = getLineAtOffset(lOffset);
-        changeEvent.replaceLineCount = Math.max(last - first, 0);
+        try {
+            int startLine = document.getLineOfOffset(event.fOffset);
+            int endLine = document.getLineOfOffset(event.fOffset + event.fLength);
+            changeLine = startLine;
+            changeLineCount = endLine - startLine + 1;
 
-        int newLineCount = countNewLines(event.fText);
-		changeEvent.newLineCount = newLineCount >= 0 ? newLineCount : 0;
+            // rows of the first line before the change are not affected
+            int firstRow = getLineAtOffset(event.fOffset);
+            int oldRows = lines.getRow(endLine + 1) - firstRow;
+            int skippedRows = firstRow - lines.getRow(startLine);
 
-        if (changeEvent.newLineCount > offsets.length-regionCount) {
-            growRegionArray(changeEvent.newLineCount);
+            int newRows = countRows(event, startLine, endLine) - skippedRows;
+
+            changeEvent.newLineCount = Math.max(newRows - 1, 0);
+            changeEvent.replaceLineCount = changeEvent.newLineCount - (newRows - oldRows);
+        } catch (BadLocationException e) {
+            changeLine = -1;
+        } catch (IndexOutOfBoundsException e) {
+            changeLine = -1;
         }
 
 		for (TextChangeListener listener : textChangeListeners) {
@@ -311,66 +301,77 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
 		}
     }
 
-    private void growRegionArray(int minSize) {
-        int size = Math.max(offsets.length*2, minSize*2);
-        int[] newOffsets = new int[size];
-        System.arraycopy(offsets, 0, newOffsets, 0, regionCount);
-        offsets = newOffsets;
-        int[] newLengths = new int[size];
-        System.arraycopy(lengths, 0, newLengths, 0, regionCount);
-        lengths = newLengths;
+    /*
+     * Returns the number of rows the lines touched by the given change are
+     * wrapped into after the change. Only the new text and the delimiters
+     * next to the change are scanned, the text preceding and following the
+     * change in its lines is counted by length.
+     */
+    private int countRows(DocumentEvent event, int startLine, int endLine) throws BadLocationException {
+        IRegion startRegion = document.getLineInformation(startLine);
+        IRegion endRegion = document.getLineInformation(endLine);
+        int startContentEnd = startRegion.getOffset() + startRegion.getLength();
+        int endContentEnd = endRegion.getOffset() + endRegion.getLength();
+        int end = event.fOffset + event.fLength;
+        String delimiter = document.getLineDelimiter(endLine);
+
+        RowCounter counter = new RowCounter();
+        if (event.fOffset > startContentEnd) {
+            // the change starts within the delimiter of its first line
+            counter.appendText(startRegion.getLength(), document.get(startContentEnd, event.fOffset - startContentEnd));
+        } else {
+            if (event.fOffset == startRegion.getOffset() && startLine > 0) {
+                // a line feed completes a carriage return ending the previous line
+                counter.carriageReturn = "\r".equals(document.getLineDelimiter(startLine - 1)); //$NON-NLS-1$
+            }
+            counter.appendText(event.fOffset - startRegion.getOffset(), null);
+        }
+        counter.appendText(0, event.fText);
+        counter.appendText(Math.max(endContentEnd - end, 0), null);
+        if (delimiter != null) {
+            int delimiterStart = Math.max(endContentEnd, end);
+            counter.appendText(0, delimiter.substring(delimiterStart - endContentEnd));
+            // text following the last delimiter belongs to the next line
+            return counter.rows;
+        }
+        return counter.rows + getRows(counter.length);
     }
 
-    private int countNewLines(String string) {
-		int count = 0;
-
-		if (string.length() == 0) {
-			return 0;
-		}
-
-		// work around to
-		// http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=4994840
-		// see bug 84641
-		int offset = string.length() - 1;
-		while (offset > -1 && string.charAt(offset) == '\r') {
-			offset--;
-			count++;
-		}
-		// if offset == -1, the line was all '\r' and there is no string to search for matches (bug 207743)
-		if (offset > -1) {
-			String str = string;
-			if (offset < (str.length() - 1)) {
-				str = str.substring(0, offset);
-			}
-
-			int lastIndex = 0;
-			int index = 0;
-
-			Matcher matcher = pattern.matcher(str);
-
-			while (matcher.find()) {
-				index = matcher.start();
-
-				if (index == 0) {
-					count++;
-				} else if (index != str.length()) {
-					count++;
-				}
-
-				if (consoleWidth > 0) {
-					int lineLen = index - lastIndex + 1;
-					if (index == 0) {
-						lineLen += lengths[regionCount-1];
-					}
-					count += lineLen/consoleWidth;
-				}
-
-				lastIndex = index;
-			}
-		}
-		return count;
-	}
-
+    /*
+     * Counts the rows of the lines in a sequence of text.
+     */
+    private class RowCounter {
+        int rows = 0;
+        int length = 0;
+        boolean carriageReturn = false;
+
+        /*
+         * Appends the given number of characters without delimiters followed
+         * by the given text.
+         */
+        void appendText(int count, String text) {
+            if (count > 0) {
+                length += count;
+                carriageReturn = false;
+            }
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                if (ch == '\n' && carriageReturn) {
+                    carriageReturn = false;
+                } else if (ch == '\r' || ch == '\n') {
+                    rows += getRows(length);
+                    length = 0;
+                    carriageReturn = ch == '\r';
+                } else {
+                    length++;
+                    carriageReturn = false;
+                }
+            }
+        }
+    }
 
     /* (non-Javadoc)
      * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
@@ -381,7 +382,21 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
             return;
         }
 
-        repairLines(event.fOffset);
+        if (changeLine < 0) {
+            repairLines();
+        } else {
+            try {
+                int endLine = document.getLineOfOffset(event.fOffset + (event.fText == null ? 0 : event.fText.length()));
+                int[] rows = new int[endLine - changeLine + 1];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = getLineRows(changeLine + i);
+                }
+                lines.replace(changeLine, changeLineCount, rows);
+            } catch (BadLocationException e) {
+                repairLines();
+            }
+            changeLine = -1;
+        }
 
         TextChangedEvent changeEvent = new TextChangedEvent(this);
 
@@ -397,7 +412,7 @@ public class ConsoleDocumentAdapter implements IDocumentAdapter, IDocumentListen
     public void setWidth(int width) {
         if (width != consoleWidth) {
             consoleWidth = width;
-            repairLines(0);
+            repairLines();
             TextChangedEvent changeEvent = new TextChangedEvent(this);
 			for (TextChangeListener listener : textChangeListeners) {
 				listener.textSet(changeEvent);
@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import org.eclipse.ui.console.IHyperlink;
+
+/**
+ * The hyperlinks of a console document, ordered by offset.
+ * <p>
+ * Hyperlinks are kept in an array with unused slots at its front and end, so
+ * that adding hyperlinks at the end of the document and removing hyperlinks
+ * from its start (when the console is trimmed) do not move the remaining
+ * hyperlinks. Hyperlinks store their offsets relative to the base offset of
+ * this index, so that trimming the console moves all remaining hyperlinks at
+ * once. Hyperlinks are looked up by offset with a binary search.
+ * </p>
+ * <p>
+ * A hyperlink is deleted when the text it covers is changed, or when text is
+ * inserted within it. This index is not synchronized, it is accessed while
+ * holding the lock of its document.
+ * </p>
+ *
+ * @since 3.6
+ */
+public class ConsoleHyperlinkIndex {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final ConsoleHyperlinkPosition[] EMPTY = new ConsoleHyperlinkPosition[0];
+
+	private ConsoleHyperlinkPosition[] fPositions = new ConsoleHyperlinkPosition[INITIAL_CAPACITY];
+
+	/**
+	 * Index of the first hyperlink in the array
+	 */
+	private int fStart = 0;
+
+	/**
+	 * Number of hyperlinks in the index
+	 */
+	private int fSize = 0;
+
+	/**
+	 * Offset of the start of the document, relative to which hyperlinks in
+	 * this index store their offsets. Arithmetic on the base offset may
+	 * overflow, which is harmless since hyperlinks only subtract it from
+	 * offsets computed by adding it.
+	 */
+	private int fBase = 0;
+
+	/**
+	 * Returns the number of hyperlinks.
+	 *
+	 * @return the number of hyperlinks
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Adds a hyperlink.
+	 *
+	 * @param position the position of the hyperlink
+	 */
+	public void add(ConsoleHyperlinkPosition position) {
+		ensureCapacity(fSize + 1);
+		// hyperlinks are usually added in order
+		int index = fSize;
+		while (index > 0 && fPositions[fStart + index - 1].getOffset() > position.getOffset()) {
+			index--;
+		}
+		if (index < fSize - 8) {
+			index = search(position.getOffset()) + 1;
+		}
+		int at = fStart + index;
+		System.arraycopy(fPositions, at, fPositions, at + 1, fSize - index);
+		position.setIndex(this);
+		fPositions[at] = position;
+		fSize++;
+	}
+
+	/**
+	 * Returns all hyperlinks, in offset order.
+	 *
+	 * @return all hyperlinks
+	 */
+	public ConsoleHyperlinkPosition[] getPositions() {
+		ConsoleHyperlinkPosition[] positions = new ConsoleHyperlinkPosition[fSize];
+		System.arraycopy(fPositions, fStart, positions, 0, fSize);
+		return positions;
+	}
+
+	/**
+	 * Returns the hyperlink containing the given offset, or <code>null</code>.
+	 *
+	 * @param offset an offset in the document
+	 * @return the hyperlink containing the offset or <code>null</code>
+	 */
+	public ConsoleHyperlinkPosition find(int offset) {
+		int index = search(offset);
+		if (index >= 0) {
+			ConsoleHyperlinkPosition position = fPositions[fStart + index];
+			if (offset < position.getOffset() + position.getLength()) {
+				return position;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the position of the given hyperlink, or <code>null</code>.
+	 *
+	 * @param link a hyperlink
+	 * @return the first position of the hyperlink or <code>null</code>
+	 */
+	public ConsoleHyperlinkPosition find(IHyperlink link) {
+		for (int i = fStart; i < fStart + fSize; i++) {
+			if (fPositions[i].getHyperLink().equals(link)) {
+				return fPositions[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the hyperlinks overlapping the given range, in offset order.
+	 *
+	 * @param offset start of the range
+	 * @param length length of the range
+	 * @return the hyperlinks overlapping the range, possibly empty
+	 */
+	public ConsoleHyperlinkPosition[] getPositions(int offset, int length) {
+		int first = search(offset);
+		if (first < 0 || fPositions[fStart + first].getOffset() + fPositions[fStart + first].getLength() <= offset) {
+			first++;
+		}
+		int last = search(offset + length - 1);
+		if (last < first) {
+			return EMPTY;
+		}
+		ConsoleHyperlinkPosition[] positions = new ConsoleHyperlinkPosition[last - first + 1];
+		System.arraycopy(fPositions, fStart + first, positions, 0, positions.length);
+		return positions;
+	}
+
+	/**
+	 * Updates the hyperlinks after text has been replaced in the document,
+	 * deleting the hyperlinks the change touches and moving the hyperlinks
+	 * following it.
+	 *
+	 * @param offset offset of the replaced text
+	 * @param length length of the replaced text
+	 * @param textLength length of the replacing text
+	 */
+	public void replace(int offset, int length, int textLength) {
+		if (fSize == 0) {
+			return;
+		}
+		ConsoleHyperlinkPosition last = fPositions[fStart + fSize - 1];
+		if (last.getOffset() + last.getLength() <= offset) {
+			// text appended after the last hyperlink
+			return;
+		}
+		// hyperlinks deleted by the change
+		int first = search(offset - 1);
+		if (first < 0 || fPositions[fStart + first].getOffset() + fPositions[fStart + first].getLength() <= offset) {
+			first++;
+		}
+		int end = search(offset + length - 1) + 1;
+		if (first == 0) {
+			// the start of the document changed, move all remaining
+			// hyperlinks at once
+			removeFirst(end);
+			fBase -= textLength - length;
+			return;
+		}
+		remove(first, end);
+		int delta = textLength - length;
+		if (delta != 0) {
+			for (int i = fStart + first; i < fStart + fSize; i++) {
+				fPositions[i].setOffset(fPositions[i].getOffset() + delta);
+			}
+		}
+	}
+
+	/**
+	 * Removes all hyperlinks.
+	 */
+	public void clear() {
+		removeFirst(fSize);
+	}
+
+	/**
+	 * Returns the offset relative to which hyperlinks in this index store
+	 * their offsets.
+	 *
+	 * @return the base offset
+	 */
+	int getBase() {
+		return fBase;
+	}
+
+	private void removeFirst(int count) {
+		for (int i = fStart; i < fStart + count; i++) {
+			delete(fPositions[i]);
+			fPositions[i] = null;
+		}
+		fStart += count;
+		fSize -= count;
+		if (fSize == 0) {
+			fStart = 0;
+		}
+	}
+
+	private void remove(int from, int to) {
+		if (from >= to) {
+			return;
+		}
+		for (int i = fStart + from; i < fStart + to; i++) {
+			delete(fPositions[i]);
+		}
+		System.arraycopy(fPositions, fStart + to, fPositions, fStart + from, fSize - to);
+		int size = fSize - (to - from);
+		for (int i = fStart + size; i < fStart + fSize; i++) {
+			fPositions[i] = null;
+		}
+		fSize = size;
+	}
+
+	private void delete(ConsoleHyperlinkPosition position) {
+		position.setIndex(null);
+		position.delete();
+	}
+
+	/**
+	 * Returns the index of the last hyperlink starting at or before the given
+	 * offset, or -1 if all hyperlinks start after it.
+	 */
+	private int search(int offset) {
+		int low = 0;
+		int high = fSize - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (fPositions[fStart + mid].getOffset() <= offset) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return high;
+	}
+
+	/**
+	 * Makes room for the given number of hyperlinks after the first one,
+	 * reusing the slots in front of the first hyperlink before growing the
+	 * array.
+	 */
+	private void ensureCapacity(int size) {
+		if (fStart + size <= fPositions.length) {
+			return;
+		}
+		ConsoleHyperlinkPosition[] positions = fPositions;
+		if (size > fPositions.length / 2) {
+			positions = new ConsoleHyperlinkPosition[Math.max(size, fPositions.length * 2)];
+		}
+		System.arraycopy(fPositions, fStart, positions, 0, fSize);
+		if (positions == fPositions) {
+			for (int i = fSize; i < fStart + fSize; i++) {
+				fPositions[i] = null;
+			}
+		}
+		fPositions = positions;
+		fStart = 0;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,13 @@ public class ConsoleHyperlinkPosition extends Position {
 
 	private IHyperlink fLink = null;
 
+	/**
+	 * The index this hyperlink belongs to, or <code>null</code>. Offsets of
+	 * hyperlinks in an index are stored relative to the base offset of the
+	 * index.
+	 */
+	private ConsoleHyperlinkIndex fIndex = null;
+
 	public ConsoleHyperlinkPosition(IHyperlink link, int offset, int length) {
 		super(offset, length);
 		fLink = link;
@@ -34,12 +41,43 @@ public class ConsoleHyperlinkPosition extends Position {
 		return fLink;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.Position#getOffset()
+	 */
+	@Override
+	public int getOffset() {
+		return fIndex == null ? offset : offset - fIndex.getBase();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.Position#setOffset(int)
+	 */
+	@Override
+	public void setOffset(int offset) {
+		this.offset = fIndex == null ? offset : offset + fIndex.getBase();
+	}
+
+	/**
+	 * Sets the index this hyperlink belongs to, keeping its offset.
+	 *
+	 * @param index the index or <code>null</code>
+	 */
+	void setIndex(ConsoleHyperlinkIndex index) {
+		int documentOffset = getOffset();
+		fIndex = index;
+		setOffset(documentOffset);
+	}
+
 	/**
 	 * @see java.lang.Object#equals(java.lang.Object)
 	 */
 	@Override
 	public boolean equals(Object arg) {
-		return arg instanceof ConsoleHyperlinkPosition && super.equals(arg) && getHyperLink().equals(((ConsoleHyperlinkPosition)arg).getHyperLink());
+		if (!(arg instanceof ConsoleHyperlinkPosition)) {
+			return false;
+		}
+		ConsoleHyperlinkPosition position = (ConsoleHyperlinkPosition) arg;
+		return getOffset() == position.getOffset() && getLength() == position.getLength() && getHyperLink().equals(position.getHyperLink());
 	}
 
 	/**
@@ -47,7 +85,8 @@ public class ConsoleHyperlinkPosition extends Position {
 	 */
 	@Override
 	public int hashCode() {
-		return super.hashCode() + getHyperLink().hashCode();
+		int deleted = isDeleted() ? 0 : 1;
+		return ((getOffset() << 24) | (getLength() << 16) | (deleted << 8)) + getHyperLink().hashCode();
 	}
 
 }
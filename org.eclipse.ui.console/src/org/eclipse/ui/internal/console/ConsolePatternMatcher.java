@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,11 @@
 package org.eclipse.ui.internal.console;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,101 +66,26 @@ public class ConsolePatternMatcher implements IDocumentListener {
         @Override
 		protected IStatus run(IProgressMonitor monitor) {
 			IDocument doc = fConsole.getDocument();
-			String text = null;
-			int prevBaseOffset = -1;
 			if (doc != null && !monitor.isCanceled()) {
-				int endOfSearch = doc.getLength();
-				int indexOfLastChar = endOfSearch;
-				if (indexOfLastChar > 0) {
-					indexOfLastChar--;
-				}
-				int lastLineToSearch = 0;
-				int offsetOfLastLineToSearch = 0;
-				try {
-					lastLineToSearch = doc.getLineOfOffset(indexOfLastChar);
-					offsetOfLastLineToSearch = doc.getLineOffset(lastLineToSearch);
-				} catch (BadLocationException e) {
-					// perhaps the buffer was re-set
-					return Status.OK_STATUS;
-				}
-				Object[] patterns = null;
+				CompiledPatternMatchListener[] patterns = null;
 				synchronized (fPatterns) {
-					patterns = fPatterns.toArray();
+					patterns = fPatterns.toArray(new CompiledPatternMatchListener[fPatterns.size()]);
 				}
-				for (int i = 0; i < patterns.length; i++) {
-					if (monitor.isCanceled()) {
-						break;
-					}
-					CompiledPatternMatchListener notifier = (CompiledPatternMatchListener) patterns[i];
-					int baseOffset = notifier.end;
-					int lengthToSearch = endOfSearch - baseOffset;
-					if (lengthToSearch > 0) {
-						try {
-							if (prevBaseOffset != baseOffset) {
-								// reuse the text string if possible
-								text = doc.get(baseOffset, lengthToSearch);
-							}
-							if(text == null) {
-								continue;
-							}
-							Matcher reg = notifier.pattern.matcher(text);
-							Matcher quick = null;
-							if (notifier.qualifier != null) {
-								quick = notifier.qualifier.matcher(text);
-							}
-							int startOfNextSearch = 0;
-							int endOfLastMatch = -1;
-							int lineOfLastMatch = -1;
-							while ((startOfNextSearch < lengthToSearch) && !monitor.isCanceled()) {
-								if (quick != null) {
-									if (quick.find(startOfNextSearch)) {
-										// start searching on the beginning
-										// of the line where the potential
-										// match was found, or after the
-										// last match on the same line
-										int matchLine = doc.getLineOfOffset(baseOffset + quick.start());
-										if (lineOfLastMatch == matchLine) {
-											startOfNextSearch = endOfLastMatch;
-										} else {
-											startOfNextSearch = doc.getLineOffset(matchLine) - baseOffset;
-										}
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-								if (startOfNextSearch < 0) {
-									startOfNextSearch = 0;
-								}
-								if (startOfNextSearch < lengthToSearch) {
-									if (reg.find(startOfNextSearch)) {
-										endOfLastMatch = reg.end();
-										lineOfLastMatch = doc.getLineOfOffset(baseOffset + endOfLastMatch - 1);
-										int regStart = reg.start();
-										IPatternMatchListener listener = notifier.listener;
-										if (listener != null && !monitor.isCanceled()) {
-											listener.matchFound(new PatternMatchEvent(fConsole, baseOffset + regStart, endOfLastMatch - regStart));
-										}
-										startOfNextSearch = endOfLastMatch;
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-							}
-							// update start of next search to the last line
-							// searched
-							// or the end of the last match if it was on the
-							// line that
-							// was last searched
-							if (lastLineToSearch == lineOfLastMatch) {
-								notifier.end = baseOffset + endOfLastMatch;
-							} else {
-								notifier.end = offsetOfLastLineToSearch;
-							}
-						} catch (BadLocationException e) {
-							ConsolePlugin.log(e);
-						}
+				int endOfSearch = doc.getLength();
+				int baseOffset = endOfSearch;
+				for (CompiledPatternMatchListener notifier : patterns) {
+					baseOffset = Math.min(baseOffset, notifier.end);
+				}
+				if (baseOffset < endOfSearch) {
+					String text = null;
+					try {
+						// all listeners search the same copy of the text
+						text = doc.get(baseOffset, endOfSearch - baseOffset);
+					} catch (BadLocationException e) {
+						// perhaps the buffer was re-set
+						return Status.OK_STATUS;
 					}
-					prevBaseOffset = baseOffset;
+					match(new LineIndex(text, baseOffset), patterns, monitor);
 				}
 			}
 
@@ -175,23 +104,307 @@ public class ConsolePatternMatcher implements IDocumentListener {
 		public boolean belongsTo(Object family) {
             return family == fConsole;
         }
+    }
+
+    /**
+     * The lines of the text searched by the match job. Lines are computed
+     * once from the searched text, rather than asking the document for the
+     * line of each match.
+     */
+    private static class LineIndex {
+
+    	/**
+    	 * The searched text and its offset in the document
+    	 */
+    	final String text;
+    	final int baseOffset;
+
+    	/**
+    	 * The start of each line in the text, the end of its content and the
+    	 * number of lines. The last line is not necessarily complete.
+    	 */
+    	int[] starts = new int[64];
+    	int[] ends = new int[64];
+    	int count = 0;
+
+    	LineIndex(String text, int baseOffset) {
+    		this.text = text;
+    		this.baseOffset = baseOffset;
+    		int start = 0;
+    		int length = text.length();
+    		for (int i = 0; i < length; i++) {
+    			char c = text.charAt(i);
+    			if (c == '\n' || c == '\r') {
+    				int end = i;
+    				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+    					i++;
+    				}
+    				add(start, end);
+    				start = i + 1;
+    			}
+    		}
+    		if (start < length || count == 0) {
+    			add(start, length);
+    		}
+    	}
+
+    	private void add(int start, int end) {
+    		if (count == starts.length) {
+    			starts = Arrays.copyOf(starts, count * 2);
+    			ends = Arrays.copyOf(ends, count * 2);
+    		}
+    		starts[count] = start;
+    		ends[count] = end;
+    		count++;
+    	}
+
+    	/**
+    	 * Returns the start of the line containing the last character of
+    	 * the document, which is searched again once more text is appended.
+    	 */
+    	int getLastLineStart() {
+    		return starts[count - 1];
+    	}
+
+    	/**
+    	 * Returns the index of the line containing the given offset in the
+    	 * text.
+    	 */
+    	int getLine(int offset) {
+    		int index = Arrays.binarySearch(starts, 0, count, offset);
+    		return index >= 0 ? index : -index - 2;
+    	}
+    }
 
+    /**
+     * Identifies lines that may contain matches of the listeners sharing a
+     * line qualifier. Each line is checked once per distinct qualifier, and
+     * qualifiers without regular expression constructs are searched for as
+     * plain strings.
+     */
+    private static class LineQualifier {
+
+    	private final String literal;
+    	private final Matcher matcher;
+
+    	/**
+    	 * The line last checked and whether it qualified
+    	 */
+    	private int line = -1;
+    	private boolean qualifies;
+
+    	/**
+    	 * Offset of the next occurrence of the literal qualifier, or -1
+    	 */
+    	private int next = -2;
+
+    	LineQualifier(CompiledPatternMatchListener notifier, String text) {
+    		literal = notifier.literalQualifier;
+    		if (literal == null) {
+    			matcher = notifier.qualifier.matcher(text);
+    			matcher.useAnchoringBounds(false);
+    		} else {
+    			matcher = null;
+    		}
+    	}
+
+    	/**
+    	 * Returns whether the given line contains the qualifier. Lines must
+    	 * be checked in ascending order.
+    	 */
+    	boolean qualifies(LineIndex lines, int index) {
+    		if (line != index) {
+    			line = index;
+    			int start = lines.starts[index];
+    			int end = lines.ends[index];
+    			if (literal != null) {
+    				if (next != -1 && next < start) {
+    					next = lines.text.indexOf(literal, start);
+    				}
+    				qualifies = next != -1 && next + literal.length() <= end;
+    			} else {
+    				matcher.region(start, end);
+    				qualifies = matcher.find();
+    			}
+    		}
+    		return qualifies;
+    	}
+    }
 
+    /**
+     * Notifies the given listeners of the matches of their patterns in the
+     * given text, scanning the text a line at a time. Matchers are bounded to
+     * each line without anchoring bounds, so anchors and boundaries match as
+     * in the whole text. Patterns that may match line delimiters or depend
+     * on where the search starts are searched across lines.
+     */
+    private void match(LineIndex lines, CompiledPatternMatchListener[] patterns, IProgressMonitor monitor) {
+    	String text = lines.text;
+    	int baseOffset = lines.baseOffset;
+    	Map<String, LineQualifier> qualifiers = new HashMap<String, LineQualifier>();
+    	List<CompiledPatternMatchListener> lineListeners = new ArrayList<CompiledPatternMatchListener>(patterns.length);
+    	for (CompiledPatternMatchListener notifier : patterns) {
+    		if (notifier.end - baseOffset >= text.length()) {
+    			continue;
+    		}
+    		notifier.lastMatchEnd = -1;
+    		if (notifier.multiLine) {
+    			long start = System.nanoTime();
+    			matchAcrossLines(lines, notifier, monitor);
+    			notifier.matchTime += System.nanoTime() - start;
+    			continue;
+    		}
+    		notifier.matcher = notifier.pattern.matcher(text);
+    		notifier.matcher.useAnchoringBounds(false);
+    		notifier.lineQualifier = null;
+    		if (notifier.qualifier != null) {
+    			String key = notifier.qualifier.flags() + ":" + notifier.qualifier.pattern(); //$NON-NLS-1$
+    			LineQualifier qualifier = qualifiers.get(key);
+    			if (qualifier == null) {
+    				qualifier = new LineQualifier(notifier, text);
+    				qualifiers.put(key, qualifier);
+    			}
+    			notifier.lineQualifier = qualifier;
+    		}
+    		lineListeners.add(notifier);
+    	}
+    	if (!lineListeners.isEmpty()) {
+    		for (int line = 0; line < lines.count && !monitor.isCanceled(); line++) {
+    			int lineStart = lines.starts[line];
+    			int lineEnd = lines.ends[line];
+    			for (CompiledPatternMatchListener notifier : lineListeners) {
+    				int from = Math.max(lineStart, notifier.end - baseOffset);
+    				if (from > lineEnd || (from == lineEnd && lineEnd > lineStart)) {
+    					// searched by a previous job
+    					continue;
+    				}
+    				long start = System.nanoTime();
+    				if (notifier.lineQualifier == null || notifier.lineQualifier.qualifies(lines, line)) {
+    					Matcher matcher = notifier.matcher;
+    					matcher.region(from, lineEnd);
+    					while (matcher.find() && !monitor.isCanceled()) {
+    						notifier.lastMatchEnd = matcher.end();
+    						IPatternMatchListener listener = notifier.listener;
+    						if (listener != null) {
+    							listener.matchFound(new PatternMatchEvent(fConsole, baseOffset + matcher.start(), matcher.end() - matcher.start()));
+    						}
+    					}
+    				}
+    				notifier.matchTime += System.nanoTime() - start;
+    			}
+    		}
+    	}
+    	if (monitor.isCanceled()) {
+    		return;
+    	}
+    	// update start of next search to the last line searched or the end of
+    	// the last match if it was on the line that was last searched
+    	int lastLineStart = lines.getLastLineStart();
+    	for (CompiledPatternMatchListener notifier : patterns) {
+    		if (notifier.end - baseOffset >= text.length()) {
+    			continue;
+    		}
+    		notifier.matcher = null;
+    		notifier.lineQualifier = null;
+    		if (notifier.lastMatchEnd > lastLineStart) {
+    			notifier.end = baseOffset + notifier.lastMatchEnd;
+    		} else {
+    			notifier.end = Math.max(notifier.end, baseOffset + lastLineStart);
+    		}
+    	}
     }
 
-    private class CompiledPatternMatchListener {
+    /**
+     * Notifies the given listener of the matches of its pattern in the given
+     * text, searching across lines. The text is searched from the end of the
+     * previous search, as if it started there.
+     */
+    private void matchAcrossLines(LineIndex lines, CompiledPatternMatchListener notifier, IProgressMonitor monitor) {
+    	int offset = notifier.end - lines.baseOffset;
+    	String text = offset == 0 ? lines.text : lines.text.substring(offset);
+    	int lengthToSearch = text.length();
+    	Matcher reg = notifier.pattern.matcher(text);
+    	Matcher quick = null;
+    	if (notifier.qualifier != null) {
+    		quick = notifier.qualifier.matcher(text);
+    	}
+    	int startOfNextSearch = 0;
+    	int lineOfLastMatch = -1;
+    	while ((startOfNextSearch < lengthToSearch) && !monitor.isCanceled()) {
+    		if (quick != null) {
+    			if (quick.find(startOfNextSearch)) {
+    				// start searching on the beginning of the line where the
+    				// potential match was found, or after the last match on
+    				// the same line
+    				int matchLine = lines.getLine(offset + quick.start());
+    				if (lineOfLastMatch == matchLine) {
+    					startOfNextSearch = notifier.lastMatchEnd - offset;
+    				} else {
+    					startOfNextSearch = Math.max(lines.starts[matchLine] - offset, 0);
+    				}
+    			} else {
+    				startOfNextSearch = lengthToSearch;
+    			}
+    		}
+    		if (startOfNextSearch < lengthToSearch) {
+    			if (reg.find(startOfNextSearch)) {
+    				notifier.lastMatchEnd = offset + reg.end();
+    				lineOfLastMatch = lines.getLine(Math.max(offset + reg.end() - 1, 0));
+    				IPatternMatchListener listener = notifier.listener;
+    				if (listener != null && !monitor.isCanceled()) {
+    					listener.matchFound(new PatternMatchEvent(fConsole, notifier.end + reg.start(), reg.end() - reg.start()));
+    				}
+    				startOfNextSearch = reg.end() > reg.start() ? reg.end() : reg.end() + 1;
+    			} else {
+    				startOfNextSearch = lengthToSearch;
+    			}
+    		}
+    	}
+    }
+
+    private static class CompiledPatternMatchListener {
         Pattern pattern;
 
         Pattern qualifier;
 
+        /**
+         * The qualifier as a plain string if it contains no regular
+         * expression constructs, otherwise <code>null</code>
+         */
+        String literalQualifier;
+
+        /**
+         * Whether the pattern or qualifier may match line delimiters or
+         * depend on where the search starts, in which case the pattern is
+         * searched across lines
+         */
+        boolean multiLine;
+
         IPatternMatchListener listener;
 
         int end = 0;
 
+        /**
+         * Total time in nanoseconds spent matching this listener's pattern
+         */
+        volatile long matchTime = 0;
+
+        /**
+         * State of the search in progress
+         */
+        Matcher matcher;
+        LineQualifier lineQualifier;
+        int lastMatchEnd;
+
         CompiledPatternMatchListener(Pattern pattern, Pattern qualifier, IPatternMatchListener matchListener) {
             this.pattern = pattern;
             this.listener = matchListener;
             this.qualifier = qualifier;
+            this.multiLine = !new LineBoundsCheck(pattern).isLineBounded()
+            		|| (qualifier != null && !new LineBoundsCheck(qualifier).isLineBounded());
+            if (qualifier != null) {
+            	this.literalQualifier = getLiteral(qualifier);
+            }
         }
 
         public void dispose() {
@@ -202,6 +415,353 @@ public class ConsolePatternMatcher implements IDocumentListener {
         }
     }
 
+    /**
+     * Checks whether the matches of a pattern lie within a line and do not
+     * depend on where the searched text starts, so that the pattern can be
+     * searched a line at a time. The check is conservative: constructs that
+     * may match a line delimiter, such as negated classes, <code>\s</code>,
+     * <code>\W</code> or <code>.</code> in DOTALL mode, anchors to the start
+     * of the text and constructs that are not recognized fail it.
+     */
+    private static class LineBoundsCheck {
+
+    	/**
+    	 * Results of reading an escape other than a literal character
+    	 */
+    	private static final int ESCAPE_IN_LINE = -1;
+    	private static final int ESCAPE_ANY = -2;
+
+    	/**
+    	 * Character properties that do not contain line delimiters
+    	 */
+    	private static final String[] IN_LINE_PROPERTIES = new String[] {
+    		"L", "Lu", "Ll", "Lt", "Lm", "Lo", "N", "Nd", "Alpha", "Digit", "Alnum", "Upper", "Lower", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$
+    		"Punct", "Graph", "Print", "Blank", "XDigit", "IsAlphabetic", "IsLetter", "IsDigit", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+    		"IsUppercase", "IsLowercase", "javaLetter", "javaDigit", "javaLetterOrDigit", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    		"javaUpperCase", "javaLowerCase" }; //$NON-NLS-1$ //$NON-NLS-2$
+
+    	private final Pattern pattern;
+    	private final String regex;
+    	private int pos;
+
+    	LineBoundsCheck(Pattern pattern) {
+    		this.pattern = pattern;
+    		this.regex = pattern.pattern();
+    	}
+
+    	boolean isLineBounded() {
+    		int flags = pattern.flags();
+    		if ((flags & Pattern.LITERAL) != 0) {
+    			return regex.indexOf('\n') < 0 && regex.indexOf('\r') < 0;
+    		}
+    		if ((flags & (Pattern.DOTALL | Pattern.UNIX_LINES | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+    			return false;
+    		}
+    		boolean multiLine = (flags & Pattern.MULTILINE) != 0;
+    		while (pos < regex.length()) {
+    			char c = regex.charAt(pos++);
+    			switch (c) {
+    				case '\\':
+    					if (pos < regex.length() && regex.charAt(pos) == 'Q') {
+    						int end = regex.indexOf("\\E", ++pos); //$NON-NLS-1$
+    						String quoted = end < 0 ? regex.substring(pos) : regex.substring(pos, end);
+    						if (quoted.indexOf('\n') >= 0 || quoted.indexOf('\r') >= 0) {
+    							return false;
+    						}
+    						pos = end < 0 ? regex.length() : end + 2;
+    					} else if (!isInLine(readEscape())) {
+    						return false;
+    					}
+    					break;
+    				case '[':
+    					if (!readClass()) {
+    						return false;
+    					}
+    					break;
+    				case '(':
+    					if (!readGroupStart()) {
+    						return false;
+    					}
+    					break;
+    				case '^':
+    					// without MULTILINE, matches where the search starts
+    					if (!multiLine) {
+    						return false;
+    					}
+    					break;
+    				case '\n':
+    				case '\r':
+    					return false;
+    				default:
+    					// '.' without DOTALL, quantifiers, alternatives, '$'
+    					// and literal characters
+    					break;
+    			}
+    		}
+    		return true;
+    	}
+
+    	private static boolean isInLine(int escape) {
+    		return escape == ESCAPE_IN_LINE || (escape >= 0 && escape != '\n' && escape != '\r');
+    	}
+
+    	/**
+    	 * Reads the start of a group after its opening parenthesis. Inline
+    	 * flags other than case folding fail the check.
+    	 */
+    	private boolean readGroupStart() {
+    		if (pos == regex.length() || regex.charAt(pos) != '?') {
+    			return true;
+    		}
+    		pos++;
+    		if (pos == regex.length()) {
+    			return false;
+    		}
+    		char c = regex.charAt(pos);
+    		if (c == ':' || c == '=' || c == '!' || c == '>') {
+    			pos++;
+    			return true;
+    		}
+    		if (c == '<') {
+    			// look-behind or named group
+    			int end = regex.indexOf('>', pos);
+    			if (pos + 1 < regex.length() && (regex.charAt(pos + 1) == '=' || regex.charAt(pos + 1) == '!')) {
+    				pos += 2;
+    				return true;
+    			}
+    			if (end < 0) {
+    				return false;
+    			}
+    			pos = end + 1;
+    			return true;
+    		}
+    		while (pos < regex.length()) {
+    			c = regex.charAt(pos++);
+    			if (c == ':' || c == ')') {
+    				return true;
+    			}
+    			if (c != 'i' && c != 'u' && c != 'U' && c != '-') {
+    				return false;
+    			}
+    		}
+    		return false;
+    	}
+
+    	/**
+    	 * Reads a character class after its opening bracket.
+    	 */
+    	private boolean readClass() {
+    		if (pos < regex.length() && regex.charAt(pos) == '^') {
+    			return false;
+    		}
+    		int previous = ESCAPE_IN_LINE;
+    		boolean first = true;
+    		while (pos < regex.length()) {
+    			char c = regex.charAt(pos++);
+    			int value;
+    			if (c == ']' && !first) {
+    				return true;
+    			} else if (c == '[') {
+    				if (!readClass()) {
+    					return false;
+    				}
+    				value = ESCAPE_IN_LINE;
+    			} else if (c == '\\') {
+    				value = readEscape();
+    			} else if (c == '&' && pos < regex.length() && regex.charAt(pos) == '&') {
+    				pos++;
+    				value = ESCAPE_IN_LINE;
+    			} else if (c == '-' && previous >= 0 && pos < regex.length() && regex.charAt(pos) != ']') {
+    				// range from the previous character
+    				c = regex.charAt(pos++);
+    				int last = c == '\\' ? readEscape() : c;
+    				if (last < 0 || (previous <= '\r' && last >= '\n')) {
+    					return false;
+    				}
+    				value = ESCAPE_IN_LINE;
+    			} else {
+    				value = c;
+    			}
+    			if (!isInLine(value)) {
+    				return false;
+    			}
+    			previous = value;
+    			first = false;
+    		}
+    		return false;
+    	}
+
+    	/**
+    	 * Reads an escape after its backslash.
+    	 *
+    	 * @return the escaped character, {@link #ESCAPE_IN_LINE} for a
+    	 *         construct that only matches within a line or
+    	 *         {@link #ESCAPE_ANY} for any other construct
+    	 */
+    	private int readEscape() {
+    		if (pos == regex.length()) {
+    			return ESCAPE_ANY;
+    		}
+    		char c = regex.charAt(pos++);
+    		switch (c) {
+    			case 't':
+    				return '\t';
+    			case 'n':
+    				return '\n';
+    			case 'r':
+    				return '\r';
+    			case 'f':
+    				return '\f';
+    			case 'a':
+    				return '\u0007';
+    			case 'e':
+    				return '\u001B';
+    			case 'x':
+    				if (pos < regex.length() && regex.charAt(pos) == '{') {
+    					int end = regex.indexOf('}', pos);
+    					return end < 0 ? ESCAPE_ANY : readHex(pos + 1, end, end + 1);
+    				}
+    				return readHex(pos, pos + 2, pos + 2);
+    			case 'u':
+    				return readHex(pos, pos + 4, pos + 4);
+    			case 'c':
+    				return pos < regex.length() ? regex.charAt(pos++) ^ 64 : ESCAPE_ANY;
+    			case '0':
+    				return readOctal();
+    			case 'w':
+    			case 'd':
+    			case 'S':
+    			case 'h':
+    			case 'V':
+    			case 'b':
+    			case 'B':
+    			case 'z':
+    			case 'Z':
+    				return ESCAPE_IN_LINE;
+    			case 'k':
+    				// back reference to a named group, itself within a line
+    				int end = regex.indexOf('>', pos);
+    				if (end < 0) {
+    					return ESCAPE_ANY;
+    				}
+    				pos = end + 1;
+    				return ESCAPE_IN_LINE;
+    			case 'p':
+    				return readProperty();
+    			default:
+    				if (c >= '1' && c <= '9') {
+    					// back reference to a group, itself within a line
+    					while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+    						pos++;
+    					}
+    					return ESCAPE_IN_LINE;
+    				}
+    				// quoted characters, other escapes such as \s, \W, \D,
+    				// \v, \R, \A or \G are not within a line
+    				return Character.isLetter(c) ? ESCAPE_ANY : c;
+    		}
+    	}
+
+    	/**
+    	 * Reads the digits of an octal escape as a character.
+    	 */
+    	private int readOctal() {
+    		int value = 0;
+    		int end = Math.min(pos + 3, regex.length());
+    		while (pos < end && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '7' && value * 8 + regex.charAt(pos) - '0' <= 0377) {
+    			value = value * 8 + regex.charAt(pos++) - '0';
+    		}
+    		return value;
+    	}
+
+    	/**
+    	 * Reads the name of a character property.
+    	 */
+    	private int readProperty() {
+    		String name;
+    		if (pos < regex.length() && regex.charAt(pos) == '{') {
+    			int end = regex.indexOf('}', pos);
+    			if (end < 0) {
+    				return ESCAPE_ANY;
+    			}
+    			name = regex.substring(pos + 1, end);
+    			pos = end + 1;
+    		} else if (pos < regex.length()) {
+    			name = regex.substring(pos, ++pos);
+    		} else {
+    			return ESCAPE_ANY;
+    		}
+    		return Arrays.asList(IN_LINE_PROPERTIES).contains(name) ? ESCAPE_IN_LINE : ESCAPE_ANY;
+    	}
+
+    	/**
+    	 * Reads the hexadecimal digits from start to end as a character and
+    	 * continues after next.
+    	 */
+    	private int readHex(int start, int end, int next) {
+    		if (end > regex.length() || end <= start) {
+    			return ESCAPE_ANY;
+    		}
+    		try {
+    			int value = Integer.parseInt(regex.substring(start, end), 16);
+    			pos = next;
+    			return value;
+    		} catch (NumberFormatException e) {
+    			return ESCAPE_ANY;
+    		}
+    	}
+    }
+
+    /**
+     * Returns the string matched by the given pattern if it contains no
+     * regular expression constructs, otherwise <code>null</code>.
+     */
+    private static String getLiteral(Pattern pattern) {
+    	String regex = pattern.pattern();
+    	if ((pattern.flags() & Pattern.LITERAL) != 0) {
+    		return (pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)) == 0 ? regex : null;
+    	}
+    	if ((pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+    		return null;
+    	}
+    	StringBuilder literal = new StringBuilder(regex.length());
+    	for (int i = 0; i < regex.length(); i++) {
+    		char c = regex.charAt(i);
+    		if (c == '\\') {
+    			if (i + 1 == regex.length()) {
+    				return null;
+    			}
+    			c = regex.charAt(++i);
+    			if (Character.isLetterOrDigit(c)) {
+    				// character classes, anchors and quoting
+    				return null;
+    			}
+    		} else if ("^$.|?*+()[]{}".indexOf(c) >= 0) { //$NON-NLS-1$
+    			return null;
+    		}
+    		literal.append(c);
+    	}
+    	return literal.length() > 0 ? literal.toString() : null;
+    }
+
+    /**
+     * Returns the total time in nanoseconds spent matching the pattern of the
+     * given listener, or -1 if the listener has not been added.
+     *
+     * @param matchListener a pattern match listener
+     * @return time spent matching the pattern of the listener in nanoseconds
+     */
+    public long getMatchTime(IPatternMatchListener matchListener) {
+    	synchronized (fPatterns) {
+    		for (CompiledPatternMatchListener notifier : fPatterns) {
+    			if (notifier.listener == matchListener) {
+    				return notifier.matchTime;
+    			}
+    		}
+    	}
+    	return -1;
+    }
+
     /**
 	 * Adds the given pattern match listener to this console. The listener will
 	 * be connected and receive match notifications.
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import org.eclipse.jface.text.ITextStore;
+
+/**
+ * Text store of a console document.
+ * <p>
+ * Consoles append text at the end of their document and remove text from its
+ * start once the document exceeds its maximum size. The text is stored in
+ * fixed size chunks kept in a ring, so that appending text never moves the
+ * existing text and removing text from the start of the document only drops
+ * the chunks in front of the new start. Replacing text anywhere else moves the
+ * text following the replaced range, which is cheap for the input typed at the
+ * end of a console.
+ * </p>
+ * <p>
+ * This store is not synchronized.
+ * </p>
+ */
+public class ConsoleTextStore implements ITextStore {
+
+	/**
+	 * Number of characters in a chunk
+	 */
+	static final int CHUNK_SIZE = 16 * 1024;
+
+	/**
+	 * Ring of chunks, the chunks in use start at index <code>fFirst</code>
+	 */
+	private char[][] fChunks = new char[8][];
+
+	/**
+	 * Index of the first chunk in use
+	 */
+	private int fFirst = 0;
+
+	/**
+	 * Number of chunks in use
+	 */
+	private int fCount = 0;
+
+	/**
+	 * Index of the first character in the first chunk
+	 */
+	private int fStart = 0;
+
+	/**
+	 * Number of characters in this store
+	 */
+	private int fLength = 0;
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.ITextStore#get(int)
+	 */
+	@Override
+	public char get(int offset) {
+		if (offset < 0 || offset >= fLength) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + fLength); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		int position = fStart + offset;
+		return chunk(position / CHUNK_SIZE)[position % CHUNK_SIZE];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.ITextStore#get(int, int)
+	 */
+	@Override
+	public String get(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > fLength) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		char[] text = new char[length];
+		int position = fStart + offset;
+		int copied = 0;
+		while (copied < length) {
+			int index = position % CHUNK_SIZE;
+			int count = Math.min(length - copied, CHUNK_SIZE - index);
+			System.arraycopy(chunk(position / CHUNK_SIZE), index, text, copied, count);
+			copied += count;
+			position += count;
+		}
+		return new String(text);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.ITextStore#getLength()
+	 */
+	@Override
+	public int getLength() {
+		return fLength;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.ITextStore#replace(int, int, java.lang.String)
+	 */
+	@Override
+	public void replace(int offset, int length, String text) {
+		if (offset < 0 || length < 0 || offset + length > fLength) {
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		boolean empty = text == null || text.length() == 0;
+		if (offset == 0 && empty) {
+			removeFirst(length);
+		} else if (offset + length == fLength) {
+			truncate(offset);
+			append(text);
+		} else {
+			String suffix = get(offset + length, fLength - offset - length);
+			truncate(offset);
+			append(text);
+			append(suffix);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jface.text.ITextStore#set(java.lang.String)
+	 */
+	@Override
+	public void set(String text) {
+		truncate(0);
+		append(text);
+	}
+
+	/**
+	 * Returns the number of chunks used to store the text.
+	 *
+	 * @return the number of chunks in use
+	 */
+	public int getChunkCount() {
+		return fCount;
+	}
+
+	/**
+	 * Returns the chunk at the given index, relative to the first chunk in use.
+	 */
+	private char[] chunk(int index) {
+		return fChunks[(fFirst + index) % fChunks.length];
+	}
+
+	/**
+	 * Appends text at the end of this store, adding chunks as needed.
+	 */
+	private void append(String text) {
+		if (text == null) {
+			return;
+		}
+		int length = text.length();
+		int copied = 0;
+		while (copied < length) {
+			int position = fStart + fLength;
+			int index = position % CHUNK_SIZE;
+			if (position / CHUNK_SIZE == fCount) {
+				addChunk();
+			}
+			int count = Math.min(length - copied, CHUNK_SIZE - index);
+			text.getChars(copied, copied + count, chunk(position / CHUNK_SIZE), index);
+			copied += count;
+			fLength += count;
+		}
+	}
+
+	private void addChunk() {
+		if (fCount == fChunks.length) {
+			char[][] chunks = new char[fChunks.length * 2][];
+			for (int i = 0; i < fCount; i++) {
+				chunks[i] = chunk(i);
+			}
+			fChunks = chunks;
+			fFirst = 0;
+		}
+		fChunks[(fFirst + fCount) % fChunks.length] = new char[CHUNK_SIZE];
+		fCount++;
+	}
+
+	/**
+	 * Removes the given number of characters from the start of this store,
+	 * dropping the chunks they were stored in.
+	 */
+	private void removeFirst(int length) {
+		if (length == fLength) {
+			truncate(0);
+			return;
+		}
+		fStart += length;
+		fLength -= length;
+		while (fStart >= CHUNK_SIZE) {
+			fChunks[fFirst] = null;
+			fFirst = (fFirst + 1) % fChunks.length;
+			fCount--;
+			fStart -= CHUNK_SIZE;
+		}
+	}
+
+	/**
+	 * Removes the text following the given offset, dropping the chunks it
+	 * was stored in.
+	 */
+	private void truncate(int offset) {
+		fLength = offset;
+		if (fLength == 0) {
+			for (int i = 0; i < fCount; i++) {
+				fChunks[(fFirst + i) % fChunks.length] = null;
+			}
+			fFirst = 0;
+			fCount = 0;
+			fStart = 0;
+			return;
+		}
+		int count = (fStart + fLength + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		while (fCount > count) {
+			fCount--;
+			fChunks[(fFirst + fCount) % fChunks.length] = null;
+		}
+	}
+}
@@ -44,6 +44,13 @@ public class IOConsolePartition implements ITypedRegion {
     private IOConsoleOutputStream outputStream;
     private IOConsoleInputStream inputStream;
     private int length;
+    /**
+     * The list of partitions containing this partition, or <code>null</code>.
+     * While in a list, the offset of this partition is stored relative to
+     * the base offset of the list, so that the list can move the start of
+     * the document without updating its partitions.
+     */
+    private IOConsolePartitionList list;
 
     /**
      * Creates a new partition to contain output to console.
@@ -110,7 +117,7 @@ public class IOConsolePartition implements ITypedRegion {
      */
     @Override
 	public int getOffset() {
-        return offset;
+        return list == null ? offset : offset - list.getBase();
     }
 
     /**
@@ -119,7 +126,19 @@ public class IOConsolePartition implements ITypedRegion {
      * @param offset This partitions offset in the document.
      */
     public void setOffset(int offset) {
-        this.offset = offset;
+        this.offset = list == null ? offset : offset + list.getBase();
+    }
+
+    /**
+     * Sets the list of partitions containing this partition, keeping its
+     * offset in the document.
+     *
+     * @param list the list containing this partition or <code>null</code>
+     */
+    void setList(IOConsolePartitionList list) {
+        int documentOffset = getOffset();
+        this.list = list;
+        setOffset(documentOffset);
     }
 
     /**
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import java.util.Arrays;
+
+/**
+ * The partitions of an IOConsole's document, ordered by offset.
+ * <p>
+ * Partitions are kept in an array with unused slots at its front and end,
+ * so that appending partitions and removing partitions from the front of
+ * the document (when the console is trimmed) do not move the remaining
+ * partitions. Partitions are looked up by offset with a binary search, and
+ * their offsets are moved together when the start of the document is
+ * removed.
+ * </p>
+ * <p>
+ * This list is not synchronized.
+ * </p>
+ *
+ * @since 3.6
+ */
+public class IOConsolePartitionList {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final IOConsolePartition[] EMPTY = new IOConsolePartition[0];
+
+	private IOConsolePartition[] fPartitions = new IOConsolePartition[INITIAL_CAPACITY];
+
+	/**
+	 * Index of the first partition in the array
+	 */
+	private int fStart = 0;
+
+	/**
+	 * Number of partitions in the list
+	 */
+	private int fSize = 0;
+
+	/**
+	 * Offset of the start of the document, relative to which partitions in
+	 * this list store their offsets. Arithmetic on the base offset may
+	 * overflow, which is harmless since partitions only subtract it from
+	 * offsets computed by adding it.
+	 */
+	private int fBase = 0;
+
+	/**
+	 * Returns the number of partitions.
+	 *
+	 * @return the number of partitions
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns the partition at the given index.
+	 *
+	 * @param index index of a partition
+	 * @return the partition at the given index
+	 */
+	public IOConsolePartition get(int index) {
+		checkIndex(index, fSize - 1);
+		return fPartitions[fStart + index];
+	}
+
+	/**
+	 * Appends a partition to the end of the document.
+	 *
+	 * @param partition the partition to append
+	 */
+	public void add(IOConsolePartition partition) {
+		ensureCapacity(fSize + 1);
+		partition.setList(this);
+		fPartitions[fStart + fSize] = partition;
+		fSize++;
+	}
+
+	/**
+	 * Inserts a partition at the given index.
+	 *
+	 * @param index the index to insert the partition at
+	 * @param partition the partition to insert
+	 */
+	public void add(int index, IOConsolePartition partition) {
+		checkIndex(index, fSize);
+		ensureCapacity(fSize + 1);
+		int at = fStart + index;
+		System.arraycopy(fPartitions, at, fPartitions, at + 1, fSize - index);
+		partition.setList(this);
+		fPartitions[at] = partition;
+		fSize++;
+	}
+
+	/**
+	 * Removes the given partition.
+	 *
+	 * @param partition the partition to remove
+	 * @return whether the partition was removed
+	 */
+	public boolean remove(IOConsolePartition partition) {
+		int index = indexOf(partition);
+		if (index < 0) {
+			return false;
+		}
+		int at = fStart + index;
+		partition.setList(null);
+		System.arraycopy(fPartitions, at + 1, fPartitions, at, fSize - index - 1);
+		fSize--;
+		fPartitions[fStart + fSize] = null;
+		return true;
+	}
+
+	/**
+	 * Removes the given number of partitions from the front of the document.
+	 *
+	 * @param count the number of partitions to remove
+	 */
+	public void removeFirst(int count) {
+		checkIndex(count, fSize);
+		for (int i = fStart; i < fStart + count; i++) {
+			fPartitions[i].setList(null);
+			fPartitions[i] = null;
+		}
+		fStart += count;
+		fSize -= count;
+		if (fSize == 0) {
+			fStart = 0;
+		}
+	}
+
+	/**
+	 * Removes all partitions.
+	 */
+	public void clear() {
+		for (int i = fStart; i < fStart + fSize; i++) {
+			fPartitions[i].setList(null);
+			fPartitions[i] = null;
+		}
+		fStart = 0;
+		fSize = 0;
+	}
+
+	/**
+	 * Returns the index of the given partition, or -1 if it is not in this
+	 * list.
+	 *
+	 * @param partition a partition
+	 * @return the index of the partition or -1
+	 */
+	public int indexOf(IOConsolePartition partition) {
+		int index = search(partition.getOffset());
+		// empty partitions share their offset with a neighbour
+		for (int i = index; i >= 0 && fPartitions[fStart + i].getOffset() == partition.getOffset(); i--) {
+			if (fPartitions[fStart + i] == partition) {
+				return i;
+			}
+		}
+		for (int i = index + 1; i < fSize && fPartitions[fStart + i].getOffset() == partition.getOffset(); i++) {
+			if (fPartitions[fStart + i] == partition) {
+				return i;
+			}
+		}
+		for (int i = 0; i < fSize; i++) {
+			if (fPartitions[fStart + i] == partition) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the partition containing the given offset, or -1
+	 * if no partition contains it.
+	 *
+	 * @param offset an offset in the document
+	 * @return index of the partition containing the offset or -1
+	 */
+	public int find(int offset) {
+		for (int i = search(offset); i >= 0; i--) {
+			IOConsolePartition partition = fPartitions[fStart + i];
+			int end = partition.getOffset() + partition.getLength();
+			if (offset < end) {
+				return i;
+			}
+			if (partition.getLength() > 0) {
+				// partitions before this one end before the offset
+				break;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the partitions overlapping the given range.
+	 *
+	 * @param offset start of the range
+	 * @param length length of the range
+	 * @return the partitions overlapping the range, possibly empty
+	 */
+	public IOConsolePartition[] getPartitions(int offset, int length) {
+		int first = find(offset);
+		if (first < 0) {
+			first = search(offset) + 1;
+		}
+		int last = search(offset + length - 1);
+		if (last < first) {
+			return EMPTY;
+		}
+		IOConsolePartition[] result = new IOConsolePartition[last - first + 1];
+		System.arraycopy(fPartitions, fStart + first, result, 0, result.length);
+		return result;
+	}
+
+	/**
+	 * Moves the start of the document, subtracting the given amount from the
+	 * offsets of all partitions in this list without updating them.
+	 *
+	 * @param delta the number of characters removed from the start of the
+	 *            document
+	 */
+	public void rebase(int delta) {
+		fBase += delta;
+	}
+
+	/**
+	 * Returns the offset relative to which partitions in this list store
+	 * their offsets.
+	 *
+	 * @return the base offset
+	 */
+	int getBase() {
+		return fBase;
+	}
+
+	/**
+	 * Returns the index of the last partition starting at or before the given
+	 * offset, or -1 if all partitions start after it.
+	 */
+	private int search(int offset) {
+		int low = 0;
+		int high = fSize - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (fPartitions[fStart + mid].getOffset() <= offset) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return high;
+	}
+
+	/**
+	 * Makes room for the given number of partitions after the first one,
+	 * reusing the slots in front of the first partition before growing the
+	 * array.
+	 */
+	private void ensureCapacity(int size) {
+		if (fStart + size <= fPartitions.length) {
+			return;
+		}
+		IOConsolePartition[] partitions = fPartitions;
+		if (size > fPartitions.length / 2) {
+			partitions = new IOConsolePartition[Math.max(size, fPartitions.length * 2)];
+		}
+		System.arraycopy(fPartitions, fStart, partitions, 0, fSize);
+		if (partitions == fPartitions) {
+			Arrays.fill(fPartitions, fSize, fStart + fSize, null);
+		}
+		fPartitions = partitions;
+		fStart = 0;
+	}
+
+	private void checkIndex(int index, int max) {
+		if (index < 0 || index > max) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + fSize); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
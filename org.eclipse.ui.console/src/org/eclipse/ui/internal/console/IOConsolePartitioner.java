@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,9 @@ package org.eclipse.ui.internal.console;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedList;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -46,21 +47,38 @@ import org.eclipse.ui.progress.WorkbenchJob;
 public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocumentPartitionerExtension {
 	private PendingPartition consoleClosedPartition;
 	private IDocument document;
-	private ArrayList<IOConsolePartition> partitions;
+	/**
+	 * Partitions of the document, indexed by offset.
+	 */
+	private IOConsolePartitionList partitions;
 	/**
 	 * Blocks of data that have not yet been appended to the document.
 	 */
 	private ArrayList<PendingPartition> pendingPartitions;
 	/**
-	 * A list of PendingPartitions to be appended by the updateJob
+	 * Output taken from the pending partitions, in the order it is appended
+	 * to the document by the queueJob.
+	 */
+	private final LinkedList<PreparedOutput> preparedOutput = new LinkedList<PreparedOutput>();
+	/**
+	 * The prepared output being appended by the queueJob, and the end of the
+	 * slice of its text being appended.
 	 */
-	private ArrayList<PendingPartition> updatePartitions;
+	private PreparedOutput updateOutput;
+	private int updateEnd;
 	/**
 	 * The last partition appended to the document
 	 */
 	private IOConsolePartition lastPartition;
 	/**
-	 * Job that appends pending partitions to the document.
+	 * Job that prepares pending partitions to be appended to the document.
+	 * The prepare and queue jobs belong to the job family of this
+	 * partitioner, not of the console, as the trim job joins the console's
+	 * family in the UI thread.
+	 */
+	private PrepareJob prepareJob;
+	/**
+	 * Job that appends prepared output to the document.
 	 */
 	private QueueProcessingJob queueJob;
 	/**
@@ -99,8 +117,68 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	private Object overflowLock = new Object();
 
 
+    /**
+     * Number of characters written to the output streams that have not yet
+     * been appended to the document.
+     */
     private int fBuffer;
 
+    /**
+     * Default pending output high water mark.
+     */
+    public static final int DEFAULT_PENDING_HIGH_WATER_MARK = 160000;
+
+    /**
+     * Default pending output low water mark.
+     */
+    public static final int DEFAULT_PENDING_LOW_WATER_MARK = 80000;
+
+    /**
+     * Flow control for writers: once the pending output exceeds the high water
+     * mark, writing threads (other than the UI thread) are blocked until the
+     * pending output has been appended to the document down to the low water
+     * mark. A high water mark of -1 disables flow control.
+     */
+    private int pendingHighWaterMark = DEFAULT_PENDING_HIGH_WATER_MARK;
+    private int pendingLowWaterMark = DEFAULT_PENDING_LOW_WATER_MARK;
+
+    /**
+     * Default time in milliseconds the UI thread may spend appending output
+     * to the document before yielding.
+     */
+    public static final int DEFAULT_UPDATE_BUDGET = 20;
+
+    /**
+     * Bounds of the number of characters appended to the document at once.
+     */
+    private static final int MIN_SLICE_SIZE = 1024;
+    private static final int MAX_SLICE_SIZE = 1024 * 1024;
+
+    /**
+     * Time in nanoseconds the queueJob may spend appending output each time
+     * it runs, and the number of characters it appends at once. The slice size
+     * adapts to the time the document takes to append output.
+     */
+    private volatile long updateBudget = DEFAULT_UPDATE_BUDGET * 1000000L;
+    private int sliceSize = 16 * 1024;
+
+    /**
+     * Time in nanoseconds the last and the longest update of the document
+     * took.
+     */
+    private volatile long lastUpdateTime = 0;
+    private volatile long maxUpdateTime = 0;
+
+    /**
+     * Number of times writers have been blocked by flow control.
+     */
+    private volatile long throttleCount = 0;
+
+    /**
+     * Total time in milliseconds writers have been blocked by flow control.
+     */
+    private volatile long throttledTime = 0;
+
 	public IOConsolePartitioner(IOConsoleInputStream inputStream, IOConsole console) {
 		this.inputStream = inputStream;
 		this.console = console;
@@ -120,9 +198,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 		document = doc;
 		document.setDocumentPartitioner(this);
 		lld = document.getLegalLineDelimiters();
-		partitions = new ArrayList<IOConsolePartition>();
+		partitions = new IOConsolePartitionList();
 		pendingPartitions = new ArrayList<PendingPartition>();
 		inputPartitions = new ArrayList<IOConsolePartition>();
+		prepareJob = new PrepareJob();
 		queueJob = new QueueProcessingJob();
 		queueJob.setSystem(true);
         queueJob.setPriority(Job.INTERACTIVE);
@@ -138,6 +217,91 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	    return lowWaterMark;
 	}
 
+	public int getPendingHighWaterMark() {
+		return pendingHighWaterMark;
+	}
+
+	public int getPendingLowWaterMark() {
+		return pendingLowWaterMark;
+	}
+
+	/**
+	 * Sets the flow control limits for output that has not yet been appended
+	 * to the document.
+	 *
+	 * @param low number of pending characters at which blocked writers resume
+	 * @param high number of pending characters above which writers are
+	 *            blocked, or -1 to never block writers
+	 */
+	public void setPendingWaterMarks(int low, int high) {
+		synchronized (pendingPartitions) {
+			pendingLowWaterMark = low;
+			pendingHighWaterMark = high;
+			pendingPartitions.notifyAll();
+		}
+	}
+
+	/**
+	 * Returns the number of times writers have been blocked because too much
+	 * output was pending.
+	 *
+	 * @return the number of times writers have been blocked
+	 */
+	public long getThrottleCount() {
+		return throttleCount;
+	}
+
+	/**
+	 * Returns the total time in milliseconds writers have been blocked because
+	 * too much output was pending.
+	 *
+	 * @return the total time writers have been blocked
+	 */
+	public long getThrottledTime() {
+		return throttledTime;
+	}
+
+	/**
+	 * Sets the time the UI thread may spend appending output to the document
+	 * before yielding to other work. Output exceeding the budget is appended
+	 * by subsequent runs of the update job.
+	 *
+	 * @param millis the time budget in milliseconds, greater than 0
+	 */
+	public void setUpdateBudget(int millis) {
+		updateBudget = millis * 1000000L;
+	}
+
+	/**
+	 * Returns the time in milliseconds the UI thread may spend appending
+	 * output to the document before yielding to other work.
+	 *
+	 * @return the time budget in milliseconds
+	 */
+	public int getUpdateBudget() {
+		return (int) (updateBudget / 1000000L);
+	}
+
+	/**
+	 * Returns the time in nanoseconds the UI thread spent in the last update
+	 * of the document.
+	 *
+	 * @return the time of the last update in nanoseconds
+	 */
+	public long getLastUpdateTime() {
+		return lastUpdateTime;
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds the UI thread spent in a single
+	 * update of the document.
+	 *
+	 * @return the time of the longest update in nanoseconds
+	 */
+	public long getMaxUpdateTime() {
+		return maxUpdateTime;
+	}
+
 	public void setWaterMarks(int low, int high) {
 		lowWaterMark = low;
 		highWaterMark = high;
@@ -157,7 +321,7 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
         synchronized (pendingPartitions) {
             pendingPartitions.add(consoleClosedPartition);
         }
-        queueJob.schedule(); //ensure that all pending partitions are processed.
+        prepareJob.schedule(); //ensure that all pending partitions are processed.
     }
 
 	/*
@@ -170,6 +334,13 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 			document = null;
 			partitions.clear();
 			connected = false;
+			synchronized (preparedOutput) {
+				preparedOutput.clear();
+			}
+			synchronized (pendingPartitions) {
+				// release blocked writers
+				pendingPartitions.notifyAll();
+			}
 			try {
 	            inputStream.close();
 	        } catch (IOException e) {
@@ -218,60 +389,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	 */
 	@Override
 	public ITypedRegion[] computePartitioning(int offset, int length) {
-		int rangeEnd = offset + length;
-		int left= 0;
-		int right= partitions.size() - 1;
-		int mid= 0;
-		IOConsolePartition position= null;
-
-		if (left == right) {
-		    return new IOConsolePartition[]{partitions.get(0)};
-		}
-		while (left < right) {
-
-			mid= (left + right) / 2;
-
-			position= partitions.get(mid);
-			if (rangeEnd < position.getOffset()) {
-				if (left == mid) {
-					right= left;
-				} else {
-					right= mid -1;
-				}
-			} else if (offset > (position.getOffset() + position.getLength() - 1)) {
-				if (right == mid) {
-					left= right;
-				} else {
-					left= mid  +1;
-				}
-			} else {
-				left= right= mid;
-			}
-		}
-
-
-		List<IOConsolePartition> list = new ArrayList<IOConsolePartition>();
-		int index = left - 1;
-		if (index >= 0) {
-		    position= partitions.get(index);
-			while (index >= 0 && (position.getOffset() + position.getLength()) > offset) {
-				index--;
-				if (index >= 0) {
-					position= partitions.get(index);
-				}
-			}
-		}
-		index++;
-		position= partitions.get(index);
-		while (index < partitions.size() && (position.getOffset() < rangeEnd)) {
-			list.add(position);
-			index++;
-			if (index < partitions.size()) {
-				position= partitions.get(index);
-			}
+		if (partitions.size() == 1) {
+			return new IOConsolePartition[] { partitions.get(0) };
 		}
-
-		return list.toArray(new IOConsolePartition[list.size()]);
+		return partitions.getPartitions(offset, length);
 	}
 
 
@@ -281,13 +402,9 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	 */
 	@Override
 	public ITypedRegion getPartition(int offset) {
-		for (int i = 0; i < partitions.size(); i++) {
-			ITypedRegion partition = partitions.get(i);
-			int start = partition.getOffset();
-			int end = start + partition.getLength();
-			if (offset >= start && offset < end) {
-				return partition;
-			}
+		int index = partitions.find(offset);
+		if (index >= 0) {
+			return partitions.get(index);
 		}
 
 		if (lastPartition == null)  {
@@ -353,23 +470,22 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 
 		if (updateInProgress) {
 			synchronized(partitions) {
-				if (updatePartitions != null) {
-					for (PendingPartition pp : updatePartitions) {
-						if (pp == consoleClosedPartition) {
-				            continue;
-				        }
-
-				        int ppLen = pp.text.length();
-				        if (lastPartition != null && lastPartition.getStream() == pp.stream) {
+				if (updateOutput != null) {
+					int start = updateOutput.applied;
+					for (int i = updateOutput.getSegment(start); i < updateOutput.streams.length && start < updateEnd; i++) {
+				        int ppLen = Math.min(updateOutput.ends[i], updateEnd) - start;
+				        IOConsoleOutputStream stream = updateOutput.streams[i];
+				        if (lastPartition != null && lastPartition.getStream() == stream) {
 				            int len = lastPartition.getLength();
 				            lastPartition.setLength(len + ppLen);
 				        } else {
-				            IOConsolePartition partition = new IOConsolePartition(pp.stream, ppLen);
+				            IOConsolePartition partition = new IOConsolePartition(stream, ppLen);
 				            partition.setOffset(firstOffset);
 				            lastPartition = partition;
 				            partitions.add(partition);
 				        }
 				        firstOffset += ppLen;
+				        start += ppLen;
 					}
 				}
 			}
@@ -457,9 +573,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	 * less frequently and update the document with a greater amount of data each time
 	 * the job is run
 	 * @param stream The stream that was written to.
-	 * @param s The string that should be appended to the document.
+	 * @param s The characters that should be appended to the document. They are
+	 * copied before this method returns.
 	 */
-	public void streamAppended(IOConsoleOutputStream stream, String s) throws IOException {
+	public void streamAppended(IOConsoleOutputStream stream, CharSequence s) throws IOException {
         if (document == null) {
             throw new IOException("Document is closed"); //$NON-NLS-1$
         }
@@ -470,18 +587,15 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 			} else {
 				pendingPartitions.add(new PendingPartition(stream, s));
                 if (fBuffer > 1000) {
-                    queueJob.schedule();
+                    prepareJob.schedule();
                 } else {
-                    queueJob.schedule(50);
+                    prepareJob.schedule(50);
                 }
 			}
 
-            if (fBuffer > 160000) {
+            if (pendingHighWaterMark >= 0 && fBuffer > pendingHighWaterMark) {
             	if(Display.getCurrent() == null){
-					try {
-						pendingPartitions.wait();
-					} catch (InterruptedException e) {
-					}
+            		waitForPendingOutput();
             	} else {
 					/*
 					 * if we are in UI thread we cannot lock it, so process
@@ -493,6 +607,24 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 		}
 	}
 
+	/**
+	 * Blocks the calling thread until the pending output has been appended
+	 * to the document down to the pending low water mark. Must be called
+	 * while holding the lock on <code>pendingPartitions</code>.
+	 */
+	private void waitForPendingOutput() {
+		prepareJob.schedule();
+		throttleCount++;
+		long start = System.currentTimeMillis();
+		try {
+			while (connected && pendingHighWaterMark >= 0 && fBuffer > pendingLowWaterMark) {
+				pendingPartitions.wait();
+			}
+		} catch (InterruptedException e) {
+		}
+		throttledTime += System.currentTimeMillis() - start;
+	}
+
 	/**
 	 * Holds data until updateJob can be run and the document can be updated.
 	 */
@@ -500,22 +632,132 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 		StringBuffer text = new StringBuffer(8192);
 		IOConsoleOutputStream stream;
 
-		PendingPartition(IOConsoleOutputStream stream, String text) {
+		PendingPartition(IOConsoleOutputStream stream, CharSequence text) {
 			this.stream = stream;
 			if (text != null) {
                 append(text);
             }
 		}
 
-		void append(String moreText) {
+		void append(CharSequence moreText) {
 			text.append(moreText);
             fBuffer += moreText.length();
 		}
 	}
 
 	/**
-	 * Updates the document. Will append everything that is available before
-	 * finishing.
+	 * Output taken from the pending partitions, with the text of all its
+	 * partitions joined so that it can be appended to the document a slice at
+	 * a time.
+	 */
+	private static class PreparedOutput {
+		/**
+		 * The pending partitions, until the text is joined
+		 */
+		private ArrayList<PendingPartition> pending;
+		private String text;
+		/**
+		 * The stream of each partition and the end of its text in the joined text
+		 */
+		IOConsoleOutputStream[] streams;
+		int[] ends;
+		/**
+		 * Whether the console's streams were closed after this output
+		 */
+		boolean closed;
+		/**
+		 * Number of characters appended to the document
+		 */
+		int applied = 0;
+
+		PreparedOutput(ArrayList<PendingPartition> pending, boolean closed) {
+			this.pending = pending;
+			this.closed = closed;
+		}
+
+		/**
+		 * Returns the joined text of the partitions, joining it if this has
+		 * not been done yet.
+		 *
+		 * @return the text of this output
+		 */
+		synchronized String getText() {
+			if (text == null) {
+				int size = 0;
+				for (PendingPartition pp : pending) {
+					size += pp.text.length();
+				}
+				StringBuilder buffer = new StringBuilder(size);
+				streams = new IOConsoleOutputStream[pending.size()];
+				ends = new int[pending.size()];
+				for (int i = 0; i < streams.length; i++) {
+					PendingPartition pp = pending.get(i);
+					buffer.append(pp.text);
+					streams[i] = pp.stream;
+					ends[i] = buffer.length();
+				}
+				text = buffer.toString();
+				pending = null;
+			}
+			return text;
+		}
+
+		/**
+		 * Returns the index of the partition containing the given offset of
+		 * the joined text.
+		 */
+		int getSegment(int offset) {
+			int index = Arrays.binarySearch(ends, offset);
+			return index >= 0 ? index + 1 : -index - 1;
+		}
+	}
+
+	/**
+	 * Takes the pending partitions and joins their text, so that as little
+	 * work as possible is left to the UI thread.
+	 */
+	private class PrepareJob extends Job {
+
+		PrepareJob() {
+			super("IOConsole Preparer"); //$NON-NLS-1$
+			setSystem(true);
+			setPriority(Job.INTERACTIVE);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			PreparedOutput output = prepareOutput();
+			if (output != null) {
+				output.getText();
+				queueJob.schedule();
+			}
+			return Status.OK_STATUS;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#shouldRun()
+		 */
+		@Override
+		public boolean shouldRun() {
+			return connected && pendingPartitions != null && pendingPartitions.size() > 0;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#belongsTo(java.lang.Object)
+		 */
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == IOConsolePartitioner.this;
+		}
+	}
+
+	/**
+	 * Updates the document. Appends prepared output until all of it has been
+	 * appended or the update budget is used up, in which case the job is
+	 * scheduled again.
 	 */
 	private class QueueProcessingJob extends UIJob {
 
@@ -529,69 +771,165 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
          */
         @Override
 		public IStatus runInUIThread(IProgressMonitor monitor) {
-        	processQueue();
+        	if (applyOutput(updateBudget)) {
+        		schedule();
+        	}
         	return Status.OK_STATUS;
         }
 
         /*
          * Job will process as much as it can each time it's run, but it gets
-         * scheduled everytime a PendingPartition is added to the list, meaning
-         * that this job could get scheduled unnecessarily in cases of heavy output.
+         * scheduled everytime output is prepared, meaning that this job could
+         * get scheduled unnecessarily in cases of heavy output.
          * Note however, that schedule() will only reschedule a running/scheduled Job
          * once even if it's called many times.
          */
         @Override
 		public boolean shouldRun() {
-            boolean shouldRun = connected && pendingPartitions != null && pendingPartitions.size() > 0;
-            return shouldRun;
+        	synchronized (preparedOutput) {
+        		return connected && !preparedOutput.isEmpty();
+        	}
+        }
+
+        /* (non-Javadoc)
+         * @see org.eclipse.core.runtime.jobs.Job#belongsTo(java.lang.Object)
+         */
+        @Override
+		public boolean belongsTo(Object family) {
+        	return family == IOConsolePartitioner.this;
         }
 	}
 
+	/**
+	 * Appends all pending output to the document. Must be called in the UI
+	 * thread.
+	 */
 	void processQueue() {
-    	synchronized (overflowLock) {
-			ArrayList<PendingPartition> pendingCopy = new ArrayList<PendingPartition>();
-    		StringBuffer buffer = null;
-    		boolean consoleClosed = false;
-			synchronized(pendingPartitions) {
-				pendingCopy.addAll(pendingPartitions);
-				pendingPartitions.clear();
-				fBuffer = 0;
-				pendingPartitions.notifyAll();
+		prepareOutput();
+		applyOutput(-1);
+	}
+
+	/**
+	 * Takes the pending partitions, queueing them to be appended to the
+	 * document.
+	 *
+	 * @return the output taken from the pending partitions or <code>null</code>
+	 *         if none were pending
+	 */
+	private PreparedOutput prepareOutput() {
+		synchronized (pendingPartitions) {
+			if (pendingPartitions.isEmpty()) {
+				return null;
 			}
-			// determine buffer size
-			int size = 0;
-			for (PendingPartition pp : pendingCopy) {
-				if (pp != consoleClosedPartition) {
-					size+= pp.text.length();
-				}
+			ArrayList<PendingPartition> pending = new ArrayList<PendingPartition>(pendingPartitions);
+			pendingPartitions.clear();
+			boolean consoleClosed = pending.remove(consoleClosedPartition);
+			PreparedOutput output = new PreparedOutput(pending, consoleClosed);
+			synchronized (preparedOutput) {
+				preparedOutput.add(output);
 			}
-			buffer = new StringBuffer(size);
-			for (PendingPartition pp : pendingCopy) {
-				if (pp != consoleClosedPartition) {
-					buffer.append(pp.text);
-				} else {
-					consoleClosed = true;
+			return output;
+		}
+	}
+
+	/**
+	 * Appends prepared output to the document, a slice at a time, until all
+	 * of it has been appended or the given time budget is used up. Must be
+	 * called in the UI thread.
+	 *
+	 * @param budget time budget in nanoseconds, or -1 to append all prepared
+	 *            output
+	 * @return whether prepared output remains to be appended
+	 */
+	private boolean applyOutput(long budget) {
+		long start = System.nanoTime();
+		boolean consoleClosed = false;
+		boolean remaining = false;
+		synchronized (overflowLock) {
+			while (true) {
+				PreparedOutput output;
+				synchronized (preparedOutput) {
+					output = preparedOutput.peek();
+				}
+				if (output == null) {
+					break;
+				}
+				String text = output.getText();
+				int end = text.length();
+				if (budget >= 0) {
+					end = Math.min(end, output.applied + sliceSize);
+				}
+				long sliceStart = System.nanoTime();
+				if (connected && end > output.applied) {
+					setUpdateInProgress(true);
+					updateOutput = output;
+					updateEnd = end;
+					firstOffset = document.getLength();
+					try {
+						document.replace(firstOffset, 0, text.substring(output.applied, end));
+					} catch (BadLocationException e) {
+					}
+					updateOutput = null;
+					setUpdateInProgress(false);
+				}
+				outputApplied(end - output.applied);
+				output.applied = end;
+				if (end == text.length()) {
+					synchronized (preparedOutput) {
+						preparedOutput.remove();
+					}
+					consoleClosed |= output.closed;
+				}
+				if (budget >= 0) {
+					long now = System.nanoTime();
+					adjustSliceSize(now - sliceStart, budget);
+					if (now - start >= budget) {
+						synchronized (preparedOutput) {
+							remaining = !preparedOutput.isEmpty();
+						}
+						break;
+					}
 				}
 			}
-    		if (connected) {
-    			setUpdateInProgress(true);
-    			updatePartitions = pendingCopy;
-    			firstOffset = document.getLength();
-    			try {
-    				if (buffer != null) {
-    					document.replace(firstOffset, 0, buffer.toString());
-    				}
-    			} catch (BadLocationException e) {
-    			}
-    			updatePartitions = null;
-    			setUpdateInProgress(false);
-    		}
-    		if (consoleClosed) {
-    			console.partitionerFinished();
-    		}
-    		checkBufferSize();
-    	}
+			long time = System.nanoTime() - start;
+			lastUpdateTime = time;
+			if (time > maxUpdateTime) {
+				maxUpdateTime = time;
+			}
+			if (consoleClosed) {
+				console.partitionerFinished();
+			}
+			checkBufferSize();
+		}
+		return remaining;
+	}
 
+	/**
+	 * Releases writers blocked by flow control once output has been appended
+	 * to the document.
+	 *
+	 * @param length number of characters appended
+	 */
+	private void outputApplied(int length) {
+		synchronized (pendingPartitions) {
+			fBuffer -= length;
+			pendingPartitions.notifyAll();
+		}
+	}
+
+	/**
+	 * Adapts the number of characters appended at once to the time the last
+	 * slice took, so that several slices fit in the update budget.
+	 *
+	 * @param time time in nanoseconds the last slice took
+	 * @param budget the update budget in nanoseconds
+	 */
+	private void adjustSliceSize(long time, long budget) {
+		if (time < budget / 8) {
+			sliceSize = Math.min(sliceSize * 2, MAX_SLICE_SIZE);
+		} else if (time > budget / 2) {
+			sliceSize = Math.max(sliceSize / 2, MIN_SLICE_SIZE);
+		}
 	}
 
     /**
@@ -655,25 +993,18 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
         				    int cutOffset = document.getLineOffset(cutoffLine);
 
 
-        					// set the new length of the first partition
+        					// set the new bounds of the first partition
         					IOConsolePartition partition = (IOConsolePartition) getPartition(cutOffset);
         					partition.setLength(partition.getOffset() + partition.getLength() - cutOffset);
+        					partition.setOffset(cutOffset);
 
         					setUpdateInProgress(true);
         					document.replace(0, cutOffset, ""); //$NON-NLS-1$
         					setUpdateInProgress(false);
 
-        					//remove partitions and reset Partition offsets
-        					int index = partitions.indexOf(partition);
-        					for (int i = 0; i < index; i++) {
-                                partitions.remove(0);
-                            }
-
-        					int offset = 0;
-							for (IOConsolePartition p : partitions) {
-        						p.setOffset(offset);
-        						offset += p.getLength();
-        					}
+        					//remove partitions and move the remaining partitions to the start
+        					partitions.removeFirst(partitions.indexOf(partition));
+        					partitions.rebase(cutOffset);
         				}
         			} catch (BadLocationException e) {
         			}
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+/**
+ * The number of rows each line of a console document is wrapped into.
+ * <p>
+ * Row counts are kept in a binary indexed (Fenwick) tree, so that the first
+ * row of a line and the line containing a row are found in logarithmic time.
+ * Lines appended to the document are added to the end of the tree, and lines
+ * removed from the start of the document (when the console is trimmed) are
+ * cleared in the front of the tree without moving the remaining lines. The
+ * tree is only rebuilt when it runs out of room at its end, or when lines are
+ * inserted or removed in the middle of the document.
+ * </p>
+ * <p>
+ * This index is not synchronized.
+ * </p>
+ *
+ * @since 3.6
+ */
+public class WrappedLineIndex {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	/**
+	 * Fenwick tree of row counts, indexed from 1. The node at index
+	 * <code>i</code> holds the sum of the rows of the slots
+	 * <code>(i - (i &amp; -i), i]</code>.
+	 */
+	private int[] fTree = new int[INITIAL_CAPACITY + 1];
+
+	/**
+	 * Row count of each slot, indexed from 1
+	 */
+	private int[] fRows = new int[INITIAL_CAPACITY + 1];
+
+	/**
+	 * Number of cleared slots in front of the first line
+	 */
+	private int fFirst = 0;
+
+	/**
+	 * Number of lines in the index
+	 */
+	private int fSize = 0;
+
+	/**
+	 * Total number of rows
+	 */
+	private int fRowCount = 0;
+
+	/**
+	 * Returns the number of lines.
+	 *
+	 * @return the number of lines
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns the total number of rows of all lines.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRowCount() {
+		return fRowCount;
+	}
+
+	/**
+	 * Returns the number of rows of the given line.
+	 *
+	 * @param line index of a line
+	 * @return the number of rows of the line
+	 */
+	public int get(int line) {
+		checkIndex(line, fSize - 1);
+		return fRows[fFirst + line + 1];
+	}
+
+	/**
+	 * Sets the number of rows of the given line.
+	 *
+	 * @param line index of a line
+	 * @param rows the number of rows of the line
+	 */
+	public void set(int line, int rows) {
+		checkIndex(line, fSize - 1);
+		int slot = fFirst + line + 1;
+		int delta = rows - fRows[slot];
+		if (delta != 0) {
+			fRows[slot] = rows;
+			fRowCount += delta;
+			update(slot, delta);
+		}
+	}
+
+	/**
+	 * Appends a line.
+	 *
+	 * @param rows the number of rows of the line
+	 */
+	public void add(int rows) {
+		if (fFirst + fSize + 1 >= fTree.length) {
+			rebuild(copy(0, fSize), fSize);
+		}
+		int slot = fFirst + fSize + 1;
+		fRows[slot] = rows;
+		// the nodes following the last line are not maintained, compute
+		// the node of the new line from the lines it covers
+		fTree[slot] = rows + prefix(slot - 1) - prefix(slot - (slot & -slot));
+		fSize++;
+		fRowCount += rows;
+	}
+
+	/**
+	 * Replaces the given number of lines starting at the given line with
+	 * lines of the given row counts.
+	 *
+	 * @param line index of the first line to replace
+	 * @param count number of lines to replace
+	 * @param rows the number of rows of each replacing line
+	 */
+	public void replace(int line, int count, int[] rows) {
+		checkIndex(line, fSize);
+		checkIndex(line + count, fSize);
+		if (line + count == fSize) {
+			truncate(line);
+			for (int i = 0; i < rows.length; i++) {
+				add(rows[i]);
+			}
+		} else if (rows.length == count) {
+			for (int i = 0; i < rows.length; i++) {
+				set(line + i, rows[i]);
+			}
+		} else if (line == 0 && rows.length < count) {
+			removeFirst(count - rows.length);
+			for (int i = 0; i < rows.length; i++) {
+				set(i, rows[i]);
+			}
+		} else {
+			int size = fSize - count + rows.length;
+			int[] all = new int[Math.max(size * 2, INITIAL_CAPACITY)];
+			System.arraycopy(fRows, fFirst + 1, all, 0, line);
+			System.arraycopy(rows, 0, all, line, rows.length);
+			System.arraycopy(fRows, fFirst + line + count + 1, all, line + rows.length, fSize - line - count);
+			rebuild(all, size);
+		}
+	}
+
+	/**
+	 * Removes the given number of lines from the start of the document.
+	 *
+	 * @param count the number of lines to remove
+	 */
+	public void removeFirst(int count) {
+		checkIndex(count, fSize);
+		for (int slot = fFirst + 1; slot <= fFirst + count; slot++) {
+			update(slot, -fRows[slot]);
+			fRowCount -= fRows[slot];
+			fRows[slot] = 0;
+		}
+		fFirst += count;
+		fSize -= count;
+		if (fSize == 0) {
+			fFirst = 0;
+		}
+	}
+
+	/**
+	 * Removes the lines following the given number of lines.
+	 *
+	 * @param size the number of lines to keep
+	 */
+	public void truncate(int size) {
+		checkIndex(size, fSize);
+		fSize = size;
+		fRowCount = prefix(fFirst + size);
+	}
+
+	/**
+	 * Removes all lines.
+	 */
+	public void clear() {
+		removeFirst(fSize);
+	}
+
+	/**
+	 * Returns the index of the first row of the given line, which is the
+	 * number of rows of the lines before it.
+	 *
+	 * @param line index of a line, or the number of lines
+	 * @return the index of the first row of the line
+	 */
+	public int getRow(int line) {
+		checkIndex(line, fSize);
+		return prefix(fFirst + line);
+	}
+
+	/**
+	 * Returns the index of the line containing the given row. Rows past the
+	 * last row are answered by the last line.
+	 *
+	 * @param row index of a row
+	 * @return the index of the line containing the row
+	 */
+	public int getLine(int row) {
+		int end = fFirst + fSize;
+		int slot = 0;
+		int remaining = row;
+		for (int step = Integer.highestOneBit(Math.max(end, 1)); step > 0; step >>= 1) {
+			int next = slot + step;
+			if (next <= end && fTree[next] <= remaining) {
+				slot = next;
+				remaining -= fTree[next];
+			}
+		}
+		return Math.max(Math.min(slot - fFirst, fSize - 1), 0);
+	}
+
+	/**
+	 * Returns the number of rows of the slots up to and including the given
+	 * slot.
+	 */
+	private int prefix(int slot) {
+		int sum = 0;
+		for (int i = slot; i > 0; i -= i & -i) {
+			sum += fTree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Adds the given number of rows to the given slot, updating the nodes
+	 * covering it up to the last line.
+	 */
+	private void update(int slot, int delta) {
+		int end = fFirst + fSize;
+		for (int i = slot; i <= end; i += i & -i) {
+			fTree[i] += delta;
+		}
+	}
+
+	private int[] copy(int line, int count) {
+		int[] rows = new int[Math.max(count * 2, INITIAL_CAPACITY)];
+		System.arraycopy(fRows, fFirst + line + 1, rows, 0, count);
+		return rows;
+	}
+
+	/**
+	 * Rebuilds the tree from the given row counts, with room for as many
+	 * lines as the array holds.
+	 */
+	private void rebuild(int[] rows, int size) {
+		fTree = new int[rows.length + 1];
+		fRows = new int[rows.length + 1];
+		fRowCount = 0;
+		for (int slot = 1; slot <= size; slot++) {
+			fRows[slot] = rows[slot - 1];
+			fRowCount += fRows[slot];
+			fTree[slot] += fRows[slot];
+			int parent = slot + (slot & -slot);
+			if (parent <= size) {
+				fTree[parent] += fTree[slot];
+			}
+		}
+		fFirst = 0;
+		fSize = size;
+	}
+
+	private void checkIndex(int index, int max) {
+		if (index < 0 || index > max) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + fSize); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}